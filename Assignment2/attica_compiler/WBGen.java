@@ -1,13 +1,18 @@
+/*
+ * Modified on Oct 18, 2026 by agent
+ */
 public class WBGen {
 
     private String tablename;
     private long tuples;
     private long prime;
     private long generator;
+    private int batch;
 
-    public WBGen (String tablename, long tuples) throws Exception {
+    public WBGen (String tablename, long tuples, int batch) throws Exception {
         this.tablename = tablename;
         this.tuples = tuples;
+        this.batch = batch;
         if (tuples <= 1000) { generator = 279; prime = 1009; }
         else if (tuples <= 10000) { generator = 2969; prime = 10007; }
         else if (tuples <= 100000) { generator = 21395; prime = 100003; }
@@ -67,7 +72,9 @@ public class WBGen {
             String stringu2 = cycle((int) unique2);
             String stringu4 = cycle((int) twenty);
 
-            System.out.println("insert into " + tablename + " values (" +
+            // every batch of tuples is a single insert statement
+            System.out.print((i % batch == 0 ? "insert into " + tablename
+                              + " values " : "    ") + "(" +
                 unique1 + ", " +
                 unique2 + ", " +
                 two + ", " +
@@ -83,7 +90,11 @@ public class WBGen {
                 oddOnePercent + ", " +
                 "'" + stringu1 + "', " +
                 "'" + stringu2 + "', " +
-                "'" + stringu4 + "');");
+                "'" + stringu4 + "')");
+            if (i % batch == batch - 1 || i == tuples - 1)
+                System.out.println(";");
+            else
+                System.out.println(",");
         }
         
         System.out.println("exit;");
@@ -99,13 +110,16 @@ public class WBGen {
     } // cycle()
 
     public static void main (String [] args) {
-        String usage = "usage: java WBGen <table-name> <number-of-tuples>";
+        String usage = "usage: java WBGen <table-name> <number-of-tuples> "
+            + "[<tuples-per-insert>]";
         WBGen wbgen = null;
         
         try {
             long tuples = (new Long(args[1])).longValue();
             String tablename = args[0];
-            wbgen = new WBGen(tablename, tuples);
+            int batch = (args.length > 2 ? Integer.parseInt(args[2]) : 1);
+            if (batch < 1) throw new NumberFormatException();
+            wbgen = new WBGen(tablename, tuples, batch);
             wbgen.generate();
         }
         catch (ArrayIndexOutOfBoundsException aibe) {
@@ -0,0 +1,76 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.algebra;
+
+/**
+ * @author agent
+ *
+ * Aggregate: Encapsulates an aggregate expression of a select list,
+ * i.e., an aggregate function applied to a variable.
+ */
+public class Aggregate {
+
+    /** The aggregate functions. */
+    public enum Function { COUNT, SUM, MIN, MAX }
+
+    /** The function of this aggregate. */
+    private Function function;
+
+    /** The argument of this aggregate, <code>null</code> for
+     * <code>count(*)</code>. */
+    private Variable argument;
+
+    /**
+     * Constructs a new aggregate.
+     *
+     * @param function the aggregate function.
+     * @param argument the argument of the function, or
+     * <code>null</code> if the function counts rows.
+     */
+    public Aggregate(Function function, Variable argument) {
+        this.function = function;
+        this.argument = argument;
+    } // Aggregate()
+
+
+    /**
+     * Returns the function of this aggregate.
+     *
+     * @return this aggregate's function.
+     */
+    public Function getFunction() {
+        return function;
+    } // getFunction()
+
+
+    /**
+     * Returns the argument of this aggregate.
+     *
+     * @return this aggregate's argument, or <code>null</code> if it
+     * counts rows.
+     */
+    public Variable getArgument() {
+        return argument;
+    } // getArgument()
+
+
+    /**
+     * A textual representation of this aggregate.
+     *
+     * @return this aggregate's textual representation.
+     */
+    @Override
+    public String toString() {
+        return function.toString().toLowerCase() + "("
+            + (argument == null
+               ? "*" : argument.getTable() + "." + argument.getAttribute())
+            + ")";
+    } // toString()
+
+} // Aggregate
@@ -0,0 +1,48 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.algebra;
+
+/**
+ * @author agent
+ *
+ * Limit: Representation of a limit on the number of result tuples.
+ */
+public class Limit extends AlgebraicOperator {
+    /** The maximum number of result tuples. */
+    private int count;
+
+    /**
+     * Constructs a new limit operator.
+     *
+     * @param count the maximum number of result tuples.
+     */
+    public Limit(int count) {
+        this.count = count;
+    } // Limit()
+
+
+    /**
+     * Retrieves the maximum number of result tuples.
+     *
+     * @return the maximum number of result tuples.
+     */
+    public int getCount() {
+        return count;
+    } // getCount()
+
+    /**
+     * A textual representation of this operation.
+     *
+     * @return this operation's textual representation.
+     */
+    @Override
+    public String toString() {
+        return "[limit (" + count + ")]";
+    } // toString()
+} // Limit
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 26, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -22,6 +24,12 @@ public class Projection extends AlgebraicOperator {
 	
     /** The projection list of this projection. */
     private List<Variable> projectionList;
+
+    /** The aggregates of this projection. */
+    private List<Aggregate> aggregateList;
+
+    /** The tables of the from list of this projection's query. */
+    private List<String> fromList;
 	
     /**
      * Default constructor.
@@ -37,7 +45,21 @@ public class Projection extends AlgebraicOperator {
      * @param projectionList the projection list of this projection.
      */
     public Projection(List<Variable> projectionList) {
+        this(projectionList, new ArrayList<Aggregate>());
+    } // Projection()
+
+
+    /**
+     * Constructs a new projection with aggregates.
+     *
+     * @param projectionList the projection list of this projection.
+     * @param aggregateList the aggregates of this projection.
+     */
+    public Projection(List<Variable> projectionList,
+                      List<Aggregate> aggregateList) {
         this.projectionList = projectionList;
+        this.aggregateList = aggregateList;
+        this.fromList = new ArrayList<String>();
     } // Projection()
 
     
@@ -60,6 +82,38 @@ public class Projection extends AlgebraicOperator {
         return projectionList;
     }
 
+
+    /**
+     * Retrieves this projection's aggregates.
+     *
+     * @return the aggregates of this projection.
+     */
+    public List<Aggregate> getAggregateList() {
+        return aggregateList;
+    } // getAggregateList()
+
+
+    /**
+     * Sets the tables of the from list of this projection's query.
+     *
+     * @param fromList the tables of the from list.
+     */
+    public void setFromList(List<String> fromList) {
+        this.fromList = fromList;
+    } // setFromList()
+
+
+    /**
+     * Retrieves the tables of the from list of this projection's
+     * query; only queries that reference no attribute, such as
+     * <code>count(*)</code> queries, need them.
+     *
+     * @return the tables of the from list.
+     */
+    public List<String> getFromList() {
+        return fromList;
+    } // getFromList()
+
     
     /**
      * A textual representation of this projection.
@@ -68,7 +122,9 @@ public class Projection extends AlgebraicOperator {
      */
     @Override
     public String toString() {
-        return "[projection (" + projectionList.toString() + ")]";
+        return "[projection (" + projectionList.toString()
+            + (aggregateList.isEmpty() ? "" : ", " + aggregateList.toString())
+            + ")]";
     } // toString()
 
 } // Projection
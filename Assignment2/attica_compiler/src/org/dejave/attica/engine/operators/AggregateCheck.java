@@ -0,0 +1,106 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * AggregateCheck: Checks the output of the hash-based and the
+ * sort-based aggregation over empty and non-empty inputs.  An
+ * aggregation without group keys must output exactly one row even
+ * when its input is empty, with zero counts and null for every other
+ * aggregate; an aggregation with group keys over an empty input must
+ * output nothing.
+ *
+ * Usage: <code>java
+ * org.dejave.attica.engine.operators.AggregateCheck</code>
+ *
+ * @author agent
+ */
+public class AggregateCheck {
+
+    /** No group keys. */
+    private static final int [] NO_GROUPS = {};
+
+    /** Counting rows only. */
+    private static final Aggregator.Function [] COUNT_ONLY =
+        {Aggregator.Function.COUNT};
+
+    /** The arguments of counting rows only. */
+    private static final int [] COUNT_ONLY_ARGS = {-1};
+
+    /** Every aggregate function. */
+    private static final Aggregator.Function [] ALL =
+        {Aggregator.Function.COUNT, Aggregator.Function.SUM,
+         Aggregator.Function.MIN, Aggregator.Function.MAX};
+
+    /** The arguments of every aggregate function. */
+    private static final int [] ALL_ARGS = {-1, 0, 0, 0};
+
+    /**
+     * Runs an aggregation both hash-based and sort-based, and checks
+     * that both output the expected rows.
+     *
+     * @param values the input values.
+     * @param groupSlots the slots of the group keys.
+     * @param functions the aggregate functions.
+     * @param argSlots the slots of the arguments of the functions.
+     * @param expected the expected rows, as lists of values.
+     * @throws EngineException thrown whenever an aggregation cannot be
+     * run.
+     * @throws IllegalStateException if an aggregation outputs other
+     * rows.
+     */
+    private static void check(int [] values, int [] groupSlots,
+                              Aggregator.Function [] functions,
+                              int [] argSlots, String expected)
+        throws EngineException {
+
+        Operator [] operators = {
+            new HashAggregate(new ListSource("data", values), null,
+                              groupSlots, functions, argSlots, 10),
+            new SortAggregate(new ListSource("data", values), groupSlots,
+                              functions, argSlots)
+        };
+        for (Operator operator : operators) {
+            List<List<Comparable>> rows = new ArrayList<List<Comparable>>();
+            for (Tuple tuple : operator.tuples()) rows.add(tuple.getValues());
+            operator.close();
+            if (! rows.toString().equals(expected))
+                throw new IllegalStateException(operator.toStringSingle()
+                                                + " output " + rows
+                                                + " instead of "
+                                                + expected + ".");
+        }
+    } // check()
+
+
+    /**
+     * Check main().
+     *
+     * @param args ignored.
+     * @throws Exception thrown whenever an aggregation cannot be run
+     * or outputs the wrong rows.
+     */
+    public static void main(String [] args) throws Exception {
+
+        int [] empty = {};
+        int [] some = {3, 7, 5};
+        check(empty, NO_GROUPS, COUNT_ONLY, COUNT_ONLY_ARGS, "[[0]]");
+        check(empty, NO_GROUPS, ALL, ALL_ARGS, "[[0, null, null, null]]");
+        check(empty, new int [] {0}, COUNT_ONLY, COUNT_ONLY_ARGS, "[]");
+        check(some, NO_GROUPS, COUNT_ONLY, COUNT_ONLY_ARGS, "[[3]]");
+        check(some, NO_GROUPS, ALL, ALL_ARGS, "[[3, 15, 3, 7]]");
+        System.out.println("aggregates checked");
+    } // main()
+
+} // AggregateCheck
@@ -0,0 +1,394 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import org.dejave.attica.engine.vectors.ColumnBatch;
+import org.dejave.attica.engine.vectors.ColumnVector;
+import org.dejave.attica.engine.vectors.DoubleVector;
+import org.dejave.attica.engine.vectors.IntVector;
+import org.dejave.attica.engine.vectors.LongVector;
+import org.dejave.attica.model.Attribute;
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.model.TableAttribute;
+import org.dejave.attica.storage.IntermediateTupleIdentifier;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * Aggregator: Computes aggregates over the groups of a relation.  An
+ * aggregator knows the group keys and the aggregate functions of an
+ * aggregation and keeps one accumulator per group, which the
+ * aggregation operators fold the rows of a column batch into.
+ *
+ * The output relation of an aggregation is the group keys followed
+ * by the aggregates.  Counts and sums of integral values are longs,
+ * sums of floating point values are doubles, and minima and maxima
+ * are of the type of their argument.
+ *
+ * @author agent
+ */
+public class Aggregator {
+
+    /** The aggregate functions. */
+    public enum Function { COUNT, SUM, MIN, MAX }
+
+    /** Kinds of accumulators. */
+    private static final int COUNT = 0;
+    private static final int SUM_LONG = 1;
+    private static final int SUM_DOUBLE = 2;
+    private static final int MIN = 3;
+    private static final int MAX = 4;
+
+    /** The estimated bytes of an accumulator, besides its values. */
+    private static final int ACCUMULATOR_OVERHEAD = 64;
+
+    /** The estimated bytes of every key or aggregate value. */
+    private static final int VALUE_SIZE = 16;
+
+    /** The slots of the group keys. */
+    private int [] groupSlots;
+
+    /** The slots of the arguments of the aggregates, -1 for
+     * <code>count(*)</code>. */
+    private int [] argSlots;
+
+    /** The kinds of accumulators of the aggregates. */
+    private int [] kinds;
+
+    /** The output relation. */
+    private Relation outputRelation;
+
+    /**
+     * Constructs a new aggregator.
+     *
+     * @param input the input relation.
+     * @param groupSlots the slots of the group keys.
+     * @param functions the aggregate functions.
+     * @param argSlots the slots of the arguments of the aggregate
+     * functions, -1 for counting rows.
+     * @throws EngineException thrown whenever a function does not
+     * apply to its argument.
+     */
+    public Aggregator(Relation input, int [] groupSlots,
+                      Function [] functions, int [] argSlots)
+        throws EngineException {
+
+        this.groupSlots = groupSlots;
+        this.argSlots = argSlots;
+        kinds = new int[functions.length];
+        List<Attribute> attributes = new ArrayList<Attribute>();
+        for (int slot : groupSlots) attributes.add(input.getAttribute(slot));
+        for (int a = 0; a < functions.length; a++) {
+            Attribute arg = (argSlots[a] >= 0
+                             ? input.getAttribute(argSlots[a]) : null);
+            if (arg == null && functions[a] != Function.COUNT)
+                throw new EngineException("Only count() can "
+                                          + "count rows.");
+            Class<? extends Comparable> type = null;
+            switch (functions[a]) {
+            case COUNT:
+                kinds[a] = COUNT;
+                type = Long.class;
+                break;
+            case SUM:
+                if (isIntegral(arg.getType())) {
+                    kinds[a] = SUM_LONG;
+                    type = Long.class;
+                }
+                else if (arg.getType().equals(Double.class)
+                         || arg.getType().equals(Float.class)) {
+                    kinds[a] = SUM_DOUBLE;
+                    type = Double.class;
+                }
+                else
+                    throw new EngineException("Cannot sum values of "
+                                              + arg.getType().getName()
+                                              + ".");
+                break;
+            case MIN:
+            case MAX:
+                kinds[a] = (functions[a] == Function.MIN ? MIN : MAX);
+                type = arg.getType();
+                break;
+            }
+            String name = functions[a].toString().toLowerCase() + "("
+                + (arg == null ? "*" : qualifiedName(arg)) + ")";
+            attributes.add(new TableAttribute("", name, type));
+        }
+        outputRelation = new Relation(attributes);
+    } // Aggregator()
+
+
+    /**
+     * Returns the output relation of the aggregation.
+     *
+     * @return the output relation.
+     */
+    public Relation getOutputRelation() {
+        return outputRelation;
+    } // getOutputRelation()
+
+
+    /**
+     * Returns the slots of the group keys.
+     *
+     * @return the slots of the group keys.
+     */
+    public int [] getGroupSlots() {
+        return groupSlots;
+    } // getGroupSlots()
+
+
+    /**
+     * Starts a new group from a row of a batch.
+     *
+     * @param batch the batch.
+     * @param row the first row of the group.
+     * @return the accumulator of the new group.
+     */
+    Accumulator newGroup(ColumnBatch batch, int row) {
+        Accumulator acc = new Accumulator(groupSlots.length, kinds.length);
+        for (int i = 0; i < groupSlots.length; i++)
+            acc.keys[i] = batch.column(groupSlots[i]).get(row);
+        update(acc, batch, row);
+        return acc;
+    } // newGroup()
+
+
+    /**
+     * Checks whether a row of a batch belongs to a group.
+     *
+     * @param acc the accumulator of the group.
+     * @param batch the batch.
+     * @param row the row.
+     * @return <code>true</code> if the row has the group's keys,
+     * <code>false</code> otherwise.
+     */
+    boolean matches(Accumulator acc, ColumnBatch batch, int row) {
+        for (int i = 0; i < groupSlots.length; i++)
+            if (compare(batch.column(groupSlots[i]), row, acc.keys[i]) != 0)
+                return false;
+        return true;
+    } // matches()
+
+
+    /**
+     * Folds a row of a batch into the accumulator of its group.
+     *
+     * @param acc the accumulator of the group.
+     * @param batch the batch.
+     * @param row the row.
+     */
+    void update(Accumulator acc, ColumnBatch batch, int row) {
+        for (int a = 0; a < kinds.length; a++) {
+            ColumnVector column =
+                (argSlots[a] >= 0 ? batch.column(argSlots[a]) : null);
+            switch (kinds[a]) {
+            case COUNT:
+                acc.longs[a]++;
+                break;
+            case SUM_LONG:
+                acc.longs[a] += (column instanceof LongVector
+                                 ? ((LongVector) column).getLong(row)
+                                 : ((IntVector) column).getInt(row));
+                break;
+            case SUM_DOUBLE:
+                acc.doubles[a] += ((DoubleVector) column).getDouble(row);
+                break;
+            case MIN:
+                if (acc.values[a] == null
+                    || compare(column, row, acc.values[a]) < 0)
+                    acc.values[a] = column.get(row);
+                break;
+            case MAX:
+                if (acc.values[a] == null
+                    || compare(column, row, acc.values[a]) > 0)
+                    acc.values[a] = column.get(row);
+                break;
+            }
+        }
+    } // update()
+
+
+    /**
+     * Returns a group as an output tuple.
+     *
+     * @param acc the accumulator of the group.
+     * @param id the identifier of the tuple.
+     * @return the output tuple of the group.
+     */
+    Tuple toTuple(Accumulator acc, int id) {
+        List<Comparable> values =
+            new ArrayList<Comparable>(groupSlots.length + kinds.length);
+        for (Comparable key : acc.keys) values.add(key);
+        for (int a = 0; a < kinds.length; a++) {
+            switch (kinds[a]) {
+            case COUNT:
+            case SUM_LONG:
+                values.add(Long.valueOf(acc.longs[a]));
+                break;
+            case SUM_DOUBLE:
+                values.add(Double.valueOf(acc.doubles[a]));
+                break;
+            default:
+                values.add(acc.values[a]);
+                break;
+            }
+        }
+        return new Tuple(new IntermediateTupleIdentifier(id), values);
+    } // toTuple()
+
+
+    /**
+     * Returns the output tuple of an aggregation without group keys
+     * over an empty input: counts are zero and every other aggregate
+     * is <code>null</code>.
+     *
+     * @param id the identifier of the tuple.
+     * @return the output tuple of the empty input.
+     */
+    Tuple emptyTuple(int id) {
+        List<Comparable> values = new ArrayList<Comparable>(kinds.length);
+        for (int a = 0; a < kinds.length; a++)
+            values.add(kinds[a] == COUNT ? Long.valueOf(0) : null);
+        return new Tuple(new IntermediateTupleIdentifier(id), values);
+    } // emptyTuple()
+
+
+    /**
+     * Estimates the memory taken up by a group.
+     *
+     * @param acc the accumulator of the group.
+     * @return the estimated number of bytes of the group.
+     */
+    int byteSize(Accumulator acc) {
+        int size = ACCUMULATOR_OVERHEAD
+            + VALUE_SIZE * (acc.keys.length + kinds.length);
+        for (Comparable key : acc.keys)
+            if (key instanceof String) size += 2 * ((String) key).length();
+        return size;
+    } // byteSize()
+
+
+    /**
+     * Describes an aggregation for textual representations of plans.
+     *
+     * @param groupSlots the slots of the group keys.
+     * @param functions the aggregate functions.
+     * @param argSlots the slots of the arguments of the functions.
+     * @return the group slots and the functions, separated by a bar.
+     */
+    static String describe(int [] groupSlots, Function [] functions,
+                           int [] argSlots) {
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < groupSlots.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(groupSlots[i]);
+        }
+        sb.append(" |");
+        for (int i = 0; i < functions.length; i++) {
+            sb.append(i > 0 ? ", " : " ");
+            sb.append(functions[i].toString().toLowerCase() + "("
+                      + (argSlots[i] >= 0 ? "" + argSlots[i] : "*") + ")");
+        }
+        return sb.toString();
+    } // describe()
+
+
+    /**
+     * Compares the value of a row of a column with a value of the
+     * column's type, without boxing the row's value where possible.
+     *
+     * @param column the column.
+     * @param row the row.
+     * @param value the value.
+     * @return the outcome of the comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private static int compare(ColumnVector column, int row,
+                               Comparable value) {
+        if (column instanceof LongVector)
+            return Long.compare(((LongVector) column).getLong(row),
+                                ((Long) value).longValue());
+        else if (column instanceof IntVector)
+            return Integer.compare(((IntVector) column).getInt(row),
+                                   (value instanceof Character
+                                    ? ((Character) value).charValue()
+                                    : ((Number) value).intValue()));
+        else if (column instanceof DoubleVector)
+            return Double.compare(((DoubleVector) column).getDouble(row),
+                                  ((Number) value).doubleValue());
+        else
+            return column.get(row).compareTo(value);
+    } // compare()
+
+
+    /**
+     * Is a type integral?
+     *
+     * @param type the type.
+     * @return <code>true</code> if values of the type are integral
+     * numbers, <code>false</code> otherwise.
+     */
+    private static boolean isIntegral(Class<?> type) {
+        return type.equals(Long.class) || type.equals(Integer.class)
+            || type.equals(Short.class) || type.equals(Byte.class);
+    } // isIntegral()
+
+
+    /**
+     * Returns the name of an attribute qualified by its table, if it
+     * has one.
+     *
+     * @param attribute the attribute.
+     * @return the qualified name.
+     */
+    private static String qualifiedName(Attribute attribute) {
+        if (attribute instanceof TableAttribute
+            && ((TableAttribute) attribute).getTable().length() > 0)
+            return ((TableAttribute) attribute).getTable() + "."
+                + attribute.getName();
+        return attribute.getName();
+    } // qualifiedName()
+
+
+    /**
+     * Accumulator: The keys and running aggregates of a group.
+     */
+    static class Accumulator {
+
+        /** The group keys. */
+        Comparable [] keys;
+
+        /** The running counts and integral sums. */
+        long [] longs;
+
+        /** The running floating point sums. */
+        double [] doubles;
+
+        /** The running minima and maxima. */
+        Comparable [] values;
+
+        /**
+         * Creates an empty accumulator.
+         *
+         * @param numberOfKeys the number of group keys.
+         * @param numberOfAggregates the number of aggregates.
+         */
+        Accumulator(int numberOfKeys, int numberOfAggregates) {
+            keys = new Comparable[numberOfKeys];
+            longs = new long[numberOfAggregates];
+            doubles = new double[numberOfAggregates];
+            values = new Comparable[numberOfAggregates];
+        } // Accumulator()
+    } // Accumulator
+
+} // Aggregator
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -10,21 +12,30 @@
  */
 package org.dejave.attica.engine.operators;
 
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 import org.dejave.attica.model.Relation;
-import org.dejave.attica.storage.Page;
+import org.dejave.attica.storage.Sizes;
 import org.dejave.attica.storage.Tuple;
+import org.dejave.attica.storage.TupleIOManager;
 import org.dejave.attica.storage.RelationIOManager;
 import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.StorageManagerException;
 import org.dejave.attica.storage.FileUtil;
 
 /**
- * ExternalSort: Your implementation of sorting.
+ * ExternalSort: External merge sort.  Sorted runs are generated by
+ * replacement selection straight from the input, and then merged
+ * with a heap of cursors.  Intermediate passes only run while there
+ * are more runs than one merge can take; the final merge is not
+ * written out but feeds the output of the operator directly.
  *
  * @author sviglas
  */
@@ -33,15 +44,9 @@ public class ExternalSort extends UnaryOperator {
     /** The storage manager for this operator. */
     private StorageManager sm;
 
-    /** The name of the temporary file for the input*/
-    private String inputFile;
+    /** The run files that have not been deleted yet. */
+    private List<String> runFiles;
 
-    /** The name of the temporary file for the output. */
-    private String outputFile;
-    
-    /** The manager that undertakes output relation I/O. */
-    private RelationIOManager outputMan;
-    
     /** The slots that act as the sort keys. */
     private int [] slots;
     
@@ -49,11 +54,14 @@ public class ExternalSort extends UnaryOperator {
      * output files). */
     private int buffers;
 
-    /** Iterator over the output file. */
-    private Iterator<Tuple> outputTuples;
+    /** The final merge, which feeds the output. */
+    private Merger output;
+
+    /** The current batch of the input, during run generation. */
+    private TupleBatch inBatch;
 
-    /** Reusable tuple list for returns. */
-    private List<Tuple> returnList;
+    /** The position of the next tuple of the current input batch. */
+    private int inIndex;
     
     /**
      * Constructs a new external sort operator.
@@ -104,213 +112,170 @@ public class ExternalSort extends UnaryOperator {
         //
         ////////////////////////////////////////////
 
-        //Give names to input and output files
-        inputFile = FileUtil.createTempFileName();
-        outputFile = FileUtil.createTempFileName();
+        // the runs are created as they are generated
+        runFiles = new ArrayList<String>();
     } // initTempFiles()
     
-    //Compare two tuples by their slots
-
-    private int compare(Tuple t1, Tuple t2){
-        
-        int x = 0;
-        
-        for (int i = 0; i < slots.length; i++){
-            x = t1.getValue(slots[i]).compareTo(t2.getValue(slots[i]));
-            if (x != 0){
-                return x;
-            }
+    /**
+     * Compares two tuples on the sort keys.
+     *
+     * @param t1 the first tuple.
+     * @param t2 the second tuple.
+     * @return the outcome of the comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(Tuple t1, Tuple t2) {
+        for (int i = 0; i < slots.length; i++) {
+            int x = t1.getValue(slots[i]).compareTo(t2.getValue(slots[i]));
+            if (x != 0) return x;
         }
         return 0;
-    }
-    
-    //Swap two tuples
+    } // compare()
 
-    private void swap(int i, int j, List<Page> pages){
-        
-        int total_tuples = pages.get(0).getNumberOfTuples();
-        
-        int page_i = i / total_tuples;
-        int page_j = j / total_tuples;
-        int row_i = i % total_tuples;
-        int row_j = j % total_tuples;
-        
-        Tuple tuple_i = find_tuple(i, pages);
-        Tuple tuple_j = find_tuple(j, pages);
 
-        pages.get(page_i).setTuple(row_i, tuple_j);
-        pages.get(page_j).setTuple(row_j, tuple_i);
-    }
-    
-    //Find the tuple from the page list by its index
+    /**
+     * Returns the next tuple of the input.
+     *
+     * @return the next input tuple, or <code>null</code> if the input
+     * is exhausted.
+     * @throws EngineException thrown whenever the input cannot be
+     * read.
+     */
+    private Tuple nextInput() throws EngineException {
+        while (inBatch == null || inIndex >= inBatch.size()) {
+            if (inBatch != null && inBatch.isEndOfStream()) return null;
+            inBatch = getInputOperator().nextBatch();
+            inIndex = 0;
+        }
+        return inBatch.get(inIndex++);
+    } // nextInput()
 
-    private Tuple find_tuple(int i, List<Page> pages){
-        
-        int total_tuples = pages.get(0).getNumberOfTuples();
-        int page = i / total_tuples;
-        int row = i % total_tuples;
-        
-        return pages.get(page).retrieveTuple(row);
-    }
-    
-    //Quicksort which is used as in memory sort
 
-    private void Qsort(int left, int right, List<Page> pages){
-        
-        int i = left;
-        int j = right;
-        Tuple mid = find_tuple((left + right) / 2, pages);
-        
-        while (i <= j){
-            while (compare(find_tuple(i, pages), mid) < 0){
-                i++;
-            }
-            while (compare(find_tuple(j, pages), mid) > 0){
-                j--;
-            }
-            if (i <= j){
-                swap(i, j, pages);
-                i++; j--;
-            }
-        }
-        if (i < right){
-            Qsort(i, right, pages);
-        }
-        if (left < j){
-            Qsort(left, j, pages);
-        }
-    }
-    
-    //Sort the pages and store the result in one file
+    /**
+     * Generates the sorted runs by replacement selection.  The input
+     * is read into a heap of as many tuples as fit in the buffers,
+     * ordered on their run and then on the sort keys.  The smallest
+     * tuple is written to the current run and replaced by the next
+     * input tuple, which joins the current run if it does not sort
+     * before the tuple just written and the next run otherwise.  On
+     * random input the runs are twice as long as the memory, and
+     * sorted input is a single run.
+     *
+     * @throws EngineException thrown whenever the input cannot be
+     * read.
+     * @throws StorageManagerException thrown whenever the runs cannot
+     * be written.
+     */
+    private void generateRuns()
+        throws EngineException, StorageManagerException {
 
-    private void page_sort(List<Page> pages, List<String> file_names) throws StorageManagerException, EngineException{
-        
-        int total_tuples = 0;
-        int total_pages = pages.size();
-        
-        for (int i = 0; i < total_pages; i++){
-            total_tuples = total_tuples + pages.get(i).getNumberOfTuples();
-        }
-        
-        Qsort(0, total_tuples - 1, pages);
+        Relation rel = getOutputRelation();
+        TupleIOManager sizes = new TupleIOManager(rel);
+        long memory = (long) buffers * Sizes.PAGE_SIZE;
+        RunHeap heap = new RunHeap();
+        RelationIOManager run = null;
+        int currentRun = -1;
+        long used = 0;
 
-        String tempfile = FileUtil.createTempFileName();
-        sm.createFile(tempfile);
-        RelationIOManager man = new RelationIOManager(sm, getOutputRelation(), tempfile);
-        
-        //Write the sorted tuples to the new file.
-        for (int i = 0; i < pages.size(); i++){
-            Page page = pages.get(i);
-            Iterator<Tuple> tuple = page.iterator();
-            while (tuple.hasNext()){
-                man.insertTuple(tuple.next());
-            }
+        // fill the memory
+        Tuple tuple;
+        while (used < memory && (tuple = nextInput()) != null) {
+            heap.push(0, tuple);
+            used += sizes.byteSize(tuple);
         }
-        
-        //Add this new file to the file list
-        file_names.add(tempfile);
-    }
-    
-    //Find the minimum tuple among B(buffers - 1) tuples
 
-    private int find_min(Tuple[] tuples){
-        
-        int location = -1;
-        int i = 0;
-        
-        //Set the first valid tuple as minimum tuple
-        while (i < tuples.length ){
-            if (tuples[i] != null){
-                location = i;
-                break;
-            }
-            i++;
-        }
-        
-        //Find the any 'smaller' tuple
-        for (;i < tuples.length;i++){
-            if (tuples[i] == null){
-                continue;
+        while (heap.size() > 0) {
+            int r = heap.topRun();
+            Tuple min = heap.pop();
+            used -= sizes.byteSize(min);
+            if (r != currentRun) {
+                if (run != null) run.flush();
+                String file = FileUtil.createTempFileName();
+                sm.createFile(file);
+                runFiles.add(file);
+                run = new RelationIOManager(sm, rel, file);
+                currentRun = r;
             }
-            if (compare(tuples[location], tuples[i]) > 0){
-                location = i;
+            run.insertTuple(min);
+            // replace the tuple just written
+            while (used < memory && (tuple = nextInput()) != null) {
+                heap.push(compare(tuple, min) >= 0 ? r : r + 1, tuple);
+                used += sizes.byteSize(tuple);
             }
         }
-        
-        return location;
-    }
+        if (run != null) run.flush();
+        inBatch = null;
+    } // generateRuns()
     
-    //N-way merge sort(N = buffers - 1) tuple by tuple
-    
-    private List<String> file_merge(List<String> file_names) throws IOException, StorageManagerException, EngineException{
-        
-        int merged_files = 0;
-        int i = 0;
-        int location = -1;
-        
-        List<String> new_file = new ArrayList<String>();
-        Tuple[] current_tuple = new Tuple[buffers - 1];
-        RelationIOManager[] riom = new RelationIOManager[buffers - 1];
-        @SuppressWarnings("unchecked")
-        Iterator<Tuple>[] tuple_iterators = (Iterator<Tuple>[]) new Iterator<?>[buffers - 1];
-        
-        while (merged_files < file_names.size()){
+    /**
+     * Merges runs until no more than the fan-in remain, so that the
+     * final merge can feed the output directly.  The fan-in is one
+     * less than the buffers, one buffer being the output page of a
+     * merge.  The first pass merges just enough of the smallest runs
+     * to leave a number of runs that full passes reduce to the
+     * fan-in; every other pass merges as many runs as the fan-in.
+     *
+     * @throws Exception thrown whenever the runs cannot be merged.
+     */
+    private void mergeRuns() throws Exception {
+        int fanIn = Math.max(2, buffers - 1);
+        if (runFiles.size() <= fanIn) return;
+        // the first merge takes just enough runs for full merges to
+        // end up with the fan-in
+        int k = (runFiles.size() - fanIn - 1) % (fanIn - 1) + 2;
+        while (runFiles.size() > fanIn) {
+            merge(smallestRuns(k));
+            k = fanIn;
+        }
+    } // mergeRuns()
 
-            //Initialization
-            for (i = 0; i < riom.length; i++){
-                current_tuple[i] = null;
-                riom[i] = null;
-                tuple_iterators[i] = null;
-            }
-            
-            //Link the relationiomanager with file
-            for (i = 0; i < riom.length; i++){
-                riom[i] = new RelationIOManager(sm,getOutputRelation(),file_names.get(merged_files));
-                merged_files++;
-                if (merged_files >= file_names.size()){
-                    break;
-                }
-            }
-            
-            //Set the tuple iterator for every relationiomanager/file
-            for (i = 0; i < riom.length; i++){
-                if (riom[i] == null){
-                    break;
-                }
-                tuple_iterators[i] = riom[i].tuples().iterator();
-                current_tuple[i] = tuple_iterators[i].next();
-            }
-            
-            //Create a new file to store the merged result 
-            String temp_file = FileUtil.createTempFileName();
-            sm.createFile(temp_file);
-            outputMan = new RelationIOManager(sm, getOutputRelation(), temp_file);
-            new_file.add(temp_file);
-
-            //Merge the files tuple by tuple
-            while (true){
-                location = find_min(current_tuple);
-                if (location < 0){
-                    break;
-                }
-                outputMan.insertTuple(current_tuple[location]);
-                if (tuple_iterators[location].hasNext()){
-                    current_tuple[location] = tuple_iterators[location].next();
-                }
-                else{
-                    current_tuple[location] = null;
+
+    /**
+     * Picks the smallest runs.
+     *
+     * @param k the number of runs.
+     * @return the <code>k</code> runs with the fewest pages.
+     * @throws Exception thrown whenever the sizes of the runs cannot
+     * be read.
+     */
+    private List<String> smallestRuns(int k) throws Exception {
+        List<String> runs = new ArrayList<String>(runFiles);
+        final Map<String, Integer> pages = new HashMap<String, Integer>();
+        for (String run : runs)
+            pages.put(run, FileUtil.getNumberOfPages(run));
+        Collections.sort(runs, new Comparator<String>() {
+                public int compare(String r1, String r2) {
+                    return pages.get(r1).compareTo(pages.get(r2));
                 }
-            }
-        }
-        
-        //Delete the old files
-        for (String file_name : file_names){
-            sm.deleteFile(file_name);
+            });
+        return runs.subList(0, k);
+    } // smallestRuns()
+
+
+    /**
+     * Merges runs into a new run, deleting them.
+     *
+     * @param runs the runs to be merged.
+     * @throws Exception thrown whenever the runs cannot be merged.
+     */
+    private void merge(List<String> runs) throws Exception {
+        Merger merger = new Merger(runs);
+        String file = FileUtil.createTempFileName();
+        sm.createFile(file);
+        runFiles.add(file);
+        RelationIOManager man =
+            new RelationIOManager(sm, getOutputRelation(), file);
+        for (Tuple tuple = merger.next(); tuple != null;
+             tuple = merger.next())
+            man.insertTuple(tuple);
+        man.flush();
+        for (String run : new ArrayList<String>(runs)) {
+            sm.deleteFile(run);
+            runFiles.remove(run);
         }
-        
-        return new_file;
-    }
-    
+    } // merge()
+
+
     /**
      * Sets up this external sort operator.
      * 
@@ -318,68 +283,13 @@ public class ExternalSort extends UnaryOperator {
      * setting this operator up
      */
     public void setup() throws EngineException {
-        returnList = new ArrayList<Tuple>();
         try {
-            ////////////////////////////////////////////
-            //
-            // this is a blocking operator -- store the input
-            // in a temporary file and sort the file
-            //
-            ////////////////////////////////////////////
-            
-            //Initialization
-            sm.createFile(inputFile);
-            RelationIOManager riom = new RelationIOManager(sm, getOutputRelation(), inputFile);
-            boolean flag = false;
-            while (!flag){
-                Tuple tuple = getInputOperator().getNext();
-                if (tuple != null){
-                    flag = (tuple instanceof EndOfStreamTuple);
-                    if (!flag){
-                        riom.insertTuple(tuple);
-                    }
-                }
-            }
-            
-            List<String> files = new ArrayList<String>();
-            List<Page> pages = new ArrayList<Page>();
-            
-            //First run, sort in the pages
-            for (Page page : riom.pages()){
-                pages.add(page);
-                if (pages.size() == buffers){
-                    page_sort(pages, files);
-                    pages.clear();
-                }
-            }
-            if (pages.size() > 0){
-                page_sort(pages,files);
-                pages.clear();
-            }
-            sm.deleteFile(inputFile);
-            
-            ////////////////////////////////////////////
-            //
-            // YOUR CODE GOES HERE
-            //
-            ////////////////////////////////////////////
-            
-            //Remaining runs, merge sort
-            while (files.size() > 1){
-                files = file_merge(files);
-            }
-
-            System.in.read();
-            
-            ////////////////////////////////////////////
-            //
-            // the output should reside in the output file
-            //
-            ////////////////////////////////////////////
-            
-            outputFile = files.get(0);
-            outputMan = new RelationIOManager(sm, getOutputRelation(), outputFile);
-            outputTuples = outputMan.tuples().iterator();
+            // generate the runs straight from the input, merge
+            // them down to the fan-in, and leave the last merge to
+            // the output
+            generateRuns();
+            mergeRuns();
+            output = new Merger(runFiles);
         }
         catch (Exception sme) {
             throw new EngineException("Could not store and sort"
@@ -396,20 +306,9 @@ public class ExternalSort extends UnaryOperator {
      */
     public void cleanup () throws EngineException {
         try {
-            ////////////////////////////////////////////
-            //
-            // make sure you delete the intermediate
-            // files after sorting is done
-            //
-            ////////////////////////////////////////////
-            
-            ////////////////////////////////////////////
-            //
-            // right now, only the output file is 
-            // deleted
-            //
-            ////////////////////////////////////////////
-            sm.deleteFile(outputFile);
+            // the runs of the final merge are all that is left
+            for (String run : runFiles) sm.deleteFile(run);
+            runFiles.clear();
         }
         catch (StorageManagerException sme) {
             throw new EngineException("Could not clean up final output.", sme);
@@ -418,24 +317,40 @@ public class ExternalSort extends UnaryOperator {
 
     
     /**
-     * The inner method to retrieve tuples.
-     * 
-     * @return the newly retrieved tuples.
-     * @throws EngineException thrown whenever the next iteration is not 
-     * possible.
-     */    
-    protected List<Tuple> innerGetNext () throws EngineException {
+     * Sorting produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch from the final merge.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the runs cannot be
+     * read.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
         try {
-            returnList.clear();
-            if (outputTuples.hasNext()) returnList.add(outputTuples.next());
-            else returnList.add(new EndOfStreamTuple());
-            return returnList;
+            while (! batch.isFull()) {
+                Tuple tuple = output.next();
+                if (tuple == null) {
+                    batch.setEndOfStream();
+                    return;
+                }
+                batch.add(tuple);
+            }
         }
         catch (Exception sme) {
             throw new EngineException("Could not read tuples " +
                                       "from intermediate file.", sme);
         }
-    } // innerGetNext()
+    } // innerNextBatch()
 
 
     /**
@@ -459,4 +374,213 @@ public class ExternalSort extends UnaryOperator {
         return new Relation(getInputOperator().getOutputRelation());
     } // setOutputRelation()
 
+
+    /**
+     * Merger: A k-way merge of sorted runs.  The cursors over the runs
+     * are kept in a binary heap on their current tuples, so every
+     * tuple costs a logarithmic number of comparisons in the number
+     * of runs.  Ties go to the earlier run.
+     */
+    private class Merger {
+
+        /** The cursors over the runs. */
+        private List<Iterator<Tuple>> cursors;
+
+        /** The current tuple of every cursor. */
+        private Tuple [] heads;
+
+        /** The heap of cursors that have a current tuple. */
+        private int [] heap;
+
+        /** The number of cursors in the heap. */
+        private int size;
+
+        /**
+         * Opens the runs.
+         *
+         * @param runs the runs to be merged.
+         * @throws EngineException thrown whenever the runs cannot be
+         * opened.
+         */
+        Merger(List<String> runs) throws EngineException {
+            cursors = new ArrayList<Iterator<Tuple>>();
+            heads = new Tuple[runs.size()];
+            heap = new int[runs.size()];
+            try {
+                for (String run : runs) {
+                    Iterator<Tuple> cursor =
+                        new RelationIOManager(sm, getOutputRelation(), run)
+                        .tuples().iterator();
+                    if (cursor.hasNext()) {
+                        heads[cursors.size()] = cursor.next();
+                        heap[size++] = cursors.size();
+                    }
+                    cursors.add(cursor);
+                }
+            }
+            catch (Exception e) {
+                throw new EngineException("Could not open runs.", e);
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) siftDown(i);
+        } // Merger()
+
+        /**
+         * Returns the next tuple of the merge.
+         *
+         * @return the next tuple, or <code>null</code> if the runs are
+         * exhausted.
+         */
+        Tuple next() {
+            if (size == 0) return null;
+            int c = heap[0];
+            Tuple tuple = heads[c];
+            Iterator<Tuple> cursor = cursors.get(c);
+            if (cursor.hasNext()) {
+                heads[c] = cursor.next();
+            }
+            else {
+                heads[c] = null;
+                heap[0] = heap[--size];
+            }
+            if (size > 0) siftDown(0);
+            return tuple;
+        } // next()
+
+        /**
+         * Moves a cursor down the heap to its place.
+         *
+         * @param i the position of the cursor.
+         */
+        private void siftDown(int i) {
+            int c = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(heap[child + 1], heap[child]))
+                    child++;
+                if (! before(heap[child], c)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = c;
+        } // siftDown()
+
+        /**
+         * Does the current tuple of one cursor come before that of
+         * another?
+         *
+         * @param c1 the first cursor.
+         * @param c2 the second cursor.
+         * @return <code>true</code> if the first cursor comes first,
+         * <code>false</code> otherwise.
+         */
+        private boolean before(int c1, int c2) {
+            int x = compare(heads[c1], heads[c2]);
+            return x < 0 || (x == 0 && c1 < c2);
+        } // before()
+    } // Merger
+
+
+    /**
+     * RunHeap: A binary min-heap of tuples tagged with their runs,
+     * ordered on the run and then on the sort keys.
+     */
+    private class RunHeap {
+
+        /** The tuples of the heap. */
+        private Tuple [] tuples = new Tuple[64];
+
+        /** The runs of the tuples. */
+        private int [] runs = new int[64];
+
+        /** The number of tuples in the heap. */
+        private int size;
+
+        /**
+         * Returns the number of tuples in the heap.
+         *
+         * @return the number of tuples.
+         */
+        int size() {
+            return size;
+        } // size()
+
+        /**
+         * Returns the run of the smallest tuple.
+         *
+         * @return the run of the top of the heap.
+         */
+        int topRun() {
+            return runs[0];
+        } // topRun()
+
+        /**
+         * Adds a tuple to the heap.
+         *
+         * @param run the run of the tuple.
+         * @param tuple the tuple.
+         */
+        void push(int run, Tuple tuple) {
+            if (size == tuples.length) {
+                tuples = Arrays.copyOf(tuples, 2 * size);
+                runs = Arrays.copyOf(runs, 2 * size);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (! less(run, tuple, runs[parent], tuples[parent])) break;
+                tuples[i] = tuples[parent];
+                runs[i] = runs[parent];
+                i = parent;
+            }
+            tuples[i] = tuple;
+            runs[i] = run;
+        } // push()
+
+        /**
+         * Removes the smallest tuple from the heap.
+         *
+         * @return the smallest tuple.
+         */
+        Tuple pop() {
+            Tuple top = tuples[0];
+            Tuple tuple = tuples[--size];
+            int run = runs[size];
+            tuples[size] = null;
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size
+                    && less(runs[child + 1], tuples[child + 1],
+                            runs[child], tuples[child]))
+                    child++;
+                if (! less(runs[child], tuples[child], run, tuple)) break;
+                tuples[i] = tuples[child];
+                runs[i] = runs[child];
+                i = child;
+            }
+            if (size > 0) {
+                tuples[i] = tuple;
+                runs[i] = run;
+            }
+            return top;
+        } // pop()
+
+        /**
+         * Does one tagged tuple come before another?
+         *
+         * @param r1 the run of the first tuple.
+         * @param t1 the first tuple.
+         * @param r2 the run of the second tuple.
+         * @param t2 the second tuple.
+         * @return <code>true</code> if the first tuple comes first,
+         * <code>false</code> otherwise.
+         */
+        private boolean less(int r1, Tuple t1, int r2, Tuple t2) {
+            if (r1 != r2) return r1 < r2;
+            return compare(t1, t2) < 0;
+        } // less()
+    } // RunHeap
+
 } // ExternalSort
@@ -0,0 +1,129 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * FirstN: The first tuples of the input, in input order.  The input
+ * is no longer read once enough tuples have been output; it is
+ * closed instead, so that it releases its resources.
+ *
+ * @author agent
+ */
+public class FirstN extends UnaryOperator {
+
+    /** The number of tuples to output. */
+    private int limit;
+
+    /** The number of tuples left to output. */
+    private int remaining;
+
+    /**
+     * Constructs a new first-N operator.
+     *
+     * @param operator the input operator.
+     * @param limit the number of tuples to output.
+     * @throws EngineException thrown whenever the first-N operator
+     * cannot be properly initialized.
+     */
+    public FirstN(Operator operator, int limit) throws EngineException {
+        super(operator);
+        this.limit = limit;
+    } // FirstN()
+
+
+    /**
+     * Sets up this operator.
+     *
+     * @throws EngineException thrown whenever there is something wrong
+     * with setting this operator up.
+     */
+    @Override
+    protected void setup() throws EngineException {
+        remaining = limit;
+    } // setup()
+
+
+    /**
+     * First-N produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with the tuples of the next input batch, up
+     * to the limit.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the input cannot be
+     * retrieved.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        if (remaining > 0) {
+            TupleBatch in = getInputOperator().nextBatch();
+            for (int i = 0; i < in.size() && remaining > 0; i++) {
+                batch.add(in.get(i));
+                remaining--;
+            }
+            if (in.isEndOfStream()) {
+                batch.setEndOfStream();
+                return;
+            }
+        }
+        if (remaining == 0) {
+            getInputOperator().close();
+            batch.setEndOfStream();
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Operator class abstract interface -- never called.
+     */
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
+	throws EngineException {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Operator class abstract interface -- sets the ouput relation of
+     * this first-N operator.
+     *
+     * @return this operator's output relation.
+     * @throws EngineException whenever the output relation of this
+     * operator cannot be set.
+     */
+    protected Relation setOutputRelation() throws EngineException {
+        return new Relation(getInputOperator().getOutputRelation());
+    } // setOutputRelation()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the operator's textual representation.
+     */
+    @Override
+    protected String toStringSingle() {
+        return "first-n <" + limit + ">";
+    } // toStringSingle()
+
+} // FirstN
@@ -3,64 +3,120 @@
  *
  * Modified on Feb 17, 2009 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
- * 
+ *
  * University of Edinburgh, School of Informatics
  */
 package org.dejave.attica.engine.operators;
 
-import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.io.IOException;
 
 import org.dejave.attica.model.Relation;
 import org.dejave.attica.engine.predicates.Predicate;
-import org.dejave.attica.engine.predicates.PredicateEvaluator;
-import org.dejave.attica.engine.predicates.PredicateTupleInserter;
-import org.dejave.attica.storage.IntermediateTupleIdentifier;
+import org.dejave.attica.engine.predicates.TuplePredicate;
+import org.dejave.attica.engine.vectors.ColumnBatch;
+import org.dejave.attica.engine.vectors.ColumnVector;
+import org.dejave.attica.engine.vectors.DoubleVector;
+import org.dejave.attica.engine.vectors.IntVector;
+import org.dejave.attica.engine.vectors.LongVector;
 import org.dejave.attica.storage.RelationIOManager;
+import org.dejave.attica.storage.Sizes;
 import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.StorageManagerException;
 import org.dejave.attica.storage.Tuple;
+import org.dejave.attica.storage.TupleIOManager;
 import org.dejave.attica.storage.FileUtil;
 
+import org.dejave.util.HashMultiMap;
+
 /**
- * MergeJoin: Implements a merge join. The assumptions are that the
- * input is already sorted on the join attributes and the join being
- * evaluated is an equi-join.
+ * GraceHashJoin: Implements a hybrid hash equi-join.  The left input
+ * is the build input: it is hashed into partitions that are kept in
+ * memory for as long as they fit in the hash memory budget; when they
+ * do not, the largest partitions are spilled to disk.  The right
+ * input is then streamed: tuples of in-memory partitions probe the
+ * hash table straight away, and only tuples of spilled partitions are
+ * written to disk.  Spilled partition pairs are joined afterwards,
+ * and partitions that still do not fit in memory are split again
+ * with a different hash function.
+ *
+ * Joins whose build input fits in memory never touch the disk.
  *
  * @author sviglas
- * 
+ *
  */
 public class GraceHashJoin extends PhysicalJoin {
-	
-    /** The name of the temporary file for the output. */
-    private String outputFile;
-    
-    /** The relation manager used for I/O. */
-    private RelationIOManager outputMan;
-    
+
+    /** The number of times a partition may be split again. */
+    private static final int MAX_LEVEL = 4;
+
     /** The pointer to the left sort attribute. */
     private int leftSlot;
-	
+
     /** The pointer to the right sort attribute. */
     private int rightSlot;
 
     /** The number of buffers to be used for hash tables. */
     private int buffers;
 
-    /** The iterator over the output file. */
-    private Iterator<Tuple> outputTuples;
+    /** The number of partitions of each split. */
+    private int partitionNum;
+
+    /** The number of bytes of memory for the hash table. */
+    private long memoryBytes;
+
+    /** The hash table over the in-memory left tuples. */
+    private HashMultiMap<Tuple> table;
+
+    /** The type of the join keys. */
+    private Class<? extends Comparable> keyType;
+
+    /** Are the left and right keys of the same type?  If not, no
+     * pair of tuples joins. */
+    private boolean sameKeyType;
+
+    /** The spilled left partitions of the first split, by partition
+     * number; <code>null</code> for in-memory partitions. */
+    private SpilledPartition [] spilled;
+
+    /** The spilled partition pairs waiting to be joined. */
+    private LinkedList<SpilledPartition> pending;
+
+    /** The temporary files that have not been deleted yet. */
+    private List<String> tempFiles;
+
+    /** The current batch of the right input, while it is streamed. */
+    private ColumnBatch rightIn;
+
+    /** The hashes of the current right batch. */
+    private int [] rightHashes;
+
+    /** The position of the next row of the current right batch. */
+    private int rightIndex;
+
+    /** Is the right input still being streamed? */
+    private boolean streaming;
+
+    /** The probe tuples of the spilled partition being joined. */
+    private Iterator<Tuple> probeTuples;
+
+    /** The current probe tuple. */
+    private Tuple probe;
+
+    /** The row of the next build tuple matching the probe tuple, or
+     * -1. */
+    private int matchRow;
+
 
-    /** Reusable output list. */
-    private List<Tuple> returnList;
-	
     /**
      * Constructs a new grace-hash join operator.
-     * 
+     *
      * @param left the left input operator.
      * @param right the right input operator.
      * @param sm the storage manager.
@@ -71,273 +127,435 @@ public class GraceHashJoin extends PhysicalJoin {
      * @throws EngineException thrown whenever the operator cannot be
      * properly constructed.
      */
-    public GraceHashJoin(Operator left, 
+    public GraceHashJoin(Operator left,
 			 Operator right,
 			 StorageManager sm,
 			 int leftSlot,
 			 int rightSlot,
 			 int buffers,
-			 Predicate predicate) 
+			 Predicate predicate)
 	throws EngineException {
-	
+
         super(left, right, sm, predicate);
         this.leftSlot = leftSlot;
         this.rightSlot = rightSlot;
 	    this.buffers = buffers;
-        returnList = new ArrayList<Tuple>();
-        try {
-            initTempFiles();
-        }
-        catch (StorageManagerException sme) {
-            EngineException ee = new EngineException("Could not instantiate " +
-                                                     "merge join");
-            ee.setStackTrace(sme.getStackTrace());
-            throw ee;
-        }
     } // GraceHashJoin()
 
 
     /**
-     * Initialise the temporary files -- if necessary.
-     * 
-     * @throws StorageManagerException thrown whenever the temporary
-     * files cannot be initialised.
-     */
-    protected void initTempFiles() throws StorageManagerException {
-        ////////////////////////////////////////////
-        //
-        // initialise the temporary files here
-        // make sure you throw the right exception
-        //
-        ////////////////////////////////////////////
-        outputFile = FileUtil.createTempFileName();
-    } // initTempFiles()
-
-    
-    /**
-     * Sets up this merge join operator.
-     * 
+     * Sets up this hash join operator: builds the hash table over the
+     * left input, spilling partitions as needed.
+     *
      * @throws EngineException thrown whenever there is something
      * wrong with setting this operator up.
      */
-    
     @Override
     protected void setup() throws EngineException {
+        // one output page per partition when spilling
+        partitionNum = Math.max(2, buffers);
+        // the hash table may use the larger of the two budgets
+        memoryBytes = (long) Math.max(buffers, getHashMemory())
+            * Sizes.PAGE_SIZE;
+        tempFiles = new ArrayList<String>();
+        pending = new LinkedList<SpilledPartition>();
+        spilled = new SpilledPartition[partitionNum];
+
         try {
-            ////////////////////////////////////////////
-            //
-            // YOUR CODE GOES HERE
-            //
-            ////////////////////////////////////////////
-            
-            //Store the left input in order to get the number of pages
-            //No need to store the right input
-            String leftFile = FileUtil.createTempFileName();
-            getStorageManager().createFile(leftFile);
             Relation leftRel = getInputOperator(LEFT).getOutputRelation();
-            RelationIOManager leftMan = new RelationIOManager(getStorageManager(), leftRel, leftFile);
-            boolean done = false;
-
-            while (! done)
-            {
-                Tuple tuple = getInputOperator(LEFT).getNext();
-                if (tuple != null)
-                {
-                    done = (tuple instanceof EndOfStreamTuple);
-                    if (! done)
-                    {
-                        leftMan.insertTuple(tuple);
+            Relation rightRel = getInputOperator(RIGHT).getOutputRelation();
+            TupleIOManager left = new TupleIOManager(leftRel);
+            keyType = leftRel.getAttribute(leftSlot).getType();
+            sameKeyType =
+                keyType.equals(rightRel.getAttribute(rightSlot).getType());
+            table = new HashMultiMap<Tuple>(HashMultiMap.keyType(keyType));
+            List<List<Tuple>> partitions = new ArrayList<List<Tuple>>();
+            long [] bytes = new long[partitionNum];
+            for (int i = 0; i < partitionNum; i++)
+                partitions.add(new ArrayList<Tuple>());
+            long total = 0;
+
+            // hash the left input, a column batch at a time
+            int [] leftKey = new int [] { leftSlot };
+            int [] hashes = null;
+            ColumnBatch in;
+            do {
+                in = getInputOperator(LEFT).nextColumnBatch();
+                hashes = in.hash(leftKey, 17, hashes);
+                int [] selection = in.selection();
+                for (int k = 0; k < in.size(); k++) {
+                    int row = selection[k];
+                    int p = partition(hashes[row], 0);
+                    Tuple tuple = in.tuple(row);
+                    if (spilled[p] != null) {
+                        spilled[p].left.insertTuple(tuple);
+                        continue;
+                    }
+                    int size = left.byteSize(tuple);
+                    partitions.get(p).add(tuple);
+                    bytes[p] += size;
+                    total += size;
+                    // over budget -- spill the largest partition
+                    while (total > memoryBytes) {
+                        int victim = largest(bytes);
+                        if (victim < 0) break;
+                        spilled[victim] = new SpilledPartition(0);
+                        for (Tuple t : partitions.get(victim))
+                            spilled[victim].left.insertTuple(t);
+                        partitions.set(victim, null);
+                        total -= bytes[victim];
+                        bytes[victim] = -1;
                     }
                 }
-            }
+            } while (! in.isEndOfStream());
+            for (SpilledPartition sp : spilled)
+                if (sp != null) sp.left.flush();
 
-            //Initialise the partition files for the left input
-            int partitionNum = (FileUtil.getNumberOfPages(leftMan.getFileName()) / buffers + 1) * 2;
-            List<String> leftFiles = new ArrayList<String>();
-            RelationIOManager[] leftRioms = new RelationIOManager[partitionNum];
-            for (int i = 0; i < partitionNum; i++)
-            {
-                String leftTempFile = FileUtil.createTempFileName();
-                getStorageManager().createFile(leftTempFile);
-                leftFiles.add(leftTempFile);
-                leftRioms[i] = new RelationIOManager(getStorageManager(), leftRel, leftTempFile);
-            }
+            // build the hash table over what stayed in memory
+            for (List<Tuple> partition : partitions)
+                if (partition != null)
+                    for (Tuple tuple : partition) build(tuple);
 
-            //Apply the first hash function to the left input
-            for (Tuple tuple : leftMan.tuples())
-            {
-                int hash = tuple.getValue(leftSlot).hashCode() * 17 % partitionNum;
-                while (hash < 0)
-                {
-                    hash = hash + partitionNum;
-                }
-                leftRioms[hash].insertTuple(tuple);
-            }
+            streaming = true;
+            rightIn = null;
+            probe = null;
+            matchRow = -1;
+        }
+        catch (StorageManagerException sme) {
+            throw new EngineException("Could not store intermediate "
+                                      + "relations to files.", sme);
+        }
+    } // setup()
 
-            //Initialise the partition files for the right input
-            Relation rightRel = getInputOperator(RIGHT).getOutputRelation();
-            List<String> rightFiles = new ArrayList<String>();
-            RelationIOManager[] rightRioms = new RelationIOManager[partitionNum];
-            for (int i = 0; i < partitionNum; i++)
-            {
-                String rightTempFile = FileUtil.createTempFileName();
-                getStorageManager().createFile(rightTempFile);
-                rightFiles.add(rightTempFile);
-                rightRioms[i] = new RelationIOManager(getStorageManager(), rightRel, rightTempFile);
-            }
-            
-            //Apply the first hash function to the right input
-            done = false;
-            while (! done)
-            {
-                Tuple tuple = getInputOperator(RIGHT).getNext();
-                if (tuple != null)
-                {
-                    done = (tuple instanceof EndOfStreamTuple);
-                    if (! done)
-                    {
-                        int hash = tuple.getValue(rightSlot).hashCode() * 17 % partitionNum;
-                        while (hash < 0)
-                        {
-                            hash = hash + partitionNum;
-                        }
-                        rightRioms[hash].insertTuple(tuple);
+
+    /**
+     * Maps the hash of a key to a partition.  The first split
+     * partitions on the hash itself; further splits scramble it
+     * first, so that they spread the tuples of a single partition.
+     *
+     * @param hash the hash of the key.
+     * @param level the number of splits so far.
+     * @return the partition.
+     */
+    private int partition(int hash, int level) {
+        if (level > 0) {
+            hash = Integer.rotateLeft(hash * 0x9E3779B9, 7 * level) ^ level;
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+        }
+        int p = hash % partitionNum;
+        while (p < 0) p += partitionNum;
+        return p;
+    } // partition()
+
+
+    /**
+     * Finds the largest in-memory partition.
+     *
+     * @param bytes the sizes of the partitions, negative for spilled
+     * ones.
+     * @return the largest in-memory partition, or -1 if there is
+     * none.
+     */
+    private static int largest(long [] bytes) {
+        int victim = -1;
+        for (int i = 0; i < bytes.length; i++)
+            if (bytes[i] > 0 && (victim < 0 || bytes[i] > bytes[victim]))
+                victim = i;
+        return victim;
+    } // largest()
+
+
+    /**
+     * Inserts a left tuple into the hash table.
+     *
+     * @param tuple the tuple.
+     */
+    private void build(Tuple tuple) {
+        // read the key without boxing it where possible
+        if (keyType == Long.class)
+            table.put(tuple.asLong(leftSlot), tuple);
+        else if (keyType == Integer.class)
+            table.put((long) tuple.asInt(leftSlot), tuple);
+        else if (keyType == Double.class)
+            table.put(tuple.asDouble(leftSlot), tuple);
+        else
+            table.put(tuple.getValue(leftSlot), tuple);
+    } // build()
+
+
+    /**
+     * Looks up the key of a right tuple in the hash table.
+     *
+     * @param tuple the right tuple.
+     * @return the first matching row of the table, or -1.
+     */
+    private int lookup(Tuple tuple) {
+        if (! sameKeyType) return -1;
+        if (keyType == Long.class)
+            return table.find(tuple.asLong(rightSlot));
+        else if (keyType == Integer.class)
+            return table.find((long) tuple.asInt(rightSlot));
+        else if (keyType == Double.class)
+            return table.find(tuple.asDouble(rightSlot));
+        else
+            return table.find(tuple.getValue(rightSlot));
+    } // lookup()
+
+
+    /**
+     * Looks up the key of a row of a right column batch in the hash
+     * table.
+     *
+     * @param column the key column of the batch.
+     * @param row the row.
+     * @return the first matching row of the table, or -1.
+     */
+    private int lookup(ColumnVector column, int row) {
+        if (! sameKeyType) return -1;
+        if (column instanceof LongVector)
+            return table.find(((LongVector) column).getLong(row));
+        else if (column instanceof IntVector)
+            return table.find((long) ((IntVector) column).getInt(row));
+        else if (column instanceof DoubleVector)
+            return table.find(((DoubleVector) column).getDouble(row));
+        else
+            return table.find(column.get(row));
+    } // lookup()
+
+
+    /**
+     * Creates a temporary file for a partition.
+     *
+     * @param rel the relation of the partition.
+     * @return the manager of the file.
+     * @throws StorageManagerException thrown whenever the file cannot
+     * be created.
+     */
+    private RelationIOManager createPartitionFile(Relation rel)
+        throws StorageManagerException {
+
+        String file = FileUtil.createTempFileName();
+        getStorageManager().createFile(file);
+        tempFiles.add(file);
+        return new RelationIOManager(getStorageManager(), rel, file);
+    } // createPartitionFile()
+
+
+    /**
+     * Deletes the temporary file of a partition.
+     *
+     * @param man the manager of the file.
+     * @throws StorageManagerException thrown whenever the file cannot
+     * be deleted.
+     */
+    private void deletePartitionFile(RelationIOManager man)
+        throws StorageManagerException {
+
+        getStorageManager().deleteFile(man.getFileName());
+        tempFiles.remove(man.getFileName());
+    } // deletePartitionFile()
+
+
+    /**
+     * Moves on to the next tuple of the right input that has matches
+     * in the hash table.  While the right input is streamed, tuples
+     * of spilled partitions are written to disk instead; once it is
+     * exhausted, the spilled partition pairs are joined in turn.
+     *
+     * @return <code>true</code> if there is a next probe tuple,
+     * <code>false</code> otherwise.
+     * @throws EngineException thrown whenever the right input or the
+     * partition files cannot be read.
+     */
+    private boolean nextProbe() throws EngineException {
+        try {
+            while (streaming) {
+                if (rightIn == null || rightIndex == rightIn.size()) {
+                    if (rightIn != null && rightIn.isEndOfStream()) {
+                        streaming = false;
+                        rightIn = null;
+                        for (SpilledPartition sp : spilled)
+                            if (sp != null) {
+                                sp.right.flush();
+                                pending.add(sp);
+                            }
+                        break;
                     }
+                    rightIn = getInputOperator(RIGHT).nextColumnBatch();
+                    rightHashes = rightIn.hash(new int [] { rightSlot }, 17,
+                                               rightHashes);
+                    rightIndex = 0;
+                    continue;
+                }
+                int row = rightIn.selection()[rightIndex++];
+                int p = partition(rightHashes[row], 0);
+                if (spilled[p] != null) {
+                    spilled[p].right.insertTuple(rightIn.tuple(row));
+                    continue;
+                }
+                matchRow = lookup(rightIn.column(rightSlot), row);
+                if (matchRow >= 0) {
+                    probe = rightIn.tuple(row);
+                    return true;
                 }
             }
 
-            //Hash Join
-            getStorageManager().createFile(outputFile);
-            outputMan = new RelationIOManager(getStorageManager(), getOutputRelation(), outputFile);
-            for (int i = 0; i < partitionNum; i++)
-            {
-                //Apply the second hash function the left and right input
-                //HashTable used to store the result in it
-                //Because the key is not a candidate key, we need to use a ArrayList to store the value
-                HashMap<Integer, ArrayList<Tuple>> hashmap = new HashMap<Integer, ArrayList<Tuple>>();
-                for (Tuple leftTuple : leftRioms[i].tuples())
-                {
-                    int hash = leftTuple.getValue(leftSlot).hashCode() * 17;
-                    if (hashmap.get(hash) == null)
-                    {
-                    	hashmap.put(hash, new ArrayList<Tuple>());
-                    	hashmap.get(hash).add(leftTuple);
-                    }
-                    else
-                    {
-                    	hashmap.get(hash).add(leftTuple);
-                    }
-                }
-                //If the right tuple match the left tuple, combine them and add to the result
-                for (Tuple rightTuple : rightRioms[i].tuples())
-                {
-                    int hash = rightTuple.getValue(rightSlot).hashCode() * 17;
-                    if (hashmap.get(hash) != null)
-                    {
-                        for (Tuple leftTuple : hashmap.get(hash))
-                        {
-                            PredicateTupleInserter.insertTuples(leftTuple, rightTuple, getPredicate());
-                            if (PredicateEvaluator.evaluate(getPredicate()))
-                            {
-                                Tuple newTuple = combineTuples(leftTuple, rightTuple);
-                                outputMan.insertTuple(newTuple);
-                            }
-                        }
-                    }
+            while (true) {
+                if (probeTuples != null && probeTuples.hasNext()) {
+                    probe = probeTuples.next();
+                    matchRow = lookup(probe);
+                    if (matchRow >= 0) return true;
+                    continue;
                 }
-                //Clean the hashtable
-                hashmap.clear();
+                probeTuples = null;
+                if (! nextPartition()) return false;
             }
+        }
+        catch (EngineException ee) {
+            throw ee;
+        }
+        catch (Exception e) {
+            throw new EngineException("Could not read or write "
+                                      + "partition files.", e);
+        }
+    } // nextProbe()
 
-            //Delete the temporary files
-            getStorageManager().deleteFile(leftFile);
-            for (int i = 0; i < partitionNum; i++)
-            {
-                getStorageManager().deleteFile(leftFiles.get(i));
-                getStorageManager().deleteFile(rightFiles.get(i));
+
+    /**
+     * Loads the next spilled partition pair: builds the hash table
+     * over its left partition and opens a scan over its right one.
+     * Pairs whose left partition does not fit in memory are split
+     * into new pairs instead.
+     *
+     * @return <code>true</code> if a pair was loaded,
+     * <code>false</code> if there are no more pairs.
+     * @throws Exception thrown whenever the partition files cannot be
+     * read or written.
+     */
+    private boolean nextPartition() throws Exception {
+        TupleIOManager left =
+            new TupleIOManager(getInputOperator(LEFT).getOutputRelation());
+        while (! pending.isEmpty()) {
+            SpilledPartition sp = pending.removeFirst();
+            // the previous pair is done with
+            table.clear();
+
+            // nothing can join with an empty right partition
+            if (! sp.right.tuples().iterator().hasNext()) {
+                deletePartitionFile(sp.left);
+                deletePartitionFile(sp.right);
+                continue;
+            }
+            long bytes = 0;
+            for (Tuple tuple : sp.left.tuples()) {
+                bytes += left.byteSize(tuple);
+                if (bytes > memoryBytes) break;
+            }
+            if (bytes > memoryBytes && sp.level < MAX_LEVEL) {
+                split(sp);
+                continue;
             }
+            // fits (or cannot be split any further) -- join it in
+            // memory
+            for (Tuple tuple : sp.left.tuples()) build(tuple);
+            deletePartitionFile(sp.left);
+            probeTuples = new DeletingIterator(sp.right);
+            return true;
+        }
+        table.clear();
+        return false;
+    } // nextPartition()
+
 
-            ////////////////////////////////////////////
-            //
-            // the output should reside in the output file
-            //
-            ////////////////////////////////////////////
-
-            //
-            // you may need to uncomment the following lines if you
-            // have not already instantiated the manager -- it all
-            // depends on how you have implemented the operator
-            //
-            //outputMan = new RelationIOManager(getStorageManager(), 
-            //                                  getOutputRelation(),
-            //                                  outputFile);
-
-            // open the iterator over the output
-            outputTuples = outputMan.tuples().iterator();
+    /**
+     * Splits a spilled partition pair into new pairs, one level
+     * down.
+     *
+     * @param sp the pair to be split.
+     * @throws Exception thrown whenever the partition files cannot be
+     * read or written.
+     */
+    private void split(SpilledPartition sp) throws Exception {
+        SpilledPartition [] parts = new SpilledPartition[partitionNum];
+        for (int i = 0; i < partitionNum; i++)
+            parts[i] = new SpilledPartition(sp.level + 1);
+        int level = sp.level + 1;
+        for (Tuple tuple : sp.left.tuples()) {
+            int hash = tuple.getValue(leftSlot).hashCode() * 17;
+            parts[partition(hash, level)].left.insertTuple(tuple);
         }
-        catch (IOException ioe) {
-            throw new EngineException("Could not create page/tuple iterators.",
-                                      ioe);
+        for (Tuple tuple : sp.right.tuples()) {
+            int hash = tuple.getValue(rightSlot).hashCode() * 17;
+            parts[partition(hash, level)].right.insertTuple(tuple);
         }
-        catch (StorageManagerException sme) {
-            EngineException ee = new EngineException("Could not store " + 
-                                                     "intermediate relations " +
-                                                     "to files.");
-            ee.setStackTrace(sme.getStackTrace());
-            throw ee;
+        for (SpilledPartition part : parts) {
+            part.left.flush();
+            part.right.flush();
         }
-    } // setup()
-    
-    
+        deletePartitionFile(sp.left);
+        deletePartitionFile(sp.right);
+        for (SpilledPartition part : parts) pending.addFirst(part);
+    } // split()
+
+
     /**
      * Cleans up after the join.
-     * 
+     *
      * @throws EngineException whenever the operator cannot clean up
      * after itself.
      */
     @Override
     protected void cleanup() throws EngineException {
         try {
-            ////////////////////////////////////////////
-            //
-            // make sure you delete any temporary files	    
-            //
-	    // the following line only deletes the
-	    // generated file (you may need to comment
-	    // it out if you do not create any files)
-	    //
-            ////////////////////////////////////////////
-            
-            getStorageManager().deleteFile(outputFile);
+            for (String file : tempFiles)
+                getStorageManager().deleteFile(file);
+            tempFiles.clear();
+            table = null;
         }
         catch (StorageManagerException sme) {
-            EngineException ee = new EngineException("Could not clean up " +
-                                                     "final output");
-            ee.setStackTrace(sme.getStackTrace());
-            throw ee;
+            throw new EngineException("Could not clean up partition files.",
+                                      sme);
         }
     } // cleanup()
 
     /**
-     * Inner method to propagate a tuple.
-     * 
-     * @return an array of resulting tuples.
+     * The join produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with join results, probing the hash table
+     * with the right input.
+     *
+     * @param batch the batch to be filled.
      * @throws EngineException thrown whenever there is an error in
      * execution.
      */
     @Override
-    protected List<Tuple> innerGetNext () throws EngineException {
-        try {
-            returnList.clear();
-            if (outputTuples.hasNext()) returnList.add(outputTuples.next());
-            else returnList.add(new EndOfStreamTuple());
-            return returnList;
-        }
-        catch (Exception sme) {
-            throw new EngineException("Could not read tuples "
-                                      + "from intermediate file.", sme);
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        TuplePredicate predicate = getTuplePredicate();
+        while (! batch.isFull()) {
+            if (matchRow >= 0) {
+                Tuple leftTuple = table.value(matchRow);
+                matchRow = table.next(matchRow);
+                if (predicate.evaluate(leftTuple, probe))
+                    batch.add(combineTuples(leftTuple, probe));
+                continue;
+            }
+            if (! nextProbe()) {
+                batch.setEndOfStream();
+                return;
+            }
         }
-    } // innerGetNext()
+    } // innerNextBatch()
 
 
     /**
@@ -349,16 +567,95 @@ public class GraceHashJoin extends PhysicalJoin {
     @Override
     protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
 	throws EngineException {
-        
+
         return new ArrayList<Tuple>();
     }  // innerProcessTuple()
 
-    
+
     /**
      * Textual representation
      */
     protected String toStringSingle () {
-        return "mj <" + getPredicate() + ">";
+        return "hhj <" + getPredicate() + ">";
     } // toStringSingle()
 
-} // MergeJoin
+
+    /**
+     * SpilledPartition: A pair of partition files, one per input.
+     */
+    private class SpilledPartition {
+
+        /** The left partition. */
+        RelationIOManager left;
+
+        /** The right partition. */
+        RelationIOManager right;
+
+        /** The number of splits that produced the pair. */
+        int level;
+
+        /**
+         * Creates the files of a new pair.
+         *
+         * @param level the number of splits that produced the pair.
+         * @throws StorageManagerException thrown whenever the files
+         * cannot be created.
+         */
+        SpilledPartition(int level) throws StorageManagerException {
+            this.level = level;
+            try {
+                left = createPartitionFile(getInputOperator(LEFT)
+                                           .getOutputRelation());
+                right = createPartitionFile(getInputOperator(RIGHT)
+                                            .getOutputRelation());
+            }
+            catch (EngineException ee) {
+                throw new StorageManagerException("Could not create "
+                                                  + "partition files.", ee);
+            }
+        } // SpilledPartition()
+    } // SpilledPartition
+
+
+    /**
+     * DeletingIterator: An iterator over a partition file that deletes
+     * the file once it is exhausted.
+     */
+    private class DeletingIterator implements Iterator<Tuple> {
+
+        /** The manager of the file. */
+        private RelationIOManager man;
+
+        /** The iterator over the file. */
+        private Iterator<Tuple> tuples;
+
+        /**
+         * Opens the file.
+         *
+         * @param man the manager of the file.
+         * @throws Exception thrown whenever the file cannot be read.
+         */
+        DeletingIterator(RelationIOManager man) throws Exception {
+            this.man = man;
+            tuples = man.tuples().iterator();
+        } // DeletingIterator()
+
+        public boolean hasNext() {
+            if (tuples == null) return false;
+            if (tuples.hasNext()) return true;
+            tuples = null;
+            try {
+                deletePartitionFile(man);
+            }
+            catch (StorageManagerException sme) {
+                // left for cleanup() to delete
+            }
+            return false;
+        } // hasNext()
+
+        public Tuple next() {
+            return tuples.next();
+        } // next()
+    } // DeletingIterator
+
+} // GraceHashJoin
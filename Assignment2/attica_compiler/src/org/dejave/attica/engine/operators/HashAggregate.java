@@ -0,0 +1,456 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import org.dejave.attica.engine.vectors.ColumnBatch;
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.storage.FileUtil;
+import org.dejave.attica.storage.RelationIOManager;
+import org.dejave.attica.storage.Sizes;
+import org.dejave.attica.storage.StorageManager;
+import org.dejave.attica.storage.StorageManagerException;
+import org.dejave.attica.storage.Tuple;
+
+import org.dejave.util.HashMultiMap;
+
+/**
+ * HashAggregate: Hash-based aggregation.  The input is folded into a
+ * hash table with one accumulator per group, keyed on the hash of
+ * the group keys.  The table is bounded by the hash memory budget:
+ * once it is full, rows of groups already in the table are still
+ * folded in, but rows of new groups are hashed into partition files
+ * instead.  Every group is therefore either wholly in memory or
+ * wholly spilled.  The in-memory groups are output first; each
+ * spilled partition is then aggregated in turn, and split again with
+ * a different hash function if its groups still do not fit.
+ *
+ * Without group keys the input is a single group; an empty input
+ * still has one output row, with zero counts and null for every
+ * other aggregate.
+ *
+ * @author agent
+ */
+public class HashAggregate extends UnaryOperator {
+
+    /** The number of times a partition may be split again. */
+    private static final int MAX_LEVEL = 4;
+
+    /** The storage manager for this operator. */
+    private StorageManager sm;
+
+    /** The slots that act as the group keys. */
+    private int [] groupSlots;
+
+    /** The aggregate functions. */
+    private Aggregator.Function [] functions;
+
+    /** The slots of the arguments of the aggregate functions. */
+    private int [] argSlots;
+
+    /** Number of buffer pool pages to use. */
+    private int buffers;
+
+    /** The aggregator computing the groups. */
+    private Aggregator aggregator;
+
+    /** The number of partitions of each split. */
+    private int partitionNum;
+
+    /** The number of bytes of memory for the hash table. */
+    private long memoryBytes;
+
+    /** The hash table over the groups of the current pass. */
+    private HashMultiMap<Aggregator.Accumulator> table;
+
+    /** The groups of the current pass, in the order they were
+     * created. */
+    private List<Aggregator.Accumulator> groups;
+
+    /** The estimated bytes taken up by the groups of the current
+     * pass. */
+    private long used;
+
+    /** The number of splits that produced the current pass's
+     * input. */
+    private int level;
+
+    /** The partitions spilled by the current pass, by partition
+     * number; <code>null</code> until they are needed. */
+    private SpilledPartition [] spilled;
+
+    /** The spilled partitions waiting to be aggregated. */
+    private LinkedList<SpilledPartition> pending;
+
+    /** The temporary files that have not been deleted yet. */
+    private List<String> tempFiles;
+
+    /** The hashes of the current batch. */
+    private int [] hashes;
+
+    /** The position of the next group of the current pass to be
+     * output. */
+    private int groupIndex;
+
+    /** Is the single row of an aggregation without group keys over an
+     * empty input still to be output? */
+    private boolean emptyPending;
+
+    /**
+     * Constructs a new hash aggregation operator.
+     *
+     * @param operator the input operator.
+     * @param sm the storage manager.
+     * @param groupSlots the indexes of the group keys.
+     * @param functions the aggregate functions.
+     * @param argSlots the indexes of the arguments of the aggregate
+     * functions, -1 for counting rows.
+     * @param buffers the number of buffers to be used for
+     * partitioning.
+     * @throws EngineException thrown whenever the aggregation
+     * operator cannot be properly initialized.
+     */
+    public HashAggregate(Operator operator, StorageManager sm,
+                         int [] groupSlots, Aggregator.Function [] functions,
+                         int [] argSlots, int buffers)
+        throws EngineException {
+
+        super(operator);
+        this.sm = sm;
+        this.groupSlots = groupSlots;
+        this.functions = functions;
+        this.argSlots = argSlots;
+        this.buffers = buffers;
+    } // HashAggregate()
+
+
+    /**
+     * Returns the aggregator of this operator, creating it on first
+     * use.
+     *
+     * @return the aggregator.
+     * @throws EngineException thrown whenever the aggregator cannot be
+     * created.
+     */
+    private Aggregator aggregator() throws EngineException {
+        if (aggregator == null)
+            aggregator =
+                new Aggregator(getInputOperator().getOutputRelation(),
+                               groupSlots, functions, argSlots);
+        return aggregator;
+    } // aggregator()
+
+
+    /**
+     * Sets up this aggregation operator: folds the input into the
+     * hash table, spilling the rows of the groups that do not fit.
+     *
+     * @throws EngineException thrown whenever there is something wrong
+     * with setting this operator up.
+     */
+    @Override
+    protected void setup() throws EngineException {
+        // one output page per partition when spilling
+        partitionNum = Math.max(2, buffers);
+        memoryBytes = (long) Math.max(buffers, getHashMemory())
+            * Sizes.PAGE_SIZE;
+        table = new HashMultiMap<Aggregator.Accumulator>(
+            HashMultiMap.KeyType.INT);
+        groups = new ArrayList<Aggregator.Accumulator>();
+        pending = new LinkedList<SpilledPartition>();
+        tempFiles = new ArrayList<String>();
+        aggregator();
+
+        try {
+            startPass(0);
+            ColumnBatch in;
+            do {
+                in = getInputOperator().nextColumnBatch();
+                fold(in);
+            } while (! in.isEndOfStream());
+            endPass();
+            emptyPending = (groupSlots.length == 0 && groups.isEmpty());
+        }
+        catch (StorageManagerException sme) {
+            throw new EngineException("Could not spill partitions.", sme);
+        }
+    } // setup()
+
+
+    /**
+     * Starts aggregating a new input.
+     *
+     * @param level the number of splits that produced the input.
+     */
+    private void startPass(int level) {
+        this.level = level;
+        table.clear();
+        groups.clear();
+        groupIndex = 0;
+        used = 0;
+        spilled = null;
+    } // startPass()
+
+
+    /**
+     * Folds the live rows of a batch into their groups.
+     *
+     * @param in the batch.
+     * @throws StorageManagerException thrown whenever a row cannot be
+     * spilled.
+     */
+    private void fold(ColumnBatch in) throws StorageManagerException {
+        hashes = in.hash(groupSlots, 29, hashes);
+        int [] selection = in.selection();
+        for (int k = 0; k < in.size(); k++) {
+            int row = selection[k];
+            int hash = hashes[row];
+            int r = table.find((long) hash);
+            while (r >= 0 && ! aggregator.matches(table.value(r), in, row))
+                r = table.next(r);
+            if (r >= 0) {
+                aggregator.update(table.value(r), in, row);
+            }
+            else if (used < memoryBytes || level >= MAX_LEVEL) {
+                Aggregator.Accumulator acc = aggregator.newGroup(in, row);
+                table.put((long) hash, acc);
+                groups.add(acc);
+                used += aggregator.byteSize(acc);
+            }
+            else {
+                // the table is full -- the group goes to disk
+                int p = partition(hash, level);
+                if (spilled == null)
+                    spilled = new SpilledPartition[partitionNum];
+                if (spilled[p] == null)
+                    spilled[p] = new SpilledPartition(level + 1);
+                spilled[p].man.insertTuple(in.tuple(row));
+            }
+        }
+    } // fold()
+
+
+    /**
+     * Finishes aggregating an input: queues its spilled partitions.
+     *
+     * @throws StorageManagerException thrown whenever the spilled
+     * partitions cannot be flushed.
+     */
+    private void endPass() throws StorageManagerException {
+        table.clear();
+        if (spilled == null) return;
+        for (SpilledPartition sp : spilled)
+            if (sp != null) {
+                sp.man.flush();
+                pending.add(sp);
+            }
+        spilled = null;
+    } // endPass()
+
+
+    /**
+     * Aggregates the next spilled partition.
+     *
+     * @return <code>true</code> if there was a next partition,
+     * <code>false</code> otherwise.
+     * @throws Exception thrown whenever the partition cannot be read.
+     */
+    private boolean nextPartition() throws Exception {
+        if (pending.isEmpty()) return false;
+        SpilledPartition sp = pending.removeFirst();
+        startPass(sp.level);
+        ColumnBatch batch =
+            new ColumnBatch(getInputOperator().getOutputRelation(),
+                            getBatchSize());
+        Iterator<Tuple> tuples = sp.man.tuples().iterator();
+        do {
+            batch.clear();
+            fillColumns(tuples, batch);
+            fold(batch);
+        } while (! batch.isEndOfStream());
+        deletePartitionFile(sp.man);
+        endPass();
+        return true;
+    } // nextPartition()
+
+
+    /**
+     * Maps the hash of the group keys to a partition.  The first split
+     * partitions on the hash itself; further splits scramble it
+     * first, so that they spread the rows of a single partition.
+     *
+     * @param hash the hash of the group keys.
+     * @param level the number of splits so far.
+     * @return the partition.
+     */
+    private int partition(int hash, int level) {
+        if (level > 0) {
+            hash = Integer.rotateLeft(hash * 0x9E3779B9, 7 * level) ^ level;
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+        }
+        int p = hash % partitionNum;
+        while (p < 0) p += partitionNum;
+        return p;
+    } // partition()
+
+
+    /**
+     * Deletes the temporary file of a partition.
+     *
+     * @param man the manager of the file.
+     * @throws StorageManagerException thrown whenever the file cannot
+     * be deleted.
+     */
+    private void deletePartitionFile(RelationIOManager man)
+        throws StorageManagerException {
+
+        sm.deleteFile(man.getFileName());
+        tempFiles.remove(man.getFileName());
+    } // deletePartitionFile()
+
+
+    /**
+     * Cleanup after the aggregation.
+     *
+     * @throws EngineException whenever the operator cannot clean up
+     * after itself.
+     */
+    @Override
+    protected void cleanup() throws EngineException {
+        try {
+            for (String file : tempFiles) sm.deleteFile(file);
+            tempFiles.clear();
+            groups.clear();
+        }
+        catch (StorageManagerException sme) {
+            throw new EngineException("Could not clean up final output.", sme);
+        }
+    } // cleanup()
+
+
+    /**
+     * Aggregation produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with groups.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the partitions cannot
+     * be read.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        try {
+            if (emptyPending) {
+                batch.add(aggregator.emptyTuple(tupleCounter++));
+                emptyPending = false;
+            }
+            while (! batch.isFull()) {
+                if (groupIndex < groups.size()) {
+                    batch.add(aggregator.toTuple(groups.get(groupIndex++),
+                                                 tupleCounter++));
+                    continue;
+                }
+                if (! nextPartition()) {
+                    batch.setEndOfStream();
+                    return;
+                }
+            }
+        }
+        catch (Exception sme) {
+            throw new EngineException("Could not read tuples " +
+                                      "from intermediate file.", sme);
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Operator class abstract interface -- never called.
+     */
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
+	throws EngineException {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Operator class abstract interface -- sets the ouput relation of
+     * this aggregation operator.
+     *
+     * @return this operator's output relation.
+     * @throws EngineException whenever the output relation of this
+     * operator cannot be set.
+     */
+    protected Relation setOutputRelation() throws EngineException {
+        return new Relation(aggregator().getOutputRelation());
+    } // setOutputRelation()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the operator's textual representation.
+     */
+    @Override
+    protected String toStringSingle() {
+        return "hash-aggregate <"
+            + Aggregator.describe(groupSlots, functions, argSlots) + ">";
+    } // toStringSingle()
+
+
+    /**
+     * SpilledPartition: A spilled partition waiting to be aggregated.
+     */
+    private class SpilledPartition {
+
+        /** The partition file. */
+        RelationIOManager man;
+
+        /** The number of splits that produced the partition. */
+        int level;
+
+        /**
+         * Creates the file of a new partition.
+         *
+         * @param level the number of splits that produced the
+         * partition.
+         * @throws StorageManagerException thrown whenever the file
+         * cannot be created.
+         */
+        SpilledPartition(int level) throws StorageManagerException {
+            this.level = level;
+            try {
+                String file = FileUtil.createTempFileName();
+                sm.createFile(file);
+                tempFiles.add(file);
+                man = new RelationIOManager(sm, getInputOperator()
+                                            .getOutputRelation(), file);
+            }
+            catch (EngineException ee) {
+                throw new StorageManagerException("Could not create "
+                                                  + "partition file.", ee);
+            }
+        } // SpilledPartition()
+    } // SpilledPartition
+
+} // HashAggregate
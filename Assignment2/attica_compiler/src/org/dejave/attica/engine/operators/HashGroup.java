@@ -1,6 +1,8 @@
 /*
  * Created on Jan 12, 2015 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -8,21 +10,25 @@
  */
 package org.dejave.attica.engine.operators;
 
-import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 
+import org.dejave.attica.engine.vectors.ColumnBatch;
 import org.dejave.attica.model.Relation;
-import org.dejave.attica.storage.Page;
 import org.dejave.attica.storage.Tuple;
 import org.dejave.attica.storage.RelationIOManager;
 import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.StorageManagerException;
 import org.dejave.attica.storage.FileUtil;
 
+import org.dejave.util.HashMultiMap;
+
 /**
- * HashGroup: Your implementation of hash-based grouping.
+ * HashGroup: Hash-based grouping.  The input is hashed on the group
+ * keys into partitions small enough to be grouped in memory; each
+ * partition is then loaded into a hash table keyed on the same hash,
+ * and its tuples are output a group at a time.
  *
  * @author sviglas
  */
@@ -31,11 +37,8 @@ public class HashGroup extends UnaryOperator {
     /** The storage manager for this operator. */
     private StorageManager sm;
     
-    /** The name of the temporary file for the output. */
-    private String outputFile;
-	
-    /** The manager that undertakes output relation I/O. */
-    private RelationIOManager outputMan;
+    /** The name of the temporary file for the input. */
+    private String inputFile;
 	
     /** The slots that act as the group keys. */
     private int [] slots;
@@ -43,20 +46,21 @@ public class HashGroup extends UnaryOperator {
     /** Number of buffer pool pages to use. */
     private int buffers;
 
-    /** Iterator over the output file. */
-    private Iterator<Tuple> outputTuples;
-
-    /** Reusable tuple list for returns. */
-    private List<Tuple> returnList;
-
     /** The list of partition files/managers. */
     private List<RelationIOManager> partitionFiles;
 
-    /** The prefix name for all partition files. */
-    private String partitionFilePrefix;
-    
     /** The current partition being scanned for output. */
     private int currentPartition;
+
+    /** The hash table over the current partition. */
+    private HashMultiMap<Tuple> table;
+
+    /** The grouped tuples of the current partition. */
+    private List<Tuple> grouped;
+
+    /** The position of the next tuple of the current partition to be
+     * output. */
+    private int groupedIndex;
     
     /**
      * Constructs a new hash grouping operator.
@@ -76,42 +80,11 @@ public class HashGroup extends UnaryOperator {
         this.sm = sm;
         this.slots = slots;
         this.buffers = buffers;
-        currentPartition = 0;
+        currentPartition = -1;
         partitionFiles = new ArrayList<RelationIOManager>();
-        try {
-            // create the temporary output files
-            initTempFiles();
-        }
-        catch (StorageManagerException sme) {
-            throw new EngineException("Could not instantiate external sort",
-                                      sme);
-        }
-    } // ExternalSort()
+    } // HashGroup()
 	
 
-    /**
-     * Initialises the temporary files, according to the number
-     * of buffers.
-     * 
-     * @throws StorageManagerException thrown whenever the temporary
-     * files cannot be initialised.
-     */
-    protected void initTempFiles() throws StorageManagerException {
-	try {
-	    partitionFilePrefix = FileUtil.createTempFileName();
-	    ////////////////////////////////////////////
-	    //
-	    // allocate any other files you see fit here
-	    //
-	    ////////////////////////////////////////////
-	}
-	catch (Exception e) {
-	    e.printStackTrace(System.err);
-	    throw new StorageManagerException("Could not instantiate temporary "
-					      + "files for hash grouping", e);
-	}
-    } // initTempFiles()
-    
     //Compare two tuples by their slots
     
     private int compare(Tuple t1, Tuple t2){
@@ -127,210 +100,130 @@ public class HashGroup extends UnaryOperator {
     	return 0;
     }
     
-    //Find the tuple from pages by its index
-    
-    private Tuple find_tuple(int i, RelationIOManager riom, int total_tuples) throws ArrayIndexOutOfBoundsException, IOException, StorageManagerException{
-    	
-    	int page = i / total_tuples;
-    	int row = i % total_tuples;
-    	int count = 0;
-    	
-    	for (Page p : riom.pages()){
-    		if (count == page){
-    			return p.retrieveTuple(row);
-    		}
-    		count++;
-    	}
-		return null;
-    }
-    
-    //Swap two tuples
-    
-    private void swap(int i, int j, RelationIOManager riom, int total_tuples) throws ArrayIndexOutOfBoundsException, IOException, StorageManagerException{
-    	
-    	int count = 0;
-    	Tuple tuple_i = null;
-    	Tuple tuple_j = null;
-    	Page i_page = null;
-    	Page j_page = null;
-    	int page_i = i / total_tuples;
-    	int page_j = j / total_tuples;
-    	int row_i = i % total_tuples;
-    	int row_j = j % total_tuples;
-    	
-    	for (Page page : riom.pages()){
-    		if (count == page_i){
-    			i_page = page;
-    		}
-    		if (count == page_j){
-    			j_page = page;
-    		}
-            count++;
-    	}
-    	tuple_i = i_page.retrieveTuple(row_i);
-    	tuple_j = j_page.retrieveTuple(row_j);
-    	i_page.setTuple(row_i, tuple_j);
-    	j_page.setTuple(row_j, tuple_i);
-    }
-    
-    //Quicksort which is used as in memory sort
-    
-    private void Qsort(int left, int right, RelationIOManager riom, int total_tuples) throws ArrayIndexOutOfBoundsException, IOException, StorageManagerException{
-    	
-    	int i = left;
-    	int j = right;
-    	Tuple mid = find_tuple((left + right) / 2, riom, total_tuples);
-    	
-    	while (i <= j){
-    		while (compare(find_tuple(i, riom, total_tuples), mid) < 0){
-    			i++;
-    		}
-    		while (compare(find_tuple(j, riom, total_tuples), mid) > 0){
-    			j--;
-    		}
-    		if (i <= j){
-    			swap(i, j, riom, total_tuples);
-    			i++;
-    			j--;
-    		}
-    	}
-    	if (i < right){
-    		Qsort(i, right ,riom, total_tuples);
-    	}
-    	if (left < j){
-    		Qsort(left, j, riom, total_tuples);
-    	}
-    }
-    
-    //Sort every partitions after hash group
-    
-    private void hash_group(String partition_file) throws EngineException, IOException, StorageManagerException{
-    	
-    	int pages = 0;
-    	int tuples = 0;
-    	int total_tuples = 0;
-    	
-    	RelationIOManager riom = new RelationIOManager(sm, getOutputRelation(), partition_file);
-    	for (Page page : riom.pages()){
-    		if (pages == 0){
-    			total_tuples = page.getNumberOfTuples();
-    		}
-    		pages++;
-    		tuples = tuples + page.getNumberOfTuples();
-    	}
-    	if (pages == 0){
-    		return;
-    	}
-    	Qsort(0, tuples - 1, riom, total_tuples);
-    }
     
     /**
-     * Sets up this external sort operator.
+     * Sets up this grouping operator: stores the input and hashes it
+     * into the partition files.
      * 
      * @throws EngineException thrown whenever there is something wrong with
      * setting this operator up
      */
     public void setup() throws EngineException {
-        returnList = new ArrayList<Tuple>();
         try {
-            ////////////////////////////////////////////
-            //
             // this is a blocking operator -- store the input
-        	// and then generate the partition files
-            //
-            ////////////////////////////////////////////
+            inputFile = FileUtil.createTempFileName();
+            sm.createFile(inputFile);
+            RelationIOManager riom =
+                new RelationIOManager(sm, getOutputRelation(), inputFile);
+            store(getInputOperator(), riom);
             
-        	int partition_files;
-        	int hash_sum;
+            // as many partitions as it takes for each one to fit in
+            // half the buffers
+            int partitions =
+                (FileUtil.getNumberOfPages(riom.getFileName()) / buffers + 1)
+                * 2;
+            RelationIOManager [] rioms = new RelationIOManager[partitions];
+            for (int i = 0; i < partitions; i++) {
+                String file = FileUtil.createTempFileName();
+                sm.createFile(file);
+                rioms[i] = new RelationIOManager(sm, getOutputRelation(), file);
+                partitionFiles.add(rioms[i]);
+            }
         	
-        	//Initialization
-        	String input_file = FileUtil.createTempFileName();
-        	sm.createFile(input_file);
-        	RelationIOManager riom = new RelationIOManager(sm, getOutputRelation(), input_file);
+            // hash every tuple on the group keys, a column batch at a
+            // time
+            Iterator<Tuple> input = riom.tuples().iterator();
+            ColumnBatch batch =
+                new ColumnBatch(getOutputRelation(), getBatchSize());
+            int [] hashes = null;
+            do {
+                batch.clear();
+                fillColumns(input, batch);
+                hashes = batch.hash(slots, 29, hashes);
+                for (int row = 0; row < batch.getNumberOfRows(); row++) {
+                    int p = hashes[row] % partitions;
+                    while (p < 0) p += partitions;
+                    rioms[p].insertTuple(batch.tuple(row));
+                }
+            } while (! batch.isEndOfStream());
+            for (RelationIOManager man : rioms) man.flush();
         	
-        	boolean flag = false;
-        	while (!flag){
-        		Tuple tuple = getInputOperator().getNext();
-        		if (tuple != null){
-        			flag = (tuple instanceof EndOfStreamTuple);
-        			if (!flag){
-        				riom.insertTuple(tuple);
-        			}
-        		}
-        	}
+            // the input is no longer needed
+            sm.deleteFile(inputFile);
+            inputFile = null;
     
-            ////////////////////////////////////////////
-            //
-            // YOUR CODE GOES HERE
-            //
-            ////////////////////////////////////////////
-            
-        	//Number of partitions
-        	partition_files = (FileUtil.getNumberOfPages(riom.getFileName()) / buffers + 1) * 2;
-			
-        	List<String> files = new ArrayList<String>();
-        	RelationIOManager[] rioms = new RelationIOManager[partition_files];
-        	
-        	//Create temporary file and link it with a relationiomanager
-        	for (int i = 0; i < partition_files ; i++){
-        		String temp_file = FileUtil.createTempFileName();
-        		sm.createFile(temp_file);
-        		files.add(temp_file);
-        		rioms[i] = new RelationIOManager(sm, getOutputRelation(), temp_file);
-        	}
-        	
-        	//Hash group every tuple by its hash code
-        	for (Tuple tuple : riom.tuples()){
-        		hash_sum = 0;
-        		for (int i = 0; i < slots.length; i++){
-        			hash_sum = hash_sum + tuple.getValue(slots[i]).hashCode() * 29;
-        		}
-        		hash_sum = hash_sum % partition_files;
-        		while (hash_sum < 0){
-        			hash_sum = hash_sum + partition_files;
-        		}
-        		rioms[hash_sum].insertTuple(tuple);
-        	}
-
-        	//Sort the grouped files
-        	for (int i = 0; i < partition_files; i++){
-        		hash_group(files.get(i));
-        	}
-
-        	//Add the sorted files to the result
-        	for (int i = 0; i < rioms.length; i++){
-        		partitionFiles.add(rioms[i]);
-        	}
-        	
-            ////////////////////////////////////////////
-            //
-            // the output should reside in multiple
-        	// output files; instantiate the first manager
-        	// to the first such file
-            //
-            ////////////////////////////////////////////
-            currentPartition = 0;
-            outputMan = partitionFiles.get(currentPartition);
-            outputTuples = outputMan.tuples().iterator();
+            table = new HashMultiMap<Tuple>(HashMultiMap.KeyType.INT);
+            grouped = new ArrayList<Tuple>();
+            groupedIndex = 0;
         }
         catch (Exception sme) {
-            throw new EngineException("Could not store and sort"
+            throw new EngineException("Could not store and partition "
                                       + "intermediate files.", sme);
         }
     } // setup()
 
     
     /**
-     * Cleanup after the sort.
+     * Groups the next partition in memory.
+     *
+     * @return <code>true</code> if there was a next partition,
+     * <code>false</code> otherwise.
+     * @throws Exception thrown whenever the partition cannot be read.
+     */
+    private boolean nextPartition() throws Exception {
+        if (++currentPartition >= partitionFiles.size()) return false;
+        RelationIOManager man = partitionFiles.get(currentPartition);
+
+        // load the partition, keyed on the hash of the group keys
+        table.clear();
+        Iterator<Tuple> tuples = man.tuples().iterator();
+        ColumnBatch batch =
+            new ColumnBatch(getOutputRelation(), getBatchSize());
+        int [] hashes = null;
+        do {
+            batch.clear();
+            fillColumns(tuples, batch);
+            hashes = batch.hash(slots, 29, hashes);
+            for (int row = 0; row < batch.getNumberOfRows(); row++)
+                table.put((long) hashes[row], batch.tuple(row));
+        } while (! batch.isEndOfStream());
+
+        // output the tuples of every hash a group at a time; tuples
+        // with the same hash but different keys are separated
+        grouped.clear();
+        groupedIndex = 0;
+        List<Tuple> chain = new ArrayList<Tuple>();
+        for (int slot = 0; slot < table.slots(); slot++) {
+            chain.clear();
+            for (int row = table.head(slot); row >= 0; row = table.next(row))
+                chain.add(table.value(row));
+            while (! chain.isEmpty()) {
+                Tuple first = chain.get(0);
+                int kept = 0;
+                for (Tuple tuple : chain) {
+                    if (compare(tuple, first) == 0) grouped.add(tuple);
+                    else chain.set(kept++, tuple);
+                }
+                chain.subList(kept, chain.size()).clear();
+            }
+        }
+        table.clear();
+        return true;
+    } // nextPartition()
+
+
+    /**
+     * Cleanup after the grouping.
      * 
      * @throws EngineException whenever the operator cannot clean up
      * after itself.
      */
     public void cleanup () throws EngineException {
         try {
-            for (int i = 0; i < partitionFiles.size(); ++i) {
-		sm.deleteFile(generatePartitionFileName(i));
-	    }
+            if (inputFile != null) sm.deleteFile(inputFile);
+            for (RelationIOManager man : partitionFiles)
+                sm.deleteFile(man.getFileName());
+            partitionFiles.clear();
         }
         catch (StorageManagerException sme) {
             throw new EngineException("Could not clean up final output.", sme);
@@ -339,34 +232,42 @@ public class HashGroup extends UnaryOperator {
 
     
     /**
-     * The inner method to retrieve tuples.
+     * Grouping produces batches natively.
      * 
-     * @return the newly retrieved tuples.
-     * @throws EngineException thrown whenever the next iteration is not 
-     * possible.
+     * @return <code>true</code>.
      */    
-    protected List<Tuple> innerGetNext () throws EngineException {
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with grouped tuples.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the partitions cannot
+     * be read.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
         try {
-            returnList.clear();
-            if (outputTuples.hasNext()) returnList.add(outputTuples.next());
-            else{
-            	while (++currentPartition < partitionFiles.size()) {
-            		outputMan = partitionFiles.get(currentPartition);
-            		outputTuples = outputMan.tuples().iterator();
-            		if (outputTuples.hasNext()) {
-            			returnList.add(outputTuples.next());
-            			return returnList;
-            		}
-            	}
-            	returnList.add(new EndOfStreamTuple());
+            while (! batch.isFull()) {
+                if (groupedIndex < grouped.size()) {
+                    batch.add(grouped.get(groupedIndex++));
+                    continue;
+                }
+                if (! nextPartition()) {
+                    batch.setEndOfStream();
+                    return;
+                }
             }
-            return returnList;
         }
         catch (Exception sme) {
             throw new EngineException("Could not read tuples " +
                                       "from intermediate file.", sme);
         }
-    } // innerGetNext()
+    } // innerNextBatch()
 
 
     /**
@@ -390,18 +291,4 @@ public class HashGroup extends UnaryOperator {
         return new Relation(getInputOperator().getOutputRelation());
     } // setOutputRelation()
 
-    /**
-     * Helper method to generate a partition file name.
-     *
-     * @param i the partition number for which it generated a file
-     * name.
-     * @return the partition file name corresponding to the given
-     * partition number.
-     */
-    protected String generatePartitionFileName(int i) {
-	StringBuilder sb = new StringBuilder();
-	sb.append(partitionFilePrefix).append(".").append(i);
-	return sb.toString();
-    } // generatePartitionFileName()
-
 } // HashGroup
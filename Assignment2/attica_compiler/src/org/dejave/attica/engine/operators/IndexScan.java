@@ -0,0 +1,209 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ArrayList;
+
+import org.dejave.attica.model.Relation;
+
+import org.dejave.attica.storage.BPlusTree;
+import org.dejave.attica.storage.Page;
+import org.dejave.attica.storage.PageIdentifier;
+import org.dejave.attica.storage.StorageManager;
+import org.dejave.attica.storage.Tuple;
+import org.dejave.attica.storage.TupleLocation;
+
+/**
+ * IndexScan: Scans the tuples of a table whose indexed attribute lies
+ * in a range, through a B+-tree index.  The locations found in the
+ * index are fetched a batch at a time in page order, so that every
+ * page of the table is read at most once per batch; tuples therefore
+ * come out in file order within a batch.
+ *
+ * @author agent
+ */
+public class IndexScan extends SourceOperator {
+
+    /** The storage manager for this scan. */
+    private StorageManager sm;
+
+    /** The relation this scan scans. */
+    private Relation relation;
+
+    /** The filename of the file storing the relation. */
+    private String filename;
+
+    /** The index. */
+    private BPlusTree index;
+
+    /** The lower bound of the range, <code>null</code> if none. */
+    private Comparable low;
+
+    /** Whether the lower bound is in the range. */
+    private boolean lowInclusive;
+
+    /** The upper bound of the range, <code>null</code> if none. */
+    private Comparable high;
+
+    /** Whether the upper bound is in the range. */
+    private boolean highInclusive;
+
+    /** The locations of the tuples in range. */
+    private Iterator<TupleLocation> locations;
+
+    /** The locations of the current batch. */
+    private TupleLocation [] pending;
+
+    /**
+     * Constructs a new index scan operator.
+     *
+     * @param sm this scan's storage manager.
+     * @param relation the relation this scan scans.
+     * @param filename the filename of the file that stores the
+     * relation.
+     * @param index the index over the relation.
+     * @param low the lower bound, <code>null</code> if there is none.
+     * @param lowInclusive whether the lower bound is in the range.
+     * @param high the upper bound, <code>null</code> if there is none.
+     * @param highInclusive whether the upper bound is in the range.
+     * @throws EngineException thrown whenever the index scan cannot be
+     * properly initialised.
+     */
+    public IndexScan(StorageManager sm, Relation relation, String filename,
+                     BPlusTree index, Comparable low, boolean lowInclusive,
+                     Comparable high, boolean highInclusive)
+        throws EngineException {
+
+        super();
+        this.sm = sm;
+        this.relation = relation;
+        this.filename = filename;
+        this.index = index;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+    } // IndexScan()
+
+
+    /**
+     * Fetch the filename that is to be scanned.
+     *
+     * @return the filename this index scan scans.
+     */
+    public String getFileName() {
+        return filename;
+    } // getFileName()
+
+
+    /**
+     * Sets up the index scan.
+     *
+     * @throws EngineException whenever the index cannot be searched.
+     */
+    @Override
+    protected void setup() throws EngineException {
+        try {
+            locations = index.search(low, lowInclusive, high, highInclusive);
+        }
+        catch (Exception sme) {
+            throw new EngineException("Could not set up an index scan.", sme);
+        }
+    } // setup()
+
+
+    /**
+     * The index scan produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Inner method to fill the next batch: takes the next locations
+     * from the index and fetches their tuples in page order.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException whenever the next tuples cannot be
+     * retrieved.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        try {
+            if (pending == null) pending = new TupleLocation[batch.capacity()];
+            int n = 0;
+            while (n < pending.length && locations.hasNext())
+                pending[n++] = locations.next();
+            Arrays.sort(pending, 0, n);
+            Page page = null;
+            for (int i = 0; i < n; i++) {
+                TupleLocation location = pending[i];
+                if (page == null || page.getPageIdentifier().getNumber()
+                    != location.getPage())
+                    page = sm.readPage(relation,
+                                       new PageIdentifier(filename,
+                                                          location.getPage()));
+                batch.add(page.retrieveTuple(location.getSlot()));
+            }
+            if (! locations.hasNext()) batch.setEndOfStream();
+        }
+        catch (Exception sme) {
+            throw new EngineException("Could not fetch tuples through "
+                                      + "an index scan.", sme);
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Inner processing of a tuple (never called, as this is a source).
+     *
+     * @param tuple the tuple to be processed.
+     * @param inOp the source of this tuple.
+     * @return empty list by default.
+     * @throws EngineException never thrown by default (legacy call)
+     */
+    @Override
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
+        throws EngineException {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Sets the output relation of this index scan.
+     *
+     * @return this index scan's output relation.
+     * @throws EngineException thrown whenever the output relation
+     * cannot be set.
+     */
+    @Override
+    protected Relation setOutputRelation() throws EngineException {
+        return relation;
+    } // setOutputRelation()
+
+
+    /**
+     * Textual representation.
+     */
+    @Override
+    protected String toStringSingle() {
+        String from = (low == null ? "(*" : (lowInclusive ? "[" : "(") + low);
+        String to = (high == null ? "*)" : high + (highInclusive ? "]" : ")"));
+        return "index-scan <" + index.getIndex().getIndexName() + " "
+            + from + ", " + to + ">";
+    } // toStringSingle()
+
+} // IndexScan
@@ -0,0 +1,130 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.dejave.attica.engine.predicates.TrueCondition;
+import org.dejave.attica.server.Database;
+import org.dejave.attica.storage.BufferManager;
+import org.dejave.attica.storage.Catalog;
+import org.dejave.attica.storage.StorageManager;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * LimitCheck: Checks that the first-N and top-N operators output the
+ * right number of tuples over joins that own temporary files, and
+ * that no temporary file is left behind afterwards.  A limit of zero
+ * closes the join without ever reading it; a positive limit reads it
+ * in part (first-N) or in full (top-N).
+ *
+ * Usage: <code>java
+ * org.dejave.attica.engine.operators.LimitCheck</code>
+ *
+ * @author agent
+ */
+public class LimitCheck {
+
+    /** The values of the left input. */
+    private static final int [] LEFT = {5, 1, 4, 2, 3};
+
+    /** The values of the right input. */
+    private static final int [] RIGHT = {2, 4, 6};
+
+    /** The storage manager of the check. */
+    private static StorageManager sm;
+
+    /**
+     * Builds a join of the two inputs of every kind that owns
+     * temporary files.
+     *
+     * @param kind the kind of join: 0 for nested loops, 1 for a
+     * Cartesian product, 2 for merge join.
+     * @return the join.
+     * @throws EngineException thrown whenever the join cannot be
+     * constructed.
+     */
+    private static Operator join(int kind) throws EngineException {
+        Operator left = new ListSource("data", LEFT);
+        Operator right = new ListSource("data1", RIGHT);
+        switch (kind) {
+        case 0:
+            return new NestedLoopsJoin(left, right, sm,
+                                       new TrueCondition());
+        case 1:
+            return new CartesianProduct(left, right, sm);
+        default:
+            return new MergeJoin(new TopN(left, new int [] {0}, LEFT.length),
+                                 new TopN(right, new int [] {0},
+                                          RIGHT.length),
+                                 sm, 0, 0, new TrueCondition());
+        }
+    } // join()
+
+
+    /**
+     * Runs an operator to the end and checks the number of its
+     * output tuples and that the temporary directory is empty.
+     *
+     * @param operator the operator.
+     * @param expected the expected number of output tuples.
+     * @throws EngineException thrown whenever the operator cannot be
+     * run.
+     * @throws IllegalStateException if the operator outputs another
+     * number of tuples or leaves temporary files behind.
+     */
+    private static void check(Operator operator, int expected)
+        throws EngineException {
+
+        int count = 0;
+        for (Tuple tuple : operator.tuples()) count++;
+        operator.close();
+        if (count != expected)
+            throw new IllegalStateException(operator + " output " + count
+                                            + " tuples instead of "
+                                            + expected + ".");
+        String [] left = new File(Database.TEMP_DIR).list();
+        if (left.length > 0)
+            throw new IllegalStateException(operator + " left "
+                                            + left.length
+                                            + " temporary files behind.");
+    } // check()
+
+
+    /**
+     * Check main().
+     *
+     * @param args ignored.
+     * @throws Exception thrown whenever an operator cannot be run,
+     * outputs the wrong number of tuples or leaves temporary files
+     * behind.
+     */
+    public static void main(String [] args) throws Exception {
+
+        File temp = Files.createTempDirectory("attica").toFile();
+        Database.TEMP_DIR = temp.getPath();
+        // nothing is written to the catalog
+        sm = new StorageManager(new Catalog(temp.getPath() + ".catalog"),
+                                new BufferManager(50));
+        int all = LEFT.length * RIGHT.length;
+        for (int kind = 0; kind < 3; kind++) {
+            // the merge join only outputs the matching pairs
+            int rows = (kind == 2 ? 2 : all);
+            check(new FirstN(join(kind), 0), 0);
+            check(new TopN(join(kind), new int [] {0}, 0), 0);
+            check(new FirstN(join(kind), 2), 2);
+            check(new TopN(join(kind), new int [] {0}, 2), 2);
+            check(new FirstN(join(kind), all + 1), rows);
+        }
+        temp.delete();
+        System.out.println("limits checked");
+    } // main()
+
+} // LimitCheck
@@ -0,0 +1,94 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dejave.attica.model.Attribute;
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.model.TableAttribute;
+import org.dejave.attica.storage.IntermediateTupleIdentifier;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * ListSource: A source of in-memory tuples with a single integer
+ * attribute <code>unique1</code>, for the checks of the operators.
+ *
+ * @author agent
+ */
+class ListSource extends SourceOperator {
+
+    /** The table the attribute belongs to. */
+    private String table;
+
+    /** The tuples of the source. */
+    private List<Tuple> tuples;
+
+    /** Have the tuples been output yet? */
+    private boolean output;
+
+    /**
+     * Constructs a new source.
+     *
+     * @param table the table the attribute belongs to.
+     * @param values the values of the tuples.
+     * @throws EngineException thrown whenever the source cannot be
+     * initialised.
+     */
+    ListSource(String table, int ... values) throws EngineException {
+        this.table = table;
+        tuples = new ArrayList<Tuple>();
+        for (int i = 0; i < values.length; i++) {
+            List<Comparable> v = new ArrayList<Comparable>();
+            v.add(Integer.valueOf(values[i]));
+            tuples.add(new Tuple(new IntermediateTupleIdentifier(i), v));
+        }
+    } // ListSource()
+
+
+    /**
+     * Outputs all the tuples at once, followed by the end of the
+     * stream.
+     *
+     * @return the tuples.
+     */
+    @Override
+    protected List<Tuple> innerGetNext() {
+        List<Tuple> out = new ArrayList<Tuple>();
+        if (! output) out.addAll(tuples);
+        out.add(new EndOfStreamTuple());
+        output = true;
+        return out;
+    } // innerGetNext()
+
+
+    /**
+     * Operator class abstract interface -- never called.
+     */
+    @Override
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp) {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Operator class abstract interface -- sets the output relation
+     * of this source.
+     *
+     * @return this operator's output relation.
+     */
+    @Override
+    protected Relation setOutputRelation() {
+        List<Attribute> attributes = new ArrayList<Attribute>();
+        attributes.add(new TableAttribute(table, "unique1", Integer.class));
+        return new Relation(attributes);
+    } // setOutputRelation()
+
+} // ListSource
@@ -0,0 +1,313 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ArrayList;
+
+import org.dejave.attica.model.Attribute;
+import org.dejave.attica.model.Relation;
+
+import org.dejave.attica.engine.predicates.Predicate;
+import org.dejave.attica.engine.predicates.TuplePredicate;
+
+import org.dejave.attica.storage.BPlusTree;
+import org.dejave.attica.storage.IntermediateTupleIdentifier;
+import org.dejave.attica.storage.Page;
+import org.dejave.attica.storage.PageIdentifier;
+import org.dejave.attica.storage.StorageManager;
+import org.dejave.attica.storage.Tuple;
+import org.dejave.attica.storage.TupleLocation;
+
+/**
+ * LookupJoin: Implements an index nested loops equi-join of an outer
+ * input with a table that has an index on its join attribute.  The
+ * table is never scanned: the keys of a batch of outer tuples are
+ * looked up in the index, and the matching tuples are fetched in
+ * page order, so that every page of the table is read at most once
+ * per outer batch.  The selections over the table are evaluated over
+ * the fetched tuples, and only the attributes of the table that the
+ * query needs are kept.
+ *
+ * @author agent
+ */
+public class LookupJoin extends UnaryOperator {
+
+    /** The storage manager for this join. */
+    private StorageManager sm;
+
+    /** The relation of the table. */
+    private Relation relation;
+
+    /** The filename of the file storing the table. */
+    private String filename;
+
+    /** The index over the join attribute of the table. */
+    private BPlusTree index;
+
+    /** The slot of the join attribute in the outer input. */
+    private int outerSlot;
+
+    /** The selections over the table, <code>null</code> if there are
+     * none. */
+    private Predicate predicate;
+
+    /** The selections compiled for tuples, <code>null</code> if there
+     * are none. */
+    private TuplePredicate tuplePredicate;
+
+    /** The slots of the table kept in the output. */
+    private int [] slots;
+
+    /** The join results of the current outer batch. */
+    private List<Tuple> results;
+
+    /** The position of the next result to be output. */
+    private int resultIndex;
+
+    /** Has the outer input been exhausted? */
+    private boolean outerDone;
+
+
+    /**
+     * Constructs a new lookup join operator.
+     *
+     * @param outer the outer input operator.
+     * @param sm the storage manager.
+     * @param relation the relation of the table.
+     * @param filename the filename of the file that stores the table.
+     * @param index the index over the join attribute of the table.
+     * @param outerSlot the slot of the join attribute in the outer
+     * input.
+     * @param predicate the selections over the table,
+     * <code>null</code> if there are none.
+     * @param slots the slots of the table kept in the output.
+     * @throws EngineException thrown whenever the operator cannot be
+     * properly constructed.
+     */
+    public LookupJoin(Operator outer, StorageManager sm, Relation relation,
+                      String filename, BPlusTree index, int outerSlot,
+                      Predicate predicate, int [] slots)
+        throws EngineException {
+
+        super(outer);
+        this.sm = sm;
+        this.relation = relation;
+        this.filename = filename;
+        this.index = index;
+        this.outerSlot = outerSlot;
+        this.predicate = predicate;
+        if (predicate != null)
+            tuplePredicate = TuplePredicate.compile(predicate);
+        this.slots = slots;
+    } // LookupJoin()
+
+
+    /**
+     * Sets up the lookup join.
+     *
+     * @throws EngineException never thrown.
+     */
+    @Override
+    protected void setup() throws EngineException {
+        results = new ArrayList<Tuple>();
+        resultIndex = 0;
+        outerDone = false;
+    } // setup()
+
+
+    /**
+     * Cleans up after the join.
+     *
+     * @throws EngineException never thrown.
+     */
+    @Override
+    protected void cleanup() throws EngineException {
+        results = null;
+    } // cleanup()
+
+
+    /**
+     * The join produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with join results, joining the next batch
+     * of the outer input whenever the results of the current one have
+     * been output.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the inputs cannot be
+     * read.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        while (! batch.isFull()) {
+            if (resultIndex < results.size()) {
+                batch.add(results.get(resultIndex++));
+                continue;
+            }
+            if (outerDone) {
+                batch.setEndOfStream();
+                return;
+            }
+            TupleBatch in = getInputOperator().nextBatch();
+            outerDone = in.isEndOfStream();
+            join(in);
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Joins a batch of the outer input with the table.
+     *
+     * @param in the batch of the outer input.
+     * @throws EngineException thrown whenever the index or the table
+     * cannot be read.
+     */
+    private void join(TupleBatch in) throws EngineException {
+        results.clear();
+        resultIndex = 0;
+        try {
+            // look up every key of the batch
+            List<Probe> probes = new ArrayList<Probe>();
+            for (int i = 0; i < in.size(); i++) {
+                Tuple outer = in.get(i);
+                Iterator<TupleLocation> it =
+                    index.lookup(outer.getValue(outerSlot));
+                while (it.hasNext()) probes.add(new Probe(it.next(), outer));
+            }
+            // and fetch the matches page by page
+            Collections.sort(probes);
+            Page page = null;
+            for (Probe probe : probes) {
+                if (page == null || page.getPageIdentifier().getNumber()
+                    != probe.location.getPage())
+                    page = sm.readPage(relation,
+                                       new PageIdentifier(
+                                           filename,
+                                           probe.location.getPage()));
+                Tuple inner = page.retrieveTuple(probe.location.getSlot());
+                if (tuplePredicate != null
+                    && ! tuplePredicate.evaluate(inner)) continue;
+                results.add(combineTuples(probe.outer, inner));
+            }
+        }
+        catch (Exception e) {
+            throw new EngineException("Could not look up the matches of "
+                                      + "the outer input.", e);
+        }
+    } // join()
+
+
+    /**
+     * Combines an outer tuple with the kept attributes of a tuple of
+     * the table.
+     *
+     * @param outer the outer tuple.
+     * @param inner the tuple of the table.
+     * @return a new tuple with the two tuples combined.
+     */
+    private Tuple combineTuples(Tuple outer, Tuple inner) {
+        List<Comparable> v =
+            new ArrayList<Comparable>(outer.size() + slots.length);
+        v.addAll(outer.getValues());
+        for (int slot : slots) v.add(inner.getValue(slot));
+        return new Tuple(new IntermediateTupleIdentifier(tupleCounter++), v);
+    } // combineTuples()
+
+
+    /**
+     * Inner processing of a tuple (never called, as the join produces
+     * batches natively).
+     *
+     * @param tuple the tuple to be processed.
+     * @param inOp the source of this tuple.
+     * @return empty list by default.
+     * @throws EngineException never thrown by default (legacy call)
+     */
+    @Override
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
+        throws EngineException {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Sets the output relation of this join: the attributes of the
+     * outer input, followed by the kept attributes of the table.
+     *
+     * @return this join's output relation.
+     * @throws EngineException thrown whenever the output relation
+     * cannot be set.
+     */
+    @Override
+    protected Relation setOutputRelation() throws EngineException {
+        List<Attribute> attributes = new ArrayList<Attribute>();
+        for (Attribute attribute : getInputOperator().getOutputRelation())
+            attributes.add(attribute);
+        for (int slot : slots) attributes.add(relation.getAttribute(slot));
+        return new Relation(attributes);
+    } // setOutputRelation()
+
+
+    /**
+     * Textual representation.
+     */
+    @Override
+    protected String toStringSingle() {
+        return "lookup-join <" + index.getIndex().getIndexName() + " = "
+            + outerSlot + (predicate == null ? "" : ", " + predicate) + ">";
+    } // toStringSingle()
+
+
+    /**
+     * Probe: The location of a match of an outer tuple.  Probes order
+     * by location, so that the matches are fetched in page order.
+     */
+    private static class Probe implements Comparable<Probe> {
+
+        /** The location of the matching tuple. */
+        TupleLocation location;
+
+        /** The outer tuple. */
+        Tuple outer;
+
+        /**
+         * Constructs a new probe.
+         *
+         * @param location the location of the matching tuple.
+         * @param outer the outer tuple.
+         */
+        Probe(TupleLocation location, Tuple outer) {
+            this.location = location;
+            this.outer = outer;
+        } // Probe()
+
+        /**
+         * Compares this probe to another one by location.
+         *
+         * @param probe the other probe.
+         * @return the comparison of the locations.
+         */
+        public int compareTo(Probe probe) {
+            return location.compareTo(probe.location);
+        } // compareTo()
+    } // Probe
+
+} // LookupJoin
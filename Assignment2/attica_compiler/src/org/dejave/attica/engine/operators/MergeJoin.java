@@ -3,6 +3,8 @@
  *
  * Modified on Feb 17, 2009 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -52,8 +54,6 @@ public class MergeJoin extends PhysicalJoin {
     /** The iterator over the output file. */
     private Iterator<Tuple> outputTuples;
 
-    /** Reusable output list. */
-    private List<Tuple> returnList;
     
     /** The name of the temporary file for the right input. */
     private String rightFile;
@@ -81,19 +81,6 @@ public class MergeJoin extends PhysicalJoin {
         super(left, right, sm, predicate);
         this.leftSlot = leftSlot;
         this.rightSlot = rightSlot;
-        returnList = new ArrayList<Tuple>(); 
-        try {
-            // Initialise the right temporary file for right input
-        	rightFile = FileUtil.createTempFileName();
-        	sm.createFile(rightFile);
-            initTempFiles();
-        }
-        catch (StorageManagerException sme) {
-            EngineException ee = new EngineException("Could not instantiate " +
-                                                     "merge join");
-            ee.setStackTrace(sme.getStackTrace());
-            throw ee;
-        }
     } // MergeJoin()
 
 
@@ -135,25 +122,21 @@ public class MergeJoin extends PhysicalJoin {
             //
             ////////////////////////////////////////////
             
+            // Initialise the right temporary file for right input --
+            // here rather than on construction, so that a join that
+            // is closed unread owns no files
+            rightFile = FileUtil.createTempFileName();
+            getStorageManager().createFile(rightFile);
+            initTempFiles();
+
             //Store the right input
             //N.B. There is no need to store left input
             //Because there is no backtracking on left input. Scan it once is enough
             Relation rightRel = getInputOperator(RIGHT).getOutputRelation();
             RelationIOManager rightMan = new RelationIOManager(getStorageManager(), rightRel, rightFile);
+            store(getInputOperator(RIGHT), rightMan);
+            int half = getStorageManager().getNumberOfBufferPoolPages() / 2;
             boolean done = false;
-
-            while (! done)
-            {
-                Tuple tuple = getInputOperator(RIGHT).getNext();
-                if (tuple != null)
-                {
-                    done = (tuple instanceof EndOfStreamTuple);
-                    if (! done)
-                    {
-                        rightMan.insertTuple(tuple);
-                    }
-                }
-            }
             
             //Initialise two iterator for left and right input
             outputMan = new RelationIOManager(getStorageManager(), getOutputRelation(), outputFile);
@@ -223,13 +206,30 @@ public class MergeJoin extends PhysicalJoin {
                             break;
                         }
                     }
+                    tempMan.flush();
+                    // the group is scanned once per matching left tuple
+                    // -- if it fits in half the buffer pool, pin it and
+                    // loop over the resident pages instead
+                    List<Page> pinned = null;
+                    if (FileUtil.getNumberOfPages(tempFile) <= half)
+                        pinned = tempMan.pinPages();
                     //Begin to advance left to match the right in-group tuples
                     while (compare(leftTuple, markTuple, leftSlot, rightSlot) == 0)
                     {
-                        for (Tuple tuple : tempMan.tuples())
+                        if (pinned != null)
+                        {
+                            for (Page page : pinned)
+                                for (Tuple tuple : page)
+                                    outputMan.insertTuple(
+                                        combineTuples(leftTuple, tuple));
+                        }
+                        else
                         {
-                            Tuple newTuple = combineTuples(leftTuple, tuple);
-                            outputMan.insertTuple(newTuple);
+                            for (Tuple tuple : tempMan.tuples())
+                            {
+                                Tuple newTuple = combineTuples(leftTuple, tuple);
+                                outputMan.insertTuple(newTuple);
+                            }
                         }
                         if (leftIt.hasNext())
                         {
@@ -242,9 +242,13 @@ public class MergeJoin extends PhysicalJoin {
                         }
                     }
                     //Delete the temporary file
+                    if (pinned != null) tempMan.unpinPages(pinned);
                     getStorageManager().deleteFile(tempFile);
                 }
             }
+            // the merge may stop before the left input is exhausted --
+            // release its resources all the same
+            getInputOperator(LEFT).close();
             
             ////////////////////////////////////////////
             //
@@ -262,6 +266,7 @@ public class MergeJoin extends PhysicalJoin {
             //                                 outputFile);
 
             // open the iterator over the output
+            outputMan.flush();
             outputTuples = outputMan.tuples().iterator();
         }
         catch (IOException ioe) {
@@ -311,25 +316,33 @@ public class MergeJoin extends PhysicalJoin {
     
 
     /**
-     * Inner method to propagate a tuple.
+     * The join produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Inner method to fill the next batch from the output.
      * 
-     * @return an array of resulting tuples.
+     * @param batch the batch to be filled.
      * @throws EngineException thrown whenever there is an error in
      * execution.
      */
     @Override
-    protected List<Tuple> innerGetNext () throws EngineException {
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
         try {
-            returnList.clear();
-            if (outputTuples.hasNext()) returnList.add(outputTuples.next());
-            else returnList.add(new EndOfStreamTuple());
-            return returnList;
+            fillBatch(outputTuples, batch);
         }
         catch (Exception sme) {
             throw new EngineException("Could not read tuples "
                                       + "from intermediate file.", sme);
         }
-    } // innerGetNext()
+    } // innerNextBatch()
 
 
     /**
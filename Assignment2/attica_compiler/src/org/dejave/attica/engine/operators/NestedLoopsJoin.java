@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -13,47 +15,68 @@ package org.dejave.attica.engine.operators;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import java.io.IOException;
 
 import org.dejave.attica.model.Relation;
 
 import org.dejave.attica.engine.predicates.Predicate;
-import org.dejave.attica.engine.predicates.PredicateEvaluator;
-import org.dejave.attica.engine.predicates.PredicateTupleInserter;
+import org.dejave.attica.engine.predicates.TuplePredicate;
 
-import org.dejave.attica.storage.IntermediateTupleIdentifier;
+import org.dejave.attica.storage.Page;
 import org.dejave.attica.storage.RelationIOManager;
+import org.dejave.attica.storage.Sizes;
 import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.StorageManagerException;
 import org.dejave.attica.storage.Tuple;
+import org.dejave.attica.storage.TupleIOManager;
 
 import org.dejave.attica.storage.FileUtil;
 
 /**
- * NestedLoopsJoin: Implements a (blocking) nested loops join.
+ * NestedLoopsJoin: Implements a block nested loops join.  The right
+ * input is stored in a temporary file; the left input is read in
+ * blocks that take up half the buffer pool, and the right input is
+ * scanned once per block.  Output is produced as the join proceeds,
+ * a batch at a time.
  *
  * @author sviglas
  */
 public class NestedLoopsJoin extends PhysicalJoin {
 
-    /** The name of the temporary file for the left input. */
-    private String leftFile;
-    
     /** The name of the temporary file for the right input. */
     private String rightFile;
-	
-    /** The name of the temporary file for the output. */
-    private String outputFile;
-	
-    /** The relation manager used for I/O. */
-    private RelationIOManager outputMan;
 
-    /** The iterator over the output file. */
-    private Iterator<Tuple> outputTuples;
+    /** The relation manager of the right input. */
+    private RelationIOManager rightMan;
+
+    /** The pages of the right input, if it is pinned in the buffer
+     * pool. */
+    private List<Page> pinned;
+
+    /** The number of bytes of a block of the left input. */
+    private long blockBytes;
+
+    /** The current block of the left input. */
+    private List<Tuple> block;
+
+    /** The current input batch of the left input. */
+    private TupleBatch leftIn;
+
+    /** The position of the next tuple of the left input batch. */
+    private int leftIndex;
+
+    /** The scan of the right input for the current block. */
+    private Iterator<Tuple> rightTuples;
+
+    /** The right tuple being joined with the current block. */
+    private Tuple rightTuple;
+
+    /** The position of the next tuple of the block to be joined with
+     * the right tuple. */
+    private int blockIndex;
 
-    /** Reusable output list. */
-    private List<Tuple> returnList;
 	
     /**
      * Constructs a new nested loops join operator.
@@ -70,17 +93,6 @@ public class NestedLoopsJoin extends PhysicalJoin {
 	throws EngineException {
         
         super(left, right, sm, predicate);
-        try {
-            leftFile = FileUtil.createTempFileName();
-            sm.createFile(leftFile);
-            rightFile = FileUtil.createTempFileName();
-            sm.createFile(rightFile);
-            returnList = new ArrayList<Tuple>();            
-        }
-        catch (StorageManagerException sme) {
-            throw new EngineException("Could not instantiate "
-                                      + "nested-loops join", sme);
-        }
     } // NestedLoopsJoin()
 
     
@@ -93,59 +105,29 @@ public class NestedLoopsJoin extends PhysicalJoin {
     @Override
     protected void setup() throws EngineException {
         try {
-            // this is a blocking operator -- store the input
-            // in temporary files
-            
-            // store the left input
-            Relation leftRel = getInputOperator(LEFT).getOutputRelation();
-            RelationIOManager leftMan =
-                new RelationIOManager(getStorageManager(), leftRel, leftFile);
-            boolean done = false;
-            while (! done) {
-                Tuple tuple = getInputOperator(LEFT).getNext();
-                if (tuple != null) {
-                    done = (tuple instanceof EndOfStreamTuple);
-                    if (! done) leftMan.insertTuple(tuple);
-                }
-            }
-            
-            // store the right input
+            // the file is created here rather than on construction, so
+            // that a join that is closed unread owns no file
+            rightFile = FileUtil.createTempFileName();
+            getStorageManager().createFile(rightFile);
+            // store the right input -- it is scanned once per block
             Relation rightRel = getInputOperator(RIGHT).getOutputRelation();
-            RelationIOManager rightMan = 
+            rightMan = 
                 new RelationIOManager(getStorageManager(), rightRel, rightFile);
-            done = false;
-            while (! done) {
-                Tuple tuple = getInputOperator(RIGHT).getNext();
-                if (tuple != null) {
-                    done = (tuple instanceof EndOfStreamTuple);
-                    if (! done) rightMan.insertTuple(tuple);
-                }
-            }
+            store(getInputOperator(RIGHT), rightMan);
             
-            // the inputs are now stored -- perform the nested loops join
-            outputFile = FileUtil.createTempFileName();
-            getStorageManager().createFile(outputFile);
-            outputMan = new RelationIOManager(getStorageManager(), 
-                                              getOutputRelation(), 
-                                              outputFile);
-            for (Tuple leftTuple : leftMan.tuples()) {
-                for (Tuple rightTuple : rightMan.tuples()) {
-                    PredicateTupleInserter.insertTuples(leftTuple, 
-                                                        rightTuple,
-                                                        getPredicate());
-                    if (PredicateEvaluator.evaluate(getPredicate())) {
-                        // the predicate is true -- store the new tuple
-                        Tuple newTuple = combineTuples(leftTuple, rightTuple);
-                        outputMan.insertTuple(newTuple);
-                    }
-                }
+            int half = getStorageManager().getNumberOfBufferPoolPages() / 2;
+            if (FileUtil.getNumberOfPages(rightFile) <= half) {
+                // the inner input fits in half the buffer pool -- pin
+                // it and loop over the resident pages, instead of
+                // going through the storage manager for every pass
+                pinned = rightMan.pinPages();
             }
-            
-            //outputMan = new RelationIOManager(getStorageManager(),
-            //                                  getOutputRelation(),
-            //                                  outputFile);
-            // now open the iterator over the output
-            outputTuples = outputMan.tuples().iterator();
+            // the left blocks take up the other half of the pool
+            blockBytes = (long) Math.max(1, half) * Sizes.PAGE_SIZE;
+            block = new ArrayList<Tuple>();
+            leftIn = null;
+            rightTuples = null;
+            rightTuple = null;
         }
         catch (IOException ioe) {
             throw new EngineException("Could not create page/tuple iterators.",
@@ -157,6 +139,71 @@ public class NestedLoopsJoin extends PhysicalJoin {
         }
     } // setup()
 
+
+    /**
+     * Reads the next block of the left input.
+     *
+     * @return <code>true</code> if a non-empty block was read,
+     * <code>false</code> if the left input is exhausted.
+     * @throws EngineException thrown whenever the left input cannot
+     * be read.
+     */
+    private boolean nextBlock() throws EngineException {
+        block.clear();
+        TupleIOManager left =
+            new TupleIOManager(getInputOperator(LEFT).getOutputRelation());
+        long bytes = 0;
+        while (bytes < blockBytes) {
+            if (leftIn == null || leftIndex == leftIn.size()) {
+                if (leftIn != null && leftIn.isEndOfStream()) break;
+                leftIn = getInputOperator(LEFT).nextBatch();
+                leftIndex = 0;
+                continue;
+            }
+            Tuple tuple = leftIn.get(leftIndex++);
+            block.add(tuple);
+            bytes += left.byteSize(tuple);
+        }
+        return block.size() > 0;
+    } // nextBlock()
+
+
+    /**
+     * Opens a scan of the right input.
+     *
+     * @return an iterator over the right input.
+     * @throws EngineException thrown whenever the scan cannot be
+     * opened.
+     */
+    private Iterator<Tuple> scanRight() throws EngineException {
+        if (pinned == null) {
+            try {
+                return rightMan.tuples().iterator();
+            }
+            catch (Exception e) {
+                throw new EngineException("Could not scan the inner input.",
+                                          e);
+            }
+        }
+        
+        final Iterator<Page> pages = pinned.iterator();
+        return new Iterator<Tuple>() {
+            /** The tuples of the current page. */
+            private Iterator<Tuple> tuples = null;
+            public boolean hasNext() {
+                while (tuples == null || ! tuples.hasNext()) {
+                    if (! pages.hasNext()) return false;
+                    tuples = pages.next().iterator();
+                }
+                return true;
+            } // hasNext()
+            public Tuple next() {
+                if (! hasNext()) throw new NoSuchElementException();
+                return tuples.next();
+            } // next()
+        };
+    } // scanRight()
+
     
     /**
      * Cleanup after the join.
@@ -167,9 +214,10 @@ public class NestedLoopsJoin extends PhysicalJoin {
     @Override
     protected void cleanup() throws EngineException {
         try {
-            getStorageManager().deleteFile(leftFile);
+            if (pinned != null) rightMan.unpinPages(pinned);
+            pinned = null;
+            block = null;
             getStorageManager().deleteFile(rightFile);
-            getStorageManager().deleteFile(outputFile);
         }
         catch (StorageManagerException sme) {
             throw new EngineException("Could not clean up final output", sme);
@@ -177,25 +225,49 @@ public class NestedLoopsJoin extends PhysicalJoin {
     } // cleanup()
     
     /**
-     * Inner method to propagate a tuple.
+     * The join produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with join results, picking up the loops
+     * where the previous batch left them.
      * 
-     * @return an array of resulting tuples.
+     * @param batch the batch to be filled.
      * @throws EngineException thrown whenever there is an error in
      * execution.
      */
     @Override
-    protected List<Tuple> innerGetNext () throws EngineException {
-        try {
-            returnList.clear();
-            if (outputTuples.hasNext()) returnList.add(outputTuples.next());
-            else returnList.add(new EndOfStreamTuple());
-            return returnList;
-        }
-        catch (Exception sme) {
-            throw new EngineException("Could not read tuples "
-                                      + "from intermediate file.", sme);
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        TuplePredicate predicate = getTuplePredicate();
+        while (! batch.isFull()) {
+            if (rightTuple == null) {
+                if (rightTuples == null || ! rightTuples.hasNext()) {
+                    // this block is done -- move on to the next one
+                    if (! nextBlock()) {
+                        batch.setEndOfStream();
+                        return;
+                    }
+                    rightTuples = scanRight();
+                    continue;
+                }
+                rightTuple = rightTuples.next();
+                blockIndex = 0;
+            }
+            while (blockIndex < block.size() && ! batch.isFull()) {
+                Tuple leftTuple = block.get(blockIndex++);
+                if (predicate.evaluate(leftTuple, rightTuple))
+                    batch.add(combineTuples(leftTuple, rightTuple));
+            }
+            if (blockIndex == block.size()) rightTuple = null;
         }
-    } // innerGetNext()
+    } // innerNextBatch()
         
 
     @Override
@@ -1,6 +1,8 @@
 /*
  * Created on Dec 8, 2003 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -13,7 +15,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+import org.dejave.attica.engine.vectors.ColumnBatch;
 import org.dejave.attica.model.Relation;
+import org.dejave.attica.storage.RelationIOManager;
+import org.dejave.attica.storage.StorageManagerException;
 import org.dejave.attica.storage.Tuple;
 
 /**
@@ -31,9 +36,36 @@ import org.dejave.attica.storage.Tuple;
  * buffers all multiple possible outputs and returns a single tuple to
  * the caller through a getNext() call.
  *
+ * Operators can also be driven a batch at a time through nextBatch().
+ * Operators that produce batches natively override innerNextBatch()
+ * and producesBatches(), and their tuple interface becomes an adapter
+ * over their batches; for all other operators nextBatch() is an
+ * adapter over the tuple interface.  An operator should be consumed
+ * through one of the two interfaces, not both.
+ *
+ * Finally, operators can be driven a column batch at a time through
+ * nextColumnBatch().  Operators whose work maps onto column kernels
+ * override innerNextColumnBatch() and producesColumns(); for all
+ * other operators nextColumnBatch() loads their batches into columns.
+ * Consumers that can exploit columns pull them; everybody else keeps
+ * using tuples.
+ *
  * @author sviglas
  */
 public abstract class Operator {
+
+    /** The default number of tuples per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /** The number of tuples per batch. */
+    private static int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** The default number of pages of memory for hash tables. */
+    public static final int DEFAULT_HASH_MEMORY = 1024;
+
+    /** The number of pages of memory an operator may use for its
+     * in-memory hash tables. */
+    private static int hashMemory = DEFAULT_HASH_MEMORY;
 	
     /** A counter of already produced tuples -- all subclasses have access
      * to this counter. */
@@ -54,9 +86,21 @@ public abstract class Operator {
     /** Is this the first call to getNext() or not? */
     private boolean firstGetNext;
 
+    /** Has this operator been cleaned up? */
+    private boolean closed;
+
     private List<Tuple> buffer;
     private int bufferIndex;
     private boolean fromBuffer;
+
+    /** The reusable output batch of this operator. */
+    private TupleBatch batch;
+
+    /** Reusable list for the tuple interface over batches. */
+    private List<Tuple> batchList;
+
+    /** The reusable column batch for operators without columns. */
+    private ColumnBatch columns;
 		
     /**
      * Default constructor.
@@ -87,6 +131,58 @@ public abstract class Operator {
     } // Operator()
 
     
+    /**
+     * Sets the number of tuples per batch for all operators created
+     * from now on.
+     *
+     * @param size the number of tuples per batch.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    public static void setBatchSize(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("Batches must hold at least "
+                                               + "one tuple.");
+        batchSize = size;
+    } // setBatchSize()
+
+
+    /**
+     * Returns the number of tuples per batch.
+     *
+     * @return the number of tuples per batch.
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    } // getBatchSize()
+
+    
+    /**
+     * Sets the memory budget of in-memory hash tables for all
+     * operators.  The budget is counted in pages of tuples as they
+     * would be stored on disk; it is held on the heap, not in the
+     * buffer pool.
+     *
+     * @param pages the number of pages of memory.
+     * @throws IllegalArgumentException if the budget is not positive.
+     */
+    public static void setHashMemory(int pages) {
+        if (pages < 1)
+            throw new IllegalArgumentException("Hash tables need at least "
+                                               + "one page of memory.");
+        hashMemory = pages;
+    } // setHashMemory()
+
+
+    /**
+     * Returns the memory budget of in-memory hash tables.
+     *
+     * @return the number of pages of memory.
+     */
+    public static int getHashMemory() {
+        return hashMemory;
+    } // getHashMemory()
+
+    
     /**
      * Returns the number of inputs of this operator.
      * 
@@ -189,6 +285,10 @@ public abstract class Operator {
      * wrong with retrieving tuples from this operator.
      */	
     public List<Tuple> getMultiNext() throws EngineException {
+        // operators that produce batches natively hand them out as
+        // lists
+        if (producesBatches()) return batchAsList();
+        
         // call setup the first time the operator is called -- NB: we
         // could not have called that during construction, because all
         // resources might not have been available then
@@ -201,10 +301,212 @@ public abstract class Operator {
         List<Tuple> t = innerGetNext();
         while (t.size() == 0) t = innerGetNext();
         // clean up if we've seen the end
-        if (t.size() == 1 && t.get(0) instanceof EndOfStreamTuple) cleanup();
+        if (t.size() == 1 && t.get(0) instanceof EndOfStreamTuple) finish();
         
         return t;
     } // getNext()
+
+
+    /**
+     * Fetch the next batch of tuples from this operator.  The batch
+     * is reused across calls, so its tuples must be consumed (or
+     * copied) before the next call.  A batch may be empty without
+     * being the last one.
+     *
+     * @return the next batch of this operator.
+     * @throws EngineException thrown whenever there is something
+     * wrong with retrieving tuples from this operator.
+     */
+    public TupleBatch nextBatch() throws EngineException {
+        if (firstGetNext) {
+            setup();
+            firstGetNext = false;
+        }
+        if (batch == null) batch = new TupleBatch(batchSize);
+        batch.clear();
+        innerNextBatch(batch);
+        if (batch.isEndOfStream()) finish();
+        return batch;
+    } // nextBatch()
+
+
+    /**
+     * Does this operator implement innerNextBatch() natively?
+     * Operators that do should return <code>true</code>, so that
+     * their tuple interface is served from their batches.
+     *
+     * @return <code>false</code> by default.
+     */
+    protected boolean producesBatches() {
+        return false;
+    } // producesBatches()
+
+
+    /**
+     * Inner method to fill the next batch of this operator.  The
+     * default implementation is an adapter over the tuple interface.
+     *
+     * @param batch the empty batch to be filled.
+     * @throws EngineException thrown whenever there is something
+     * wrong with retrieving tuples from this operator.
+     */
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        while (! batch.isFull()) {
+            for (Tuple tuple : innerGetNext()) {
+                if (tuple instanceof EndOfStreamTuple) {
+                    batch.setEndOfStream();
+                    return;
+                }
+                batch.add(tuple);
+            }
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Fetch the next column batch from this operator.  As with
+     * nextBatch(), the batch is reused across calls and may be empty
+     * without being the last one; only the rows in its selection are
+     * part of the output.
+     *
+     * @return the next column batch of this operator.
+     * @throws EngineException thrown whenever there is something
+     * wrong with retrieving tuples from this operator.
+     */
+    public ColumnBatch nextColumnBatch() throws EngineException {
+        if (! producesColumns()) {
+            TupleBatch in = nextBatch();
+            if (columns == null)
+                columns = new ColumnBatch(getOutputRelation(), batchSize);
+            columns.clear();
+            for (int i = 0; i < in.size(); i++) columns.add(in.get(i));
+            if (in.isEndOfStream()) columns.setEndOfStream();
+            return columns;
+        }
+        
+        if (firstGetNext) {
+            setup();
+            firstGetNext = false;
+        }
+        ColumnBatch next = innerNextColumnBatch();
+        if (next.isEndOfStream()) finish();
+        return next;
+    } // nextColumnBatch()
+
+
+    /**
+     * Does this operator implement innerNextColumnBatch() natively?
+     *
+     * @return <code>false</code> by default.
+     */
+    protected boolean producesColumns() {
+        return false;
+    } // producesColumns()
+
+
+    /**
+     * Inner method to produce the next column batch of this
+     * operator.  Only called for operators that produce columns.
+     *
+     * @return the next column batch.
+     * @throws EngineException thrown whenever there is something
+     * wrong with retrieving tuples from this operator, and by
+     * default.
+     */
+    protected ColumnBatch innerNextColumnBatch() throws EngineException {
+        throw new EngineException("Operator " + toStringSingle()
+                                  + " does not produce columns.");
+    } // innerNextColumnBatch()
+
+
+    /**
+     * Serves the tuple interface from the batch interface.
+     *
+     * @return the tuples of the next non-empty batch, followed by an
+     * end-of-stream tuple if the stream has ended.
+     * @throws EngineException thrown whenever there is something
+     * wrong with retrieving tuples from this operator.
+     */
+    private List<Tuple> batchAsList() throws EngineException {
+        TupleBatch next = nextBatch();
+        while (next.size() == 0 && ! next.isEndOfStream()) next = nextBatch();
+        if (batchList == null) batchList = new ArrayList<Tuple>(batchSize+1);
+        batchList.clear();
+        for (int i = 0; i < next.size(); i++) batchList.add(next.get(i));
+        if (next.isEndOfStream()) batchList.add(new EndOfStreamTuple());
+        return batchList;
+    } // batchAsList()
+
+
+    /**
+     * Fills a batch from an iterator, marking it as the last one of
+     * the stream once the iterator is exhausted.
+     *
+     * @param tuples the iterator.
+     * @param batch the batch to be filled.
+     */
+    protected static void fillBatch(Iterator<Tuple> tuples, TupleBatch batch) {
+        while (! batch.isFull()) {
+            if (! tuples.hasNext()) {
+                batch.setEndOfStream();
+                return;
+            }
+            batch.add(tuples.next());
+        }
+        if (! tuples.hasNext()) batch.setEndOfStream();
+    } // fillBatch()
+
+
+    /**
+     * Loads the next tuples of an iterator into a column batch, up to
+     * the batch size, marking the batch as the last one of the stream
+     * once the iterator is exhausted.
+     *
+     * @param tuples the iterator.
+     * @param batch the batch to be filled.
+     */
+    protected static void fillColumns(Iterator<Tuple> tuples,
+                                      ColumnBatch batch) {
+        while (batch.getNumberOfRows() < batchSize && tuples.hasNext())
+            batch.add(tuples.next());
+        if (! tuples.hasNext()) batch.setEndOfStream();
+    } // fillColumns()
+
+
+    /**
+     * Stores the whole output of an operator in a file, a batch at a
+     * time.  Operators that produce columns are drained through their
+     * column batches.
+     *
+     * @param operator the operator.
+     * @param manager the manager of the file.
+     * @throws EngineException thrown whenever the operator's output
+     * cannot be retrieved.
+     * @throws StorageManagerException thrown whenever the output
+     * cannot be stored.
+     */
+    protected static void store(Operator operator, RelationIOManager manager)
+        throws EngineException, StorageManagerException {
+        
+        if (operator.producesColumns()) {
+            ColumnBatch columns;
+            do {
+                columns = operator.nextColumnBatch();
+                int [] selection = columns.selection();
+                for (int k = 0; k < columns.size(); k++)
+                    manager.insertTuple(columns.tuple(selection[k]));
+            } while (! columns.isEndOfStream());
+            manager.flush();
+            return;
+        }
+        
+        TupleBatch in;
+        do {
+            in = operator.nextBatch();
+            for (int i = 0; i < in.size(); i++) manager.insertTuple(in.get(i));
+        } while (! in.isEndOfStream());
+        manager.flush();
+    } // store()
     
 	
     /**
@@ -218,6 +520,36 @@ public abstract class Operator {
         // default implementation is a no-op
     } // cleanup()
 
+
+    /**
+     * Cleans up after this operator once its stream has ended.
+     *
+     * @throws EngineException thrown whenever there is something wrong
+     * during cleanup.
+     */
+    private void finish() throws EngineException {
+        if (closed) return;
+        closed = true;
+        cleanup();
+    } // finish()
+
+
+    /**
+     * Closes this operator before its stream has ended, along with
+     * all its inputs.  Operators that stop reading an input early
+     * (e.g., because they have output all the tuples they need) call
+     * this so that the input's resources are released all the same.
+     * Operators that were never read from have nothing to release, as
+     * operators create their temporary files in setup().
+     *
+     * @throws EngineException thrown whenever there is something wrong
+     * during cleanup.
+     */
+    public void close() throws EngineException {
+        if (! firstGetNext) finish();
+        for (Operator operator : inOps) operator.close();
+    } // close()
+
     
     /**
      * Inner method to fetch the next tuple(s) from this operator.
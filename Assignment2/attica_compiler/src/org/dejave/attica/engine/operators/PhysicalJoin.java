@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -17,6 +19,7 @@ import org.dejave.attica.model.Attribute;
 import org.dejave.attica.model.Relation;
 
 import org.dejave.attica.engine.predicates.Predicate;
+import org.dejave.attica.engine.predicates.TuplePredicate;
 
 import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.Tuple;
@@ -36,6 +39,9 @@ public abstract class PhysicalJoin extends BinaryOperator {
     /** The predicate evaluated by this join operator. */
     private Predicate predicate;
 
+    /** The predicate compiled for tuples. */
+    private TuplePredicate tuplePredicate;
+
 	
     /**
      * Constructs a new physical join operator.
@@ -54,6 +60,7 @@ public abstract class PhysicalJoin extends BinaryOperator {
         super(left, right);
         this.sm = sm;
         this.predicate = predicate;
+        tuplePredicate = TuplePredicate.compile(predicate);
     } // PhysicalJoin()
 
 
@@ -76,6 +83,18 @@ public abstract class PhysicalJoin extends BinaryOperator {
         return predicate;
     } // getPredicate()
 
+
+    /**
+     * Retrieves the predicate of this physical join compiled for
+     * tuples, the left and right tuples being those of the left and
+     * right inputs.
+     *
+     * @return the compiled predicate.
+     */
+    protected TuplePredicate getTuplePredicate() {
+        return tuplePredicate;
+    } // getTuplePredicate()
+
     
     /**
      * Sets the output relation for this operator.
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -12,7 +14,9 @@ package org.dejave.attica.engine.operators;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 
+import org.dejave.attica.engine.vectors.ColumnBatch;
 import org.dejave.attica.model.Attribute;
 import org.dejave.attica.model.Relation;
 
@@ -29,8 +33,22 @@ public class Project extends UnaryOperator {
     /** The slots of tuples to be projected. */	
     private int [] slots;
 
+    /** Does the output follow the order of the slots, instead of the
+     * order of the input? */
+    private boolean ordered;
+
     /** Reusable return list. */
     private List<Tuple> returnList;
+
+    /** The input slot of each output slot, computed once. */
+    private int [] mapping;
+
+    /** The view over the input columns, built on first use. */
+    private ColumnBatch view;
+
+    /** The batch the projected slots of input tuples are loaded
+     * into, built on first use. */
+    private ColumnBatch loaded;
     
     /**
      * Constructs a new projection operator.
@@ -41,11 +59,44 @@ public class Project extends UnaryOperator {
      * cannot be properly initialized.
      */
     public Project(Operator operator, int [] slots) throws EngineException {
+        this(operator, slots, false);
+    } // Project()
+
+
+    /**
+     * Constructs a new projection operator that may also reorder the
+     * attributes of its input.
+     * 
+     * @param operator the input operator.
+     * @param slots the slots to be projected.
+     * @param ordered <code>true</code> if the output should have the
+     * slots in the given order, <code>false</code> if it should keep
+     * the order of the input.
+     * @throws EngineException thrown whenever the projection operator
+     * cannot be properly initialized.
+     */
+    public Project(Operator operator, int [] slots, boolean ordered)
+        throws EngineException {
+        
         super(operator);
         this.slots = slots;
+        this.ordered = ordered;
         returnList = new ArrayList<Tuple>();
     } // Project()
 
+    /**
+     * Sets up the projection by computing its slot mapping, which
+     * comes with the output relation.
+     *
+     * @throws EngineException thrown whenever the output relation
+     * cannot be constructed.
+     */
+    @Override
+    protected void setup() throws EngineException {
+        getOutputRelation();
+    } // setup()
+
+
     /**
      * Processes an incoming tuple.
      * 
@@ -59,19 +110,99 @@ public class Project extends UnaryOperator {
     protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp) 
 	throws EngineException {
         
-        List<Comparable> newValues = new ArrayList<Comparable>();
-        for (int i = 0; i < tuple.size(); i++) {
-            if (containsSlot(i)) newValues.add(tuple.getValue(i));
-        }
-
         // I have a bad feeling about this...
         returnList.clear();
-        returnList.add(
-            new Tuple(new IntermediateTupleIdentifier(tupleCounter++),
-                      newValues));
+        returnList.add(project(tuple));
         return returnList;
     } // innerProcessTuple()
 
+
+    /**
+     * Projections produce batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with the projections of the tuples of the
+     * next input batch.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the input cannot be
+     * retrieved.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        TupleBatch in = getInputOperator().nextBatch();
+        for (int i = 0; i < in.size(); i++) batch.add(project(in.get(i)));
+        if (in.isEndOfStream()) batch.setEndOfStream();
+    } // innerNextBatch()
+
+
+    /**
+     * Projections produce columns natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesColumns() {
+        return true;
+    } // producesColumns()
+
+
+    /**
+     * Projects the next input column batch.  If the input produces
+     * columns natively, the projection is a view sharing the
+     * projected columns and the selection of the input, so no values
+     * are copied.  Otherwise only the projected slots of the input
+     * tuples are loaded, so the remaining slots are never decoded.
+     *
+     * @return the projected batch.
+     * @throws EngineException thrown whenever the input cannot be
+     * retrieved.
+     */
+    @Override
+    protected ColumnBatch innerNextColumnBatch() throws EngineException {
+        Operator input = getInputOperator();
+        if (! input.producesColumns()) {
+            TupleBatch in = input.nextBatch();
+            if (loaded == null)
+                loaded = new ColumnBatch(getOutputRelation(),
+                                         getBatchSize());
+            loaded.clear();
+            for (int i = 0; i < in.size(); i++)
+                loaded.add(in.get(i), mapping);
+            if (in.isEndOfStream()) loaded.setEndOfStream();
+            return loaded;
+        }
+        
+        ColumnBatch in = input.nextColumnBatch();
+        if (view == null) view = ColumnBatch.view(getOutputRelation());
+        view.project(in, mapping);
+        return view;
+    } // innerNextColumnBatch()
+
+    
+    /**
+     * Projects a single tuple.
+     *
+     * @param tuple the tuple to be projected.
+     * @return the projected tuple.
+     */
+    private Tuple project(Tuple tuple) {
+        
+        List<Comparable> newValues =
+            new ArrayList<Comparable>(mapping.length);
+        for (int slot : mapping) newValues.add(tuple.getValue(slot));
+        return new Tuple(new IntermediateTupleIdentifier(tupleCounter++),
+                         newValues);
+    } // project()
+
     
     /**
      * Is the given slot contained in the projection array?
@@ -90,7 +221,8 @@ public class Project extends UnaryOperator {
 
 
     /**
-     * Sets the output relation of this projection.
+     * Sets the output relation of this projection, mapping each
+     * output slot to the input slot it is projected from.
      *
      * @return the output relation of this projection.
      * @throws EngineException if the output relation cannot be
@@ -101,15 +233,19 @@ public class Project extends UnaryOperator {
         try {
             Operator incoming = getInputOperator();
             Relation inputRelation = incoming.getOutputRelation();
-            List<Attribute> attrs = new ArrayList<Attribute>();
-            for (int slot = 0;
-                 slot < inputRelation.getNumberOfAttributes(); slot++) {
-                if (containsSlot(slot)) {
-                    //attrs.addElement(attr);
-                    attrs.add(inputRelation.getAttribute(slot));
-                    //System.out.println(attrs);
-                }
+            if (ordered) {
+                mapping = slots.clone();
+            }
+            else {
+                int n = 0;
+                mapping = new int[inputRelation.getNumberOfAttributes()];
+                for (int slot = 0; slot < mapping.length; slot++)
+                    if (containsSlot(slot)) mapping[n++] = slot;
+                mapping = Arrays.copyOf(mapping, n);
             }
+            List<Attribute> attrs = new ArrayList<Attribute>(mapping.length);
+            for (int slot : mapping)
+                attrs.add(inputRelation.getAttribute(slot));
             return new Relation(attrs);
         }
         catch (Exception e) {
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -43,9 +45,6 @@ public class RelationScan extends SourceOperator {
 
     /** The iterator over the input file. */
     private Iterator<Tuple> tuples;
-
-    /** Reusable return list. */
-    private List<Tuple> returnList;
 	
     /**
      * Constructs a new relation scan operator
@@ -88,7 +87,6 @@ public class RelationScan extends SourceOperator {
     protected void setup() throws EngineException {
         try {
             tuples = inputMan.tuples().iterator();
-            returnList = new ArrayList<Tuple>();
         }
         catch (Exception sme) {
             throw new EngineException("Could not set up a relation scan.", sme);
@@ -97,25 +95,33 @@ public class RelationScan extends SourceOperator {
 
     
     /**
-     * Inner method to retrieve the next tuple(s).
+     * The relation scan produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Inner method to fill the next batch.
      * 
-     * @return an array of newly retrieved tuples.
-     * @throws EngineException whenever the next tuple(s) cannot be
+     * @param batch the batch to be filled.
+     * @throws EngineException whenever the next tuples cannot be
      * retrieved.
      */
     @Override
-    protected List<Tuple> innerGetNext () throws EngineException {
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
         try {
-            returnList.clear();
-            if (tuples.hasNext()) returnList.add(tuples.next());
-            else returnList.add(new EndOfStreamTuple());
-            return returnList;
+            fillBatch(tuples, batch);
         }
         catch (Exception sme) {
             throw new EngineException("Could not fetch a tuples from "
                                       + "a relation scan.", sme);
         }
-    } // innerGetNext()
+    } // innerNextBatch()
 
 
     /**
@@ -130,8 +136,7 @@ public class RelationScan extends SourceOperator {
     @Override
     protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
 	throws EngineException {
-        returnList.clear();
-        return returnList;
+        return new ArrayList<Tuple>();
     } // innerProcessTuple()
     
 
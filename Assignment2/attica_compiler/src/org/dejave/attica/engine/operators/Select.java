@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -14,8 +16,9 @@ import java.util.List;
 import java.util.ArrayList;
 
 import org.dejave.attica.engine.predicates.Predicate;
-import org.dejave.attica.engine.predicates.PredicateEvaluator;
-import org.dejave.attica.engine.predicates.PredicateTupleInserter;
+import org.dejave.attica.engine.predicates.TuplePredicate;
+import org.dejave.attica.engine.vectors.ColumnBatch;
+import org.dejave.attica.engine.vectors.VectorPredicate;
 
 import org.dejave.attica.model.Relation;
 
@@ -34,6 +37,12 @@ public class Select extends UnaryOperator {
 
     /** Reusable return list. */
     private List<Tuple> returnList;
+
+    /** The predicate compiled for tuples. */
+    private TuplePredicate tuplePredicate;
+
+    /** The predicate compiled for column batches. */
+    private VectorPredicate vectorPredicate;
 	
     /**
      * Constructs a new selection operator given its input.
@@ -49,6 +58,7 @@ public class Select extends UnaryOperator {
         
         super(operator);
         this.predicate = predicate;
+        tuplePredicate = TuplePredicate.compile(predicate);
         returnList = new ArrayList<Tuple>();
     } // Select()
 
@@ -66,20 +76,95 @@ public class Select extends UnaryOperator {
     protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
 	throws EngineException {
         
-        // call the tuple inserter to insert the tuple into the predicate
-        // for proper evaluation
-        PredicateTupleInserter.insertTuple(tuple, predicate);
-        boolean value = PredicateEvaluator.evaluate(predicate);
         returnList.clear();
-        if (value) {
-            Tuple out =
-                new Tuple(new IntermediateTupleIdentifier(tupleCounter++),
-                          tuple.getValues());
-            returnList.add(out);
-        }
+        if (qualifies(tuple)) returnList.add(output(tuple));
         return returnList;
     } // innerProcessTuple()
 
+
+    /**
+     * Selections produce batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with the qualifying tuples of the next
+     * input batch.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the input cannot be
+     * retrieved.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        TupleBatch in = getInputOperator().nextBatch();
+        for (int i = 0; i < in.size(); i++) {
+            Tuple tuple = in.get(i);
+            if (qualifies(tuple)) batch.add(output(tuple));
+        }
+        if (in.isEndOfStream()) batch.setEndOfStream();
+    } // innerNextBatch()
+
+
+    /**
+     * Selections produce columns natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesColumns() {
+        return true;
+    } // producesColumns()
+
+
+    /**
+     * Narrows the selection of the next input column batch to the
+     * qualifying rows.  The input batch is handed out as is.
+     *
+     * @return the filtered batch.
+     * @throws EngineException thrown whenever the input cannot be
+     * retrieved.
+     */
+    @Override
+    protected ColumnBatch innerNextColumnBatch() throws EngineException {
+        if (vectorPredicate == null)
+            vectorPredicate = VectorPredicate.compile(predicate);
+        ColumnBatch in = getInputOperator().nextColumnBatch();
+        vectorPredicate.apply(in);
+        return in;
+    } // innerNextColumnBatch()
+
+    
+    /**
+     * Evaluates the predicate over a tuple.
+     *
+     * @param tuple the tuple.
+     * @return <code>true</code> if the tuple satisfies the predicate,
+     * <code>false</code> otherwise.
+     */
+    private boolean qualifies(Tuple tuple) {
+        return tuplePredicate.evaluate(tuple);
+    } // qualifies()
+
+
+    /**
+     * Builds the output tuple of a qualifying input tuple.  An encoded
+     * input tuple is passed on still encoded, so that slots no
+     * operator downstream asks for are never decoded.
+     *
+     * @param tuple the input tuple.
+     * @return the output tuple.
+     */
+    private Tuple output(Tuple tuple) {
+        return tuple.copy(new IntermediateTupleIdentifier(tupleCounter++));
+    } // output()
+
     
     /**
      * Return a new relation for this operator's output relation.
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -24,8 +26,12 @@ import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.StorageManagerException;
 
 /**
- * Sink: An operator acting as a sink for other operators (i.e., it
- * simply saves its input and propagates it on getNext() calls).
+ * Sink: An operator acting as a sink for other operators.  By default
+ * the sink streams: it propagates its input as it is produced, so the
+ * first tuples of a result are available as soon as the plan
+ * produces them.  A materialising sink instead saves its whole input
+ * to a file on the first call and propagates the file's tuples; this
+ * is only worth it for results that need to be re-read.
  *
  * @author sviglas
  */
@@ -45,6 +51,9 @@ public class Sink extends UnaryOperator {
 
     /** The reusable list of return tuples. */
     private List<Tuple> returnList;
+
+    /** Does this sink materialise its input? */
+    private boolean materialise;
     
     /**
      * Default constructor.
@@ -70,11 +79,45 @@ public class Sink extends UnaryOperator {
     public Sink(Operator operator, StorageManager sm, String filename) 
 	throws EngineException {
         
+        this(operator, sm, filename, false);
+    } // Sink()
+
+
+    /**
+     * Constructs a new sink operator, specifying whether it
+     * materialises its input.
+     * 
+     * @param operator the input operator to this sink.
+     * @param sm this sink's storage manager.
+     * @param filename the name of the file where the data will be
+     * stored if the sink materialises its input.
+     * @param materialise if set to <code>true</code> the input is
+     * saved to the file before it is propagated, if set to
+     * <code>false</code> it is streamed.
+     * @throws EngineException thrown whenever the operator cannot be
+     * properly initialised.
+     */
+    public Sink(Operator operator, StorageManager sm, String filename,
+                boolean materialise) throws EngineException {
+        
         super(operator);
         this.sm = sm;
         this.filename = filename;
+        this.materialise = materialise;
+        returnList = new ArrayList<Tuple>();
     } // Sink()
 
+
+    /**
+     * Does this sink materialise its input?
+     *
+     * @return <code>true</code> if the input is saved to a file
+     * before it is propagated, <code>false</code> if it is streamed.
+     */
+    public boolean isMaterialising() {
+        return materialise;
+    } // isMaterialising()
+
     
     /**
      * Sets up this sink operator.
@@ -83,24 +126,18 @@ public class Sink extends UnaryOperator {
      */
     @Override
     protected void setup() throws EngineException {
+        // a streaming sink has nothing to set up
+        if (! materialise) return;
         try {
             sm.createFile(filename);
             Relation rel = getInputOperator().getOutputRelation();
             man = new RelationIOManager(sm, rel, filename);
-            boolean done = false;
-            while (! done) {
-                Tuple tuple = getInputOperator().getNext();
-                if (tuple != null) {
-                    done = (tuple instanceof EndOfStreamTuple);
-                    if (! done) man.insertTuple(tuple);
-                }
-            }
+            store(getInputOperator(), man);
             //man = new RelationIOManager(sm, rel, filename);
             // I should burn in hell for initialising fields after
             // construction, but I'll probably burn in hell anyway, so
             // what's one more reason...
             tuples = man.tuples().iterator();
-            returnList = new ArrayList<Tuple>();
         }
         catch (IOException ioe) {
             throw new EngineException("Could not create output iterator.", ioe);
@@ -119,6 +156,7 @@ public class Sink extends UnaryOperator {
      */
     @Override
     protected void cleanup() throws EngineException {
+        if (! materialise) return;
         try {
             sm.deleteFile(filename);
         }
@@ -129,25 +167,41 @@ public class Sink extends UnaryOperator {
     
 
     /**
-     * The inner method to retrieve tuples
-     * 
-     * @return the newly retrieved tuples.
-     * @throws EngineException thrown whenever the next iteration is not 
-     * possible.
+     * Sinks produce batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch either from the input, if streaming, or
+     * from the saved file.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the next batch cannot
+     * be retrieved.
      */
     @Override
-    protected List<Tuple> innerGetNext () throws EngineException {
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        if (! materialise) {
+            TupleBatch in = getInputOperator().nextBatch();
+            for (int i = 0; i < in.size(); i++) batch.add(in.get(i));
+            if (in.isEndOfStream()) batch.setEndOfStream();
+            return;
+        }
+        
         try {
-            returnList.clear();
-            if (tuples.hasNext()) returnList.add(tuples.next());
-            else returnList.add(new EndOfStreamTuple());
-            return returnList;
+            fillBatch(tuples, batch);
         }
         catch (Exception sme) {
             throw new EngineException("Could not read tuples "
                                       + "from intermediate file.", sme);
         }
-    } // innerGetNext()
+    } // innerNextBatch()
 
     
     /**
@@ -180,7 +234,7 @@ public class Sink extends UnaryOperator {
      */
     @Override
     public String toStringSingle() {
-        return "sink <" + filename + ">";
+        return (materialise ? "sink <" + filename + ">" : "sink");
     } // toStringSingle()
     
 } // Sink
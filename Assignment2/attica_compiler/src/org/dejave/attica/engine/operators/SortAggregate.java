@@ -0,0 +1,180 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import org.dejave.attica.engine.vectors.ColumnBatch;
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * SortAggregate: Aggregation over an input sorted on the group keys.
+ * The rows of a group are adjacent, so a single accumulator is kept
+ * and every group is output as soon as the next one starts.
+ *
+ * Without group keys the input is a single group, so it need not be
+ * sorted; an empty input still has one output row, with zero counts
+ * and null for every other aggregate.
+ *
+ * @author agent
+ */
+public class SortAggregate extends UnaryOperator {
+
+    /** The slots that act as the group keys. */
+    private int [] groupSlots;
+
+    /** The aggregate functions. */
+    private Aggregator.Function [] functions;
+
+    /** The slots of the arguments of the aggregate functions. */
+    private int [] argSlots;
+
+    /** The aggregator computing the groups. */
+    private Aggregator aggregator;
+
+    /** The accumulator of the current group, if any. */
+    private Aggregator.Accumulator current;
+
+    /** Has a group been output or started yet? */
+    private boolean anyGroup;
+
+    /** The current batch of the input. */
+    private ColumnBatch in;
+
+    /** The position of the next row of the current batch. */
+    private int inIndex;
+
+    /**
+     * Constructs a new sort-based aggregation operator.
+     *
+     * @param operator the input operator, sorted on the group keys.
+     * @param groupSlots the indexes of the group keys.
+     * @param functions the aggregate functions.
+     * @param argSlots the indexes of the arguments of the aggregate
+     * functions, -1 for counting rows.
+     * @throws EngineException thrown whenever the aggregation
+     * operator cannot be properly initialized.
+     */
+    public SortAggregate(Operator operator, int [] groupSlots,
+                         Aggregator.Function [] functions, int [] argSlots)
+        throws EngineException {
+
+        super(operator);
+        this.groupSlots = groupSlots;
+        this.functions = functions;
+        this.argSlots = argSlots;
+    } // SortAggregate()
+
+
+    /**
+     * Returns the aggregator of this operator, creating it on first
+     * use.
+     *
+     * @return the aggregator.
+     * @throws EngineException thrown whenever the aggregator cannot be
+     * created.
+     */
+    private Aggregator aggregator() throws EngineException {
+        if (aggregator == null)
+            aggregator =
+                new Aggregator(getInputOperator().getOutputRelation(),
+                               groupSlots, functions, argSlots);
+        return aggregator;
+    } // aggregator()
+
+
+    /**
+     * Aggregation produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch with groups, folding the input until each
+     * group ends.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the input cannot be
+     * read.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        Aggregator aggregator = aggregator();
+        while (! batch.isFull()) {
+            if (in == null || inIndex >= in.size()) {
+                if (in != null && in.isEndOfStream()) {
+                    if (current != null)
+                        batch.add(aggregator.toTuple(current,
+                                                     tupleCounter++));
+                    else if (groupSlots.length == 0 && ! anyGroup)
+                        batch.add(aggregator.emptyTuple(tupleCounter++));
+                    current = null;
+                    anyGroup = true;
+                    batch.setEndOfStream();
+                    return;
+                }
+                in = getInputOperator().nextColumnBatch();
+                inIndex = 0;
+                continue;
+            }
+            int row = in.row(inIndex++);
+            if (current != null && aggregator.matches(current, in, row)) {
+                aggregator.update(current, in, row);
+            }
+            else {
+                if (current != null)
+                    batch.add(aggregator.toTuple(current, tupleCounter++));
+                current = aggregator.newGroup(in, row);
+                anyGroup = true;
+            }
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Operator class abstract interface -- never called.
+     */
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
+	throws EngineException {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Operator class abstract interface -- sets the ouput relation of
+     * this aggregation operator.
+     *
+     * @return this operator's output relation.
+     * @throws EngineException whenever the output relation of this
+     * operator cannot be set.
+     */
+    protected Relation setOutputRelation() throws EngineException {
+        return new Relation(aggregator().getOutputRelation());
+    } // setOutputRelation()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the operator's textual representation.
+     */
+    @Override
+    protected String toStringSingle() {
+        return "sort-aggregate <"
+            + Aggregator.describe(groupSlots, functions, argSlots) + ">";
+    } // toStringSingle()
+
+} // SortAggregate
@@ -0,0 +1,246 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * TopN: The first tuples of the input in sort order.  Only the
+ * requested number of tuples is ever kept: they are held in a binary
+ * max-heap on the sort keys, and every input tuple that sorts before
+ * the maximum of a full heap replaces it.  Once the input ends the
+ * heap is sorted in place and output.  Nothing is written to disk.
+ *
+ * @author agent
+ */
+public class TopN extends UnaryOperator {
+
+    /** The slots that act as the sort keys. */
+    private int [] slots;
+
+    /** The number of tuples to output. */
+    private int limit;
+
+    /** The heap of the smallest tuples seen so far, sorted once the
+     * input has ended. */
+    private Tuple [] heap;
+
+    /** The number of tuples in the heap. */
+    private int size;
+
+    /** The position of the next tuple to be output. */
+    private int outIndex;
+
+    /**
+     * Constructs a new top-N operator.
+     *
+     * @param operator the input operator.
+     * @param slots the indexes of the sort keys.
+     * @param limit the number of tuples to output.
+     * @throws EngineException thrown whenever the top-N operator
+     * cannot be properly initialized.
+     */
+    public TopN(Operator operator, int [] slots, int limit)
+        throws EngineException {
+
+        super(operator);
+        this.slots = slots;
+        this.limit = limit;
+    } // TopN()
+
+
+    /**
+     * Compares two tuples on the sort keys.
+     *
+     * @param t1 the first tuple.
+     * @param t2 the second tuple.
+     * @return the outcome of the comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(Tuple t1, Tuple t2) {
+        for (int i = 0; i < slots.length; i++) {
+            int x = t1.getValue(slots[i]).compareTo(t2.getValue(slots[i]));
+            if (x != 0) return x;
+        }
+        return 0;
+    } // compare()
+
+
+    /**
+     * Sets up this operator: reads the whole input through the heap
+     * and sorts what is left in it.
+     *
+     * @throws EngineException thrown whenever there is something wrong
+     * with setting this operator up.
+     */
+    @Override
+    protected void setup() throws EngineException {
+        // the heap grows as needed, so that large limits over small
+        // inputs do not allocate up front
+        heap = new Tuple[Math.min(limit, getBatchSize())];
+        size = 0;
+        outIndex = 0;
+        if (limit == 0) {
+            getInputOperator().close();
+            return;
+        }
+
+        TupleBatch in;
+        do {
+            in = getInputOperator().nextBatch();
+            for (int i = 0; i < in.size(); i++) offer(in.get(i));
+        } while (! in.isEndOfStream());
+
+        // heapsort: move the maximum past the end of the heap until
+        // the heap is empty
+        for (int n = size - 1; n > 0; n--) {
+            Tuple max = heap[0];
+            heap[0] = heap[n];
+            heap[n] = max;
+            siftDown(0, n);
+        }
+    } // setup()
+
+
+    /**
+     * Offers an input tuple to the heap.
+     *
+     * @param tuple the tuple.
+     */
+    private void offer(Tuple tuple) {
+        if (size < limit) {
+            if (size == heap.length) {
+                Tuple [] grown =
+                    new Tuple[(int) Math.min(limit, 2L * heap.length)];
+                System.arraycopy(heap, 0, grown, 0, size);
+                heap = grown;
+            }
+            // sift up
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (compare(heap[parent], tuple) >= 0) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = tuple;
+        }
+        else if (compare(tuple, heap[0]) < 0) {
+            heap[0] = tuple;
+            siftDown(0, size);
+        }
+    } // offer()
+
+
+    /**
+     * Restores the heap property below a position.
+     *
+     * @param i the position.
+     * @param n the number of tuples in the heap.
+     */
+    private void siftDown(int i, int n) {
+        Tuple tuple = heap[i];
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && compare(heap[child + 1], heap[child]) > 0)
+                child++;
+            if (compare(tuple, heap[child]) >= 0) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = tuple;
+    } // siftDown()
+
+
+    /**
+     * Cleanup after the operator.
+     *
+     * @throws EngineException whenever the operator cannot clean up
+     * after itself.
+     */
+    @Override
+    protected void cleanup() throws EngineException {
+        heap = null;
+        size = 0;
+    } // cleanup()
+
+
+    /**
+     * Top-N produces batches natively.
+     *
+     * @return <code>true</code>.
+     */
+    @Override
+    protected boolean producesBatches() {
+        return true;
+    } // producesBatches()
+
+
+    /**
+     * Fills the next batch from the sorted heap.
+     *
+     * @param batch the batch to be filled.
+     * @throws EngineException thrown whenever the batch cannot be
+     * filled.
+     */
+    @Override
+    protected void innerNextBatch(TupleBatch batch) throws EngineException {
+        while (! batch.isFull()) {
+            if (outIndex >= size) {
+                batch.setEndOfStream();
+                return;
+            }
+            batch.add(heap[outIndex++]);
+        }
+    } // innerNextBatch()
+
+
+    /**
+     * Operator class abstract interface -- never called.
+     */
+    protected List<Tuple> innerProcessTuple(Tuple tuple, int inOp)
+	throws EngineException {
+        return new ArrayList<Tuple>();
+    } // innerProcessTuple()
+
+
+    /**
+     * Operator class abstract interface -- sets the ouput relation of
+     * this top-N operator.
+     *
+     * @return this operator's output relation.
+     * @throws EngineException whenever the output relation of this
+     * operator cannot be set.
+     */
+    protected Relation setOutputRelation() throws EngineException {
+        return new Relation(getInputOperator().getOutputRelation());
+    } // setOutputRelation()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the operator's textual representation.
+     */
+    @Override
+    protected String toStringSingle() {
+        StringBuffer sb = new StringBuffer("top-n <");
+        for (int i = 0; i < slots.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(slots[i]);
+        }
+        sb.append(" | " + limit + ">");
+        return sb.toString();
+    } // toStringSingle()
+
+} // TopN
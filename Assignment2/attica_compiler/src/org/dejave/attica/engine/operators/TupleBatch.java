@@ -0,0 +1,138 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.operators;
+
+import java.util.Arrays;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * TupleBatch: A reusable batch of tuples, the unit of transfer of
+ * the batch-at-a-time execution model.  A batch belongs to the
+ * operator that produced it and is only valid until the next call to
+ * that operator's <code>nextBatch()</code>.  The end of the stream is
+ * signalled by a flag on the batch rather than by a special tuple;
+ * the last batch of a stream may still carry tuples.
+ *
+ * @author agent
+ */
+public class TupleBatch {
+
+    /** The tuples of the batch. */
+    private Tuple [] tuples;
+
+    /** The number of tuples in the batch. */
+    private int size;
+
+    /** The number of tuples the batch should hold before it is
+     * considered full. */
+    private int capacity;
+
+    /** Is this the last batch of the stream? */
+    private boolean endOfStream;
+
+    /**
+     * Constructs a new, empty batch.
+     *
+     * @param capacity the number of tuples the batch should hold.
+     */
+    public TupleBatch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        tuples = new Tuple[this.capacity];
+        size = 0;
+        endOfStream = false;
+    } // TupleBatch()
+
+
+    /**
+     * Empties the batch so that it can be reused.
+     */
+    public void clear() {
+        // drop the references so that the tuples can be collected
+        Arrays.fill(tuples, 0, size, null);
+        size = 0;
+        endOfStream = false;
+    } // clear()
+
+
+    /**
+     * Adds a tuple to the batch.  The batch grows if it is already
+     * full, so producers that cannot split their output may overfill
+     * it.
+     *
+     * @param tuple the tuple to be added.
+     */
+    public void add(Tuple tuple) {
+        if (size == tuples.length)
+            tuples = Arrays.copyOf(tuples, 2 * tuples.length);
+        tuples[size++] = tuple;
+    } // add()
+
+
+    /**
+     * Returns a tuple of the batch.
+     *
+     * @param i the index of the tuple.
+     * @return the tuple.
+     */
+    public Tuple get(int i) {
+        return tuples[i];
+    } // get()
+
+
+    /**
+     * Returns the number of tuples in the batch.
+     *
+     * @return the number of tuples in the batch.
+     */
+    public int size() {
+        return size;
+    } // size()
+
+
+    /**
+     * Returns the number of tuples the batch holds when full.
+     *
+     * @return the capacity of the batch.
+     */
+    public int capacity() {
+        return capacity;
+    } // capacity()
+
+
+    /**
+     * Is the batch full?
+     *
+     * @return <code>true</code> if the batch is full,
+     * <code>false</code> otherwise.
+     */
+    public boolean isFull() {
+        return size >= capacity;
+    } // isFull()
+
+
+    /**
+     * Is this the last batch of the stream?
+     *
+     * @return <code>true</code> if the stream ends with this batch,
+     * <code>false</code> otherwise.
+     */
+    public boolean isEndOfStream() {
+        return endOfStream;
+    } // isEndOfStream()
+
+
+    /**
+     * Marks this batch as the last one of the stream.
+     */
+    public void setEndOfStream() {
+        endOfStream = true;
+    } // setEndOfStream()
+
+} // TupleBatch
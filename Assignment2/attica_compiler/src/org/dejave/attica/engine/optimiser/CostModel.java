@@ -0,0 +1,556 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.optimiser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+
+import org.dejave.attica.engine.algebra.Join;
+import org.dejave.attica.engine.algebra.Qualification;
+import org.dejave.attica.engine.algebra.Selection;
+import org.dejave.attica.engine.algebra.Variable;
+import org.dejave.attica.engine.algebra.VariableValueQualification;
+import org.dejave.attica.engine.algebra.VariableVariableQualification;
+import org.dejave.attica.model.Attribute;
+import org.dejave.attica.model.Relation;
+import org.dejave.attica.model.Table;
+import org.dejave.attica.storage.Catalog;
+import org.dejave.attica.storage.ColumnStatistics;
+import org.dejave.attica.storage.FileUtil;
+import org.dejave.attica.storage.Sizes;
+import org.dejave.attica.storage.TableStatistics;
+
+/**
+ * CostModel: Estimates the sizes of sub-plans and the costs of the
+ * physical joins that combine them.  Costs are measured in page
+ * I/Os.  Every tuple an operator compares, hashes or outputs is
+ * charged a small fraction of a page I/O, so that joins that never
+ * touch the disk can still be told apart.
+ *
+ * Tables that have been analysed are estimated from their
+ * statistics: their tuples per page, scaled to their current number
+ * of pages; the histograms of their columns for range predicates; and
+ * the distinct values of their columns for equalities and equi-joins.
+ * For other tables the number of tuples is derived from the number of
+ * pages and the estimated width of the tuples, predicates have fixed
+ * default selectivities, and equi-joins are assumed to be on a key of
+ * the larger table.
+ *
+ * @author agent
+ */
+public class CostModel {
+
+    /** The cost of processing a tuple, in page I/Os. */
+    public static final double CPU_COST = 0.001;
+
+    /** The default selectivity of an equality. */
+    public static final double EQUALS_SELECTIVITY = 0.1;
+
+    /** The default selectivity of an inequality. */
+    public static final double NOT_EQUALS_SELECTIVITY = 0.9;
+
+    /** The default selectivity of a range predicate. */
+    public static final double RANGE_SELECTIVITY = 1.0 / 3;
+
+    /** The estimated width of a string value, in bytes. */
+    private static final int STRING_WIDTH = 24;
+
+    /** The database catalog. */
+    private Catalog catalog;
+
+    /** The number of pages of the buffer pool. */
+    private int bufferPages;
+
+    /** The number of buffers of sorts and hash joins. */
+    private int operatorBuffers;
+
+    /** The number of pages of memory of hash tables. */
+    private int hashPages;
+
+    /** The estimates of the tables seen so far, by name. */
+    private Map<String, Estimate> tables;
+
+    /**
+     * Constructs a new cost model.
+     *
+     * @param catalog the database catalog.
+     * @param bufferPages the number of pages of the buffer pool.
+     * @param hashMemory the number of pages of memory of hash tables.
+     */
+    public CostModel(Catalog catalog, int bufferPages, int hashMemory) {
+        this.catalog = catalog;
+        this.bufferPages = bufferPages;
+        operatorBuffers = Math.max(10, bufferPages / 2);
+        hashPages = Math.max(operatorBuffers, hashMemory);
+        tables = new HashMap<String, Estimate>();
+    } // CostModel()
+
+
+    /**
+     * Estimates the size of a table.
+     *
+     * @param table the name of the table.
+     * @return the estimated size of the table.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    public Estimate estimateTable(String table) throws PlanBuilderException {
+        Estimate estimate = tables.get(table);
+        if (estimate != null) return estimate;
+        try {
+            int pages =
+                FileUtil.getNumberOfPages(catalog.getTableFileName(table));
+            TableStatistics stats = catalog.getStatistics(table);
+            if (stats != null && stats.getTuples() > 0) {
+                // the table may have grown since it was analysed
+                double perPage =
+                    (double) stats.getTuples() / Math.max(1, stats.getPages());
+                estimate = new Estimate(pages * perPage,
+                                        Sizes.PAGE_SIZE / perPage);
+            }
+            else if (stats != null && pages <= stats.getPages()) {
+                estimate = new Estimate(0, width(catalog.getTable(table)));
+            }
+            else {
+                double width = width(catalog.getTable(table));
+                estimate = new Estimate(pages * (Sizes.PAGE_SIZE / width),
+                                        width);
+            }
+            tables.put(table, estimate);
+            return estimate;
+        }
+        catch (NoSuchElementException nsee) {
+            throw new PlanBuilderException("Could not obtain schema "
+                                           + "information.", nsee);
+        }
+        catch (IOException ioe) {
+            throw new PlanBuilderException("Could not estimate the size "
+                                           + "of table " + table + ".", ioe);
+        }
+    } // estimateTable()
+
+
+    /**
+     * Estimates the size of the selected and projected tuples of a
+     * table.
+     *
+     * @param table the name of the table.
+     * @param relation the relation of the projected tuples.
+     * @param selections the selections over the table.
+     * @return the estimated size.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    public Estimate estimateSelection(String table, Relation relation,
+                                      List<Selection> selections)
+        throws PlanBuilderException {
+
+        double tuples = estimateTable(table).tuples;
+        for (Selection selection : selections)
+            tuples *= selectivity((VariableValueQualification)
+                                  selection.getQualification());
+        return new Estimate(tuples, width(relation));
+    } // estimateSelection()
+
+
+    /**
+     * Estimates the size of a join.
+     *
+     * @param left the estimated size of the left input.
+     * @param right the estimated size of the right input.
+     * @param joins the join predicates, none for a cartesian product.
+     * @return the estimated size of the join.
+     * @throws PlanBuilderException thrown whenever the joined tables
+     * cannot be found.
+     */
+    public Estimate estimateJoin(Estimate left, Estimate right,
+                                 List<Join> joins)
+        throws PlanBuilderException {
+
+        double tuples = left.tuples * right.tuples;
+        for (Join join : joins) tuples *= joinSelectivity(join);
+        return new Estimate(tuples, left.width + right.width);
+    } // estimateJoin()
+
+
+    /**
+     * Returns the default selectivity of a relationship.
+     *
+     * @param relationship the relationship.
+     * @return the selectivity.
+     */
+    public double selectivity(Qualification.Relationship relationship) {
+        switch (relationship) {
+        case EQUALS:
+            return EQUALS_SELECTIVITY;
+        case NOT_EQUALS:
+            return NOT_EQUALS_SELECTIVITY;
+        default:
+            return RANGE_SELECTIVITY;
+        }
+    } // selectivity()
+
+
+    /**
+     * Returns the selectivity of a selection predicate, from the
+     * statistics of its attribute if there are any.
+     *
+     * @param vvq the selection predicate.
+     * @return the selectivity.
+     * @throws PlanBuilderException thrown whenever the value of the
+     * predicate does not match the type of its attribute.
+     */
+    public double selectivity(VariableValueQualification vvq)
+        throws PlanBuilderException {
+
+        Qualification.Relationship relationship = vvq.getRelationship();
+        Variable var = vvq.getVariable();
+        ColumnStatistics stats = columnStatistics(var);
+        if (stats == null || stats.getMin() == null)
+            return selectivity(relationship);
+        Comparable value =
+            PlanBuilder.createComparable(stats.getMin().getClass(),
+                                         vvq.getValue());
+        double equal = stats.equalFraction(value);
+        double less = stats.lessFraction(value);
+        double fraction;
+        switch (relationship) {
+        case EQUALS:
+            fraction = equal;
+            break;
+        case NOT_EQUALS:
+            fraction = 1 - equal;
+            break;
+        case LESS:
+            fraction = less;
+            break;
+        case LESS_EQUALS:
+            fraction = less + equal;
+            break;
+        case GREATER:
+            fraction = 1 - less - equal;
+            break;
+        default:
+            fraction = 1 - less;
+            break;
+        }
+        return Math.min(1, Math.max(0, fraction));
+    } // selectivity()
+
+
+    /**
+     * Returns the selectivity of a join predicate.  An equi-join
+     * matches the values of the attribute with fewer distinct values
+     * with those of the other attribute; without statistics, every
+     * tuple of the smaller table is taken to match at most one tuple
+     * of the larger one.
+     *
+     * @param join the join predicate.
+     * @return the selectivity.
+     * @throws PlanBuilderException thrown whenever the joined tables
+     * cannot be found.
+     */
+    public double joinSelectivity(Join join) throws PlanBuilderException {
+        VariableVariableQualification vvq =
+            (VariableVariableQualification) join.getQualification();
+        if (vvq.getRelationship() != Qualification.Relationship.EQUALS)
+            return selectivity(vvq.getRelationship());
+        double left = distinct(vvq.getLeftVariable());
+        double right = distinct(vvq.getRightVariable());
+        return 1 / Math.max(1, Math.max(left, right));
+    } // joinSelectivity()
+
+
+    /**
+     * Returns the number of distinct values of an attribute: the
+     * recorded number if its table has been analysed, the number of
+     * tuples of its table otherwise.
+     *
+     * @param var the attribute.
+     * @return the number of distinct values.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    private double distinct(Variable var) throws PlanBuilderException {
+        ColumnStatistics stats = columnStatistics(var);
+        if (stats != null) return stats.getDistinct();
+        return estimateTable(var.getTable()).tuples;
+    } // distinct()
+
+
+    /**
+     * Returns the statistics of an attribute.
+     *
+     * @param var the attribute.
+     * @return the statistics of the attribute, <code>null</code> if
+     * its table has not been analysed.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    private ColumnStatistics columnStatistics(Variable var)
+        throws PlanBuilderException {
+
+        try {
+            TableStatistics stats = catalog.getStatistics(var.getTable());
+            if (stats == null) return null;
+            Table table = catalog.getTable(var.getTable());
+            for (int i = 0; i < table.getNumberOfAttributes(); i++)
+                if (table.getAttribute(i).getName().equals(var.getAttribute()))
+                    return stats.getColumn(i);
+            return null;
+        }
+        catch (NoSuchElementException nsee) {
+            throw new PlanBuilderException("Could not obtain schema "
+                                           + "information.", nsee);
+        }
+    } // columnStatistics()
+
+
+    /**
+     * Returns the cost of scanning a table.
+     *
+     * @param table the name of the table.
+     * @return the cost.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    public double scanCost(String table) throws PlanBuilderException {
+        Estimate estimate = estimateTable(table);
+        return estimate.pages() + CPU_COST * estimate.tuples;
+    } // scanCost()
+
+
+    /**
+     * Returns the cost of scanning a range of a table through an
+     * index.  The tree is descended once and the leaves holding the
+     * range are read; the matching tuples are then fetched in page
+     * order, so every page of the table holding one of them is read
+     * once.
+     *
+     * @param table the name of the table.
+     * @param height the height of the index.
+     * @param indexPages the number of pages of the index.
+     * @param selectivity the fraction of the tuples in the range.
+     * @return the cost.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    public double indexScanCost(String table, int height, int indexPages,
+                                double selectivity)
+        throws PlanBuilderException {
+
+        Estimate estimate = estimateTable(table);
+        double pages = estimate.pages();
+        double matches = estimate.tuples * selectivity;
+        return height + indexPages * selectivity + touched(pages, matches)
+            + CPU_COST * matches;
+    } // indexScanCost()
+
+
+    /**
+     * Returns the cost of a lookup join of an outer input with a
+     * table, through an index on the join attribute of the table.
+     * The keys of a batch of outer tuples are looked up together:
+     * the inner nodes of the index are read once per batch, and every
+     * leaf and every page of the table holding a match once per
+     * batch, as the matches are fetched in page order.  The table is
+     * never scanned.
+     *
+     * @param outer the estimated size of the outer input.
+     * @param table the name of the table.
+     * @param join the join predicate.
+     * @param height the height of the index.
+     * @param indexPages the number of pages of the index.
+     * @param batchSize the number of outer tuples of a batch.
+     * @param out the estimated size of the join.
+     * @return the cost.
+     * @throws PlanBuilderException thrown whenever the table cannot be
+     * found.
+     */
+    public double lookupJoinCost(Estimate outer, String table, Join join,
+                                 int height, int indexPages, int batchSize,
+                                 Estimate out)
+        throws PlanBuilderException {
+
+        Estimate estimate = estimateTable(table);
+        double matches =
+            outer.tuples * estimate.tuples * joinSelectivity(join);
+        double batches = Math.max(1, Math.ceil(outer.tuples / batchSize));
+        double leaves = touched(indexPages, outer.tuples / batches);
+        double pages = touched(estimate.pages(), matches / batches);
+        return batches * (height - 1 + leaves + pages)
+            + CPU_COST * (outer.tuples + matches + out.tuples);
+    } // lookupJoinCost()
+
+
+    /**
+     * Returns the expected number of distinct pages that hold a number
+     * of tuples spread evenly over a file.
+     *
+     * @param pages the number of pages of the file.
+     * @param tuples the number of tuples.
+     * @return the expected number of pages holding the tuples.
+     */
+    private static double touched(double pages, double tuples) {
+        if (pages <= 1) return Math.min(pages, tuples);
+        return pages * (1 - Math.pow(1 - 1 / pages, tuples));
+    } // touched()
+
+
+    /**
+     * Returns the cost of a block nested loops join.  The right input
+     * is stored and scanned once per block of the left input, unless
+     * it fits in half the buffer pool, in which case it is read only
+     * once.
+     *
+     * @param left the estimated size of the left input.
+     * @param right the estimated size of the right input.
+     * @param out the estimated size of the join.
+     * @return the cost.
+     */
+    public double nestedLoopsCost(Estimate left, Estimate right,
+                                  Estimate out) {
+        int half = Math.max(1, bufferPages / 2);
+        double io = right.pages();
+        if (right.pages() <= half) io += right.pages();
+        else io += Math.ceil(left.pages() / half) * right.pages();
+        return io + CPU_COST * (left.tuples * right.tuples + out.tuples);
+    } // nestedLoopsCost()
+
+
+    /**
+     * Returns the cost of sorting an input.  Replacement selection
+     * produces runs twice the size of the sort memory on average;
+     * every merge pass besides the final one reads and writes the
+     * whole input once more.
+     *
+     * @param input the estimated size of the input.
+     * @return the cost.
+     */
+    public double sortCost(Estimate input) {
+        double pages = input.pages();
+        double runs = Math.ceil(pages / (2 * operatorBuffers));
+        int fanIn = Math.max(2, operatorBuffers - 1);
+        int passes = 0;
+        for (; runs > fanIn; runs = Math.ceil(runs / fanIn)) passes++;
+        double tuples = Math.max(2, input.tuples);
+        return 2 * pages * (1 + passes)
+            + CPU_COST * tuples * Math.log(tuples) / Math.log(2);
+    } // sortCost()
+
+
+    /**
+     * Returns the cost of a sort-merge join.
+     *
+     * @param left the estimated size of the left input.
+     * @param right the estimated size of the right input.
+     * @param out the estimated size of the join.
+     * @return the cost.
+     */
+    public double sortMergeCost(Estimate left, Estimate right,
+                                Estimate out) {
+        return sortCost(left) + sortCost(right)
+            + CPU_COST * (left.tuples + right.tuples + out.tuples);
+    } // sortMergeCost()
+
+
+    /**
+     * Returns the cost of a hybrid hash join.  The left input is the
+     * build input; the part of it that does not fit in the hash
+     * memory is spilled, along with the matching part of the right
+     * input, and read back once.
+     *
+     * @param left the estimated size of the left input.
+     * @param right the estimated size of the right input.
+     * @param out the estimated size of the join.
+     * @return the cost.
+     */
+    public double hashJoinCost(Estimate left, Estimate right, Estimate out) {
+        double io = 0;
+        if (left.pages() > hashPages) {
+            double spilled = 1 - hashPages / left.pages();
+            io = 2 * spilled * (left.pages() + right.pages());
+        }
+        return io + CPU_COST * (left.tuples + right.tuples + out.tuples);
+    } // hashJoinCost()
+
+
+    /**
+     * Estimates the width of the tuples of a relation.
+     *
+     * @param relation the relation.
+     * @return the estimated number of bytes of a tuple.
+     */
+    private static double width(Relation relation) {
+        // one int for the id
+        double width = 4;
+        for (Attribute attribute : relation) {
+            Class<?> type = attribute.getType();
+            if (type.equals(Long.class) || type.equals(Double.class))
+                width += 8;
+            else if (type.equals(Integer.class) || type.equals(Float.class))
+                width += 4;
+            else if (type.equals(Character.class) || type.equals(Short.class))
+                width += 2;
+            else if (type.equals(Byte.class))
+                width += 1;
+            else
+                width += STRING_WIDTH;
+        }
+        return width;
+    } // width()
+
+
+    /**
+     * Estimate: The estimated size of the output of a sub-plan.
+     */
+    public static class Estimate {
+
+        /** The estimated number of tuples. */
+        private double tuples;
+
+        /** The estimated number of bytes of a tuple. */
+        private double width;
+
+        /**
+         * Constructs a new estimate.
+         *
+         * @param tuples the estimated number of tuples.
+         * @param width the estimated number of bytes of a tuple.
+         */
+        public Estimate(double tuples, double width) {
+            this.tuples = tuples;
+            this.width = width;
+        } // Estimate()
+
+
+        /**
+         * Returns the estimated number of tuples.
+         *
+         * @return the estimated number of tuples.
+         */
+        public double getTuples() {
+            return tuples;
+        } // getTuples()
+
+
+        /**
+         * Returns the estimated number of pages.
+         *
+         * @return the estimated number of pages, at least one.
+         */
+        public double pages() {
+            return Math.max(1, Math.ceil(tuples * width / Sizes.PAGE_SIZE));
+        } // pages()
+    } // Estimate
+
+} // CostModel
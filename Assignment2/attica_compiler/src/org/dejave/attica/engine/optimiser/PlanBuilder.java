@@ -5,6 +5,8 @@
  *
  * Modified on Jan 12, 2015 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -12,6 +14,7 @@
  */
 package org.dejave.attica.engine.optimiser;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
@@ -28,8 +31,12 @@ import org.dejave.attica.engine.predicates.*;
 
 import org.dejave.attica.model.*;
 
+import org.dejave.attica.storage.BPlusTree;
 import org.dejave.attica.storage.Catalog;
+import org.dejave.attica.storage.FileUtil;
+import org.dejave.attica.storage.IndexEntry;
 import org.dejave.attica.storage.StorageManager;
+import org.dejave.attica.storage.StorageManagerException;
 
 import org.dejave.attica.server.Database;
 
@@ -44,6 +51,14 @@ import org.dejave.util.Triplet;
  */
 public class PlanBuilder {
 	
+    /** The physical join methods. */
+    public enum JoinMethod { NESTED_LOOPS, SORT_MERGE, HASH, LOOKUP }
+
+    /** The largest number of branches whose joins are ordered on
+     * cost; the joins of larger queries are enumerated in syntactic
+     * order. */
+    public static final int MAX_ORDERED_BRANCHES = 10;
+	
     /** The database catalog. */
     private Catalog catalog;
 
@@ -52,6 +67,10 @@ public class PlanBuilder {
 
     /** The server parameters. */
     private Map<String, String> parameters;
+
+    /** The estimated costs of the index scans chosen over tables, by
+     * table. */
+    private Map<String, Double> indexScanCosts;
 	
     /**
      * Constructs a new plan builder instance, given a catalog and
@@ -66,6 +85,7 @@ public class PlanBuilder {
         this.catalog = catalog;
         this.sm = sm;
 	this.parameters = parameters;
+        this.indexScanCosts = new HashMap<String, Double>();
     } // PlanBuilder()
 
     
@@ -89,12 +109,15 @@ public class PlanBuilder {
         // fortunate since this is all we support anyway). Once these
         // are identified, perform the bare minimum. Drop all
         // unneccessary fields so we can reduce tuple width, then
-        // impose all selections, enumerate joins, and finally impose
-        // any projection lists and sort orders. Join enumeration is
-        // syntactic, i.e., the order we apply the joins is the order
-        // these joins are specified in the query. There are a few
-        // quirks in the optimisation process, but nothing special.
-        // Most of it is simple bookkeeping.
+        // impose all selections (scanning indexes instead of tables
+        // where that is cheaper), enumerate joins, and finally impose
+        // any projection lists and sort orders. Joins are ordered on
+        // cost, by dynamic programming over the sets of joined
+        // branches, which also picks the join algorithms -- including
+        // lookups through the index of a base table instead of
+        // scanning it. There are a few quirks in the optimisation
+        // process, but nothing special. Most of it is simple
+        // bookkeeping.
         //
         
         Operator operator = null;
@@ -111,12 +134,15 @@ public class PlanBuilder {
         List<Sort> sorts = getSorts(operators);
 	// and the groupings
 	List<Group> groups = getGroups(operators);
+	// and the limits
+	List<Limit> limits = getLimits(operators);
 	
         // now, start building the plan
 	
         // first build the initial projections
         List<InitialProjection> iProjections =
-            buildInitialProjections(projections, selections, joins, tables);
+            buildInitialProjections(projections, selections, joins,
+                                    groups, tables);
         
         // given the tables, build the relation scans
         List<RelationScan> scans = buildScans(tables);
@@ -125,19 +151,21 @@ public class PlanBuilder {
             imposeInitialProjections(iProjections, scans);
         // now, append the relevant selections over each scan
         List<Operator> planOps = imposeSelections(selections, ips);
-        // then, order the joins and cartesians in a deep tree
-        planOps = enumerateJoins(joins, planOps);
+        // then, order the joins and cartesians on cost
+        planOps = orderJoins(joins, selections, planOps);
         // perform sanity check and impose the final projections
         if (planOps.size() != 1) {
             throw new PlanBuilderException("Multiple branches after join "
                                            + "enumeration.");
         }
         operator = planOps.get(0);
-        operator = imposeFinalProjections(projections, operator);
-        operator = imposeSorts(sorts, operator);
-	operator = imposeGroups(groups, operator);
+        operator = imposeFinalProjections(projections, groups, operator);
+	operator = imposeGroups(groups, projections, operator);
+        operator = imposeSorts(sorts, limits, operator);
         try {
-            operator = new Sink(operator, sm, filename);
+            boolean materialise = "true".equals(
+                parameters.get(Database.MATERIALISE_RESULTS));
+            operator = new Sink(operator, sm, filename, materialise);
         }
         catch (EngineException ee) {
             throw new PlanBuilderException("Could not build final sink "
@@ -199,6 +227,9 @@ public class PlanBuilder {
                     String table = var.getTable();
                     inTables.add(table);
                 }
+                for (Aggregate agg : p.getAggregateList())
+                    if (agg.getArgument() != null)
+                        inTables.add(agg.getArgument().getTable());
             }
             else if (alg instanceof Selection) {
                 Selection s = (Selection) alg;
@@ -218,6 +249,12 @@ public class PlanBuilder {
             }
         }
 	
+        // queries such as count(*) reference no attribute -- fall
+        // back to the from list
+        if (inTables.isEmpty())
+            for (Projection p : getProjections(operators))
+                inTables.addAll(p.getFromList());
+	
         return inTables;
     } // getTables()
 
@@ -230,6 +267,7 @@ public class PlanBuilder {
      * @param projections a list of algebraic projections.
      * @param selections a list of algebraic selections.
      * @param joins a list of algebraic joins.
+     * @param groups a list of algebraic groupings.
      * @param tables the set of tables names.
      * @return a list of new projection operators.
      */
@@ -237,6 +275,7 @@ public class PlanBuilder {
         buildInitialProjections(List<Projection> projections,
                                 List<Selection> selections,
                                 List<Join> joins,
+                                List<Group> groups,
                                 Set<String> tables) {
         
         List<InitialProjection> initProjections =
@@ -246,8 +285,10 @@ public class PlanBuilder {
             Set<Variable> plp = getAttributes(table, projections);
             Set<Variable> pls = getAttributes(table, selections);
             Set<Variable> plj = getAttributes(table, joins);
+            Set<Variable> plg = getAttributes(table, groups);
             plp.addAll(pls);
             plp.addAll(plj);
+            plp.addAll(plg);
             // brain-damaged -- should be fixed
             InitialProjection ip =
                 new InitialProjection(new ArrayList<Variable>(plp));
@@ -279,6 +320,16 @@ public class PlanBuilder {
                     String pTable = var.getTable();
                     if (table.equals(pTable)) outList.add(var);
                 }
+                for (Aggregate agg : p.getAggregateList()) {
+                    Variable var = agg.getArgument();
+                    if (var != null && table.equals(var.getTable()))
+                        outList.add(var);
+                }
+            }
+            else if (alg instanceof Group) {
+                Group g = (Group) alg;
+                for (Variable var : g.groups())
+                    if (table.equals(var.getTable())) outList.add(var);
             }
             else if (alg instanceof Selection) {
                 Selection s = (Selection) alg;
@@ -395,6 +446,8 @@ public class PlanBuilder {
         
         try {
             for (InitialProjection ip : ips) {
+                // count(*) needs no attributes -- the scan stays as is
+                if (ip.getProjectionList().isEmpty()) continue;
                 // get the table of the projection
                 String pTable = ip.getProjectionList().get(0).getTable();
                 // get the table of the scan
@@ -413,7 +466,10 @@ public class PlanBuilder {
 
     
     /**
-     * Imposes the selections over execution branches.
+     * Imposes the selections over execution branches.  The scan of a
+     * branch is replaced by an index scan if that is cheaper, in
+     * which case the selections that the range of the index scan
+     * enforces are not imposed again.
      * 
      * @param selections the list of selections.
      * @param sources the incoming plan sources.
@@ -435,19 +491,12 @@ public class PlanBuilder {
                 String oTable = tab.getTable();
                 List<Selection> rSelections =
                     getRelevantSelections(selections, oTable);
-                if (rSelections.size() != 0) {
-                    Operator top = op;
-                    for (Selection sIt : rSelections) {
-                        Select ps = new Select(top,
-                            convertQualification(sIt.getQualification(), 
-                                                 top));
-                        res.add(ps);
-                        top = ps;
-                    }
-                }
-                else {
-                    res.add(op);
+                Operator top = imposeIndexScan(op, oTable, rSelections);
+                for (Selection sIt : rSelections) {
+                    top = new Select(top,
+                        convertQualification(sIt.getQualification(), top));
                 }
+                res.add(top);
             }
             
             return res;
@@ -459,6 +508,92 @@ public class PlanBuilder {
     } // imposeSelections()
 
     
+    /**
+     * Replaces the scan of a branch with an index scan if the table
+     * has an index on an attribute the selections restrict to a
+     * range, and scanning that range through the index is estimated
+     * to be cheaper than scanning the table.  The selections the
+     * range enforces are removed from the list.
+     * 
+     * @param op the branch, a table scan with an optional initial
+     * projection over it.
+     * @param table the name of the table.
+     * @param selections the selections over the table.
+     * @return the branch to impose the remaining selections on.
+     * @throws PlanBuilderException thrown whenever the indexes cannot
+     * be read or the index scan cannot be constructed.
+     */
+    protected Operator imposeIndexScan(Operator op, String table,
+                                       List<Selection> selections)
+        throws PlanBuilderException {
+
+        try {
+            List<IndexEntry> indexes = catalog.getIndexes(table);
+            if (indexes.isEmpty() || selections.isEmpty()) return op;
+            CostModel model = new CostModel(catalog,
+                                            sm.getNumberOfBufferPoolPages(),
+                                            Operator.getHashMemory());
+            double best = model.scanCost(table);
+            IndexRange chosen = null;
+            for (IndexEntry index : indexes) {
+                IndexRange range = new IndexRange(index);
+                double selectivity = 1;
+                for (Selection s : selections) {
+                    VariableValueQualification vvq =
+                        (VariableValueQualification) s.getQualification();
+                    if (! vvq.getVariable().getAttribute()
+                        .equals(index.getAttributeName())) continue;
+                    Comparable value = createComparable(index.getKeyType(),
+                                                        vvq.getValue());
+                    if (range.restrict(vvq.getRelationship(), value)) {
+                        range.selections.add(s);
+                        selectivity *= model.selectivity(vvq);
+                    }
+                }
+                if (range.selections.isEmpty()) continue;
+                double cost = model.indexScanCost(
+                    table, new BPlusTree(sm, index).getHeight(),
+                    FileUtil.getNumberOfPages(index.getFileName()),
+                    selectivity);
+                if (cost < best) {
+                    best = cost;
+                    chosen = range;
+                }
+            }
+            if (chosen == null) return op;
+
+            indexScanCosts.put(table, best);
+            selections.removeAll(chosen.selections);
+            Table schema = catalog.getTable(table);
+            IndexScan scan =
+                new IndexScan(sm, schema, catalog.getTableFileName(table),
+                              new BPlusTree(sm, chosen.index),
+                              chosen.low, chosen.lowInclusive,
+                              chosen.high, chosen.highInclusive);
+            if (! (op instanceof Project)) return scan;
+            // rebuild the initial projection over the index scan
+            return new Project(scan, convertProjectionList(
+                outputVariables(op), schema));
+        }
+        catch (NoSuchElementException nsee) {
+            throw new PlanBuilderException("Could not obtain schema "
+                                           + "information.", nsee);
+        }
+        catch (IOException ioe) {
+            throw new PlanBuilderException("Could not read the indexes of "
+                                           + "table " + table + ".", ioe);
+        }
+        catch (StorageManagerException sme) {
+            throw new PlanBuilderException("Could not read the indexes of "
+                                           + "table " + table + ".", sme);
+        }
+        catch (EngineException ee) {
+            throw new PlanBuilderException("Could not instantiate index "
+                                           + "scan.", ee);
+        }
+    } // imposeIndexScan()
+
+    
     /**
      * Given a list of selections and a table name, identify the
      * relevant selections on that table.
@@ -484,6 +619,33 @@ public class PlanBuilder {
     } // getRelevantSelections()
 
     
+    /**
+     * Returns the attributes of the output of an operator as
+     * variables.
+     * 
+     * @param op the operator.
+     * @return the variables of the output of the operator, in order.
+     * @throws PlanBuilderException thrown whenever the output relation
+     * of the operator cannot be obtained.
+     */
+    protected List<Variable> outputVariables(Operator op)
+        throws PlanBuilderException {
+
+        try {
+            List<Variable> variables = new ArrayList<Variable>();
+            for (Attribute a : op.getOutputRelation()) {
+                TableAttribute tab = (TableAttribute) a;
+                variables.add(new Variable(tab.getTable(), tab.getName()));
+            }
+            return variables;
+        }
+        catch (EngineException ee) {
+            throw new PlanBuilderException("Could not obtain schema "
+                                           + "information.", ee);
+        }
+    } // outputVariables()
+
+    
     /**
      * Given an iterable collection of variables a relation, it
      * converts the collection into an array of slots.
@@ -550,36 +712,52 @@ public class PlanBuilder {
 	throws PlanBuilderException {
         
         try {
-            Relation rel = op.getOutputRelation();
-            if (q instanceof VariableValueQualification) {
-                VariableValueQualification vvq =
-                    (VariableValueQualification) q;
-                Variable var = vvq.getVariable();
-                TupleSlotPointer tsp = createSlotPointer(var, rel);
-                Comparable c = createComparable(tsp.getType(), 
-                                                vvq.getValue());
-                return new TupleValueCondition(tsp, c, 
-                    translateRelationship(vvq.getRelationship()));
-            }
-            else if (q instanceof VariableVariableQualification) {
-                VariableVariableQualification vvq =
-                    (VariableVariableQualification) q;
-                Variable leftVar = vvq.getLeftVariable();
-                TupleSlotPointer leftTsp = createSlotPointer(leftVar, rel);
-                Variable rightVar = vvq.getRightVariable();
-                TupleSlotPointer rightTsp = createSlotPointer(rightVar, rel);
-                return new TupleTupleCondition(leftTsp, rightTsp,
-                    translateRelationship(vvq.getRelationship()));
-            }
-            else {
-                return new TrueCondition();
-            }
+            return convertQualification(q, op.getOutputRelation());
         }
         catch (EngineException ee) {
             throw new PlanBuilderException("Could not obtain schema "
                                            + "information.", ee);
         }
     } // convertQualification()
+
+
+    /**
+     * Converts a logical qualification to a physical predicate over
+     * a relation.
+     * 
+     * @param q the qualification to be converted.
+     * @param rel the relation the predicate is evaluated over.
+     * @return the physical predicate.
+     * @throws PlanBuilderException thrown whenever the physical
+     * predicate cannot be constructed.
+     */
+    protected Predicate convertQualification(Qualification q, Relation rel) 
+	throws PlanBuilderException {
+        
+        if (q instanceof VariableValueQualification) {
+            VariableValueQualification vvq =
+                (VariableValueQualification) q;
+            Variable var = vvq.getVariable();
+            TupleSlotPointer tsp = createSlotPointer(var, rel);
+            Comparable c = createComparable(tsp.getType(), 
+                                            vvq.getValue());
+            return new TupleValueCondition(tsp, c, 
+                translateRelationship(vvq.getRelationship()));
+        }
+        else if (q instanceof VariableVariableQualification) {
+            VariableVariableQualification vvq =
+                (VariableVariableQualification) q;
+            Variable leftVar = vvq.getLeftVariable();
+            TupleSlotPointer leftTsp = createSlotPointer(leftVar, rel);
+            Variable rightVar = vvq.getRightVariable();
+            TupleSlotPointer rightTsp = createSlotPointer(rightVar, rel);
+            return new TupleTupleCondition(leftTsp, rightTsp,
+                translateRelationship(vvq.getRelationship()));
+        }
+        else {
+            return new TrueCondition();
+        }
+    } // convertQualification()
     
 
     /**
@@ -657,7 +835,8 @@ public class PlanBuilder {
      * @throws PlanBuilderException thrown whenever a comparable object
      * cannot be instantiated.
      */
-    protected Comparable createComparable(Class<?> type, String value) 
+    protected static Comparable createComparable(Class<?> type,
+                                                 String value) 
 	throws PlanBuilderException {
         
         try {
@@ -756,6 +935,235 @@ public class PlanBuilder {
     } // reverseQR()
 
     
+    /**
+     * Orders the joins between a collection of sub-plans on cost.
+     * The cheapest plan of every set of branches is found by dynamic
+     * programming: it is the cheapest way to join the cheapest plans
+     * of two complementary subsets, over every split of the set,
+     * either way round, and every applicable join method.  Splits
+     * without a join predicate between them are only considered for
+     * sets that cannot be split otherwise, so cartesian products are
+     * put off for as long as possible.  The output keeps the
+     * attributes of the branches in their original order.
+     * 
+     * @param joins the logical joins to be enumerated.
+     * @param selections the selections imposed on the branches.
+     * @param branches the incoming sub-plans (branches).
+     * @return a new list of branches.
+     * @throws PlanBuilderException thrown whenever join enumeration or
+     * physical join construction is not possible.
+     */
+    protected List<Operator> orderJoins(List<Join> joins,
+                                        List<Selection> selections,
+                                        List<Operator> branches)
+	throws PlanBuilderException {
+
+        int n = branches.size();
+        if (n < 2 || n > MAX_ORDERED_BRANCHES)
+            return enumerateJoins(joins, branches);
+
+        try {
+            CostModel model = new CostModel(catalog,
+                                            sm.getNumberOfBufferPoolPages(),
+                                            Operator.getHashMemory());
+            boolean hash =
+                parameters.get(Database.HASH_ALGORITHMS).equals("true");
+
+            // the tables of the branches, and the best plans of the
+            // single branches
+            List<String> tables = new ArrayList<String>();
+            JoinPlan [] best = new JoinPlan[1 << n];
+            for (int i = 0; i < n; i++) {
+                Operator branch = branches.get(i);
+                String table = getTables(branch).iterator().next();
+                tables.add(table);
+                Double cost = indexScanCosts.get(table);
+                best[1 << i] = new JoinPlan(
+                    model.estimateSelection(
+                        table, branch.getOutputRelation(),
+                        getRelevantSelections(selections, table)),
+                    cost != null ? cost : model.scanCost(table), i);
+            }
+
+            // the branches each join refers to
+            int [] joinSets = new int[joins.size()];
+            for (int j = 0; j < joins.size(); j++) {
+                VariableVariableQualification vvq =
+                    (VariableVariableQualification)
+                    joins.get(j).getQualification();
+                int l = tables.indexOf(vvq.getLeftVariable().getTable());
+                int r = tables.indexOf(vvq.getRightVariable().getTable());
+                if (l < 0 || r < 0 || l == r)
+                    throw new PlanBuilderException("Could not enumerate "
+                                                   + "joins");
+                joinSets[j] = (1 << l) | (1 << r);
+            }
+
+            // sets are visited in increasing order, so their subsets
+            // come first
+            for (int set = 1; set < best.length; set++) {
+                if (Integer.bitCount(set) < 2) continue;
+                for (int pass = 0; pass < 2 && best[set] == null; pass++) {
+                    for (int left = (set - 1) & set; left > 0;
+                         left = (left - 1) & set) {
+                        int right = set & ~left;
+                        List<Join> between = new ArrayList<Join>();
+                        for (int j = 0; j < joinSets.length; j++)
+                            if ((joinSets[j] & left) != 0
+                                && (joinSets[j] & right) != 0)
+                                between.add(joins.get(j));
+                        // joins first, cartesians on the second pass
+                        if (between.isEmpty() != (pass == 1)) continue;
+                        best[set] = cheapest(best[set], best[left],
+                                             best[right], between,
+                                             tables, model, hash);
+                    }
+                }
+            }
+
+            Operator operator = buildJoins(best[best.length - 1], branches,
+                                           selections);
+            
+            // restore the order of the attributes of the branches
+            List<Attribute> attributes = new ArrayList<Attribute>();
+            for (Operator branch : branches)
+                for (Attribute attribute : branch.getOutputRelation())
+                    attributes.add(attribute);
+            Relation relation = operator.getOutputRelation();
+            int [] slots = new int[attributes.size()];
+            boolean reordered = false;
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = 0;
+                while (! relation.getAttribute(slots[i])
+                       .equals(attributes.get(i)))
+                    slots[i]++;
+                reordered |= (slots[i] != i);
+            }
+            if (reordered) operator = new Project(operator, slots, true);
+
+            List<Operator> v = new ArrayList<Operator>();
+            v.add(operator);
+            return v;
+        }
+        catch (EngineException ee) {
+            throw new PlanBuilderException("Could not enumerate joins.", ee);
+        }
+    } // orderJoins()
+
+
+    /**
+     * Compares the ways to join two sub-plans with the best plan found
+     * so far.
+     *
+     * @param current the best plan so far, <code>null</code> if there
+     * is none.
+     * @param left the plan of the left input.
+     * @param right the plan of the right input.
+     * @param joins the joins between the two inputs, none for a
+     * cartesian product.
+     * @param tables the tables of the branches.
+     * @param model the cost model.
+     * @param hash <code>true</code> if hash joins may be used,
+     * <code>false</code> otherwise.
+     * @return the cheapest of the plans.
+     * @throws PlanBuilderException thrown whenever the plans cannot be
+     * costed.
+     */
+    protected JoinPlan cheapest(JoinPlan current, JoinPlan left,
+                                JoinPlan right, List<Join> joins,
+                                List<String> tables, CostModel model,
+                                boolean hash)
+        throws PlanBuilderException {
+
+        CostModel.Estimate out =
+            model.estimateJoin(left.estimate, right.estimate, joins);
+        double inputs = left.cost + right.cost;
+        JoinPlan best = current;
+        for (JoinMethod method : JoinMethod.values()) {
+            double cost;
+            if (method == JoinMethod.NESTED_LOOPS) {
+                cost = inputs + model.nestedLoopsCost(left.estimate,
+                                                      right.estimate, out);
+            }
+            else if (joins.size() != 1 || ! isMergeable(joins.get(0))) {
+                continue;
+            }
+            else if (method == JoinMethod.SORT_MERGE) {
+                cost = inputs + model.sortMergeCost(left.estimate,
+                                                    right.estimate, out);
+            }
+            else if (method == JoinMethod.LOOKUP) {
+                // only a single table can be looked up
+                if (right.left != null) continue;
+                String table = tables.get(right.branch);
+                IndexEntry index = lookupIndex(table, joins.get(0));
+                if (index == null) continue;
+                try {
+                    // the table is looked up instead of being scanned
+                    cost = left.cost + model.lookupJoinCost(
+                        left.estimate, table, joins.get(0),
+                        new BPlusTree(sm, index).getHeight(),
+                        FileUtil.getNumberOfPages(index.getFileName()),
+                        Operator.getBatchSize(), out);
+                }
+                catch (IOException ioe) {
+                    throw new PlanBuilderException("Could not read index "
+                                                   + index.getIndexName()
+                                                   + ".", ioe);
+                }
+                catch (StorageManagerException sme) {
+                    throw new PlanBuilderException("Could not read index "
+                                                   + index.getIndexName()
+                                                   + ".", sme);
+                }
+            }
+            else if (hash) {
+                cost = inputs + model.hashJoinCost(left.estimate,
+                                                   right.estimate, out);
+            }
+            else {
+                continue;
+            }
+            if (best == null || cost < best.cost)
+                best = new JoinPlan(out, cost, left, right, joins, method);
+        }
+        return best;
+    } // cheapest()
+
+
+    /**
+     * Builds the physical operators of a join plan.
+     *
+     * @param plan the join plan.
+     * @param branches the branches the plan joins.
+     * @param selections the selections imposed on the branches.
+     * @return the root of the physical plan.
+     * @throws PlanBuilderException thrown whenever the physical joins
+     * cannot be instantiated.
+     */
+    protected Operator buildJoins(JoinPlan plan, List<Operator> branches,
+                                  List<Selection> selections)
+        throws PlanBuilderException {
+        
+        if (plan.left == null) return branches.get(plan.branch);
+        Operator left = buildJoins(plan.left, branches, selections);
+        if (plan.method == JoinMethod.LOOKUP)
+            return createLookupJoin(left, branches.get(plan.right.branch),
+                                    plan.joins.get(0), selections);
+        Operator right = buildJoins(plan.right, branches, selections);
+        if (! plan.joins.isEmpty())
+            return createJoin(left, right, plan.joins, plan.method);
+        try {
+            // this is really a cartesian
+            return new CartesianProduct(left, right, sm);
+        }
+        catch (EngineException ee) {
+            throw new PlanBuilderException("Could not instantiate "
+                                           + "cartesian product.", ee);
+        }
+    } // buildJoins()
+
+    
     /**
      * Enumerates the joins between a collection of sub-plans.
      * 
@@ -918,7 +1326,9 @@ public class PlanBuilder {
     
     /**
      * Given two input operators and a collection of algebraic joins,
-     * returns a physical join to evaluate them.
+     * returns a physical join to evaluate them.  Single equi-joins
+     * are evaluated by hashing if hash algorithms are enabled and by
+     * sort-merge otherwise; everything else by nested loops.
      * 
      * @param left the left input operator.
      * @param right the right input operator.
@@ -932,15 +1342,42 @@ public class PlanBuilder {
                                       List<Join> joins) 
 	throws PlanBuilderException {
         
+        JoinMethod method = JoinMethod.NESTED_LOOPS;
+        if (joins.size() == 1 && isMergeable(joins.get(0))) {
+            // a fast join algorithm can be used
+            if (parameters.get(Database.HASH_ALGORITHMS).equals("false"))
+                method = JoinMethod.SORT_MERGE;
+            else
+                method = JoinMethod.HASH;
+        }
+        return createJoin(left, right, joins, method);
+    } // createJoin()
+
+
+    /**
+     * Given two input operators, a collection of algebraic joins and
+     * a join method, returns a physical join to evaluate them.
+     * 
+     * @param left the left input operator.
+     * @param right the right input operator.
+     * @param joins the joins between the two inputs.
+     * @param method the join method.
+     * @return a physical join to evaluate the join predicate.
+     * @throws PlanBuilderException thrown whenever the physical join
+     * cannot be instantiated.
+     */
+    protected PhysicalJoin createJoin(Operator left, 
+                                      Operator right, 
+                                      List<Join> joins,
+                                      JoinMethod method) 
+	throws PlanBuilderException {
+        
         try {
             Predicate pred = null;
-            boolean useFastJoin = false;
             
             if (joins.size() == 1) {
-                Join join = joins.get(0);
                 // single join, single predicate
-                pred = createJoinPredicate(left, right, join);
-                if (isMergeable(join)) useFastJoin = true;
+                pred = createJoinPredicate(left, right, joins.get(0));
             }
             else {
                 // build a conjunction of all relevant predicates
@@ -957,7 +1394,7 @@ public class PlanBuilder {
                 pred = new Conjunction(preds);
             }
 
-            if (! useFastJoin) {
+            if (method == JoinMethod.NESTED_LOOPS) {
                 return new NestedLoopsJoin(left, right, sm, pred);
             }
             else {
@@ -968,20 +1405,13 @@ public class PlanBuilder {
                                 
                 // sanity check
                                 
-                if (joins.size() != 1) {
+                if (joins.size() != 1 || ! isMergeable(joins.get(0))) {
                     throw new PlanBuilderException("Trying to build a sort-"
                                                    + "merge over a "
                                                    + "non-equi-join");
                 }
                 
                 Join join = joins.get(0);
-
-                /////////////////////////////////////////////
-                //
-                //  uncomment the following and comment out
-                //  nested loops when you're done
-                //
-                //////////////////////////////////////////////
 		
 		Relation leftRel = left.getOutputRelation();
 		Relation rightRel = right.getOutputRelation();
@@ -1017,14 +1447,9 @@ public class PlanBuilder {
 		    rightSlots[0] = rightTsp.getSlot();
 		}
 		    
-		/////////////////////////////////////////////////////
-		//
-		// Use your own implementation of sort here
-		//
-		/////////////////////////////////////////////////////
-		if (parameters.get(Database.HASH_ALGORITHMS).equals("false")) {
-		    int bufferPages = sm.getNumberOfBufferPoolPages();
-		    int half = bufferPages / 2;
+		int bufferPages = sm.getNumberOfBufferPoolPages();
+		int half = bufferPages / 2;
+		if (method == JoinMethod.SORT_MERGE) {
 		    ExternalSort newLeft =
 			new ExternalSort(left, sm, leftSlots,
 					 half > 10 ? half : 10);
@@ -1037,15 +1462,10 @@ public class PlanBuilder {
 					 leftSlots[0], rightSlots[0], pred);
 		}
 		else {
-		    int bufferPages = sm.getNumberOfBufferPoolPages();
-		    int half = bufferPages / 2;
 		    pred = createJoinPredicate(left, right, join);
 		    return new GraceHashJoin(left, right, sm,
 					     leftSlots[0], rightSlots[0], half > 10 ? half : 10, pred);
 		}
-		
-//		pred = createJoinPredicate(left, right, join);
-//		return new NestedLoopsJoin(left, right, sm, pred);
             }
         }
         catch (EngineException ee) {
@@ -1055,6 +1475,103 @@ public class PlanBuilder {
     } // createJoin()
 
 
+    /**
+     * Finds an index that a join can look a table up through: an
+     * index over the attribute of the table the join equates with an
+     * attribute of the same type.
+     *
+     * @param table the name of the table.
+     * @param join the join.
+     * @return the index, <code>null</code> if there is none.
+     * @throws PlanBuilderException thrown whenever the schema of the
+     * joined tables cannot be found.
+     */
+    protected IndexEntry lookupIndex(String table, Join join)
+        throws PlanBuilderException {
+
+        VariableVariableQualification vvq =
+            (VariableVariableQualification) join.getQualification();
+        Variable inner = vvq.getRightVariable();
+        Variable outer = vvq.getLeftVariable();
+        if (! inner.getTable().equals(table)) {
+            inner = vvq.getLeftVariable();
+            outer = vvq.getRightVariable();
+        }
+        if (! inner.getTable().equals(table)
+            || outer.getTable().equals(table)) return null;
+        try {
+            Class<?> type = null;
+            for (Attribute attribute : catalog.getTable(outer.getTable()))
+                if (attribute.getName().equals(outer.getAttribute()))
+                    type = attribute.getType();
+            for (IndexEntry index : catalog.getIndexes(table))
+                if (index.getAttributeName().equals(inner.getAttribute())
+                    && index.getKeyType().equals(type))
+                    return index;
+            return null;
+        }
+        catch (NoSuchElementException nsee) {
+            throw new PlanBuilderException("Could not obtain schema "
+                                           + "information.", nsee);
+        }
+    } // lookupIndex()
+
+
+    /**
+     * Builds a lookup join of an input with the table of a branch.
+     * The branch itself is not evaluated: the selections over its
+     * table are evaluated by the join over the tuples it looks up,
+     * and the attributes the branch projects are kept.
+     *
+     * @param outer the outer input.
+     * @param branch the branch of the looked up table.
+     * @param join the equi-join between the two.
+     * @param selections the selections imposed on the branches.
+     * @return the lookup join.
+     * @throws PlanBuilderException thrown whenever the lookup join
+     * cannot be instantiated.
+     */
+    protected Operator createLookupJoin(Operator outer, Operator branch,
+                                        Join join,
+                                        List<Selection> selections)
+        throws PlanBuilderException {
+
+        try {
+            String table = getTables(branch).iterator().next();
+            IndexEntry index = lookupIndex(table, join);
+            Table schema = catalog.getTable(table);
+            VariableVariableQualification vvq =
+                (VariableVariableQualification) join.getQualification();
+            Variable outerVar = vvq.getLeftVariable();
+            if (outerVar.getTable().equals(table))
+                outerVar = vvq.getRightVariable();
+            int outerSlot =
+                createSlotPointer(outerVar, outer.getOutputRelation())
+                .getSlot();
+            List<Predicate> preds = new ArrayList<Predicate>();
+            for (Selection s : getRelevantSelections(selections, table))
+                preds.add(convertQualification(s.getQualification(),
+                                               schema));
+            Predicate pred = null;
+            if (preds.size() == 1) pred = preds.get(0);
+            else if (preds.size() > 1) pred = new Conjunction(preds);
+            return new LookupJoin(outer, sm, schema,
+                                  catalog.getTableFileName(table),
+                                  new BPlusTree(sm, index), outerSlot, pred,
+                                  convertProjectionList(
+                                      outputVariables(branch), schema));
+        }
+        catch (NoSuchElementException nsee) {
+            throw new PlanBuilderException("Could not obtain schema "
+                                           + "information.", nsee);
+        }
+        catch (EngineException ee) {
+            throw new PlanBuilderException("Could not instantiate lookup "
+                                           + "join.", ee);
+        }
+    } // createLookupJoin()
+
+
     /**
      * Checks whether sort-merge can be used or not.
      * 
@@ -1196,21 +1713,49 @@ public class PlanBuilder {
         return v;
     } // getGroups()
 
+    /**
+     * Given a list of algebraic operators, identify the limits
+     * and return them in a new list.
+     * 
+     * @param operators the list of algebraic operators.
+     * @return the limits in a new list.
+     */
+    protected List<Limit> getLimits(List<AlgebraicOperator> operators) {
+	List<Limit> v = new ArrayList<Limit>();
+        for (AlgebraicOperator alg : operators)
+            if (alg instanceof Limit) v.add((Limit) alg);
+
+        return v;
+    } // getLimits()
+
     
     /**
-     * Imposes the final result projection.
+     * Imposes the final result projection.  Queries that group or
+     * aggregate keep the group keys and the arguments of the
+     * aggregates instead, for the grouping to work on.
      * 
      * @param projections the list of final projections.
+     * @param groups the list of group operations.
      * @param operator the incoming operator.
      * @return the new operator with the projection imposed.
      * @throws PlanBuilderException thrown whenever the projection
      * cannot be instantiated.
      */
     protected Operator imposeFinalProjections(List<Projection> projections,
+                                              List<Group> groups,
                                               Operator operator) 
 	throws PlanBuilderException {
         try {
             List<Variable> pl = createProjectionList(projections);
+            List<Aggregate> al = createAggregateList(projections);
+            if (! groups.isEmpty() || ! al.isEmpty()) {
+                Set<Variable> kept = new LinkedHashSet<Variable>(pl);
+                for (Group group : groups) kept.addAll(group.getGroupList());
+                for (Aggregate agg : al)
+                    if (agg.getArgument() != null)
+                        kept.add(agg.getArgument());
+                pl = new ArrayList<Variable>(kept);
+            }
             Relation relation = operator.getOutputRelation();
             int [] slots = convertProjectionList(pl, relation);
             Project p = new Project(operator, slots);
@@ -1224,16 +1769,27 @@ public class PlanBuilder {
 
 
     /**
-     * Imposes the final sort.
+     * Imposes the final sort and limit.  A limited sort only needs the
+     * first tuples in sort order, so it keeps them in memory with a
+     * top-N operator instead of sorting the whole input on disk; a
+     * limit without a sort stops reading its input after the first
+     * tuples.
      *
      * @param sorts the list of sort operations.
+     * @param limits the list of limit operations.
      * @param operator the incoming top operator.
      * @throws PlanBuilderException thrown whenever the final sort
      * cannot be instantiated.
      */
-    protected Operator imposeSorts(List<Sort> sorts, Operator operator)
+    protected Operator imposeSorts(List<Sort> sorts, List<Limit> limits,
+                                   Operator operator)
         throws PlanBuilderException {
         try {
+            if (limits.size() > 1) {
+                throw new PlanBuilderException("More than one limit "
+                                               + "clauses.");
+            }
+            Limit limit = (limits.isEmpty() ? null : limits.get(0));
             if (sorts.size() > 1) {
                 throw new PlanBuilderException("More than one sort clauses.");
             }
@@ -1242,6 +1798,23 @@ public class PlanBuilder {
                 List<Variable> sl = sort.getSortList();
                 Relation relation = operator.getOutputRelation();
                 int [] slots = convertProjectionList(sl, relation);
+                // the final projection has run already, so an
+                // attribute that is not selected cannot be sorted on
+                if (slots.length != sl.size())
+                    for (Variable var : sl) {
+                        List<Variable> key = new ArrayList<Variable>();
+                        key.add(var);
+                        if (convertProjectionList(key, relation).length == 0)
+                            throw new PlanBuilderException("Attribute "
+                                                           + var.getTable()
+                                                           + "."
+                                                           + var.getAttribute()
+                                                           + " is sorted on "
+                                                           + "but not "
+                                                           + "selected.");
+                    }
+                if (limit != null)
+                    return new TopN(operator, slots, limit.getCount());
 
                 ///////////////////////////////////////////
                 //
@@ -1267,6 +1840,9 @@ public class PlanBuilder {
 //		          NullUnaryOperator nullop = new NullUnaryOperator(operator);
 //                return nullop;
             }
+            else if (limit != null) {
+                return new FirstN(operator, limit.getCount());
+            }
             else {
                 // just in case the sky falls
                 return operator;
@@ -1280,66 +1856,126 @@ public class PlanBuilder {
     }
 
     /**
-     * Imposes the final grouping.
+     * Imposes the final grouping, which computes the aggregates of the
+     * select list over every group.  Aggregates without a group
+     * clause treat the whole input as a single group.  The output is
+     * the selected group keys followed by the aggregates.
      *
      * @param groups the list of group operations.
+     * @param projections the list of final projections.
      * @param operator the incoming top operator.
      * @throws PlanBuilderException thrown whenever the final group
      * cannot be instantiated.
      */
-    protected Operator imposeGroups(List<Group> groups, Operator operator)
+    protected Operator imposeGroups(List<Group> groups,
+                                    List<Projection> projections,
+                                    Operator operator)
         throws PlanBuilderException {
         try {
             if (groups.size() > 1) {
-                throw new PlanBuilderException("More than one sort clauses.");
+                throw new PlanBuilderException("More than one group "
+                                               + "clauses.");
             }
-            else if (groups.size() == 1) {                
-                Group group = groups.get(0);
-                List<Variable> sl = group.getGroupList();
-                Relation relation = operator.getOutputRelation();
-                int [] slots = convertProjectionList(sl, relation);
-
-                ///////////////////////////////////////////
-                //
-                // you should substitute the null
-                // operator for your implementation of
-		// hash grouping here after checking whether
-		// hash algorithms have been enabled or not
-                //
-                ///////////////////////////////////////////
-		
-		if (parameters.get(Database.HASH_ALGORITHMS).equals("true")) {
-		    int bufferPages = sm.getNumberOfBufferPoolPages();
-		    int half = bufferPages / 2;
-		    HashGroup hg = new HashGroup(operator, sm, slots,
-						 half > 10 ? half : 10);
-		    return hg;
-		}
-		else {
-		    // use sort-based grouping if hashing is not enabled
-		    int bufferPages = sm.getNumberOfBufferPoolPages();
-		    int half = bufferPages / 2;
-		    ExternalSort es =
-                    new ExternalSort(operator, sm, slots,
-                                     half > 10 ? half : 10);
-		    return es;
-		}
-                
-                ///////////////////////////////////////////
-//                NullUnaryOperator nullop = new NullUnaryOperator(operator);
-//                return nullop;
-            }
-            else {
+            List<Variable> pl = createProjectionList(projections);
+            List<Aggregate> al = createAggregateList(projections);
+            if (groups.isEmpty() && al.isEmpty()) {
                 // just in case the sky falls
                 return operator;
             }
                 
+            List<Variable> gl = (groups.isEmpty()
+                                 ? new ArrayList<Variable>()
+                                 : groups.get(0).getGroupList());
+            for (Variable var : pl)
+                if (! gl.contains(var))
+                    throw new PlanBuilderException("Attribute "
+                                                   + var.getTable() + "."
+                                                   + var.getAttribute()
+                                                   + " is neither grouped "
+                                                   + "nor aggregated.");
+            Relation relation = operator.getOutputRelation();
+            int [] slots = convertProjectionList(gl, relation);
+            Aggregator.Function [] functions =
+                new Aggregator.Function[al.size()];
+            int [] argSlots = new int[al.size()];
+            for (int i = 0; i < al.size(); i++) {
+                Aggregate agg = al.get(i);
+                functions[i] = convertFunction(agg.getFunction());
+                argSlots[i] = -1;
+                if (agg.getArgument() != null) {
+                    List<Variable> arg = new ArrayList<Variable>();
+                    arg.add(agg.getArgument());
+                    int [] s = convertProjectionList(arg, relation);
+                    if (s.length == 0)
+                        throw new PlanBuilderException("Unknown aggregate "
+                                                       + "argument in "
+                                                       + agg + ".");
+                    argSlots[i] = s[0];
+                }
+            }
+
+            int bufferPages = sm.getNumberOfBufferPoolPages();
+            int half = bufferPages / 2;
+            if (parameters.get(Database.HASH_ALGORITHMS).equals("true")) {
+                operator = new HashAggregate(operator, sm, slots, functions,
+                                             argSlots,
+                                             half > 10 ? half : 10);
+            }
+            else {
+                // use sort-based aggregation if hashing is not enabled
+                if (slots.length > 0)
+                    operator = new ExternalSort(operator, sm, slots,
+                                                half > 10 ? half : 10);
+                operator = new SortAggregate(operator, slots, functions,
+                                             argSlots);
+            }
+
+            // check that the functions apply to their arguments
+            operator.getOutputRelation();
+
+            // drop the group keys that were not selected
+            if (pl.size() < gl.size()) {
+                List<Integer> kept = new ArrayList<Integer>();
+                for (int i = 0; i < gl.size(); i++)
+                    if (pl.contains(gl.get(i))) kept.add(i);
+                for (int i = 0; i < al.size(); i++) kept.add(gl.size() + i);
+                int [] keptSlots = new int[kept.size()];
+                for (int i = 0; i < keptSlots.length; i++)
+                    keptSlots[i] = kept.get(i);
+                operator = new Project(operator, keptSlots);
+            }
+            return operator;
         }
         catch (EngineException ee) {
-            throw new PlanBuilderException("Cound not instantiate final "
-                                           + "sort.", ee);
+            throw new PlanBuilderException("Could not instantiate final "
+                                           + "grouping (" + ee.getMessage()
+                                           + ").", ee);
         }
     }
+
+
+    /**
+     * Converts a logical aggregate function to a physical one.
+     *
+     * @param function the logical aggregate function.
+     * @return the physical aggregate function.
+     */
+    protected Aggregator.Function
+        convertFunction(Aggregate.Function function) {
+
+        switch (function) {
+        case COUNT:
+            return Aggregator.Function.COUNT;
+        case SUM:
+            return Aggregator.Function.SUM;
+        case MIN:
+            return Aggregator.Function.MIN;
+        case MAX:
+            return Aggregator.Function.MAX;
+        }
+
+        return Aggregator.Function.COUNT;
+    } // convertFunction()
 	
 
     /**
@@ -1363,6 +1999,175 @@ public class PlanBuilder {
 	
         return pl;
     } // createProjectionList()
+
+
+    /**
+     * Given a list of projections, it collapses their aggregates into
+     * a single list.
+     *
+     * @param projections the list of algebraic projections.
+     * @return the aggregates of all the projections combined.
+     */
+    protected List<Aggregate>
+        createAggregateList(List<Projection> projections) {
+
+        List<Aggregate> al = new ArrayList<Aggregate>();
+        for (Projection p : projections) al.addAll(p.getAggregateList());
+        return al;
+    } // createAggregateList()
+    
+    /**
+     * IndexRange: The range of keys of an index that a set of
+     * selections restricts a table to.
+     */
+    protected static class IndexRange {
+
+        /** The index. */
+        IndexEntry index;
+
+        /** The lower bound, <code>null</code> if there is none. */
+        Comparable low;
+
+        /** Whether the lower bound is in the range. */
+        boolean lowInclusive;
+
+        /** The upper bound, <code>null</code> if there is none. */
+        Comparable high;
+
+        /** Whether the upper bound is in the range. */
+        boolean highInclusive;
+
+        /** The selections the range enforces. */
+        List<Selection> selections;
+
+        /**
+         * Constructs the unrestricted range of an index.
+         *
+         * @param index the index.
+         */
+        IndexRange(IndexEntry index) {
+            this.index = index;
+            this.selections = new ArrayList<Selection>();
+        } // IndexRange()
+
+
+        /**
+         * Narrows the range by a comparison with a value.
+         *
+         * @param relationship the comparison.
+         * @param value the value.
+         * @return <code>true</code> if the range now enforces the
+         * comparison, <code>false</code> if no range can.
+         */
+        @SuppressWarnings("unchecked")
+        boolean restrict(Qualification.Relationship relationship,
+                         Comparable value) {
+
+            boolean lower = false;
+            boolean upper = false;
+            boolean inclusive = true;
+            switch (relationship) {
+            case EQUALS:
+                lower = upper = true;
+                break;
+            case LESS:
+                upper = true;
+                inclusive = false;
+                break;
+            case LESS_EQUALS:
+                upper = true;
+                break;
+            case GREATER:
+                lower = true;
+                inclusive = false;
+                break;
+            case GREATER_EQUALS:
+                lower = true;
+                break;
+            default:
+                return false;
+            }
+            if (lower) {
+                int c = (low == null ? 1 : value.compareTo(low));
+                if (c > 0 || (c == 0 && ! inclusive)) {
+                    low = value;
+                    lowInclusive = inclusive;
+                }
+            }
+            if (upper) {
+                int c = (high == null ? -1 : value.compareTo(high));
+                if (c < 0 || (c == 0 && ! inclusive)) {
+                    high = value;
+                    highInclusive = inclusive;
+                }
+            }
+            return true;
+        } // restrict()
+    } // IndexRange
+
+    
+    /**
+     * JoinPlan: The cheapest plan found for a set of branches.  A
+     * plan either is a single branch, or joins the plans of two
+     * subsets with a join method.
+     */
+    protected static class JoinPlan {
+
+        /** The estimated size of the output. */
+        CostModel.Estimate estimate;
+
+        /** The estimated cost of the plan. */
+        double cost;
+
+        /** The branch, for plans of a single branch. */
+        int branch;
+
+        /** The plans of the inputs of the join, <code>null</code> for
+         * plans of a single branch. */
+        JoinPlan left, right;
+
+        /** The joins between the inputs, none for a cartesian
+         * product. */
+        List<Join> joins;
+
+        /** The join method. */
+        JoinMethod method;
+
+        /**
+         * Constructs the plan of a single branch.
+         *
+         * @param estimate the estimated size of the branch.
+         * @param cost the estimated cost of the branch.
+         * @param branch the index of the branch.
+         */
+        JoinPlan(CostModel.Estimate estimate, double cost, int branch) {
+            this.estimate = estimate;
+            this.cost = cost;
+            this.branch = branch;
+        } // JoinPlan()
+
+
+        /**
+         * Constructs the plan of a join.
+         *
+         * @param estimate the estimated size of the join.
+         * @param cost the estimated cost of the plan.
+         * @param left the plan of the left input.
+         * @param right the plan of the right input.
+         * @param joins the joins between the inputs.
+         * @param method the join method.
+         */
+        JoinPlan(CostModel.Estimate estimate, double cost, JoinPlan left,
+                 JoinPlan right, List<Join> joins, JoinMethod method) {
+            this.estimate = estimate;
+            this.cost = cost;
+            this.left = left;
+            this.right = right;
+            this.joins = joins;
+            this.method = method;
+        } // JoinPlan()
+    } // JoinPlan
+
     
     /**
      * Debug main
@@ -1461,6 +2266,9 @@ public class PlanBuilder {
                 man3.insertTuple(tuple3);
                 //System.out.println("inserted " + tuple3);
             }
+            man1.flush();
+            man2.flush();
+            man3.flush();
             // build an algebraic evaluation plan
             List<AlgebraicOperator> algebra =
                 new ArrayList<AlgebraicOperator>();
@@ -0,0 +1,207 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.predicates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * PredicateBenchmark: Micro-benchmark of predicate evaluation over
+ * Wisconsin tuples.  It compares the original evaluation, which
+ * inserts every tuple into the predicate, against the tree of
+ * specialised evaluators and the generated class of the predicate.
+ * The predicate is a conjunction of two comparisons of long slots;
+ * every fourth pass evaluates a second, mixed predicate instead, so
+ * that the call sites see more than one class, as they do in a real
+ * plan.
+ *
+ * Usage: <code>java org.dejave.attica.engine.predicates.PredicateBenchmark
+ * [rounds]</code>
+ *
+ * @author agent
+ */
+public class PredicateBenchmark {
+
+    /** The default number of timed rounds. */
+    private static final int DEFAULT_ROUNDS = 20;
+
+    /** The number of tuples. */
+    private static final int TUPLES = 200000;
+
+    /** The number of passes over the tuples per round. */
+    private static final int PASSES = 20;
+
+    /** The number of long attributes of the Wisconsin schema. */
+    private static final int LONGS = 13;
+
+    /**
+     * Builds random Wisconsin tuples.
+     *
+     * @return the tuples.
+     */
+    private static Tuple [] tuples() {
+
+        Random random = new Random(1);
+        Tuple [] tuples = new Tuple[TUPLES];
+        for (int i = 0; i < tuples.length; i++) {
+            List<Comparable> values = new ArrayList<Comparable>();
+            for (int s = 0; s < LONGS; s++)
+                values.add((long) random.nextInt(s == 6 ? 100
+                                                 : s == 7 ? 10 : 1000));
+            values.add("AAAAAAA");
+            values.add("BBBBBBB");
+            values.add("CCCCCCC");
+            tuples[i] = new Tuple(null, values);
+        }
+        return tuples;
+    } // tuples()
+
+
+    /**
+     * Builds the predicate of the benchmark:
+     * <code>tenpercent = 3 and onepercent &lt; 50</code>.
+     *
+     * @return the predicate.
+     */
+    private static Predicate predicate() {
+
+        List<Predicate> list = new ArrayList<Predicate>();
+        list.add(new TupleValueCondition(new TupleSlotPointer(Long.class, 7),
+                                         3L, Condition.Qualification.EQUALS));
+        list.add(new TupleValueCondition(new TupleSlotPointer(Long.class, 6),
+                                         50L, Condition.Qualification.LESS));
+        return new Conjunction(list);
+    } // predicate()
+
+
+    /**
+     * Builds the mixed predicate of the benchmark:
+     * <code>stringu1 &lt; 'B' and unique1 &gt;= unique2 and two !=
+     * 9</code>.
+     *
+     * @return the predicate.
+     */
+    private static Predicate mixed() {
+
+        List<Predicate> list = new ArrayList<Predicate>();
+        list.add(new TupleValueCondition(new TupleSlotPointer(String.class,
+                                                              LONGS),
+                                         "B", Condition.Qualification.LESS));
+        list.add(new TupleTupleCondition(new TupleSlotPointer(Long.class, 0),
+                                         new TupleSlotPointer(Long.class, 1),
+                                         Condition.Qualification
+                                         .GREATER_EQUALS));
+        list.add(new TupleValueCondition(new TupleSlotPointer(Long.class, 2),
+                                         9L,
+                                         Condition.Qualification.NOT_EQUALS));
+        return new Conjunction(list);
+    } // mixed()
+
+
+    /**
+     * Runs one round of evaluations.
+     *
+     * @param tuples the tuples.
+     * @param predicates the predicate and the mixed predicate, for
+     * the original evaluation.
+     * @param compiled the compiled predicates, or <code>null</code>
+     * for the original evaluation.
+     * @return the number of tuples that qualified.
+     */
+    private static long round(Tuple [] tuples, Predicate [] predicates,
+                              TuplePredicate [] compiled) {
+
+        long qualifying = 0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            int which = (pass % 4 == 3 ? 1 : 0);
+            if (compiled == null) {
+                Predicate p = predicates[which];
+                for (Tuple t : tuples) {
+                    PredicateTupleInserter.insertTuples(t, t, p);
+                    if (PredicateEvaluator.evaluate(p)) qualifying++;
+                }
+            }
+            else {
+                TuplePredicate p = compiled[which];
+                for (Tuple t : tuples)
+                    if (p.evaluate(t)) qualifying++;
+            }
+        }
+        return qualifying;
+    } // round()
+
+
+    /**
+     * Times a number of rounds of evaluations, after as many warm-up
+     * rounds.
+     *
+     * @param tuples the tuples.
+     * @param predicates the predicates.
+     * @param compiled the compiled predicates, or <code>null</code>
+     * for the original evaluation.
+     * @param rounds the number of rounds.
+     * @param expected the number of qualifying tuples per round, or
+     * a negative number if unknown.
+     * @return the number of qualifying tuples per round, and the
+     * average time of an evaluation in nanoseconds.
+     */
+    private static double [] time(Tuple [] tuples, Predicate [] predicates,
+                                  TuplePredicate [] compiled, int rounds,
+                                  long expected) {
+
+        long qualifying = 0;
+        for (int i = 0; i < rounds; i++)
+            qualifying = round(tuples, predicates, compiled);
+        if (expected >= 0 && qualifying != expected)
+            throw new IllegalStateException("Evaluations disagree.");
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) round(tuples, predicates, compiled);
+        double ns = (double) (System.nanoTime() - start)
+            / ((long) rounds * PASSES * tuples.length);
+        return new double [] {qualifying, ns};
+    } // time()
+
+
+    /**
+     * Benchmark main().
+     *
+     * @param args the number of timed rounds.
+     */
+    public static void main(String [] args) {
+
+        int rounds = (args.length > 0 ? Integer.parseInt(args[0])
+                      : DEFAULT_ROUNDS);
+        Tuple [] tuples = tuples();
+        Predicate [] predicates = {predicate(), mixed()};
+        TuplePredicate [] tree = {TuplePredicate.specialise(predicates[0]),
+                                  TuplePredicate.specialise(predicates[1])};
+        TuplePredicate [] generated =
+            {PredicateGenerator.generate(predicates[0]),
+             PredicateGenerator.generate(predicates[1])};
+        if (generated[0] == null || generated[1] == null)
+            throw new IllegalStateException("Predicates not generated.");
+
+        double [] original = time(tuples, predicates, null, rounds, -1);
+        long expected = (long) original[0];
+        double treeNs = time(tuples, predicates, tree, rounds, expected)[1];
+        double generatedNs =
+            time(tuples, predicates, generated, rounds, expected)[1];
+
+        System.out.printf("%d tuples, %d passes, %d rounds%n",
+                          tuples.length, PASSES, rounds);
+        System.out.printf("%-10s%14s%n", "predicate", "ns/tuple");
+        System.out.printf("%-10s%14.1f%n", "original", original[1]);
+        System.out.printf("%-10s%14.1f%n", "tree", treeNs);
+        System.out.printf("%-10s%14.1f%n", "generated", generatedNs);
+    } // main()
+
+} // PredicateBenchmark
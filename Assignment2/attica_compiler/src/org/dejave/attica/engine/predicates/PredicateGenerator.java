@@ -0,0 +1,541 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.predicates;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.lang.invoke.MethodHandles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PredicateGenerator: Generates the bytecode of a compiled predicate.
+ * A comparison, or a conjunction of comparisons, of slots of long,
+ * integer, double or string type is turned into a hidden class
+ * extending <code>TuplePredicate</code>, whose
+ * <code>evaluate()</code> is a straight line of typed comparisons
+ * against constants held in the constant pool, each branching out
+ * as soon as it fails.  The JIT then sees one monomorphic method per
+ * predicate instead of a tree of evaluators.  A
+ * <code>ClassCastException</code> makes the predicate false, as it
+ * does a condition.
+ *
+ * @author agent
+ */
+class PredicateGenerator {
+
+    /** The internal name of the superclass of the generated classes. */
+    private static final String SUPER =
+        "org/dejave/attica/engine/predicates/TuplePredicate";
+
+    /** The internal name of the generated classes. */
+    private static final String NAME =
+        "org/dejave/attica/engine/predicates/GeneratedPredicate";
+
+    /** The internal name of tuples. */
+    private static final String TUPLE = "org/dejave/attica/storage/Tuple";
+
+    /** The descriptor of the evaluation method. */
+    private static final String EVALUATE =
+        "(L" + TUPLE + ";L" + TUPLE + ";)Z";
+
+    /** Has a generated class been rejected?  Generation stops for
+     * the rest of the run once it has. */
+    private static volatile boolean failed = false;
+
+    /**
+     * Generates a predicate.
+     *
+     * @param predicate the predicate.
+     * @return the generated predicate, or <code>null</code> if the
+     * predicate has a form that is not generated, or generation has
+     * failed before.
+     */
+    static TuplePredicate generate(Predicate predicate) {
+        if (failed || ! generates(predicate)) return null;
+        
+        try {
+            byte [] bytes =
+                new PredicateGenerator().classFile(comparisons(predicate));
+            Class<?> c = MethodHandles.lookup()
+                .defineHiddenClass(bytes, true).lookupClass();
+            return (TuplePredicate) c.getDeclaredConstructor().newInstance();
+        }
+        catch (LinkageError | ReflectiveOperationException | IOException e) {
+            // the JVM rejected the class file, so the generator is
+            // broken: say so, once, and leave predicates to be
+            // evaluated as compiled from now on
+            failed = true;
+            System.err.println("Predicate generation disabled, could not "
+                               + "define the class of " + predicate + ": "
+                               + e);
+            e.printStackTrace(System.err);
+            assert false : "generated predicate rejected: " + e;
+            return null;
+        }
+    } // generate()
+
+
+    /**
+     * Does a predicate have a form that is generated?
+     *
+     * @param predicate the predicate.
+     * @return <code>true</code> if the predicate is a comparison, or a
+     * conjunction of comparisons, that is generated,
+     * <code>false</code> otherwise.
+     */
+    static boolean generates(Predicate predicate) {
+        for (Predicate p : comparisons(predicate))
+            if (type(p) == null) return false;
+        return true;
+    } // generates()
+
+
+    /**
+     * Returns the comparisons of a predicate: the predicates of a
+     * conjunction, or the predicate itself.
+     *
+     * @param predicate the predicate.
+     * @return the comparisons.
+     */
+    private static List<Predicate> comparisons(Predicate predicate) {
+        List<Predicate> comparisons = new ArrayList<Predicate>();
+        if (predicate instanceof Conjunction) {
+            for (Predicate p : ((Conjunction) predicate).predicates())
+                comparisons.add(p);
+        }
+        else comparisons.add(predicate);
+        return comparisons;
+    } // comparisons()
+
+
+    /**
+     * Returns the type compared by a comparison that is generated.
+     *
+     * @param predicate the comparison.
+     * @return the type compared, or <code>null</code> if the
+     * predicate is not a comparison that is generated.
+     */
+    private static Class<?> type(Predicate predicate) {
+        Class<?> type;
+        if (predicate instanceof TupleValueCondition) {
+            TupleValueCondition tvc = (TupleValueCondition) predicate;
+            type = tvc.getSlotPointer().getType();
+            if (tvc.getValue() == null
+                || ! type.equals(tvc.getValue().getClass()))
+                return null;
+        }
+        else if (predicate instanceof TupleTupleCondition) {
+            TupleTupleCondition ttc = (TupleTupleCondition) predicate;
+            type = ttc.getLeftSlotPointer().getType();
+            if (! type.equals(ttc.getRightSlotPointer().getType()))
+                return null;
+        }
+        else return null;
+        if (type.equals(Long.class) || type.equals(Integer.class)
+            || type.equals(Double.class) || type.equals(String.class))
+            return type;
+        return null;
+    } // type()
+
+
+    /** The constant pool. */
+    private ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+    /** The output stream of the constant pool. */
+    private DataOutputStream poolOut = new DataOutputStream(pool);
+
+    /** The number of constant pool entries, plus one. */
+    private int poolCount = 1;
+
+    /** The constant pool entries so far, by their contents. */
+    private Map<String, Integer> entries = new HashMap<String, Integer>();
+
+
+    /**
+     * Builds the class file of a conjunction of comparisons.
+     *
+     * @param comparisons the comparisons.
+     * @return the class file.
+     * @throws IOException never thrown.
+     */
+    private byte [] classFile(List<Predicate> comparisons)
+        throws IOException {
+
+        int thisClass = classEntry(NAME);
+        int superClass = classEntry(SUPER);
+        int init = utf8("<init>");
+        int evaluate = utf8("evaluate");
+        int voidDesc = utf8("()V");
+        int evaluateDesc = utf8(EVALUATE);
+        int codeName = utf8("Code");
+        int frames = utf8("StackMapTable");
+        int superInit = methodEntry(SUPER, "<init>", "()V");
+        int cce = classEntry("java/lang/ClassCastException");
+
+        // the body: one comparison after the other, jumping to the
+        // end as soon as one fails
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(code);
+        List<Integer> jumps = new ArrayList<Integer>();
+        for (Predicate p : comparisons) {
+            comparison(out, p);
+            jumps.add(code.size());
+            out.writeByte(failure(qualification(p)));
+            out.writeShort(0);
+        }
+        out.writeByte(0x04);                // iconst_1
+        out.writeByte(0xac);                // ireturn
+        int fail = code.size();
+        out.writeByte(0x03);                // iconst_0
+        out.writeByte(0xac);                // ireturn
+        int handler = code.size();
+        out.writeByte(0x57);                // pop
+        out.writeByte(0x03);                // iconst_0
+        out.writeByte(0xac);                // ireturn
+        byte [] body = code.toByteArray();
+        for (int jump : jumps) {
+            int offset = fail - jump;
+            body[jump + 1] = (byte) (offset >> 8);
+            body[jump + 2] = (byte) offset;
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        DataOutputStream f = new DataOutputStream(file);
+        f.writeInt(0xcafebabe);
+        f.writeShort(0);
+        f.writeShort(52);
+        f.writeShort(poolCount);
+        pool.writeTo(f);
+        f.writeShort(0x0031);               // public final super
+        f.writeShort(thisClass);
+        f.writeShort(superClass);
+        f.writeShort(0);                    // interfaces
+        f.writeShort(0);                    // fields
+        f.writeShort(2);                    // methods
+
+        // the constructor
+        f.writeShort(0x0001);
+        f.writeShort(init);
+        f.writeShort(voidDesc);
+        f.writeShort(1);
+        f.writeShort(codeName);
+        f.writeInt(2 + 2 + 4 + 5 + 2 + 2);
+        f.writeShort(1);                    // max stack
+        f.writeShort(1);                    // max locals
+        f.writeInt(5);
+        f.writeByte(0x2a);                  // aload_0
+        f.writeByte(0xb7);                  // invokespecial
+        f.writeShort(superInit);
+        f.writeByte(0xb1);                  // return
+        f.writeShort(0);                    // exceptions
+        f.writeShort(0);                    // attributes
+
+        // the evaluation method, with a frame where the comparisons
+        // fail and one at the handler
+        byte [] table = new byte [] {
+            (byte) 251, (byte) (fail >> 8), (byte) fail,
+            (byte) (64 + handler - fail - 1), 7,
+            (byte) (cce >> 8), (byte) cce
+        };
+        f.writeShort(0x0001);
+        f.writeShort(evaluate);
+        f.writeShort(evaluateDesc);
+        f.writeShort(1);
+        f.writeShort(codeName);
+        f.writeInt(2 + 2 + 4 + body.length + 2 + 8 + 2
+                   + 2 + 4 + 2 + table.length);
+        f.writeShort(6);                    // max stack
+        f.writeShort(3);                    // max locals
+        f.writeInt(body.length);
+        f.write(body);
+        f.writeShort(1);
+        f.writeShort(0);
+        f.writeShort(fail);
+        f.writeShort(handler);
+        f.writeShort(cce);
+        f.writeShort(1);
+        f.writeShort(frames);
+        f.writeInt(2 + table.length);
+        f.writeShort(2);
+        f.write(table);
+
+        f.writeShort(0);                    // attributes
+        return file.toByteArray();
+    } // classFile()
+
+
+    /**
+     * Writes the code of a comparison, leaving its outcome on the
+     * stack as a negative, zero or positive integer.
+     *
+     * @param out the code.
+     * @param predicate the comparison.
+     * @throws IOException never thrown.
+     */
+    private void comparison(DataOutputStream out, Predicate predicate)
+        throws IOException {
+
+        Class<?> type = type(predicate);
+        String getter;
+        String desc;
+        String compare;
+        if (type.equals(Long.class)) {
+            getter = "asLong";
+            desc = "J";
+            compare = "java/lang/Long";
+        }
+        else if (type.equals(Integer.class)) {
+            getter = "asInt";
+            desc = "I";
+            compare = "java/lang/Integer";
+        }
+        else if (type.equals(Double.class)) {
+            getter = "asDouble";
+            desc = "D";
+            compare = "java/lang/Double";
+        }
+        else {
+            getter = "asString";
+            desc = "Ljava/lang/String;";
+            compare = null;
+        }
+        int get = methodEntry(TUPLE, getter, "(I)" + desc);
+
+        if (predicate instanceof TupleValueCondition) {
+            TupleValueCondition tvc = (TupleValueCondition) predicate;
+            out.writeByte(0x2b);            // aload_1
+            slot(out, tvc.getSlotPointer().getSlot());
+            out.writeByte(0xb6);            // invokevirtual
+            out.writeShort(get);
+            constant(out, tvc.getValue());
+        }
+        else {
+            TupleTupleCondition ttc = (TupleTupleCondition) predicate;
+            out.writeByte(0x2b);            // aload_1
+            slot(out, ttc.getLeftSlotPointer().getSlot());
+            out.writeByte(0xb6);            // invokevirtual
+            out.writeShort(get);
+            out.writeByte(0x2c);            // aload_2
+            slot(out, ttc.getRightSlotPointer().getSlot());
+            out.writeByte(0xb6);            // invokevirtual
+            out.writeShort(get);
+        }
+
+        out.writeByte(compare == null ? 0xb6 : 0xb8);
+        out.writeShort(compare == null
+                       ? methodEntry("java/lang/String", "compareTo",
+                                     "(Ljava/lang/String;)I")
+                       : methodEntry(compare, "compare",
+                                     "(" + desc + desc + ")I"));
+    } // comparison()
+
+
+    /**
+     * Writes the code pushing a slot number.
+     *
+     * @param out the code.
+     * @param slot the slot.
+     * @throws IOException never thrown.
+     */
+    private void slot(DataOutputStream out, int slot) throws IOException {
+        if (slot <= 5) out.writeByte(0x03 + slot);  // iconst_<n>
+        else if (slot < 128) {
+            out.writeByte(0x10);                    // bipush
+            out.writeByte(slot);
+        }
+        else {
+            out.writeByte(0x11);                    // sipush
+            out.writeShort(slot);
+        }
+    } // slot()
+
+
+    /**
+     * Writes the code pushing a constant from the constant pool.
+     *
+     * @param out the code.
+     * @param value the constant.
+     * @throws IOException never thrown.
+     */
+    private void constant(DataOutputStream out, Comparable value)
+        throws IOException {
+
+        if (value instanceof Long || value instanceof Double) {
+            out.writeByte(0x14);            // ldc2_w
+            out.writeShort(valueEntry(value));
+        }
+        else {
+            out.writeByte(0x13);            // ldc_w
+            out.writeShort(valueEntry(value));
+        }
+    } // constant()
+
+
+    /**
+     * Returns the qualification of a comparison.
+     *
+     * @param predicate the comparison.
+     * @return its qualification.
+     */
+    private static Condition.Qualification qualification(Predicate
+                                                         predicate) {
+        if (predicate instanceof TupleValueCondition)
+            return ((TupleValueCondition) predicate).getQualification();
+        return ((TupleTupleCondition) predicate).getQualification();
+    } // qualification()
+
+
+    /**
+     * Returns the opcode of the jump taken when the outcome of a
+     * comparison fails a qualification.
+     *
+     * @param qualification the qualification.
+     * @return the opcode.
+     */
+    private static int failure(Condition.Qualification qualification) {
+        switch (qualification) {
+        case EQUALS:
+            return 0x9a;                    // ifne
+        case NOT_EQUALS:
+            return 0x99;                    // ifeq
+        case GREATER:
+            return 0x9e;                    // ifle
+        case LESS:
+            return 0x9c;                    // ifge
+        case GREATER_EQUALS:
+            return 0x9b;                    // iflt
+        case LESS_EQUALS:
+            return 0x9d;                    // ifgt
+        }
+        return 0xa7;                        // goto
+    } // failure()
+
+
+    /**
+     * Adds an entry to the constant pool, unless it is there already.
+     *
+     * @param key the contents of the entry.
+     * @param tag the tag of the entry.
+     * @param size the number of slots the entry takes.
+     * @return the index of the entry, or -1 if the entry is new and
+     * its body is to be written by the caller.
+     * @throws IOException never thrown.
+     */
+    private int entry(String key, int tag, int size) throws IOException {
+        Integer index = entries.get(key);
+        if (index != null) return index;
+        entries.put(key, poolCount);
+        poolCount += size;
+        poolOut.writeByte(tag);
+        return -1;
+    } // entry()
+
+
+    /**
+     * Returns the index of a UTF-8 entry.
+     *
+     * @param s the string.
+     * @return the index of the entry.
+     * @throws IOException never thrown.
+     */
+    private int utf8(String s) throws IOException {
+        int index = entry("U" + s, 1, 1);
+        if (index >= 0) return index;
+        poolOut.writeUTF(s);
+        return poolCount - 1;
+    } // utf8()
+
+
+    /**
+     * Returns the index of a class entry.
+     *
+     * @param name the internal name of the class.
+     * @return the index of the entry.
+     * @throws IOException never thrown.
+     */
+    private int classEntry(String name) throws IOException {
+        int utf = utf8(name);
+        int index = entry("C" + name, 7, 1);
+        if (index >= 0) return index;
+        poolOut.writeShort(utf);
+        return poolCount - 1;
+    } // classEntry()
+
+
+    /**
+     * Returns the index of a method reference entry.
+     *
+     * @param owner the internal name of the class of the method.
+     * @param name the name of the method.
+     * @param desc the descriptor of the method.
+     * @return the index of the entry.
+     * @throws IOException never thrown.
+     */
+    private int methodEntry(String owner, String name, String desc)
+        throws IOException {
+
+        int c = classEntry(owner);
+        int n = utf8(name);
+        int d = utf8(desc);
+        int nameAndType = entry("N" + name + " " + desc, 12, 1);
+        if (nameAndType < 0) {
+            poolOut.writeShort(n);
+            poolOut.writeShort(d);
+            nameAndType = poolCount - 1;
+        }
+        int index = entry("M" + owner + "." + name + desc, 10, 1);
+        if (index >= 0) return index;
+        poolOut.writeShort(c);
+        poolOut.writeShort(nameAndType);
+        return poolCount - 1;
+    } // methodEntry()
+
+
+    /**
+     * Returns the index of the entry of a constant.
+     *
+     * @param value the constant.
+     * @return the index of the entry.
+     * @throws IOException never thrown.
+     */
+    private int valueEntry(Comparable value) throws IOException {
+        if (value instanceof String) {
+            int utf = utf8((String) value);
+            int index = entry("S" + value, 8, 1);
+            if (index >= 0) return index;
+            poolOut.writeShort(utf);
+            return poolCount - 1;
+        }
+        else if (value instanceof Integer) {
+            int index = entry("I" + value, 3, 1);
+            if (index >= 0) return index;
+            poolOut.writeInt((Integer) value);
+            return poolCount - 1;
+        }
+        else if (value instanceof Long) {
+            int index = entry("J" + value, 5, 2);
+            if (index >= 0) return index;
+            poolOut.writeLong((Long) value);
+            return poolCount - 2;
+        }
+        else {
+            int index = entry("D" + value, 6, 2);
+            if (index >= 0) return index;
+            poolOut.writeDouble((Double) value);
+            return poolCount - 2;
+        }
+    } // valueEntry()
+
+} // PredicateGenerator
@@ -0,0 +1,161 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.predicates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * PredicateGeneratorCheck: Checks generated predicates against the
+ * original evaluation of predicates, which inserts the tuples into
+ * the predicate and evaluates it.  Random conjunctions of up to four
+ * comparisons, over slots of every generated type, are generated and
+ * evaluated over random pairs of tuples; now and then a comparison
+ * has a constant of the wrong type, which is not generated.  Every
+ * predicate of a generated form must be generated, and every
+ * evaluation must agree with the original one and with the tree of
+ * specialised evaluators.
+ *
+ * Usage: <code>java -ea
+ * org.dejave.attica.engine.predicates.PredicateGeneratorCheck
+ * [predicates] [seed]</code>
+ *
+ * @author agent
+ */
+public class PredicateGeneratorCheck {
+
+    /** The default number of predicates checked. */
+    private static final int DEFAULT_PREDICATES = 3000;
+
+    /** The number of pairs of tuples each predicate is evaluated
+     * over. */
+    private static final int PAIRS = 50;
+
+    /** The type of each slot of the tuples. */
+    private static final Class<?> [] TYPES =
+        {Long.class, Integer.class, Double.class, String.class};
+
+    /**
+     * Builds a random value of a type, from a small domain so that
+     * all outcomes of comparisons are likely.
+     *
+     * @param type the type.
+     * @param random the source of randomness.
+     * @return the value.
+     */
+    private static Comparable value(Class<?> type, Random random) {
+
+        int v = random.nextInt(7) - 3;
+        if (type == Long.class) return (long) v;
+        else if (type == Integer.class) return v;
+        else if (type == Double.class) return v / 2.0;
+        else return "" + (char) ('c' + v);
+    } // value()
+
+
+    /**
+     * Builds a random tuple with a slot of every type.
+     *
+     * @param random the source of randomness.
+     * @return the tuple.
+     */
+    private static Tuple tuple(Random random) {
+
+        List<Comparable> values = new ArrayList<Comparable>();
+        for (Class<?> type : TYPES) values.add(value(type, random));
+        return new Tuple(null, values);
+    } // tuple()
+
+
+    /**
+     * Builds a random comparison, either of a slot against a constant
+     * or of a slot of the left tuple against the same slot of the
+     * right one.
+     *
+     * @param random the source of randomness.
+     * @return the comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate comparison(Random random) {
+
+        Condition.Qualification [] qualifications =
+            Condition.Qualification.values();
+        Condition.Qualification q =
+            qualifications[random.nextInt(qualifications.length)];
+        int slot = random.nextInt(TYPES.length);
+        Class<? extends Comparable> type =
+            (Class<? extends Comparable>) TYPES[slot];
+        if (random.nextBoolean()) {
+            Comparable c = value(type, random);
+            // a constant of the wrong type is not generated
+            if (random.nextInt(20) == 0)
+                c = value(TYPES[(slot + 1) % TYPES.length], random);
+            return new TupleValueCondition(new TupleSlotPointer(type, slot),
+                                           c, q);
+        }
+        else {
+            return new TupleTupleCondition(new TupleSlotPointer(type, slot),
+                                           new TupleSlotPointer(type, slot),
+                                           q);
+        }
+    } // comparison()
+
+
+    /**
+     * Check main().
+     *
+     * @param args the number of predicates and the random seed.
+     * @throws IllegalStateException if a generated predicate
+     * disagrees with the original evaluation, or a predicate of a
+     * generated form is not generated.
+     */
+    public static void main(String [] args) {
+
+        int predicates = (args.length > 0 ? Integer.parseInt(args[0])
+                          : DEFAULT_PREDICATES);
+        long seed = (args.length > 1 ? Long.parseLong(args[1]) : 42);
+        Random random = new Random(seed);
+        int generated = 0;
+        int evaluations = 0;
+        for (int i = 0; i < predicates; i++) {
+            int n = 1 + random.nextInt(4);
+            List<Predicate> list = new ArrayList<Predicate>();
+            for (int k = 0; k < n; k++) list.add(comparison(random));
+            Predicate p = (n == 1 ? list.get(0) : new Conjunction(list));
+
+            TuplePredicate g = PredicateGenerator.generate(p);
+            if (PredicateGenerator.generates(p) != (g != null))
+                throw new IllegalStateException("Predicate " + p
+                                                + " was not generated.");
+            if (g == null) continue;
+            generated++;
+            TuplePredicate tree = TuplePredicate.specialise(p);
+            for (int t = 0; t < PAIRS; t++) {
+                Tuple left = tuple(random);
+                Tuple right = tuple(random);
+                PredicateTupleInserter.insertTuples(left, right, p);
+                boolean expected = PredicateEvaluator.evaluate(p);
+                if (g.evaluate(left, right) != expected
+                    || tree.evaluate(left, right) != expected)
+                    throw new IllegalStateException("Predicate " + p
+                                                    + " disagrees over "
+                                                    + left + " and "
+                                                    + right + ".");
+                evaluations++;
+            }
+        }
+        System.out.println(predicates + " predicates, " + generated
+                           + " generated, " + evaluations
+                           + " evaluations checked");
+    } // main()
+
+} // PredicateGeneratorCheck
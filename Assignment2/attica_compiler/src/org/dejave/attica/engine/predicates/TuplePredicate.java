@@ -0,0 +1,617 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.predicates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * TuplePredicate: A predicate compiled to work on tuples.  Unlike
+ * predicates, which have the tuples inserted into them before every
+ * evaluation, a compiled predicate takes the tuples as arguments and
+ * allocates nothing while evaluating.  Comparisons are specialised
+ * on the types of their slots: integer, long, double and string
+ * slots are compared as such, reading numbers straight from the page
+ * image of encoded tuples; all other comparisons go through
+ * <code>compareTo()</code>.  As with conditions, a comparison between
+ * values of different types does not hold.  Comparisons, and
+ * conjunctions of them, of such slots are not even evaluated by a
+ * tree of evaluators: a class is generated for each one (see
+ * <code>PredicateGenerator</code>).
+ *
+ * @author agent
+ */
+public abstract class TuplePredicate {
+
+    /** The outcome of a comparison where the left value is less. */
+    static final int LESS = 1;
+
+    /** The outcome of a comparison where the values are equal. */
+    static final int EQUAL = 2;
+
+    /** The outcome of a comparison where the left value is greater. */
+    static final int GREATER = 4;
+
+
+    /**
+     * Evaluates the predicate over a pair of tuples.  Conditions on a
+     * single tuple are evaluated on the left one.
+     *
+     * @param left the left tuple.
+     * @param right the right tuple.
+     * @return <code>true</code> if the predicate holds,
+     * <code>false</code> otherwise.
+     */
+    public abstract boolean evaluate(Tuple left, Tuple right);
+
+
+    /**
+     * Evaluates the predicate over a single tuple; conditions across
+     * tuples compare two slots of that tuple.
+     *
+     * @param tuple the tuple.
+     * @return <code>true</code> if the predicate holds,
+     * <code>false</code> otherwise.
+     */
+    public boolean evaluate(Tuple tuple) {
+        return evaluate(tuple, tuple);
+    } // evaluate()
+
+
+    /**
+     * Compiles a predicate, generating its class if it can.
+     *
+     * @param predicate the predicate to be compiled.
+     * @return the compiled predicate.
+     */
+    public static TuplePredicate compile(Predicate predicate) {
+        return compile(predicate, true);
+    } // compile()
+
+
+    /**
+     * Compiles a predicate into a tree of specialised evaluators
+     * only, without generating a class for it or any part of it.
+     *
+     * @param predicate the predicate to be compiled.
+     * @return the compiled predicate.
+     */
+    static TuplePredicate specialise(Predicate predicate) {
+        return compile(predicate, false);
+    } // specialise()
+
+
+    /**
+     * Compiles a predicate, generating classes if so asked and it
+     * can, and building a tree of specialised evaluators otherwise.
+     *
+     * @param predicate the predicate to be compiled.
+     * @param generate whether classes should be generated.
+     * @return the compiled predicate.
+     */
+    private static TuplePredicate compile(Predicate predicate,
+                                          boolean generate) {
+        if (generate) {
+            TuplePredicate generated = PredicateGenerator.generate(predicate);
+            if (generated != null) return generated;
+        }
+        if (predicate instanceof TrueCondition)
+            return new Always();
+        else if (predicate instanceof TupleValueCondition)
+            return compileSlotValue((TupleValueCondition) predicate);
+        else if (predicate instanceof TupleTupleCondition)
+            return compileSlotSlot((TupleTupleCondition) predicate);
+        else if (predicate instanceof Conjunction)
+            return new AllOf(compileList((Conjunction) predicate, generate));
+        else if (predicate instanceof Disjunction)
+            return new AnyOf(compileList((Disjunction) predicate, generate));
+        else if (predicate instanceof Negation)
+            return new Not(compile(((Negation) predicate).getPredicate(),
+                                   generate));
+        else
+            return new Inserted(predicate);
+    } // compile()
+
+
+    /**
+     * Compiles the predicates of a list.
+     *
+     * @param list the list.
+     * @param generate whether classes should be generated.
+     * @return the compiled predicates.
+     */
+    private static TuplePredicate [] compileList(ListPredicate list,
+                                                 boolean generate) {
+        List<TuplePredicate> compiled = new ArrayList<TuplePredicate>();
+        for (Predicate p : list.predicates())
+            compiled.add(compile(p, generate));
+        return compiled.toArray(new TuplePredicate[0]);
+    } // compileList()
+
+
+    /**
+     * Compiles a comparison of a slot against a constant.
+     *
+     * @param condition the comparison.
+     * @return the compiled comparison.
+     */
+    private static TuplePredicate compileSlotValue(TupleValueCondition
+                                                   condition) {
+        int slot = condition.getSlotPointer().getSlot();
+        Class<?> type = condition.getSlotPointer().getType();
+        Comparable value = condition.getValue();
+        int accept = acceptMask(condition.getQualification());
+        if (value == null || ! type.equals(value.getClass()))
+            return new SlotValue(slot, value, accept);
+        else if (type.equals(Long.class))
+            return new LongSlotValue(slot, (Long) value, accept);
+        else if (type.equals(Integer.class))
+            return new IntSlotValue(slot, (Integer) value, accept);
+        else if (type.equals(Double.class))
+            return new DoubleSlotValue(slot, (Double) value, accept);
+        else if (type.equals(String.class))
+            return new StringSlotValue(slot, (String) value, accept);
+        else
+            return new SlotValue(slot, value, accept);
+    } // compileSlotValue()
+
+
+    /**
+     * Compiles a comparison of a slot of the left tuple against a
+     * slot of the right one.
+     *
+     * @param condition the comparison.
+     * @return the compiled comparison.
+     */
+    private static TuplePredicate compileSlotSlot(TupleTupleCondition
+                                                  condition) {
+        int left = condition.getLeftSlotPointer().getSlot();
+        int right = condition.getRightSlotPointer().getSlot();
+        Class<?> type = condition.getLeftSlotPointer().getType();
+        int accept = acceptMask(condition.getQualification());
+        if (! type.equals(condition.getRightSlotPointer().getType()))
+            return new SlotSlot(left, right, accept);
+        else if (type.equals(Long.class))
+            return new LongSlotSlot(left, right, accept);
+        else if (type.equals(Integer.class))
+            return new IntSlotSlot(left, right, accept);
+        else if (type.equals(Double.class))
+            return new DoubleSlotSlot(left, right, accept);
+        else
+            return new SlotSlot(left, right, accept);
+    } // compileSlotSlot()
+
+
+    /**
+     * Translates a qualification to the mask of comparison outcomes
+     * it accepts.
+     *
+     * @param qualification the qualification.
+     * @return the mask of accepted outcomes.
+     */
+    static int acceptMask(Condition.Qualification qualification) {
+        switch (qualification) {
+        case EQUALS:
+            return EQUAL;
+        case NOT_EQUALS:
+            return LESS | GREATER;
+        case GREATER:
+            return GREATER;
+        case LESS:
+            return LESS;
+        case GREATER_EQUALS:
+            return GREATER | EQUAL;
+        case LESS_EQUALS:
+            return LESS | EQUAL;
+        }
+        return 0;
+    } // acceptMask()
+
+
+    /**
+     * Is the outcome of a comparison accepted?
+     *
+     * @param cmp the outcome of the comparison.
+     * @param accept the accepted outcomes.
+     * @return <code>true</code> if the outcome is accepted,
+     * <code>false</code> otherwise.
+     */
+    static boolean accepted(int cmp, int accept) {
+        return ((accept >>> (Integer.signum(cmp) + 1)) & 1) != 0;
+    } // accepted()
+
+
+    /**
+     * Always: The always-true predicate.
+     */
+    private static class Always extends TuplePredicate {
+        public boolean evaluate(Tuple left, Tuple right) {
+            return true;
+        } // evaluate()
+    } // Always
+
+
+    /**
+     * SlotValue: A comparison of a slot against a constant through
+     * <code>compareTo()</code>.
+     */
+    private static class SlotValue extends TuplePredicate {
+
+        /** The slot. */
+        private int slot;
+
+        /** The constant. */
+        private Comparable value;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        SlotValue(int slot, Comparable value, int accept) {
+            this.slot = slot;
+            this.value = value;
+            this.accept = accept;
+        } // SlotValue()
+
+        @SuppressWarnings("unchecked")
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(left.getValue(slot).compareTo(value), accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // SlotValue
+
+
+    /**
+     * LongSlotValue: A comparison of a long slot against a constant.
+     */
+    private static class LongSlotValue extends TuplePredicate {
+
+        /** The slot. */
+        private int slot;
+
+        /** The constant. */
+        private long value;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        LongSlotValue(int slot, Long value, int accept) {
+            this.slot = slot;
+            this.value = value.longValue();
+            this.accept = accept;
+        } // LongSlotValue()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(Long.compare(left.asLong(slot), value),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // LongSlotValue
+
+
+    /**
+     * IntSlotValue: A comparison of an integer slot against a
+     * constant.
+     */
+    private static class IntSlotValue extends TuplePredicate {
+
+        /** The slot. */
+        private int slot;
+
+        /** The constant. */
+        private int value;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        IntSlotValue(int slot, Integer value, int accept) {
+            this.slot = slot;
+            this.value = value.intValue();
+            this.accept = accept;
+        } // IntSlotValue()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(Integer.compare(left.asInt(slot), value),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // IntSlotValue
+
+
+    /**
+     * DoubleSlotValue: A comparison of a double slot against a
+     * constant.
+     */
+    private static class DoubleSlotValue extends TuplePredicate {
+
+        /** The slot. */
+        private int slot;
+
+        /** The constant. */
+        private double value;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        DoubleSlotValue(int slot, Double value, int accept) {
+            this.slot = slot;
+            this.value = value.doubleValue();
+            this.accept = accept;
+        } // DoubleSlotValue()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(Double.compare(left.asDouble(slot), value),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // DoubleSlotValue
+
+
+    /**
+     * StringSlotValue: A comparison of a string slot against a
+     * constant.
+     */
+    private static class StringSlotValue extends TuplePredicate {
+
+        /** The slot. */
+        private int slot;
+
+        /** The constant. */
+        private String value;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        StringSlotValue(int slot, String value, int accept) {
+            this.slot = slot;
+            this.value = value;
+            this.accept = accept;
+        } // StringSlotValue()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(left.asString(slot).compareTo(value),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // StringSlotValue
+
+
+    /**
+     * SlotSlot: A comparison of a slot of the left tuple against a
+     * slot of the right one through <code>compareTo()</code>.
+     */
+    private static class SlotSlot extends TuplePredicate {
+
+        /** The slot of the left tuple. */
+        private int leftSlot;
+
+        /** The slot of the right tuple. */
+        private int rightSlot;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        SlotSlot(int leftSlot, int rightSlot, int accept) {
+            this.leftSlot = leftSlot;
+            this.rightSlot = rightSlot;
+            this.accept = accept;
+        } // SlotSlot()
+
+        @SuppressWarnings("unchecked")
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(left.getValue(leftSlot)
+                                .compareTo(right.getValue(rightSlot)),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // SlotSlot
+
+
+    /**
+     * LongSlotSlot: A comparison of two long slots.
+     */
+    private static class LongSlotSlot extends TuplePredicate {
+
+        /** The slot of the left tuple. */
+        private int leftSlot;
+
+        /** The slot of the right tuple. */
+        private int rightSlot;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        LongSlotSlot(int leftSlot, int rightSlot, int accept) {
+            this.leftSlot = leftSlot;
+            this.rightSlot = rightSlot;
+            this.accept = accept;
+        } // LongSlotSlot()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(Long.compare(left.asLong(leftSlot),
+                                             right.asLong(rightSlot)),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // LongSlotSlot
+
+
+    /**
+     * IntSlotSlot: A comparison of two integer slots.
+     */
+    private static class IntSlotSlot extends TuplePredicate {
+
+        /** The slot of the left tuple. */
+        private int leftSlot;
+
+        /** The slot of the right tuple. */
+        private int rightSlot;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        IntSlotSlot(int leftSlot, int rightSlot, int accept) {
+            this.leftSlot = leftSlot;
+            this.rightSlot = rightSlot;
+            this.accept = accept;
+        } // IntSlotSlot()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(Integer.compare(left.asInt(leftSlot),
+                                                right.asInt(rightSlot)),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // IntSlotSlot
+
+
+    /**
+     * DoubleSlotSlot: A comparison of two double slots.
+     */
+    private static class DoubleSlotSlot extends TuplePredicate {
+
+        /** The slot of the left tuple. */
+        private int leftSlot;
+
+        /** The slot of the right tuple. */
+        private int rightSlot;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        DoubleSlotSlot(int leftSlot, int rightSlot, int accept) {
+            this.leftSlot = leftSlot;
+            this.rightSlot = rightSlot;
+            this.accept = accept;
+        } // DoubleSlotSlot()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            try {
+                return accepted(Double.compare(left.asDouble(leftSlot),
+                                               right.asDouble(rightSlot)),
+                                accept);
+            }
+            catch (ClassCastException cce) {
+                return false;
+            }
+        } // evaluate()
+    } // DoubleSlotSlot
+
+
+    /**
+     * AllOf: A conjunction of compiled predicates.
+     */
+    private static class AllOf extends TuplePredicate {
+
+        /** The conjuncts. */
+        private TuplePredicate [] conjuncts;
+
+        AllOf(TuplePredicate [] conjuncts) {
+            this.conjuncts = conjuncts;
+        } // AllOf()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            for (TuplePredicate conjunct : conjuncts)
+                if (! conjunct.evaluate(left, right)) return false;
+            return true;
+        } // evaluate()
+    } // AllOf
+
+
+    /**
+     * AnyOf: A disjunction of compiled predicates.
+     */
+    private static class AnyOf extends TuplePredicate {
+
+        /** The disjuncts. */
+        private TuplePredicate [] disjuncts;
+
+        AnyOf(TuplePredicate [] disjuncts) {
+            this.disjuncts = disjuncts;
+        } // AnyOf()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            for (TuplePredicate disjunct : disjuncts)
+                if (disjunct.evaluate(left, right)) return true;
+            return false;
+        } // evaluate()
+    } // AnyOf
+
+
+    /**
+     * Not: The negation of a compiled predicate.
+     */
+    private static class Not extends TuplePredicate {
+
+        /** The negated predicate. */
+        private TuplePredicate predicate;
+
+        Not(TuplePredicate predicate) {
+            this.predicate = predicate;
+        } // Not()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            return ! predicate.evaluate(left, right);
+        } // evaluate()
+    } // Not
+
+
+    /**
+     * Inserted: A predicate that cannot be compiled, evaluated by
+     * inserting the tuples into it.
+     */
+    private static class Inserted extends TuplePredicate {
+
+        /** The predicate. */
+        private Predicate predicate;
+
+        Inserted(Predicate predicate) {
+            this.predicate = predicate;
+        } // Inserted()
+
+        public boolean evaluate(Tuple left, Tuple right) {
+            PredicateTupleInserter.insertTuples(left, right, predicate);
+            return PredicateEvaluator.evaluate(predicate);
+        } // evaluate()
+    } // Inserted
+
+} // TuplePredicate
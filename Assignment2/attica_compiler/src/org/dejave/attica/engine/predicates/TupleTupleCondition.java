@@ -3,6 +3,8 @@
  *
  * Modified on Dec 26, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -49,6 +51,38 @@ public class TupleTupleCondition implements Predicate {
         this.rightSlot = rightSlot;
         this.qualification = qualification;
     } // TupleTupleCondition()
+
+
+    /**
+     * Returns the slot of the left tuple the condition is evaluated
+     * on.
+     *
+     * @return the left slot pointer of the condition.
+     */
+    public TupleSlotPointer getLeftSlotPointer() {
+        return leftSlot;
+    } // getLeftSlotPointer()
+
+
+    /**
+     * Returns the slot of the right tuple the condition is evaluated
+     * on.
+     *
+     * @return the right slot pointer of the condition.
+     */
+    public TupleSlotPointer getRightSlotPointer() {
+        return rightSlot;
+    } // getRightSlotPointer()
+
+
+    /**
+     * Returns the qualification of the condition.
+     *
+     * @return the qualification of the condition.
+     */
+    public Condition.Qualification getQualification() {
+        return qualification;
+    } // getQualification()
 	
     /**
      * Sets the two tuples the predicate is to be evaluated over.
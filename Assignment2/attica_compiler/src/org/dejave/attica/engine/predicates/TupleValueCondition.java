@@ -3,6 +3,8 @@
  *
  * Modified on Dec 26, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -51,6 +53,36 @@ public class TupleValueCondition implements Predicate {
         this.qualification = qualification;
     } // TupleValueCondition()
 
+
+    /**
+     * Returns the slot the condition is evaluated on.
+     *
+     * @return the slot pointer of the condition.
+     */
+    public TupleSlotPointer getSlotPointer() {
+        return leftSlot;
+    } // getSlotPointer()
+
+
+    /**
+     * Returns the value the slot is compared against.
+     *
+     * @return the value of the condition.
+     */
+    public Comparable getValue() {
+        return rightValue;
+    } // getValue()
+
+
+    /**
+     * Returns the qualification of the condition.
+     *
+     * @return the qualification of the condition.
+     */
+    public Condition.Qualification getQualification() {
+        return qualification;
+    } // getQualification()
+
     
     /**
      * Sets the tuple this predicate is to be evaluated on.
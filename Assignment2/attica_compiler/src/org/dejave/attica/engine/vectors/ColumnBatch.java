@@ -0,0 +1,318 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.dejave.attica.model.Relation;
+
+import org.dejave.attica.storage.IntermediateTupleIdentifier;
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * ColumnBatch: A columnar batch of rows.  Every attribute of the
+ * batch's relation is held in a typed vector, and a selection vector
+ * lists the rows that are still live; filters narrow the selection
+ * instead of moving data.  A batch can also be a view over the
+ * columns of another batch, which is how projections avoid copying.
+ *
+ * When a batch is loaded from tuples it keeps them, so that live rows
+ * can be handed back as the original tuples.
+ *
+ * @author agent
+ */
+public class ColumnBatch {
+
+    /** The relation of the batch. */
+    private Relation relation;
+
+    /** The columns of the batch. */
+    private ColumnVector [] columns;
+
+    /** The tuples the rows were loaded from, if any. */
+    private Tuple [] source;
+
+    /** The number of rows loaded. */
+    private int rows;
+
+    /** The selection vector. */
+    private int [] selection;
+
+    /** The number of live rows. */
+    private int selected;
+
+    /** Is this the last batch of the stream? */
+    private boolean endOfStream;
+
+    /**
+     * Constructs a new, empty batch.
+     *
+     * @param relation the relation of the batch.
+     * @param capacity the initial number of rows of the batch.
+     * @throws IllegalArgumentException if the relation has an
+     * attribute of an unsupported type.
+     */
+    public ColumnBatch(Relation relation, int capacity) {
+        this.relation = relation;
+        capacity = Math.max(1, capacity);
+        columns = new ColumnVector[relation.getNumberOfAttributes()];
+        for (int i = 0; i < columns.length; i++)
+            columns[i] = ColumnVector.forType(relation.getAttribute(i)
+                                              .getType(), capacity);
+        source = new Tuple[capacity];
+        selection = new int[capacity];
+        clear();
+    } // ColumnBatch()
+
+
+    /**
+     * Constructs a new view batch; its columns are set by
+     * <code>project()</code>.
+     *
+     * @param relation the relation of the view.
+     */
+    private ColumnBatch(Relation relation) {
+        this.relation = relation;
+        columns = new ColumnVector[relation.getNumberOfAttributes()];
+    } // ColumnBatch()
+
+
+    /**
+     * Creates an empty view batch, to be used with
+     * <code>project()</code>.
+     *
+     * @param relation the relation of the view.
+     * @return the new view.
+     */
+    public static ColumnBatch view(Relation relation) {
+        return new ColumnBatch(relation);
+    } // view()
+
+
+    /**
+     * Empties the batch so that it can be reused.
+     */
+    public void clear() {
+        if (source != null) Arrays.fill(source, 0, rows, null);
+        for (ColumnVector column : columns) column.reset();
+        rows = 0;
+        selected = 0;
+        endOfStream = false;
+    } // clear()
+
+
+    /**
+     * Appends a row to the batch, loading every column from the
+     * corresponding slot of a tuple.  The new row is live.
+     *
+     * @param tuple the tuple.
+     */
+    public void add(Tuple tuple) {
+        ensureRoom();
+        for (int i = 0; i < columns.length; i++)
+            columns[i].load(rows, tuple, i);
+        source[rows] = tuple;
+        selection[selected++] = rows++;
+    } // add()
+
+
+    /**
+     * Appends a row to the batch, loading each column from a given
+     * slot of a tuple; the remaining slots of the tuple are never
+     * read, so they are never decoded.  The new row has no source
+     * tuple and is live.
+     *
+     * @param tuple the tuple.
+     * @param slots the slot of the tuple each column is loaded from.
+     */
+    public void add(Tuple tuple, int [] slots) {
+        ensureRoom();
+        for (int i = 0; i < columns.length; i++)
+            columns[i].load(rows, tuple, slots[i]);
+        source[rows] = null;
+        selection[selected++] = rows++;
+    } // add()
+
+
+    /**
+     * Makes room for one more row, doubling the capacity of the
+     * batch if it is full.
+     */
+    private void ensureRoom() {
+        if (rows == selection.length) {
+            int capacity = 2 * rows;
+            for (ColumnVector column : columns)
+                column.ensureCapacity(capacity);
+            source = Arrays.copyOf(source, capacity);
+            selection = Arrays.copyOf(selection, capacity);
+        }
+    } // ensureRoom()
+
+
+    /**
+     * Turns this view into a projection of another batch: the view
+     * shares the given columns and the selection of the other batch.
+     *
+     * @param batch the batch to be projected.
+     * @param slots the slots of the batch that make up the view, in
+     * order.
+     */
+    public void project(ColumnBatch batch, int [] slots) {
+        for (int i = 0; i < slots.length; i++)
+            columns[i] = batch.columns[slots[i]];
+        source = null;
+        rows = batch.rows;
+        selection = batch.selection;
+        selected = batch.selected;
+        endOfStream = batch.endOfStream;
+    } // project()
+
+
+    /**
+     * Returns the relation of the batch.
+     *
+     * @return the relation of the batch.
+     */
+    public Relation getRelation() {
+        return relation;
+    } // getRelation()
+
+
+    /**
+     * Returns a column of the batch.
+     *
+     * @param slot the slot of the column.
+     * @return the column.
+     */
+    public ColumnVector column(int slot) {
+        return columns[slot];
+    } // column()
+
+
+    /**
+     * Returns the number of columns of the batch.
+     *
+     * @return the number of columns.
+     */
+    public int getNumberOfColumns() {
+        return columns.length;
+    } // getNumberOfColumns()
+
+
+    /**
+     * Returns the number of rows loaded into the batch, live or not.
+     *
+     * @return the number of rows.
+     */
+    public int getNumberOfRows() {
+        return rows;
+    } // getNumberOfRows()
+
+
+    /**
+     * Returns the selection vector.  Only its first
+     * <code>size()</code> entries are valid.
+     *
+     * @return the selection vector.
+     */
+    public int [] selection() {
+        return selection;
+    } // selection()
+
+
+    /**
+     * Returns the number of live rows.
+     *
+     * @return the number of live rows.
+     */
+    public int size() {
+        return selected;
+    } // size()
+
+
+    /**
+     * Sets the number of live rows, after a kernel has compacted the
+     * selection vector.
+     *
+     * @param selected the number of live rows.
+     */
+    public void setSize(int selected) {
+        this.selected = selected;
+    } // setSize()
+
+
+    /**
+     * Returns the row of a live row's position in the selection.
+     *
+     * @param k the position in the selection.
+     * @return the row.
+     */
+    public int row(int k) {
+        return selection[k];
+    } // row()
+
+
+    /**
+     * Hashes the live rows of the batch on a set of slots.  The hash
+     * of a row is the sum of the hash codes of its values in the
+     * slots, each multiplied by a constant, so it matches hashing
+     * the row's tuple value by value.
+     *
+     * @param slots the slots to hash on.
+     * @param multiplier the multiplier of each slot's hash code.
+     * @param hashes an array to reuse for the hashes, or
+     * <code>null</code>.
+     * @return the hashes, indexed by row; only live rows are set.
+     */
+    public int [] hash(int [] slots, int multiplier, int [] hashes) {
+        if (hashes == null || hashes.length < rows)
+            hashes = new int[Math.max(rows, selection.length)];
+        for (int k = 0; k < selected; k++) hashes[selection[k]] = 0;
+        for (int slot : slots)
+            columns[slot].addHashes(selection, selected, hashes, multiplier);
+        return hashes;
+    } // hash()
+
+
+    /**
+     * Returns a row as a tuple: the tuple it was loaded from if
+     * there is one, a new tuple built from the columns otherwise.
+     *
+     * @param row the row.
+     * @return the row as a tuple.
+     */
+    public Tuple tuple(int row) {
+        if (source != null && source[row] != null) return source[row];
+        List<Comparable> values = new ArrayList<Comparable>(columns.length);
+        for (ColumnVector column : columns) values.add(column.get(row));
+        return new Tuple(new IntermediateTupleIdentifier(row), values);
+    } // tuple()
+
+
+    /**
+     * Is this the last batch of the stream?
+     *
+     * @return <code>true</code> if the stream ends with this batch,
+     * <code>false</code> otherwise.
+     */
+    public boolean isEndOfStream() {
+        return endOfStream;
+    } // isEndOfStream()
+
+
+    /**
+     * Marks this batch as the last one of the stream.
+     */
+    public void setEndOfStream() {
+        endOfStream = true;
+    } // setEndOfStream()
+
+} // ColumnBatch
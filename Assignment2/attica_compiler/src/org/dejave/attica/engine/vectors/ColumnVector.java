@@ -0,0 +1,176 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * ColumnVector: A column of a columnar batch, holding the values of a
+ * single attribute for all rows of the batch in a primitive array.
+ * Rows are loaded in order, starting from row 0 after every reset.
+ *
+ * Kernels work on a selection vector: an array of the indexes of the
+ * rows that are still live, of which the first <i>n</i> are valid.
+ * Filtering kernels compact the selection vector in place and return
+ * the new number of live rows.
+ *
+ * @author agent
+ */
+public abstract class ColumnVector {
+
+    /** Accept rows that compare less than the constant. */
+    public static final int LESS = 1;
+
+    /** Accept rows that compare equal to the constant. */
+    public static final int EQUAL = 2;
+
+    /** Accept rows that compare greater than the constant. */
+    public static final int GREATER = 4;
+
+    /**
+     * Creates a vector for the values of the given type.
+     *
+     * @param type the type of the values.
+     * @param capacity the initial number of rows of the vector.
+     * @return the new vector.
+     * @throws IllegalArgumentException if the type is unsupported.
+     */
+    public static ColumnVector forType(Class<? extends Comparable> type,
+                                       int capacity) {
+
+        if (type.equals(Long.class))
+            return new LongVector(capacity);
+        else if (type.equals(Integer.class) || type.equals(Short.class)
+                 || type.equals(Byte.class) || type.equals(Character.class))
+            return new IntVector(type, capacity);
+        else if (type.equals(Double.class) || type.equals(Float.class))
+            return new DoubleVector(type, capacity);
+        else if (type.equals(String.class))
+            return new StringVector(capacity);
+        else
+            throw new IllegalArgumentException("Unsupported column type: "
+                                               + type.getName() + ".");
+    } // forType()
+
+
+    /**
+     * Returns the type of the values of this vector.
+     *
+     * @return the type of the values.
+     */
+    public abstract Class<? extends Comparable> getType();
+
+
+    /**
+     * Empties the vector.
+     */
+    public abstract void reset();
+
+
+    /**
+     * Makes sure the vector can hold the given number of rows.
+     *
+     * @param capacity the number of rows.
+     */
+    public abstract void ensureCapacity(int capacity);
+
+
+    /**
+     * Loads a row of the vector from a slot of a tuple.
+     *
+     * @param row the row to be loaded.
+     * @param tuple the tuple.
+     * @param slot the slot of the tuple.
+     */
+    public abstract void load(int row, Tuple tuple, int slot);
+
+
+    /**
+     * Returns the value of a row, boxed to the type of the vector.
+     *
+     * @param row the row.
+     * @return the value of the row.
+     */
+    public abstract Comparable get(int row);
+
+
+    /**
+     * Returns the hash code of a row; it is the hash code of the
+     * boxed value of the row.
+     *
+     * @param row the row.
+     * @return the hash code of the row.
+     */
+    public abstract int hashCode(int row);
+
+
+    /**
+     * Adds the hash codes of the live rows, times a multiplier, to an
+     * array of hash values indexed by row.
+     *
+     * @param sel the selection vector.
+     * @param n the number of live rows.
+     * @param hashes the hash values, by row.
+     * @param multiplier the multiplier of the hash codes.
+     */
+    public void addHashes(int [] sel, int n, int [] hashes, int multiplier) {
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            hashes[row] += hashCode(row) * multiplier;
+        }
+    } // addHashes()
+
+
+    /**
+     * Keeps the live rows whose comparison with a constant is
+     * accepted.  A constant of another type than the vector's never
+     * compares, so no row is kept -- as with the comparison of boxed
+     * values of different types.
+     *
+     * @param sel the selection vector.
+     * @param n the number of live rows.
+     * @param constant the constant.
+     * @param accept the accepted outcomes of the comparison, a
+     * combination of <code>LESS</code>, <code>EQUAL</code> and
+     * <code>GREATER</code>.
+     * @return the number of rows kept.
+     */
+    public int filter(int [] sel, int n, Comparable constant, int accept) {
+        if (constant == null || ! getType().equals(constant.getClass()))
+            return 0;
+        return filterSameType(sel, n, constant, accept);
+    } // filter()
+
+
+    /**
+     * Keeps the live rows whose comparison with a constant of the
+     * vector's type is accepted.
+     *
+     * @param sel the selection vector.
+     * @param n the number of live rows.
+     * @param constant the constant.
+     * @param accept the accepted outcomes of the comparison.
+     * @return the number of rows kept.
+     */
+    protected abstract int filterSameType(int [] sel, int n,
+                                          Comparable constant, int accept);
+
+
+    /**
+     * Is the outcome of a comparison accepted?
+     *
+     * @param cmp the outcome of the comparison, -1, 0 or 1.
+     * @param accept the accepted outcomes.
+     * @return 1 if the outcome is accepted, 0 otherwise.
+     */
+    protected static int accepted(int cmp, int accept) {
+        return (accept >>> (cmp + 1)) & 1;
+    } // accepted()
+
+} // ColumnVector
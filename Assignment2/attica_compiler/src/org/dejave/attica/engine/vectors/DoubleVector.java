@@ -0,0 +1,126 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import java.util.Arrays;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * DoubleVector: A column of double values.  Floats are widened to
+ * doubles in the vector (which is exact) and boxed back to floats
+ * when read as objects.
+ *
+ * @author agent
+ */
+public class DoubleVector extends ColumnVector {
+
+    /** The type of the values of the column. */
+    private Class<? extends Comparable> type;
+
+    /** The values of the column. */
+    private double [] values;
+
+    /**
+     * Constructs a new double vector.
+     *
+     * @param type the type of the values: double or float.
+     * @param capacity the initial number of rows.
+     */
+    public DoubleVector(Class<? extends Comparable> type, int capacity) {
+        this.type = type;
+        values = new double[Math.max(1, capacity)];
+    } // DoubleVector()
+
+
+    /**
+     * Returns the value of a row without boxing it.
+     *
+     * @param row the row.
+     * @return the value of the row.
+     */
+    public double getDouble(int row) {
+        return values[row];
+    } // getDouble()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class<? extends Comparable> getType() {
+        return type;
+    } // getType()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void reset() {
+        // nothing to release
+    } // reset()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length)
+            values = Arrays.copyOf(values, Math.max(capacity,
+                                                    2 * values.length));
+    } // ensureCapacity()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void load(int row, Tuple tuple, int slot) {
+        if (type == Double.class) values[row] = tuple.asDouble(slot);
+        else values[row] = tuple.asFloat(slot);
+    } // load()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Comparable get(int row) {
+        if (type == Double.class) return values[row];
+        else return (float) values[row];
+    } // get()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode(int row) {
+        if (type == Double.class) {
+            long bits = Double.doubleToLongBits(values[row]);
+            return (int) (bits ^ (bits >>> 32));
+        }
+        else return Float.floatToIntBits((float) values[row]);
+    } // hashCode()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    protected int filterSameType(int [] sel, int n, Comparable constant,
+                                 int accept) {
+        // widening preserves the ordering of Float.compare()
+        double c = ((Number) constant).doubleValue();
+        double [] v = values;
+        int kept = 0;
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            sel[kept] = row;
+            kept += accepted(Double.compare(v[row], c), accept);
+        }
+        return kept;
+    } // filterSameType()
+
+} // DoubleVector
@@ -0,0 +1,144 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import java.util.Arrays;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * IntVector: A column of integer values.  Bytes, shorts and
+ * characters are widened to integers in the vector and boxed back to
+ * their own type when read as objects.
+ *
+ * @author agent
+ */
+public class IntVector extends ColumnVector {
+
+    /** The type of the values of the column. */
+    private Class<? extends Comparable> type;
+
+    /** The values of the column. */
+    private int [] values;
+
+    /**
+     * Constructs a new integer vector.
+     *
+     * @param type the type of the values: integer, short, byte or
+     * character.
+     * @param capacity the initial number of rows.
+     */
+    public IntVector(Class<? extends Comparable> type, int capacity) {
+        this.type = type;
+        values = new int[Math.max(1, capacity)];
+    } // IntVector()
+
+
+    /**
+     * Returns the value of a row without boxing it.
+     *
+     * @param row the row.
+     * @return the value of the row.
+     */
+    public int getInt(int row) {
+        return values[row];
+    } // getInt()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class<? extends Comparable> getType() {
+        return type;
+    } // getType()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void reset() {
+        // nothing to release
+    } // reset()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length)
+            values = Arrays.copyOf(values, Math.max(capacity,
+                                                    2 * values.length));
+    } // ensureCapacity()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void load(int row, Tuple tuple, int slot) {
+        if (type == Integer.class) values[row] = tuple.asInt(slot);
+        else if (type == Short.class) values[row] = tuple.asShort(slot);
+        else if (type == Byte.class) values[row] = tuple.asByte(slot);
+        else values[row] = tuple.asChar(slot);
+    } // load()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Comparable get(int row) {
+        if (type == Integer.class) return values[row];
+        else if (type == Short.class) return (short) values[row];
+        else if (type == Byte.class) return (byte) values[row];
+        else return (char) values[row];
+    } // get()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode(int row) {
+        // all four boxed types hash to their value
+        return values[row];
+    } // hashCode()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addHashes(int [] sel, int n, int [] hashes, int multiplier) {
+        int [] v = values;
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            hashes[row] += v[row] * multiplier;
+        }
+    } // addHashes()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    protected int filterSameType(int [] sel, int n, Comparable constant,
+                                 int accept) {
+        int c;
+        if (constant instanceof Character)
+            c = ((Character) constant).charValue();
+        else
+            c = ((Number) constant).intValue();
+        int [] v = values;
+        int kept = 0;
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            sel[kept] = row;
+            kept += accepted(Integer.compare(v[row], c), accept);
+        }
+        return kept;
+    } // filterSameType()
+
+} // IntVector
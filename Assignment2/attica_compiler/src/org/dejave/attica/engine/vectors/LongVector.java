@@ -0,0 +1,126 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import java.util.Arrays;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * LongVector: A column of long values.
+ *
+ * @author agent
+ */
+public class LongVector extends ColumnVector {
+
+    /** The values of the column. */
+    private long [] values;
+
+    /**
+     * Constructs a new long vector.
+     *
+     * @param capacity the initial number of rows.
+     */
+    public LongVector(int capacity) {
+        values = new long[Math.max(1, capacity)];
+    } // LongVector()
+
+
+    /**
+     * Returns the value of a row without boxing it.
+     *
+     * @param row the row.
+     * @return the value of the row.
+     */
+    public long getLong(int row) {
+        return values[row];
+    } // getLong()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class<? extends Comparable> getType() {
+        return Long.class;
+    } // getType()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void reset() {
+        // nothing to release
+    } // reset()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length)
+            values = Arrays.copyOf(values, Math.max(capacity,
+                                                    2 * values.length));
+    } // ensureCapacity()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void load(int row, Tuple tuple, int slot) {
+        values[row] = tuple.asLong(slot);
+    } // load()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Comparable get(int row) {
+        return values[row];
+    } // get()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode(int row) {
+        long v = values[row];
+        return (int) (v ^ (v >>> 32));
+    } // hashCode()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addHashes(int [] sel, int n, int [] hashes, int multiplier) {
+        long [] v = values;
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            hashes[row] += (int) (v[row] ^ (v[row] >>> 32)) * multiplier;
+        }
+    } // addHashes()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    protected int filterSameType(int [] sel, int n, Comparable constant,
+                                 int accept) {
+        long c = ((Long) constant).longValue();
+        long [] v = values;
+        int kept = 0;
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            sel[kept] = row;
+            kept += accepted(Long.compare(v[row], c), accept);
+        }
+        return kept;
+    } // filterSameType()
+
+} // LongVector
@@ -0,0 +1,154 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import java.util.Arrays;
+
+import org.dejave.attica.storage.Tuple;
+
+/**
+ * StringVector: A column of strings, offset-encoded: the characters
+ * of all rows are stored back to back in a single array, and row
+ * <i>i</i> spans the characters between the offsets of rows
+ * <i>i</i> and <i>i+1</i>.  Comparisons and hashing work on the
+ * characters; strings are only built when a row is read as an
+ * object.
+ *
+ * @author agent
+ */
+public class StringVector extends ColumnVector {
+
+    /** The characters of all rows. */
+    private char [] chars;
+
+    /** The starting offset of every row, plus the end of the last
+     * one. */
+    private int [] offsets;
+
+    /**
+     * Constructs a new string vector.
+     *
+     * @param capacity the initial number of rows.
+     */
+    public StringVector(int capacity) {
+        capacity = Math.max(1, capacity);
+        offsets = new int[capacity+1];
+        chars = new char[8 * capacity];
+    } // StringVector()
+
+
+    /**
+     * Returns the length of the string of a row.
+     *
+     * @param row the row.
+     * @return the length of the string.
+     */
+    public int length(int row) {
+        return offsets[row+1] - offsets[row];
+    } // length()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class<? extends Comparable> getType() {
+        return String.class;
+    } // getType()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void reset() {
+        offsets[0] = 0;
+    } // reset()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity + 1 > offsets.length)
+            offsets = Arrays.copyOf(offsets, Math.max(capacity + 1,
+                                                      2 * offsets.length));
+    } // ensureCapacity()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void load(int row, Tuple tuple, int slot) {
+        String s = tuple.asString(slot);
+        int start = offsets[row];
+        int length = s.length();
+        if (start + length > chars.length)
+            chars = Arrays.copyOf(chars, Math.max(start + length,
+                                                  2 * chars.length));
+        s.getChars(0, length, chars, start);
+        offsets[row+1] = start + length;
+    } // load()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public Comparable get(int row) {
+        return new String(chars, offsets[row], length(row));
+    } // get()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode(int row) {
+        // same as String.hashCode()
+        int h = 0;
+        for (int i = offsets[row]; i < offsets[row+1]; i++)
+            h = 31 * h + chars[i];
+        return h;
+    } // hashCode()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    protected int filterSameType(int [] sel, int n, Comparable constant,
+                                 int accept) {
+        String c = (String) constant;
+        int kept = 0;
+        for (int k = 0; k < n; k++) {
+            int row = sel[k];
+            sel[kept] = row;
+            kept += accepted(Integer.signum(compare(row, c)), accept);
+        }
+        return kept;
+    } // filterSameType()
+
+
+    /**
+     * Compares the string of a row with a string, with the semantics
+     * of String.compareTo().
+     *
+     * @param row the row.
+     * @param s the string.
+     * @return the outcome of the comparison.
+     */
+    private int compare(int row, String s) {
+        int start = offsets[row];
+        int length = offsets[row+1] - start;
+        int min = Math.min(length, s.length());
+        for (int i = 0; i < min; i++) {
+            char a = chars[start + i];
+            char b = s.charAt(i);
+            if (a != b) return a - b;
+        }
+        return length - s.length();
+    } // compare()
+
+} // StringVector
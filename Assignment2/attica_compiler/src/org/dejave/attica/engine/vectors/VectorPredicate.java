@@ -0,0 +1,175 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.engine.vectors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dejave.attica.engine.predicates.Condition;
+import org.dejave.attica.engine.predicates.Conjunction;
+import org.dejave.attica.engine.predicates.Predicate;
+import org.dejave.attica.engine.predicates.TrueCondition;
+import org.dejave.attica.engine.predicates.TuplePredicate;
+import org.dejave.attica.engine.predicates.TupleValueCondition;
+
+/**
+ * VectorPredicate: A predicate compiled to work on column batches.
+ * Applying it narrows the selection vector of a batch to the rows
+ * that qualify.  Comparisons of a slot against a constant run as
+ * kernels over the slot's column, conjunctions apply their
+ * conjuncts one after the other, and every other predicate is
+ * evaluated a row at a time on the live rows.
+ *
+ * @author agent
+ */
+public abstract class VectorPredicate {
+
+    /**
+     * Narrows the selection of a batch to the rows satisfying the
+     * predicate.
+     *
+     * @param batch the batch.
+     */
+    public abstract void apply(ColumnBatch batch);
+
+
+    /**
+     * Compiles a predicate.
+     *
+     * @param predicate the predicate to be compiled.
+     * @return the compiled predicate.
+     */
+    public static VectorPredicate compile(Predicate predicate) {
+        if (predicate instanceof TrueCondition)
+            return new AllRows();
+        else if (predicate instanceof TupleValueCondition)
+            return new SlotValue((TupleValueCondition) predicate);
+        else if (predicate instanceof Conjunction) {
+            List<VectorPredicate> conjuncts = new ArrayList<VectorPredicate>();
+            for (Predicate p : ((Conjunction) predicate).predicates())
+                conjuncts.add(compile(p));
+            return new AllOf(conjuncts);
+        }
+        else
+            return new RowAtATime(predicate);
+    } // compile()
+
+
+    /**
+     * Translates a qualification to the mask of comparison outcomes
+     * it accepts.
+     *
+     * @param qualification the qualification.
+     * @return the mask of accepted outcomes.
+     */
+    static int acceptMask(Condition.Qualification qualification) {
+        switch (qualification) {
+        case EQUALS:
+            return ColumnVector.EQUAL;
+        case NOT_EQUALS:
+            return ColumnVector.LESS | ColumnVector.GREATER;
+        case GREATER:
+            return ColumnVector.GREATER;
+        case LESS:
+            return ColumnVector.LESS;
+        case GREATER_EQUALS:
+            return ColumnVector.GREATER | ColumnVector.EQUAL;
+        case LESS_EQUALS:
+            return ColumnVector.LESS | ColumnVector.EQUAL;
+        }
+        return 0;
+    } // acceptMask()
+
+
+    /**
+     * AllRows: The always-true predicate.
+     */
+    private static class AllRows extends VectorPredicate {
+        public void apply(ColumnBatch batch) {
+            // every row qualifies
+        } // apply()
+    } // AllRows
+
+
+    /**
+     * SlotValue: A comparison of a slot against a constant.
+     */
+    private static class SlotValue extends VectorPredicate {
+
+        /** The slot. */
+        private int slot;
+
+        /** The constant. */
+        private Comparable value;
+
+        /** The accepted comparison outcomes. */
+        private int accept;
+
+        SlotValue(TupleValueCondition condition) {
+            slot = condition.getSlotPointer().getSlot();
+            value = condition.getValue();
+            accept = acceptMask(condition.getQualification());
+        } // SlotValue()
+
+        public void apply(ColumnBatch batch) {
+            batch.setSize(batch.column(slot).filter(batch.selection(),
+                                                    batch.size(),
+                                                    value, accept));
+        } // apply()
+    } // SlotValue
+
+
+    /**
+     * AllOf: A conjunction of compiled predicates.
+     */
+    private static class AllOf extends VectorPredicate {
+
+        /** The conjuncts. */
+        private VectorPredicate [] conjuncts;
+
+        AllOf(List<VectorPredicate> conjuncts) {
+            this.conjuncts = conjuncts.toArray(new VectorPredicate[0]);
+        } // AllOf()
+
+        public void apply(ColumnBatch batch) {
+            for (VectorPredicate conjunct : conjuncts) {
+                if (batch.size() == 0) return;
+                conjunct.apply(batch);
+            }
+        } // apply()
+    } // AllOf
+
+
+    /**
+     * RowAtATime: A predicate that has no kernel, evaluated on each
+     * live row in turn.
+     */
+    private static class RowAtATime extends VectorPredicate {
+
+        /** The predicate, compiled for tuples. */
+        private TuplePredicate predicate;
+
+        RowAtATime(Predicate predicate) {
+            this.predicate = TuplePredicate.compile(predicate);
+        } // RowAtATime()
+
+        public void apply(ColumnBatch batch) {
+            int [] sel = batch.selection();
+            int n = batch.size();
+            int kept = 0;
+            for (int k = 0; k < n; k++) {
+                int row = sel[k];
+                if (predicate.evaluate(batch.tuple(row)))
+                    sel[kept++] = row;
+            }
+            batch.setSize(kept);
+        } // apply()
+    } // RowAtATime
+
+} // VectorPredicate
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project. Any subsequent modification of
  * the file should retain this disclaimer.
  * 
@@ -37,9 +39,12 @@ import org.dejave.attica.model.Table;
 import org.dejave.attica.sql.parser.SQLParser;
 
 import org.dejave.attica.storage.BufferManager;
+import org.dejave.attica.storage.FileRegistry;
+import org.dejave.attica.storage.IndexEntry;
 import org.dejave.attica.storage.Catalog;
 import org.dejave.attica.storage.StorageManager;
 import org.dejave.attica.storage.StorageManagerException;
+import org.dejave.attica.storage.TableStatistics;
 import org.dejave.attica.storage.Tuple;
 
 import org.dejave.attica.storage.FileUtil;
@@ -66,9 +71,24 @@ public class Database {
 
     /** The property name for the hash algorithms. */
     public static final String HASH_ALGORITHMS = "hash-algorithms";
+
+    /** The property name for materialising query results. */
+    public static final String MATERIALISE_RESULTS = "materialise-results";
     
     /** Number of pages in the buffer pool. */
     private int bufferSize;
+
+    /** The buffer pool replacement policy. */
+    private String bufferPolicy;
+
+    /** The maximum number of database files kept open. */
+    private int maxOpenFiles;
+
+    /** The page I/O mode. */
+    private String ioMode;
+
+    /** Are query results materialised before they are returned? */
+    private boolean materialiseResults;
     
     /** DB catalog. */
     private Catalog catalog;
@@ -127,9 +147,25 @@ public class Database {
                                          System.getProperty("user.dir")).trim();
             bufferSize = 
 	      Integer.parseInt(props.getProperty("attica.buffersize", "50").trim());
+            bufferPolicy = props.getProperty("attica.buffer.policy",
+                                             BufferManager.LRU_POLICY).trim();
+            maxOpenFiles = Integer.parseInt(props.getProperty(
+                "attica.file.handles",
+                "" + FileRegistry.DEFAULT_MAX_OPEN_FILES).trim());
+            FileUtil.getRegistry().setMaxOpenFiles(maxOpenFiles);
+            ioMode = props.getProperty("attica.io.mode",
+                                       StorageManager.STREAM_IO).trim();
+            Operator.setBatchSize(Integer.parseInt(props.getProperty(
+                "attica.batch.size",
+                "" + Operator.DEFAULT_BATCH_SIZE).trim()));
+            Operator.setHashMemory(Integer.parseInt(props.getProperty(
+                "attica.hash.memory",
+                "" + Operator.DEFAULT_HASH_MEMORY).trim()));
+            materialiseResults = Boolean.parseBoolean(props.getProperty(
+                "attica.sink.materialise", "false").trim());
             
             // start up the new buffer manager
-            bm = new BufferManager(bufferSize);
+            bm = new BufferManager(bufferSize, bufferPolicy);
             // start up the catalog
             String catalogFile = ATTICA_DIR
                 + System.getProperty("file.separator") + "attica.catalog";
@@ -138,17 +174,27 @@ public class Database {
             if (init) catalog.writeCatalog();
             else catalog.readCatalog();
             // start up the storage manager
-            sm = new StorageManager(catalog, bm);
+            sm = new StorageManager(catalog, bm, ioMode);
 
 	    // start up the server parameters
 	    parameters = new HashMap<String, String>();
 	    parameters.put(HASH_ALGORITHMS, "false");
+	    parameters.put(MATERIALISE_RESULTS, "" + materialiseResults);
 			
             // we're all ready now...
             System.out.println("Attica server is running...");
             System.out.println("Data directory: " + ATTICA_DIR);
             System.out.println("Termporary directory: " + TEMP_DIR);
             System.out.println("Buffer pool size: " + bufferSize + " pages");
+            System.out.println("Buffer replacement policy: " + bufferPolicy);
+            System.out.println("Page I/O mode: " + ioMode);
+            System.out.println("Batch size: " + Operator.getBatchSize()
+                               + " tuples");
+            System.out.println("Hash memory: " + Operator.getHashMemory()
+                               + " pages");
+            System.out.println("Query results: "
+                               + (materialiseResults
+                                  ? "materialised" : "streamed"));
             System.out.println("** ready **");
             System.out.print(PROMPT);
         }
@@ -203,6 +249,16 @@ public class Database {
                                                  " successfully created");
                 return ms;
             }
+            // this is a new index -- build it over the table
+            else if (result instanceof IndexCreation) {
+                IndexCreation ic = (IndexCreation) result;
+                sm.createIndex(ic.getIndexName(), ic.getTableName(),
+                               ic.getAttributeName());
+                catalog.writeCatalog();
+                MessageSink ms = new MessageSink("Index " + ic.getIndexName()
+                                                 + " successfully created");
+                return ms;
+            }
             // this is a drop
             else if (result instanceof TableDeletion) {
                 TableDeletion td = (TableDeletion) result;
@@ -216,11 +272,19 @@ public class Database {
             else if (result instanceof TupleInsertion) {
                 TupleInsertion ti = (TupleInsertion) result;
                 String table = ti.getTableName();
-                List<Comparable> values = ti.getValues();
-                sm.castAndInsertTuple(table, values);
-                MessageSink ms = new MessageSink("Tuple was successfully "
-                                                 + "inserted into table "
-                                                 + table);
+                List<List<Comparable>> rows = ti.getRows();
+                if (rows.size() == 1) {
+                    sm.castAndInsertTuple(table, ti.getValues());
+                    MessageSink ms = new MessageSink("Tuple was successfully "
+                                                     + "inserted into table "
+                                                     + table);
+                    return ms;
+                }
+                // several tuples -- load them as a batch
+                sm.castAndInsertTuples(table, rows);
+                MessageSink ms = new MessageSink(rows.size() + " tuples were "
+                                                 + "successfully inserted "
+                                                 + "into table " + table);
                 return ms;
             }
             // show the DB catalog
@@ -237,12 +301,35 @@ public class Database {
 				    + parameters.get(HASH_ALGORITHMS));
 		return ms;
 	    }
-            // show the table attributes
+            // show the table attributes, its indexes, and their
+            // statistics if the table has been analysed
             else if (result instanceof TableDescription) {
                 TableDescription td = (TableDescription) result;
                 String name = td.getTableName();
                 Table table = catalog.getTable(name);
-                MessageSink ms = new MessageSink(table.toString());
+                StringBuffer sb = new StringBuffer(table.toString());
+                for (IndexEntry index : catalog.getIndexes(name))
+                    sb.append("\nIndex " + index.getIndexName() + " on "
+                              + index.getAttributeName());
+                TableStatistics stats = catalog.getStatistics(name);
+                if (stats != null) {
+                    sb.append("\nStatistics: " + stats);
+                    for (int i = 0; i < table.getNumberOfAttributes(); i++)
+                        sb.append("\n\t" + table.getAttribute(i).getName()
+                                  + ": " + stats.getColumn(i));
+                }
+                MessageSink ms = new MessageSink(sb.toString());
+                return ms;
+            }
+            // gather the statistics of a table
+            else if (result instanceof TableAnalysis) {
+                TableAnalysis ta = (TableAnalysis) result;
+                String name = ta.getTableName();
+                TableStatistics stats = sm.analyzeTable(name);
+                catalog.writeCatalog();
+                MessageSink ms = new MessageSink("Table " + name
+                                                 + " successfully analysed ("
+                                                 + stats + ")");
                 return ms;
             }
         }
@@ -316,15 +403,37 @@ public class Database {
             // storey high temple of lameness, with a big flashing
             // neon sign on top saying "this is lame".
             boolean done = false;
+            char [] chars = new char[8192];
+            int length = 0;
+            int position = 0;
             while (! done) {
                 StringBuffer sb = new StringBuffer();
-                char c;
-                // yeah, so we need to call a method just to append a
-                // character... isn't java lovely?
-                while ((c = (char) in.read()) != ';') sb.append(c);
+                // we used to call a method just to append a
+                // character, which is all very well until somebody
+                // bulk-loads a million tuples through the prompt; so
+                // read a block at a time and cut it at the semicolons
+                boolean eof = false;
+                while (true) {
+                    if (position == length) {
+                        length = in.read(chars, 0, chars.length);
+                        position = 0;
+                        if (length < 0) {
+                            eof = true;
+                            break;
+                        }
+                    }
+                    int start = position;
+                    while (position < length && chars[position] != ';')
+                        position++;
+                    sb.append(chars, start, position - start);
+                    if (position < length) {
+                        position++;
+                        break;
+                    }
+                }
                 
                 String input = sb.toString();
-                done = input.trim().equals("exit");
+                done = eof || input.trim().equals("exit");
                 if (! done) {
                     Sink sink = db.runStatement(input);
 
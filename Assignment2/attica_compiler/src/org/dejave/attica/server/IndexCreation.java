@@ -0,0 +1,72 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.server;
+
+/**
+ * IndexCreation: Encapsulates an index creation command.
+ *
+ * @author agent
+ */
+public class IndexCreation extends Statement {
+
+    /** The name of the index to be created. */
+    private String indexname;
+
+    /** The name of the indexed table. */
+    private String tablename;
+
+    /** The name of the indexed attribute. */
+    private String attribute;
+
+
+    /**
+     * Constructs a new index creation command.
+     *
+     * @param indexname the name of the index to be created.
+     * @param tablename the name of the indexed table.
+     * @param attribute the name of the indexed attribute.
+     */
+    public IndexCreation(String indexname, String tablename,
+                         String attribute) {
+        this.indexname = indexname;
+        this.tablename = tablename;
+        this.attribute = attribute;
+    } // IndexCreation()
+
+
+    /**
+     * Retrieves the name of the index to be created.
+     *
+     * @return the name of the index.
+     */
+    public String getIndexName() {
+        return indexname;
+    } // getIndexName()
+
+
+    /**
+     * Retrieves the name of the indexed table.
+     *
+     * @return the name of the indexed table.
+     */
+    public String getTableName() {
+        return tablename;
+    } // getTableName()
+
+
+    /**
+     * Retrieves the name of the indexed attribute.
+     *
+     * @return the name of the indexed attribute.
+     */
+    public String getAttributeName() {
+        return attribute;
+    } // getAttributeName()
+
+} // IndexCreation
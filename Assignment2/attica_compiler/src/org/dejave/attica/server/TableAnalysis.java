@@ -0,0 +1,41 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.server;
+
+/**
+ * TableAnalysis: A command to gather the statistics of a table.
+ *
+ * @author agent
+ */
+public class TableAnalysis extends Statement {
+
+    /** The name of the table to be analysed. */
+    private String tablename;
+
+
+    /**
+     * Constructs a new table analysis command.
+     *
+     * @param tablename the name of the table to be analysed.
+     */
+    public TableAnalysis(String tablename) {
+        this.tablename = tablename;
+    } // TableAnalysis()
+
+
+    /**
+     * Retrieves the name of the table to be analysed.
+     *
+     * @return the table to be analysed.
+     */
+    public String getTableName() {
+        return tablename;
+    } // getTableName()
+
+} // TableAnalysis
@@ -1,6 +1,8 @@
 /*
  * Created on Dec 26, 2003 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -11,7 +13,7 @@ package org.dejave.attica.server;
 import java.util.List;
 
 /**
- * TupleInsertion: A new tuple insertion.
+ * TupleInsertion: A new tuple insertion, of one or more tuples.
  *
  * @author sviglas
  */
@@ -20,19 +22,19 @@ public class TupleInsertion extends Statement {
     /** The name of the table where the tuple is to be inserted. */
     private String table;
 	
-    /** The list of values. */
-    private List<Comparable> values;
+    /** The lists of values, one per tuple. */
+    private List<List<Comparable>> rows;
 
     
     /**
      * Constructs a new tuple insertion command.
      * 
      * @param table the table where the tuples should be inserted.
-     * @param values the values of the tuple.
+     * @param rows the values of the tuples, one list per tuple.
      */
-    public TupleInsertion(String table, List<Comparable> values) {
+    public TupleInsertion(String table, List<List<Comparable>> rows) {
         this.table = table;
-        this.values = values;
+        this.rows = rows;
     } // TupleInsertion()
 
     
@@ -47,12 +49,22 @@ public class TupleInsertion extends Statement {
 
     
     /**
-     * Retrieves the values of the tuple.
+     * Retrieves the values of the (first) tuple.
      * 
      * @return the tuple's values.
      */
     public List<Comparable> getValues() {
-        return values;
+        return rows.get(0);
     } // getValues()
 
+
+    /**
+     * Retrieves the values of all tuples to be inserted.
+     * 
+     * @return the lists of values, one per tuple.
+     */
+    public List<List<Comparable>> getRows() {
+        return rows;
+    } // getRows()
+
 } // TupleInsertion
@@ -14,11 +14,14 @@ import org.dejave.attica.server.TableCreation;
 import org.dejave.attica.server.TableDeletion;
 import org.dejave.attica.server.TupleInsertion;
 import org.dejave.attica.server.TableDescription;
+import org.dejave.attica.server.TableAnalysis;
+import org.dejave.attica.server.IndexCreation;
 import org.dejave.attica.server.EnableHash;
 import org.dejave.attica.engine.algebra.*;
 import org.dejave.attica.model.*;
 import org.dejave.attica.storage.Catalog;
 import org.dejave.util.Pair;
+import org.dejave.util.Triplet;
 
 public class SQLParser implements SQLParserConstants {
 
@@ -63,44 +66,63 @@ TOKEN:
                                         (List<AlgebraicOperator>) o;
                                 {if (true) return new Query(ops);}
       break;
-    case CREATE:
-      o = Create();
+    default:
+      jj_la1[0] = jj_gen;
+      if (jj_2_1(2)) {
+        o = Create();
                                 {if (true) return new TableCreation((Table) o);}
-      break;
-    case DROP:
-      o = Drop();
+      } else {
+        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+        case CREATE:
+          o = CreateIndex();
+                                // safe to ignore the warning since we are
+                                // casting to the return type
+                                @SuppressWarnings("unchecked")
+                                Triplet<String, String, String> t =
+                                     (Triplet<String, String, String>) o;
+                                {if (true) return new IndexCreation(t.first, t.second,
+                                                         t.third);}
+          break;
+        case DROP:
+          o = Drop();
                                 {if (true) return new TableDeletion((String) o);}
-      break;
-    case INSERT:
-      o = Insert();
+          break;
+        case INSERT:
+          o = Insert();
                                 // safe to ignore the warning since we are
                                 // casting to the return type
                                 @SuppressWarnings("unchecked")
-                                Pair<String, List<Comparable>> pair =
-                                     (Pair<String, List<Comparable>>) o;
+                                Pair<String, List<List<Comparable>>> pair =
+                                     (Pair<String, List<List<Comparable>>>) o;
                                 {if (true) return new TupleInsertion(pair.first,
                                                           pair.second);}
-      break;
-    case CATALOG:
-      Catalog();
+          break;
+        case CATALOG:
+          Catalog();
                                 {if (true) return new ShowCatalog();}
-      break;
-    case DESCRIBE:
-      o = Describe();
+          break;
+        case DESCRIBE:
+          o = Describe();
                                 {if (true) return new TableDescription((String) o);}
-      break;
-    case ENABLE:
-      EnableHash();
+          break;
+        case ANALYZE:
+          o = Analyze();
+                                {if (true) return new TableAnalysis((String) o);}
+          break;
+        case ENABLE:
+          EnableHash();
                                 {if (true) return new EnableHash(true);}
-      break;
-    case DISABLE:
-      DisableHash();
+          break;
+        case DISABLE:
+          DisableHash();
                                 {if (true) return new EnableHash(false);}
-      break;
-    default:
-      jj_la1[0] = jj_gen;
-      jj_consume_token(-1);
-      throw new ParseException();
+          break;
+        default:
+          jj_la1[1] = jj_gen;
+          jj_consume_token(-1);
+          throw new ParseException();
+        }
+      }
     }
     throw new Error("Missing return statement in function");
   }
@@ -111,34 +133,68 @@ TOKEN:
         Projection p = null;
         Sort s = null;
         Group g = null;
+        Limit l = null;
+        List<String> tables = null;
     p = SelectClause();
                         algebra.add(p);
-    FromClause();
+    tables = FromClause();
+                        p.setFromList(tables);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case WHERE:
       where = WhereClause();
                                 algebra.addAll(where);
       break;
     default:
-      jj_la1[1] = jj_gen;
+      jj_la1[2] = jj_gen;
       ;
     }
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case ORDER:
-      s = SortClause();
+    case GROUP:
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case ORDER:
+        s = SortClause();
                                 algebra.add(s);
+        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+        case GROUP:
+          g = GroupClause();
+                                        algebra.add(g);
+          break;
+        default:
+          jj_la1[3] = jj_gen;
+          ;
+        }
+        break;
+      case GROUP:
+        g = GroupClause();
+                                algebra.add(g);
+        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+        case ORDER:
+          s = SortClause();
+                                        algebra.add(s);
+          break;
+        default:
+          jj_la1[4] = jj_gen;
+          ;
+        }
+        break;
+      default:
+        jj_la1[5] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
       break;
     default:
-      jj_la1[2] = jj_gen;
+      jj_la1[6] = jj_gen;
       ;
     }
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case GROUP:
-      g = GroupClause();
-                                algebra.add(g);
+    case LIMIT:
+      l = LimitClause();
+                                algebra.add(l);
       break;
     default:
-      jj_la1[3] = jj_gen;
+      jj_la1[7] = jj_gen;
       ;
     }
                         {if (true) return algebra;}
@@ -147,17 +203,112 @@ TOKEN:
 
   static final public Projection SelectClause() throws ParseException {
         List<Variable> projections = new ArrayList<Variable>();
+        List<Aggregate> aggregates = new ArrayList<Aggregate>();
     jj_consume_token(SELECT);
-    projections = AttributeList();
+    SelectItem(projections, aggregates);
+    label_1:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case COMMA:
+        ;
+        break;
+      default:
+        jj_la1[8] = jj_gen;
+        break label_1;
+      }
+      jj_consume_token(COMMA);
+      SelectItem(projections, aggregates);
+    }
                         //System.out.println(projections);
-                        Projection p = new Projection(projections);
+                        Projection p = new Projection(projections, aggregates);
                         {if (true) return p;}
     throw new Error("Missing return statement in function");
   }
 
-  static final public void FromClause() throws ParseException {
+  static final public void SelectItem(List<Variable> projections, List<Aggregate> aggregates) throws ParseException {
+        Variable var = null;
+        Aggregate agg = null;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case MAX:
+    case MIN:
+    case COUNT:
+    case SUM:
+      agg = AggregateExpression();
+                                aggregates.add(agg);
+      break;
+    case ID:
+      var = Attribute();
+                                projections.add(var);
+      break;
+    default:
+      jj_la1[9] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+  }
+
+  static final public Aggregate AggregateExpression() throws ParseException {
+        Aggregate.Function f = null;
+        Variable var = null;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case COUNT:
+      jj_consume_token(COUNT);
+                          f = Aggregate.Function.COUNT;
+      break;
+    case SUM:
+      jj_consume_token(SUM);
+                        f = Aggregate.Function.SUM;
+      break;
+    case MIN:
+      jj_consume_token(MIN);
+                        f = Aggregate.Function.MIN;
+      break;
+    case MAX:
+      jj_consume_token(MAX);
+                        f = Aggregate.Function.MAX;
+      break;
+    default:
+      jj_la1[10] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    jj_consume_token(OPENPAR);
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case DISTINCT:
+      jj_consume_token(DISTINCT);
+                                {if (true) throw new ParseException("Distinct aggregates not "
+                                                         + "yet supported.");}
+      break;
+    default:
+      jj_la1[11] = jj_gen;
+      ;
+    }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case ID:
+      var = Attribute();
+      break;
+    case ASTERISK:
+      jj_consume_token(ASTERISK);
+                                if (f != Aggregate.Function.COUNT)
+                                        {if (true) throw new ParseException("Only count() "
+                                                                 + "applies to *.");}
+      break;
+    default:
+      jj_la1[12] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    jj_consume_token(CLOSEPAR);
+                        {if (true) return new Aggregate(f, var);}
+    throw new Error("Missing return statement in function");
+  }
+
+  static final public List<String> FromClause() throws ParseException {
+        List<String> tables = null;
     jj_consume_token(FROM);
-    TableList();
+    tables = TableList();
+                        {if (true) return tables;}
+    throw new Error("Missing return statement in function");
   }
 
   static final public List<AlgebraicOperator> WhereClause() throws ParseException {
@@ -178,6 +329,20 @@ TOKEN:
     throw new Error("Missing return statement in function");
   }
 
+  static final public Limit LimitClause() throws ParseException {
+        Token x = null;
+    jj_consume_token(LIMIT);
+    x = jj_consume_token(INTEGER_LITERAL);
+                        try {
+                                {if (true) return new Limit(Integer.parseInt(x.image));}
+                        }
+                        catch (NumberFormatException nfe) {
+                                {if (true) throw new ParseException("Limit " + x.image
+                                                         + " is too large.");}
+                        }
+    throw new Error("Missing return statement in function");
+  }
+
   static final public Group GroupClause() throws ParseException {
         List<Variable> attributes = new ArrayList<Variable>();
     jj_consume_token(GROUP);
@@ -193,15 +358,15 @@ TOKEN:
         Variable var = null;
     var = Attribute();
                         v.add(var);
-    label_1:
+    label_2:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case COMMA:
         ;
         break;
       default:
-        jj_la1[4] = jj_gen;
-        break label_1;
+        jj_la1[13] = jj_gen;
+        break label_2;
       }
       jj_consume_token(COMMA);
       var = Attribute();
@@ -211,26 +376,32 @@ TOKEN:
     throw new Error("Missing return statement in function");
   }
 
-  static final public void TableList() throws ParseException {
-    Table();
-    label_2:
+  static final public List<String> TableList() throws ParseException {
+        List<String> tables = new ArrayList<String>();
+        String t = null;
+    t = Table();
+                        tables.add(t);
+    label_3:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case COMMA:
         ;
         break;
       default:
-        jj_la1[5] = jj_gen;
-        break label_2;
+        jj_la1[14] = jj_gen;
+        break label_3;
       }
       jj_consume_token(COMMA);
-      Table();
+      t = Table();
+                        tables.add(t);
     }
+                        {if (true) return tables;}
+    throw new Error("Missing return statement in function");
   }
 
   static final public String Table() throws ParseException {
         String x = null;
-    if (jj_2_1(2147483647)) {
+    if (jj_2_2(2147483647)) {
       AliasedTable();
                                 {if (true) throw new ParseException("Table aliases not "
                                                          + "yet supported.");}
@@ -241,7 +412,7 @@ TOKEN:
                                 {if (true) return x;}
         break;
       default:
-        jj_la1[6] = jj_gen;
+        jj_la1[15] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -251,7 +422,7 @@ TOKEN:
 
   static final public Variable Attribute() throws ParseException {
         Variable var = null;
-    if (jj_2_2(2147483647)) {
+    if (jj_2_3(2147483647)) {
       var = QualifiedAttribute();
                                 {if (true) return var;}
     } else {
@@ -263,7 +434,7 @@ TOKEN:
                                                          + "yet supported.");}
         break;
       default:
-        jj_la1[7] = jj_gen;
+        jj_la1[16] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -281,12 +452,12 @@ TOKEN:
   static final public List<AlgebraicOperator> DisjunctiveExpression() throws ParseException {
         List<AlgebraicOperator> v = new ArrayList<AlgebraicOperator>();
     v = ConjunctiveExpression();
-    label_3:
+    label_4:
     while (true) {
-      if (jj_2_3(2147483647)) {
+      if (jj_2_4(2147483647)) {
         ;
       } else {
-        break label_3;
+        break label_4;
       }
       DisjunctionOperator();
                                         {if (true) throw new ParseException("Disjunction "
@@ -303,12 +474,12 @@ TOKEN:
         AlgebraicOperator op = null;
     op = UnaryExpression();
                         algebra.add(op);
-    label_4:
+    label_5:
     while (true) {
-      if (jj_2_4(2147483647)) {
+      if (jj_2_5(2147483647)) {
         ;
       } else {
-        break label_4;
+        break label_5;
       }
       ConjunctionOperator();
       op = UnaryExpression();
@@ -340,7 +511,7 @@ TOKEN:
                                 {if (true) return op;}
       break;
     default:
-      jj_la1[8] = jj_gen;
+      jj_la1[17] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -373,7 +544,7 @@ TOKEN:
                                 op = new Selection(vvalq);
       break;
     default:
-      jj_la1[9] = jj_gen;
+      jj_la1[18] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -424,7 +595,7 @@ TOKEN:
                                 {if (true) return Qualification.Relationship.NOT_EQUALS;}
       break;
     default:
-      jj_la1[10] = jj_gen;
+      jj_la1[19] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -471,7 +642,7 @@ TOKEN:
                                                {if (true) return x.image;}
       break;
     default:
-      jj_la1[11] = jj_gen;
+      jj_la1[20] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -491,20 +662,37 @@ TOKEN:
     throw new Error("Missing return statement in function");
   }
 
+  static final public Triplet<String, String, String> CreateIndex() throws ParseException {
+        String index;
+        String table;
+        String attribute;
+    jj_consume_token(CREATE);
+    jj_consume_token(INDEX);
+    index = Identifier();
+    jj_consume_token(ON);
+    table = Identifier();
+    jj_consume_token(OPENPAR);
+    attribute = Identifier();
+    jj_consume_token(CLOSEPAR);
+                                {if (true) return new Triplet<String, String, String>(
+                                        index, table, attribute);}
+    throw new Error("Missing return statement in function");
+  }
+
   static final public List<Attribute> AttributeDeclarationList(String table) throws ParseException {
         List<Attribute> v = new ArrayList<Attribute>();
         TableAttribute tab = null;
     tab = AttributeDeclaration(table);
                         v.add(tab);
-    label_5:
+    label_6:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case COMMA:
         ;
         break;
       default:
-        jj_la1[12] = jj_gen;
-        break label_5;
+        jj_la1[21] = jj_gen;
+        break label_6;
       }
       jj_consume_token(COMMA);
       tab = AttributeDeclaration(table);
@@ -559,16 +747,17 @@ TOKEN:
                                 {if (true) return String.class;}
       break;
     default:
-      jj_la1[13] = jj_gen;
+      jj_la1[22] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
     throw new Error("Missing return statement in function");
   }
 
-  static final public Pair<String, List<Comparable>> Insert() throws ParseException {
+  static final public Pair<String, List<List<Comparable>>> Insert() throws ParseException {
         String table = null;
-        List<Comparable> v = new ArrayList<Comparable>();
+        List<List<Comparable>> rows = new ArrayList<List<Comparable>>();
+        List<Comparable> v = null;
     jj_consume_token(INSERT);
     jj_consume_token(INTO);
     table = Identifier();
@@ -576,7 +765,24 @@ TOKEN:
     jj_consume_token(OPENPAR);
     v = ValueList();
     jj_consume_token(CLOSEPAR);
-                        {if (true) return new Pair<String, List<Comparable>>(table, v);}
+                        rows.add(v);
+    label_7:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case COMMA:
+        ;
+        break;
+      default:
+        jj_la1[23] = jj_gen;
+        break label_7;
+      }
+      jj_consume_token(COMMA);
+      jj_consume_token(OPENPAR);
+      v = ValueList();
+      jj_consume_token(CLOSEPAR);
+                                rows.add(v);
+    }
+                        {if (true) return new Pair<String, List<List<Comparable>>>(table, rows);}
     throw new Error("Missing return statement in function");
   }
 
@@ -585,15 +791,15 @@ TOKEN:
         String l = null;
     l = Literal();
                         v.add(l);
-    label_6:
+    label_8:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case COMMA:
         ;
         break;
       default:
-        jj_la1[14] = jj_gen;
-        break label_6;
+        jj_la1[24] = jj_gen;
+        break label_8;
       }
       jj_consume_token(COMMA);
       l = Literal();
@@ -626,6 +832,14 @@ TOKEN:
     jj_consume_token(HASH);
   }
 
+  static final public String Analyze() throws ParseException {
+        String s = null;
+    jj_consume_token(ANALYZE);
+    s = Identifier();
+                        {if (true) return s;}
+    throw new Error("Missing return statement in function");
+  }
+
   static final public String Describe() throws ParseException {
         String s = null;
     jj_consume_token(DESCRIBE);
@@ -663,36 +877,54 @@ TOKEN:
     finally { jj_save(3, xla); }
   }
 
-  static private boolean jj_3R_7() {
+  static private boolean jj_2_5(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_5(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(4, xla); }
+  }
+
+  static private boolean jj_3R_10() {
     if (jj_scan_token(ID)) return true;
     if (jj_scan_token(ID)) return true;
     return false;
   }
 
-  static private boolean jj_3R_8() {
+  static private boolean jj_3_1() {
+    if (jj_3R_9()) return true;
+    return false;
+  }
+
+  static private boolean jj_3R_11() {
     if (jj_scan_token(ID)) return true;
     if (jj_scan_token(DOT)) return true;
     if (jj_scan_token(ID)) return true;
     return false;
   }
 
-  static private boolean jj_3_4() {
+  static private boolean jj_3_5() {
     if (jj_scan_token(12)) return true;
     return false;
   }
 
-  static private boolean jj_3_2() {
-    if (jj_3R_8()) return true;
+  static private boolean jj_3_3() {
+    if (jj_3R_11()) return true;
     return false;
   }
 
-  static private boolean jj_3_3() {
+  static private boolean jj_3_4() {
     if (jj_scan_token(13)) return true;
     return false;
   }
 
-  static private boolean jj_3_1() {
-    if (jj_3R_7()) return true;
+  static private boolean jj_3R_9() {
+    if (jj_scan_token(CREATE)) return true;
+    if (jj_scan_token(TABLE)) return true;
+    return false;
+  }
+
+  static private boolean jj_3_2() {
+    if (jj_3R_10()) return true;
     return false;
   }
 
@@ -708,7 +940,7 @@ TOKEN:
   static private Token jj_scanpos, jj_lastpos;
   static private int jj_la;
   static private int jj_gen;
-  static final private int[] jj_la1 = new int[15];
+  static final private int[] jj_la1 = new int[25];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static private int[] jj_la1_2;
@@ -718,15 +950,15 @@ TOKEN:
       jj_la1_init_2();
    }
    private static void jj_la1_init_0() {
-      jj_la1_0 = new int[] {0x8000,0x20000,0x40000,0x80000,0x0,0x0,0x0,0x0,0x4000,0x580,0x0,0x580,0x0,0x0,0x0,};
+      jj_la1_0 = new int[] {0x8000,0x0,0x20000,0x80000,0x40000,0xc0000,0xc0000,0x0,0x0,0x24300000,0x24300000,0x800000,0x0,0x0,0x0,0x0,0x0,0x4000,0x580,0x0,0x580,0x0,0x0,0x0,0x0,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x3e3,0x0,0x0,0x0,0x1000,0x1000,0x0,0x0,0x100000,0x0,0xfe000,0x0,0x1000,0xf0000000,0x1000,};
+      jj_la1_1 = new int[] {0x0,0x17c6,0x0,0x0,0x0,0x0,0x0,0x1,0x10000,0x0,0x0,0x0,0x4000000,0x10000,0x10000,0x0,0x0,0x1000000,0x0,0xfe0000,0x0,0x10000,0x0,0x10000,0x10000,};
    }
    private static void jj_la1_init_2() {
-      jj_la1_2 = new int[] {0x0,0x0,0x0,0x0,0x0,0x0,0x10,0x10,0x10,0x10,0x0,0x0,0x0,0xf,0x0,};
+      jj_la1_2 = new int[] {0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x100,0x0,0x0,0x100,0x0,0x0,0x100,0x100,0x100,0x100,0x0,0x0,0x0,0xff,0x0,0x0,};
    }
-  static final private JJCalls[] jj_2_rtns = new JJCalls[4];
+  static final private JJCalls[] jj_2_rtns = new JJCalls[5];
   static private boolean jj_rescan = false;
   static private int jj_gc = 0;
 
@@ -748,7 +980,7 @@ TOKEN:
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 15; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 25; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -763,7 +995,7 @@ TOKEN:
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 15; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 25; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -781,7 +1013,7 @@ TOKEN:
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 15; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 25; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -792,7 +1024,7 @@ TOKEN:
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 15; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 25; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -809,7 +1041,7 @@ TOKEN:
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 15; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 25; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -819,7 +1051,7 @@ TOKEN:
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 15; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 25; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -931,12 +1163,12 @@ TOKEN:
   /** Generate ParseException. */
   static public ParseException generateParseException() {
     jj_expentries.clear();
-    boolean[] la1tokens = new boolean[71];
+    boolean[] la1tokens = new boolean[75];
     if (jj_kind >= 0) {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
     }
-    for (int i = 0; i < 15; i++) {
+    for (int i = 0; i < 25; i++) {
       if (jj_la1[i] == jj_gen) {
         for (int j = 0; j < 32; j++) {
           if ((jj_la1_0[i] & (1<<j)) != 0) {
@@ -951,7 +1183,7 @@ TOKEN:
         }
       }
     }
-    for (int i = 0; i < 71; i++) {
+    for (int i = 0; i < 75; i++) {
       if (la1tokens[i]) {
         jj_expentry = new int[1];
         jj_expentry[0] = i;
@@ -978,7 +1210,7 @@ TOKEN:
 
   static private void jj_rescan_token() {
     jj_rescan = true;
-    for (int i = 0; i < 4; i++) {
+    for (int i = 0; i < 5; i++) {
     try {
       JJCalls p = jj_2_rtns[i];
       do {
@@ -989,6 +1221,7 @@ TOKEN:
             case 1: jj_3_2(); break;
             case 2: jj_3_3(); break;
             case 3: jj_3_4(); break;
+            case 4: jj_3_5(); break;
           }
         }
         p = p.next;
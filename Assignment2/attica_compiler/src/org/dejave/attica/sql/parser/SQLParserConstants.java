@@ -65,83 +65,91 @@ public interface SQLParserConstants {
   /** RegularExpression Id. */
   int BETWEEN = 31;
   /** RegularExpression Id. */
-  int CREATE = 32;
+  int LIMIT = 32;
   /** RegularExpression Id. */
-  int INSERT = 33;
+  int CREATE = 33;
   /** RegularExpression Id. */
-  int TABLE = 34;
+  int INSERT = 34;
   /** RegularExpression Id. */
-  int VALUES = 35;
+  int TABLE = 35;
   /** RegularExpression Id. */
-  int INTO = 36;
+  int VALUES = 36;
   /** RegularExpression Id. */
-  int DROP = 37;
+  int INTO = 37;
   /** RegularExpression Id. */
-  int DESCRIBE = 38;
+  int DROP = 38;
   /** RegularExpression Id. */
-  int CATALOG = 39;
+  int DESCRIBE = 39;
   /** RegularExpression Id. */
-  int ENABLE = 40;
+  int CATALOG = 40;
   /** RegularExpression Id. */
-  int DISABLE = 41;
+  int ENABLE = 41;
   /** RegularExpression Id. */
-  int HASH = 42;
+  int DISABLE = 42;
   /** RegularExpression Id. */
-  int DOT = 43;
+  int HASH = 43;
   /** RegularExpression Id. */
-  int COMMA = 44;
+  int ANALYZE = 44;
   /** RegularExpression Id. */
-  int LESS = 45;
+  int INDEX = 45;
   /** RegularExpression Id. */
-  int LESSEQUAL = 46;
+  int ON = 46;
   /** RegularExpression Id. */
-  int GREATER = 47;
+  int DOT = 47;
   /** RegularExpression Id. */
-  int GREATEREQUAL = 48;
+  int COMMA = 48;
   /** RegularExpression Id. */
-  int EQUAL = 49;
+  int LESS = 49;
   /** RegularExpression Id. */
-  int NOTEQUAL = 50;
+  int LESSEQUAL = 50;
   /** RegularExpression Id. */
-  int NOTEQUAL2 = 51;
+  int GREATER = 51;
   /** RegularExpression Id. */
-  int OPENPAR = 52;
+  int GREATEREQUAL = 52;
   /** RegularExpression Id. */
-  int CLOSEPAR = 53;
+  int EQUAL = 53;
   /** RegularExpression Id. */
-  int ASTERISK = 54;
+  int NOTEQUAL = 54;
   /** RegularExpression Id. */
-  int SLASH = 55;
+  int NOTEQUAL2 = 55;
   /** RegularExpression Id. */
-  int PLUS = 56;
+  int OPENPAR = 56;
   /** RegularExpression Id. */
-  int MINUS = 57;
+  int CLOSEPAR = 57;
   /** RegularExpression Id. */
-  int QUESTIONMARK = 58;
+  int ASTERISK = 58;
   /** RegularExpression Id. */
-  int PERCENT = 59;
+  int SLASH = 59;
   /** RegularExpression Id. */
-  int INTEGER = 60;
+  int PLUS = 60;
   /** RegularExpression Id. */
-  int LONG = 61;
+  int MINUS = 61;
   /** RegularExpression Id. */
-  int CHAR = 62;
+  int QUESTIONMARK = 62;
   /** RegularExpression Id. */
-  int BYTE = 63;
+  int PERCENT = 63;
   /** RegularExpression Id. */
-  int SHORT = 64;
+  int INTEGER = 64;
   /** RegularExpression Id. */
-  int DOUBLE = 65;
+  int LONG = 65;
   /** RegularExpression Id. */
-  int FLOAT = 66;
+  int CHAR = 66;
   /** RegularExpression Id. */
-  int STRING = 67;
+  int BYTE = 67;
   /** RegularExpression Id. */
-  int ID = 68;
+  int SHORT = 68;
   /** RegularExpression Id. */
-  int LETTER = 69;
+  int DOUBLE = 69;
   /** RegularExpression Id. */
-  int DIGIT = 70;
+  int FLOAT = 70;
+  /** RegularExpression Id. */
+  int STRING = 71;
+  /** RegularExpression Id. */
+  int ID = 72;
+  /** RegularExpression Id. */
+  int LETTER = 73;
+  /** RegularExpression Id. */
+  int DIGIT = 74;
 
   /** Lexical state. */
   int DEFAULT = 0;
@@ -180,6 +188,7 @@ public interface SQLParserConstants {
     "\"sum\"",
     "\"by\"",
     "\"between\"",
+    "\"limit\"",
     "\"create\"",
     "\"insert\"",
     "\"table\"",
@@ -191,6 +200,9 @@ public interface SQLParserConstants {
     "\"enable\"",
     "\"disable\"",
     "\"hash\"",
+    "\"analyze\"",
+    "\"index\"",
+    "\"on\"",
     "\".\"",
     "\",\"",
     "\"<\"",
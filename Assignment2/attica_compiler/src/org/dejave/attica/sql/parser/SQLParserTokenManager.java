@@ -11,11 +11,14 @@ import org.dejave.attica.server.TableCreation;
 import org.dejave.attica.server.TableDeletion;
 import org.dejave.attica.server.TupleInsertion;
 import org.dejave.attica.server.TableDescription;
+import org.dejave.attica.server.TableAnalysis;
+import org.dejave.attica.server.IndexCreation;
 import org.dejave.attica.server.EnableHash;
 import org.dejave.attica.engine.algebra.*;
 import org.dejave.attica.model.*;
 import org.dejave.attica.storage.Catalog;
 import org.dejave.util.Pair;
+import org.dejave.util.Triplet;
 
 /** Token Manager. */
 public class SQLParserTokenManager implements SQLParserConstants
@@ -30,90 +33,90 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0, long ac
    switch (pos)
    {
       case 0:
-         if ((active0 & 0x200000000000000L) != 0L)
+         if ((active0 & 0x2000000000000000L) != 0L)
             return 0;
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x800000000000L) != 0L)
             return 14;
-         if ((active0 & 0xf00007fffffff800L) != 0L || (active1 & 0xfL) != 0L)
+         if ((active0 & 0x800000000000000L) != 0L)
+            return 6;
+         if ((active0 & 0x7ffffffff800L) != 0L || (active1 & 0xffL) != 0L)
          {
-            jjmatchedKind = 68;
+            jjmatchedKind = 72;
             return 42;
          }
-         if ((active0 & 0x80000000000000L) != 0L)
-            return 6;
          return -1;
       case 1:
-         if ((active0 & 0x9000001241042000L) != 0L)
+         if ((active0 & 0x602441042000L) != 0L || (active1 & 0x9L) != 0L)
             return 42;
-         if ((active0 & 0x600007edbefbd800L) != 0L || (active1 & 0xfL) != 0L)
+         if ((active0 & 0x1fdbbefbd800L) != 0L || (active1 & 0xf6L) != 0L)
          {
             if (jjmatchedPos != 1)
             {
-               jjmatchedKind = 68;
+               jjmatchedKind = 72;
                jjmatchedPos = 1;
             }
             return 42;
          }
          return -1;
       case 2:
-         if ((active0 & 0x28305800L) != 0L)
-            return 42;
-         if ((active0 & 0xf00007ff96cf8000L) != 0L || (active1 & 0xfL) != 0L)
+         if ((active0 & 0x3fff96cf8000L) != 0L || (active1 & 0xffL) != 0L)
          {
-            jjmatchedKind = 68;
+            jjmatchedKind = 72;
             jjmatchedPos = 2;
             return 42;
          }
+         if ((active0 & 0x28305800L) != 0L)
+            return 42;
          return -1;
       case 3:
-         if ((active0 & 0xa000047010010000L) != 0L)
+         if ((active0 & 0x8e010010000L) != 0L || (active1 & 0xaL) != 0L)
             return 42;
-         if ((active0 & 0x5000038f86ce8000L) != 0L || (active1 & 0xfL) != 0L)
+         if ((active0 & 0x371f86ce8000L) != 0L || (active1 & 0xf5L) != 0L)
          {
             if (jjmatchedPos != 3)
             {
-               jjmatchedKind = 68;
+               jjmatchedKind = 72;
                jjmatchedPos = 3;
             }
             return 42;
          }
          return -1;
       case 4:
-         if ((active0 & 0x4040e0000L) != 0L || (active1 & 0x5L) != 0L)
+         if ((active0 & 0x2009040e0000L) != 0L || (active1 & 0x50L) != 0L)
             return 42;
-         if ((active0 & 0x500003cb82c08000L) != 0L || (active1 & 0xaL) != 0L)
+         if ((active0 & 0x179682c08000L) != 0L || (active1 & 0xa5L) != 0L)
          {
-            jjmatchedKind = 68;
+            jjmatchedKind = 72;
             jjmatchedPos = 4;
             return 42;
          }
          return -1;
       case 5:
-         if ((active0 & 0x10b02408000L) != 0L || (active1 & 0xaL) != 0L)
-            return 42;
-         if ((active0 & 0x500002c080800000L) != 0L)
+         if ((active0 & 0x158080800000L) != 0L || (active1 & 0x5L) != 0L)
          {
-            jjmatchedKind = 68;
+            jjmatchedKind = 72;
             jjmatchedPos = 5;
             return 42;
          }
+         if ((active0 & 0x21602408000L) != 0L || (active1 & 0xa0L) != 0L)
+            return 42;
          return -1;
       case 6:
-         if ((active0 & 0x1000028080000000L) != 0L)
+         if ((active0 & 0x150080000000L) != 0L || (active1 & 0x1L) != 0L)
             return 42;
-         if ((active0 & 0x4000004000800000L) != 0L)
+         if ((active0 & 0x8000800000L) != 0L || (active1 & 0x4L) != 0L)
          {
-            jjmatchedKind = 68;
+            jjmatchedKind = 72;
             jjmatchedPos = 6;
             return 42;
          }
          return -1;
       case 7:
-         if ((active0 & 0x4000800000L) != 0L)
+         if ((active0 & 0x8000800000L) != 0L)
             return 42;
-         if ((active0 & 0x4000000000000000L) != 0L)
+         if ((active1 & 0x4L) != 0L)
          {
-            jjmatchedKind = 68;
+            jjmatchedKind = 72;
             jjmatchedPos = 7;
             return 42;
          }
@@ -137,67 +140,67 @@ static private int jjMoveStringLiteralDfa0_0()
    switch(curChar)
    {
       case 33:
-         return jjMoveStringLiteralDfa1_0(0x4000000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x40000000000000L, 0x0L);
       case 37:
-         return jjStopAtPos(0, 59);
+         return jjStopAtPos(0, 63);
       case 40:
-         return jjStopAtPos(0, 52);
+         return jjStopAtPos(0, 56);
       case 41:
-         return jjStopAtPos(0, 53);
+         return jjStopAtPos(0, 57);
       case 42:
-         return jjStopAtPos(0, 54);
+         return jjStopAtPos(0, 58);
       case 43:
-         return jjStopAtPos(0, 56);
+         return jjStopAtPos(0, 60);
       case 44:
-         return jjStopAtPos(0, 44);
+         return jjStopAtPos(0, 48);
       case 45:
-         return jjStartNfaWithStates_0(0, 57, 0);
+         return jjStartNfaWithStates_0(0, 61, 0);
       case 46:
-         return jjStartNfaWithStates_0(0, 43, 14);
+         return jjStartNfaWithStates_0(0, 47, 14);
       case 47:
-         return jjStartNfaWithStates_0(0, 55, 6);
+         return jjStartNfaWithStates_0(0, 59, 6);
       case 60:
-         jjmatchedKind = 45;
-         return jjMoveStringLiteralDfa1_0(0x8400000000000L, 0x0L);
+         jjmatchedKind = 49;
+         return jjMoveStringLiteralDfa1_0(0x84000000000000L, 0x0L);
       case 61:
-         return jjStopAtPos(0, 49);
+         return jjStopAtPos(0, 53);
       case 62:
-         jjmatchedKind = 47;
-         return jjMoveStringLiteralDfa1_0(0x1000000000000L, 0x0L);
+         jjmatchedKind = 51;
+         return jjMoveStringLiteralDfa1_0(0x10000000000000L, 0x0L);
       case 63:
-         return jjStopAtPos(0, 58);
+         return jjStopAtPos(0, 62);
       case 97:
-         return jjMoveStringLiteralDfa1_0(0x8001800L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x100008001800L, 0x0L);
       case 98:
-         return jjMoveStringLiteralDfa1_0(0x80000000c0000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0xc0000000L, 0x8L);
       case 99:
-         return jjMoveStringLiteralDfa1_0(0x4000008104000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x10204000000L, 0x4L);
       case 100:
-         return jjMoveStringLiteralDfa1_0(0x26010800000L, 0x2L);
+         return jjMoveStringLiteralDfa1_0(0x4c010800000L, 0x20L);
       case 101:
-         return jjMoveStringLiteralDfa1_0(0x10002000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x20002000000L, 0x0L);
       case 102:
-         return jjMoveStringLiteralDfa1_0(0x10000L, 0x4L);
+         return jjMoveStringLiteralDfa1_0(0x10000L, 0x40L);
       case 103:
          return jjMoveStringLiteralDfa1_0(0x80000L, 0x0L);
       case 104:
-         return jjMoveStringLiteralDfa1_0(0x40000400000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x80000400000L, 0x0L);
       case 105:
-         return jjMoveStringLiteralDfa1_0(0x1000001201000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x202401000000L, 0x1L);
       case 108:
-         return jjMoveStringLiteralDfa1_0(0x2000000000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x100000000L, 0x2L);
       case 109:
          return jjMoveStringLiteralDfa1_0(0x300000L, 0x0L);
       case 110:
          return jjMoveStringLiteralDfa1_0(0x4000L, 0x0L);
       case 111:
-         return jjMoveStringLiteralDfa1_0(0x42000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x400000042000L, 0x0L);
       case 115:
-         return jjMoveStringLiteralDfa1_0(0x20008000L, 0x9L);
+         return jjMoveStringLiteralDfa1_0(0x20008000L, 0x90L);
       case 116:
-         return jjMoveStringLiteralDfa1_0(0x400000000L, 0x0L);
-      case 118:
          return jjMoveStringLiteralDfa1_0(0x800000000L, 0x0L);
+      case 118:
+         return jjMoveStringLiteralDfa1_0(0x1000000000L, 0x0L);
       case 119:
          return jjMoveStringLiteralDfa1_0(0x20000L, 0x0L);
       default :
@@ -214,47 +217,49 @@ static private int jjMoveStringLiteralDfa1_0(long active0, long active1)
    switch(curChar)
    {
       case 61:
-         if ((active0 & 0x400000000000L) != 0L)
-            return jjStopAtPos(1, 46);
-         else if ((active0 & 0x1000000000000L) != 0L)
-            return jjStopAtPos(1, 48);
-         else if ((active0 & 0x4000000000000L) != 0L)
+         if ((active0 & 0x4000000000000L) != 0L)
             return jjStopAtPos(1, 50);
+         else if ((active0 & 0x10000000000000L) != 0L)
+            return jjStopAtPos(1, 52);
+         else if ((active0 & 0x40000000000000L) != 0L)
+            return jjStopAtPos(1, 54);
          break;
       case 62:
-         if ((active0 & 0x8000000000000L) != 0L)
-            return jjStopAtPos(1, 51);
+         if ((active0 & 0x80000000000000L) != 0L)
+            return jjStopAtPos(1, 55);
          break;
       case 97:
-         return jjMoveStringLiteralDfa2_0(active0, 0x48c00500000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x91800500000L, active1, 0L);
       case 101:
-         return jjMoveStringLiteralDfa2_0(active0, 0x4090008000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x8090008000L, active1, 0L);
       case 104:
-         return jjMoveStringLiteralDfa2_0(active0, 0x4000000000020000L, active1, 0x1L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x20000L, active1, 0x14L);
       case 105:
-         return jjMoveStringLiteralDfa2_0(active0, 0x20000a00000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x40100a00000L, active1, 0L);
       case 108:
-         return jjMoveStringLiteralDfa2_0(active0, 0x800L, active1, 0x4L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x800L, active1, 0x40L);
       case 110:
          if ((active0 & 0x1000000L) != 0L)
          {
             jjmatchedKind = 24;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x1000011200001000L, active1, 0L);
+         else if ((active0 & 0x400000000000L) != 0L)
+            return jjStartNfaWithStates_0(1, 46, 42);
+         return jjMoveStringLiteralDfa2_0(active0, 0x322400001000L, active1, 0x1L);
       case 111:
-         return jjMoveStringLiteralDfa2_0(active0, 0x2000000004004000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x4004000L, active1, 0x22L);
       case 114:
          if ((active0 & 0x2000L) != 0L)
          {
             jjmatchedKind = 13;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x21000d0000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x42000d0000L, active1, 0L);
       case 115:
          return jjMoveStringLiteralDfa2_0(active0, 0x8000000L, active1, 0L);
       case 116:
-         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x8L);
+         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x80L);
       case 117:
          return jjMoveStringLiteralDfa2_0(active0, 0x20000000L, active1, 0L);
       case 120:
@@ -265,7 +270,7 @@ static private int jjMoveStringLiteralDfa1_0(long active0, long active1)
             jjmatchedKind = 30;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x8000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x8L);
       default :
          break;
    }
@@ -283,9 +288,9 @@ static private int jjMoveStringLiteralDfa2_0(long old0, long active0, long old1,
    switch(curChar)
    {
       case 97:
-         return jjMoveStringLiteralDfa3_0(active0, 0x4000010000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x120000000000L, active1, 0x4L);
       case 98:
-         return jjMoveStringLiteralDfa3_0(active0, 0x400000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x800000000L, active1, 0L);
       case 99:
          if ((active0 & 0x8000000L) != 0L)
             return jjStartNfaWithStates_0(2, 27, 42);
@@ -293,35 +298,35 @@ static private int jjMoveStringLiteralDfa2_0(long old0, long active0, long old1,
       case 100:
          if ((active0 & 0x1000L) != 0L)
             return jjStartNfaWithStates_0(2, 12, 42);
-         return jjMoveStringLiteralDfa3_0(active0, 0x40000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x200000040000L, active1, 0L);
       case 101:
-         return jjMoveStringLiteralDfa3_0(active0, 0x100020000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x200020000L, active1, 0L);
       case 105:
          return jjMoveStringLiteralDfa3_0(active0, 0x2000000L, active1, 0L);
       case 108:
          if ((active0 & 0x800L) != 0L)
             return jjStartNfaWithStates_0(2, 11, 42);
-         return jjMoveStringLiteralDfa3_0(active0, 0x800008000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x1000008000L, active1, 0L);
       case 109:
          if ((active0 & 0x20000000L) != 0L)
             return jjStartNfaWithStates_0(2, 29, 42);
-         break;
+         return jjMoveStringLiteralDfa3_0(active0, 0x100000000L, active1, 0L);
       case 110:
          if ((active0 & 0x200000L) != 0L)
             return jjStartNfaWithStates_0(2, 21, 42);
-         return jjMoveStringLiteralDfa3_0(active0, 0x2000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x2L);
       case 111:
-         return jjMoveStringLiteralDfa3_0(active0, 0x2000090000L, active1, 0x5L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x4000090000L, active1, 0x50L);
       case 114:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x8L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x80L);
       case 115:
-         return jjMoveStringLiteralDfa3_0(active0, 0x64210800000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0xc8410800000L, active1, 0L);
       case 116:
          if ((active0 & 0x4000L) != 0L)
             return jjStartNfaWithStates_0(2, 14, 42);
-         return jjMoveStringLiteralDfa3_0(active0, 0x9000009080000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x12080000000L, active1, 0x9L);
       case 117:
-         return jjMoveStringLiteralDfa3_0(active0, 0x4000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x4000000L, active1, 0x20L);
       case 118:
          return jjMoveStringLiteralDfa3_0(active0, 0x400000L, active1, 0L);
       case 120:
@@ -345,32 +350,32 @@ static private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1,
    switch(curChar)
    {
       case 97:
-         return jjMoveStringLiteralDfa4_0(active0, 0x28100000000L, active1, 0x4L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x50200000000L, active1, 0x40L);
       case 98:
-         return jjMoveStringLiteralDfa4_0(active0, 0x10000000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x20000000000L, active1, 0x20L);
       case 99:
          if ((active0 & 0x10000000L) != 0L)
          {
             jjmatchedKind = 28;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x8000000000L, active1, 0L);
       case 101:
-         if ((active0 & 0x8000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 63, 42);
-         return jjMoveStringLiteralDfa4_0(active0, 0x1000000200048000L, active1, 0L);
+         if ((active1 & 0x8L) != 0L)
+            return jjStartNfaWithStates_0(3, 67, 42);
+         return jjMoveStringLiteralDfa4_0(active0, 0x200400048000L, active1, 0x1L);
       case 103:
-         if ((active0 & 0x2000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 61, 42);
+         if ((active1 & 0x2L) != 0L)
+            return jjStartNfaWithStates_0(3, 65, 42);
          break;
       case 104:
-         if ((active0 & 0x40000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 42, 42);
+         if ((active0 & 0x80000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 43, 42);
          break;
       case 105:
-         return jjMoveStringLiteralDfa4_0(active0, 0x400000L, active1, 0x8L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x100400000L, active1, 0x80L);
       case 108:
-         return jjMoveStringLiteralDfa4_0(active0, 0x400000000L, active1, 0L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x100800000000L, active1, 0L);
       case 109:
          if ((active0 & 0x10000L) != 0L)
             return jjStartNfaWithStates_0(3, 16, 42);
@@ -378,21 +383,21 @@ static private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1,
       case 110:
          return jjMoveStringLiteralDfa4_0(active0, 0x4000000L, active1, 0L);
       case 111:
-         if ((active0 & 0x1000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 36, 42);
-         break;
-      case 112:
          if ((active0 & 0x2000000000L) != 0L)
             return jjStartNfaWithStates_0(3, 37, 42);
          break;
+      case 112:
+         if ((active0 & 0x4000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 38, 42);
+         break;
       case 114:
-         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000020000L, active1, 0x1L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x20000L, active1, 0x14L);
       case 115:
          return jjMoveStringLiteralDfa4_0(active0, 0x2000000L, active1, 0L);
       case 116:
          return jjMoveStringLiteralDfa4_0(active0, 0x800000L, active1, 0L);
       case 117:
-         return jjMoveStringLiteralDfa4_0(active0, 0x800080000L, active1, 0L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x1000080000L, active1, 0L);
       case 119:
          return jjMoveStringLiteralDfa4_0(active0, 0x80000000L, active1, 0L);
       default :
@@ -412,25 +417,25 @@ static private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1,
    switch(curChar)
    {
       case 97:
-         return jjMoveStringLiteralDfa5_0(active0, 0x4000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x4L);
       case 98:
-         return jjMoveStringLiteralDfa5_0(active0, 0x20000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x40000000000L, active1, 0L);
       case 99:
          return jjMoveStringLiteralDfa5_0(active0, 0x8000L, active1, 0L);
       case 101:
          if ((active0 & 0x20000L) != 0L)
             return jjStartNfaWithStates_0(4, 17, 42);
-         else if ((active0 & 0x400000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 34, 42);
-         return jjMoveStringLiteralDfa5_0(active0, 0x880000000L, active1, 0L);
+         else if ((active0 & 0x800000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 35, 42);
+         return jjMoveStringLiteralDfa5_0(active0, 0x1080000000L, active1, 0L);
       case 103:
-         return jjMoveStringLiteralDfa5_0(active0, 0x1000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x1L);
       case 105:
          return jjMoveStringLiteralDfa5_0(active0, 0x800000L, active1, 0L);
       case 108:
-         return jjMoveStringLiteralDfa5_0(active0, 0x18000000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x30000000000L, active1, 0x20L);
       case 110:
-         return jjMoveStringLiteralDfa5_0(active0, 0x400000L, active1, 0x8L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x400000L, active1, 0x80L);
       case 112:
          if ((active0 & 0x80000L) != 0L)
             return jjStartNfaWithStates_0(4, 19, 42);
@@ -438,15 +443,23 @@ static private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1,
       case 114:
          if ((active0 & 0x40000L) != 0L)
             return jjStartNfaWithStates_0(4, 18, 42);
-         return jjMoveStringLiteralDfa5_0(active0, 0x4200000000L, active1, 0L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x8400000000L, active1, 0L);
       case 116:
          if ((active0 & 0x4000000L) != 0L)
             return jjStartNfaWithStates_0(4, 26, 42);
-         else if ((active1 & 0x1L) != 0L)
-            return jjStartNfaWithStates_0(4, 64, 42);
-         else if ((active1 & 0x4L) != 0L)
-            return jjStartNfaWithStates_0(4, 66, 42);
-         return jjMoveStringLiteralDfa5_0(active0, 0x102000000L, active1, 0L);
+         else if ((active0 & 0x100000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 32, 42);
+         else if ((active1 & 0x10L) != 0L)
+            return jjStartNfaWithStates_0(4, 68, 42);
+         else if ((active1 & 0x40L) != 0L)
+            return jjStartNfaWithStates_0(4, 70, 42);
+         return jjMoveStringLiteralDfa5_0(active0, 0x202000000L, active1, 0L);
+      case 120:
+         if ((active0 & 0x200000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 45, 42);
+         break;
+      case 121:
+         return jjMoveStringLiteralDfa5_0(active0, 0x100000000000L, active1, 0L);
       default :
          break;
    }
@@ -464,41 +477,43 @@ static private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1,
    switch(curChar)
    {
       case 99:
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x4L);
       case 101:
-         if ((active0 & 0x100000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 32, 42);
-         else if ((active0 & 0x10000000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 40, 42);
-         else if ((active1 & 0x2L) != 0L)
-            return jjStartNfaWithStates_0(5, 65, 42);
-         return jjMoveStringLiteralDfa6_0(active0, 0x1000000080000000L, active1, 0L);
+         if ((active0 & 0x200000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 33, 42);
+         else if ((active0 & 0x20000000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 41, 42);
+         else if ((active1 & 0x20L) != 0L)
+            return jjStartNfaWithStates_0(5, 69, 42);
+         return jjMoveStringLiteralDfa6_0(active0, 0x80000000L, active1, 0x1L);
       case 103:
          if ((active0 & 0x400000L) != 0L)
             return jjStartNfaWithStates_0(5, 22, 42);
-         else if ((active1 & 0x8L) != 0L)
-            return jjStartNfaWithStates_0(5, 67, 42);
+         else if ((active1 & 0x80L) != 0L)
+            return jjStartNfaWithStates_0(5, 71, 42);
          break;
       case 105:
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x8000000000L, active1, 0L);
       case 108:
-         return jjMoveStringLiteralDfa6_0(active0, 0x20000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x40000000000L, active1, 0L);
       case 110:
          return jjMoveStringLiteralDfa6_0(active0, 0x800000L, active1, 0L);
       case 111:
-         return jjMoveStringLiteralDfa6_0(active0, 0x8000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x10000000000L, active1, 0L);
       case 115:
          if ((active0 & 0x2000000L) != 0L)
             return jjStartNfaWithStates_0(5, 25, 42);
-         else if ((active0 & 0x800000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 35, 42);
+         else if ((active0 & 0x1000000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 36, 42);
          break;
       case 116:
          if ((active0 & 0x8000L) != 0L)
             return jjStartNfaWithStates_0(5, 15, 42);
-         else if ((active0 & 0x200000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 33, 42);
+         else if ((active0 & 0x400000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 34, 42);
          break;
+      case 122:
+         return jjMoveStringLiteralDfa6_0(active0, 0x100000000000L, active1, 0L);
       default :
          break;
    }
@@ -510,53 +525,55 @@ static private int jjMoveStringLiteralDfa6_0(long old0, long active0, long old1,
       return jjStartNfa_0(4, old0, old1);
    try { curChar = input_stream.readChar(); }
    catch(java.io.IOException e) {
-      jjStopStringLiteralDfa_0(5, active0, 0L);
+      jjStopStringLiteralDfa_0(5, active0, active1);
       return 6;
    }
    switch(curChar)
    {
       case 98:
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x8000000000L, active1, 0L);
       case 99:
-         return jjMoveStringLiteralDfa7_0(active0, 0x800000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x800000L, active1, 0L);
       case 101:
-         if ((active0 & 0x20000000000L) != 0L)
-            return jjStartNfaWithStates_0(6, 41, 42);
+         if ((active0 & 0x40000000000L) != 0L)
+            return jjStartNfaWithStates_0(6, 42, 42);
+         else if ((active0 & 0x100000000000L) != 0L)
+            return jjStartNfaWithStates_0(6, 44, 42);
          break;
       case 103:
-         if ((active0 & 0x8000000000L) != 0L)
-            return jjStartNfaWithStates_0(6, 39, 42);
+         if ((active0 & 0x10000000000L) != 0L)
+            return jjStartNfaWithStates_0(6, 40, 42);
          break;
       case 110:
          if ((active0 & 0x80000000L) != 0L)
             return jjStartNfaWithStates_0(6, 31, 42);
          break;
       case 114:
-         if ((active0 & 0x1000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(6, 60, 42);
+         if ((active1 & 0x1L) != 0L)
+            return jjStartNfaWithStates_0(6, 64, 42);
          break;
       case 116:
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x4L);
       default :
          break;
    }
-   return jjStartNfa_0(5, active0, 0L);
+   return jjStartNfa_0(5, active0, active1);
 }
-static private int jjMoveStringLiteralDfa7_0(long old0, long active0)
+static private int jjMoveStringLiteralDfa7_0(long old0, long active0, long old1, long active1)
 {
-   if (((active0 &= old0)) == 0L)
-      return jjStartNfa_0(5, old0, 0L);
+   if (((active0 &= old0) | (active1 &= old1)) == 0L)
+      return jjStartNfa_0(5, old0, old1);
    try { curChar = input_stream.readChar(); }
    catch(java.io.IOException e) {
-      jjStopStringLiteralDfa_0(6, active0, 0L);
+      jjStopStringLiteralDfa_0(6, active0, active1);
       return 7;
    }
    switch(curChar)
    {
       case 101:
-         if ((active0 & 0x4000000000L) != 0L)
-            return jjStartNfaWithStates_0(7, 38, 42);
-         return jjMoveStringLiteralDfa8_0(active0, 0x4000000000000000L);
+         if ((active0 & 0x8000000000L) != 0L)
+            return jjStartNfaWithStates_0(7, 39, 42);
+         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x4L);
       case 116:
          if ((active0 & 0x800000L) != 0L)
             return jjStartNfaWithStates_0(7, 23, 42);
@@ -564,27 +581,27 @@ static private int jjMoveStringLiteralDfa7_0(long old0, long active0)
       default :
          break;
    }
-   return jjStartNfa_0(6, active0, 0L);
+   return jjStartNfa_0(6, active0, active1);
 }
-static private int jjMoveStringLiteralDfa8_0(long old0, long active0)
+static private int jjMoveStringLiteralDfa8_0(long old0, long active0, long old1, long active1)
 {
-   if (((active0 &= old0)) == 0L)
-      return jjStartNfa_0(6, old0, 0L);
+   if (((active0 &= old0) | (active1 &= old1)) == 0L)
+      return jjStartNfa_0(6, old0, old1);
    try { curChar = input_stream.readChar(); }
    catch(java.io.IOException e) {
-      jjStopStringLiteralDfa_0(7, active0, 0L);
+      jjStopStringLiteralDfa_0(7, 0L, active1);
       return 8;
    }
    switch(curChar)
    {
       case 114:
-         if ((active0 & 0x4000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(8, 62, 42);
+         if ((active1 & 0x4L) != 0L)
+            return jjStartNfaWithStates_0(8, 66, 42);
          break;
       default :
          break;
    }
-   return jjStartNfa_0(7, active0, 0L);
+   return jjStartNfa_0(7, 0L, active1);
 }
 static private int jjStartNfaWithStates_0(int pos, int kind, int state)
 {
@@ -635,8 +652,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 25:
                   if ((0x3ff001800000000L & l) == 0L)
                      break;
-                  if (kind > 68)
-                     kind = 68;
+                  if (kind > 72)
+                     kind = 72;
                   jjCheckNAdd(25);
                   break;
                case 0:
@@ -821,21 +838,21 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 24:
                   if ((0x7fffffe07fffffeL & l) == 0L)
                      break;
-                  if (kind > 68)
-                     kind = 68;
+                  if (kind > 72)
+                     kind = 72;
                   jjCheckNAddTwoStates(24, 25);
                   break;
                case 42:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 68)
-                        kind = 68;
+                     if (kind > 72)
+                        kind = 72;
                      jjCheckNAdd(25);
                   }
                   if ((0x7fffffe07fffffeL & l) != 0L)
                   {
-                     if (kind > 68)
-                        kind = 68;
+                     if (kind > 72)
+                        kind = 72;
                      jjCheckNAddTwoStates(24, 25);
                   }
                   break;
@@ -862,8 +879,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 25:
                   if ((0x7fffffe87fffffeL & l) == 0L)
                      break;
-                  if (kind > 68)
-                     kind = 68;
+                  if (kind > 72)
+                     kind = 72;
                   jjCheckNAdd(25);
                   break;
                case 31:
@@ -941,21 +958,22 @@ public static final String[] jjstrLiteralImages = {
 "\155\141\170", "\155\151\156", "\150\141\166\151\156\147", 
 "\144\151\163\164\151\156\143\164", "\151\156", "\145\170\151\163\164\163", "\143\157\165\156\164", 
 "\141\163\143", "\144\145\163\143", "\163\165\155", "\142\171", 
-"\142\145\164\167\145\145\156", "\143\162\145\141\164\145", "\151\156\163\145\162\164", 
-"\164\141\142\154\145", "\166\141\154\165\145\163", "\151\156\164\157", "\144\162\157\160", 
-"\144\145\163\143\162\151\142\145", "\143\141\164\141\154\157\147", "\145\156\141\142\154\145", 
-"\144\151\163\141\142\154\145", "\150\141\163\150", "\56", "\54", "\74", "\74\75", "\76", "\76\75", "\75", 
-"\41\75", "\74\76", "\50", "\51", "\52", "\57", "\53", "\55", "\77", "\45", 
-"\151\156\164\145\147\145\162", "\154\157\156\147", "\143\150\141\162\141\143\164\145\162", 
-"\142\171\164\145", "\163\150\157\162\164", "\144\157\165\142\154\145", "\146\154\157\141\164", 
-"\163\164\162\151\156\147", null, null, null, };
+"\142\145\164\167\145\145\156", "\154\151\155\151\164", "\143\162\145\141\164\145", 
+"\151\156\163\145\162\164", "\164\141\142\154\145", "\166\141\154\165\145\163", "\151\156\164\157", 
+"\144\162\157\160", "\144\145\163\143\162\151\142\145", "\143\141\164\141\154\157\147", 
+"\145\156\141\142\154\145", "\144\151\163\141\142\154\145", "\150\141\163\150", 
+"\141\156\141\154\171\172\145", "\151\156\144\145\170", "\157\156", "\56", "\54", "\74", "\74\75", "\76", 
+"\76\75", "\75", "\41\75", "\74\76", "\50", "\51", "\52", "\57", "\53", "\55", "\77", 
+"\45", "\151\156\164\145\147\145\162", "\154\157\156\147", 
+"\143\150\141\162\141\143\164\145\162", "\142\171\164\145", "\163\150\157\162\164", "\144\157\165\142\154\145", 
+"\146\154\157\141\164", "\163\164\162\151\156\147", null, null, null, };
 
 /** Lexer state names. */
 public static final String[] lexStateNames = {
    "DEFAULT",
 };
 static final long[] jjtoToken = {
-   0xfffffffffffffd81L, 0x1fL, 
+   0xfffffffffffffd81L, 0x1ffL, 
 };
 static final long[] jjtoSkip = {
    0x7eL, 0x0L, 
@@ -0,0 +1,629 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.dejave.attica.model.Attribute;
+import org.dejave.attica.model.Relation;
+
+/**
+ * BPlusTree: A disk-resident B+-tree mapping the values of an
+ * attribute of a table to the locations of the tuples that carry
+ * them.  The nodes of the tree are ordinary attica pages of its own
+ * file, read and written through the storage manager and so cached
+ * in the buffer pool like any other page.
+ *
+ * Every node holds tuples of three attributes: a key and two
+ * integers.  The first tuple of a node is its header: its level
+ * (leaves are at level zero) and, for leaves, the page of the next
+ * leaf or, for inner nodes, the page of the leftmost child.  The key
+ * of the header is a placeholder.  Leaf entries are (key, page, slot)
+ * triples pointing into the table; inner entries are (key, child)
+ * pairs, where the child holds the keys that are not smaller than the
+ * key.  Duplicate keys are allowed, and entries with equal keys keep
+ * their order of insertion.  The root is always the first page of the
+ * file, so the tree grows by moving the contents of a full root into
+ * two new pages.
+ *
+ * @author agent
+ */
+public class BPlusTree {
+
+    /** The page of the root. */
+    public static final int ROOT = 0;
+
+    /** The pointer to no page. */
+    private static final int NONE = -1;
+
+    /** The storage manager of the tree. */
+    private StorageManager sm;
+
+    /** The catalog entry of the index. */
+    private IndexEntry index;
+
+    /** The name of the file of the tree. */
+    private String filename;
+
+    /** The relation of the tuples of the nodes. */
+    private Relation relation;
+
+    /**
+     * Constructs a new B+-tree accessor over an index.
+     *
+     * @param sm the storage manager.
+     * @param index the catalog entry of the index.
+     */
+    public BPlusTree(StorageManager sm, IndexEntry index) {
+        this.sm = sm;
+        this.index = index;
+        this.filename = index.getFileName();
+        List<Attribute> attributes = new ArrayList<Attribute>();
+        attributes.add(new Attribute("key", index.getKeyType()));
+        attributes.add(new Attribute("pointer", Integer.class));
+        attributes.add(new Attribute("slot", Integer.class));
+        relation = new Relation(attributes);
+    } // BPlusTree()
+
+
+    /**
+     * Returns the catalog entry of the index.
+     *
+     * @return the catalog entry of the index.
+     */
+    public IndexEntry getIndex() {
+        return index;
+    } // getIndex()
+
+
+    /**
+     * Initialises an empty tree: a single leaf as the root.  The file
+     * of the tree must exist and be empty.
+     *
+     * @throws StorageManagerException thrown whenever the root cannot
+     * be written.
+     */
+    public void create() throws StorageManagerException {
+        try {
+            FileUtil.setNumberOfPages(filename, 1);
+            sm.writePage(newNode(ROOT, 0, NONE));
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("Could not create index "
+                                              + index.getIndexName() + ".",
+                                              ioe);
+        }
+    } // create()
+
+
+    /**
+     * Returns the height of the tree, which is one for a tree whose
+     * root is a leaf.
+     *
+     * @return the height of the tree.
+     * @throws StorageManagerException thrown whenever the root cannot
+     * be read.
+     */
+    public int getHeight() throws StorageManagerException {
+        return level(readNode(ROOT)) + 1;
+    } // getHeight()
+
+
+    /**
+     * Inserts the entry of a tuple of the table.
+     *
+     * @param tuple the tuple.
+     * @param page the page of the tuple.
+     * @param slot the slot of the tuple in its page.
+     * @throws StorageManagerException thrown whenever the tree cannot
+     * be read or written.
+     */
+    public void insert(Tuple tuple, int page, int slot)
+        throws StorageManagerException {
+
+        insert(tuple.getValue(index.getSlot()), page, slot);
+    } // insert()
+
+
+    /**
+     * Inserts an entry.
+     *
+     * @param key the key.
+     * @param page the page of the tuple with the key.
+     * @param slot the slot of the tuple in its page.
+     * @throws StorageManagerException thrown whenever the tree cannot
+     * be read or written.
+     */
+    public void insert(Comparable key, int page, int slot)
+        throws StorageManagerException {
+
+        Split split = insert(ROOT, entry(key, page, slot));
+        if (split == null) return;
+        // the root split: its two halves have gone to new pages, so
+        // it becomes an inner node over them
+        Page root = newNode(ROOT, split.level + 1, split.left);
+        root.addTuple(entry(split.key, split.right, 0));
+        sm.writePage(root);
+    } // insert()
+
+
+    /**
+     * Looks up the locations of the tuples with a key.
+     *
+     * @param key the key.
+     * @return an iterator over the locations, in the order the tuples
+     * were inserted.
+     * @throws StorageManagerException thrown whenever the tree cannot
+     * be read.
+     */
+    public Iterator<TupleLocation> lookup(Comparable key)
+        throws StorageManagerException {
+
+        return search(key, true, key, true);
+    } // lookup()
+
+
+    /**
+     * Returns the locations of the tuples with keys in a range.
+     *
+     * @param low the lower bound, <code>null</code> if there is none.
+     * @param lowInclusive whether keys equal to the lower bound are in
+     * the range.
+     * @param high the upper bound, <code>null</code> if there is none.
+     * @param highInclusive whether keys equal to the upper bound are in
+     * the range.
+     * @return an iterator over the locations, in key order.
+     * @throws StorageManagerException thrown whenever the tree cannot
+     * be read.
+     */
+    public Iterator<TupleLocation> search(Comparable low,
+                                          boolean lowInclusive,
+                                          Comparable high,
+                                          boolean highInclusive)
+        throws StorageManagerException {
+
+        // descend to the first leaf that may hold keys in range:
+        // equal keys may straddle a split, so an inclusive bound
+        // goes left of the separators equal to it
+        Page node = readNode(ROOT);
+        while (level(node) > 0) {
+            int i = (low == null ? 1
+                     : (lowInclusive ? lowerBound(node, low)
+                        : upperBound(node, low)));
+            node = readNode(child(node, i - 1));
+        }
+        int position = (low == null ? 1
+                        : (lowInclusive ? lowerBound(node, low)
+                           : upperBound(node, low)));
+        return new RangeIterator(node, position, high, highInclusive);
+    } // search()
+
+
+    /**
+     * Inserts an entry into a subtree.
+     *
+     * @param number the page of the root of the subtree.
+     * @param entry the entry.
+     * @return the split of the root of the subtree, <code>null</code>
+     * if it did not split.
+     * @throws StorageManagerException thrown whenever the subtree
+     * cannot be read or written.
+     */
+    private Split insert(int number, Tuple entry)
+        throws StorageManagerException {
+
+        Page node = readNode(number);
+        Comparable key = entry.getValue(0);
+        // entries go after the ones with equal keys
+        int position = upperBound(node, key);
+        if (level(node) > 0) {
+            Split split = insert(child(node, position - 1), entry);
+            if (split == null) return null;
+            entry = entry(split.key, split.right, 0);
+            // the subtree may have been read over the node
+            node = readNode(number);
+        }
+        if (node.hasRoom(entry)) {
+            node.addTuple(entry);
+            for (int i = node.getNumberOfTuples() - 1; i > position; i--)
+                node.swap(i, i - 1);
+            sm.writePage(node);
+            return null;
+        }
+        return split(node, entry, position);
+    } // insert()
+
+
+    /**
+     * Splits a full node in two, given an entry that does not fit.
+     * The lower half stays in the page of the node, unless the node
+     * is the root, whose two halves both go to new pages.
+     *
+     * @param node the full node.
+     * @param entry the entry.
+     * @param position the position of the entry in the node.
+     * @return the split.
+     * @throws StorageManagerException thrown whenever the halves
+     * cannot be written.
+     */
+    private Split split(Page node, Tuple entry, int position)
+        throws StorageManagerException {
+
+        List<Tuple> entries = new ArrayList<Tuple>();
+        for (int i = 1; i < node.getNumberOfTuples(); i++)
+            entries.add(node.retrieveTuple(i));
+        entries.add(position - 1, entry);
+
+        int level = level(node);
+        int number = node.getPageIdentifier().getNumber();
+        int left = (number == ROOT ? allocate() : number);
+        int right = allocate();
+        int middle = entries.size() / 2;
+        Tuple separator = entries.get(middle);
+
+        Page leftNode;
+        Page rightNode;
+        if (level == 0) {
+            // leaves keep every entry and stay chained
+            leftNode = newNode(left, 0, right);
+            rightNode = newNode(right, 0, link(node));
+            for (int i = 0; i < middle; i++)
+                leftNode.addTuple(entries.get(i));
+            for (int i = middle; i < entries.size(); i++)
+                rightNode.addTuple(entries.get(i));
+        }
+        else {
+            // the middle entry moves up, its child becoming the
+            // leftmost child of the right half
+            leftNode = newNode(left, level, link(node));
+            rightNode = newNode(right, level, pointer(separator));
+            for (int i = 0; i < middle; i++)
+                leftNode.addTuple(entries.get(i));
+            for (int i = middle + 1; i < entries.size(); i++)
+                rightNode.addTuple(entries.get(i));
+        }
+        sm.writePage(leftNode);
+        sm.writePage(rightNode);
+        return new Split(separator.getValue(0), level, left, right);
+    } // split()
+
+
+    /**
+     * Allocates a new page at the end of the file of the tree.
+     *
+     * @return the number of the new page.
+     * @throws StorageManagerException thrown whenever the file cannot
+     * be extended.
+     */
+    private int allocate() throws StorageManagerException {
+        try {
+            int number = FileUtil.getNumberOfPages(filename);
+            FileUtil.setNumberOfPages(filename, number + 1);
+            return number;
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("Could not extend index "
+                                              + index.getIndexName() + ".",
+                                              ioe);
+        }
+    } // allocate()
+
+
+    /**
+     * Reads a node.
+     *
+     * @param number the page of the node.
+     * @return the node.
+     * @throws StorageManagerException thrown whenever the node cannot
+     * be read.
+     */
+    private Page readNode(int number) throws StorageManagerException {
+        return sm.readPage(relation, new PageIdentifier(filename, number));
+    } // readNode()
+
+
+    /**
+     * Creates a new node holding only its header.
+     *
+     * @param number the page of the node.
+     * @param level the level of the node.
+     * @param link the next leaf of a leaf, the leftmost child of an
+     * inner node.
+     * @return the new node.
+     */
+    private Page newNode(int number, int level, int link) {
+        Page node = new Page(relation, new PageIdentifier(filename, number));
+        node.addTuple(entry(placeholder(index.getKeyType()), level, link));
+        return node;
+    } // newNode()
+
+
+    /**
+     * Creates a node entry.
+     *
+     * @param key the key.
+     * @param pointer the first integer.
+     * @param slot the second integer.
+     * @return the entry.
+     */
+    private Tuple entry(Comparable key, int pointer, int slot) {
+        List<Comparable> values = new ArrayList<Comparable>(3);
+        values.add(key);
+        values.add(pointer);
+        values.add(slot);
+        return new Tuple(new TupleIdentifier(filename, 0), values);
+    } // entry()
+
+
+    /**
+     * Returns the level of a node.
+     *
+     * @param node the node.
+     * @return the level of the node.
+     */
+    private static int level(Page node) {
+        return node.retrieveTuple(0).asInt(1);
+    } // level()
+
+
+    /**
+     * Returns the link of a node: the next leaf of a leaf, the
+     * leftmost child of an inner node.
+     *
+     * @param node the node.
+     * @return the page of the link.
+     */
+    private static int link(Page node) {
+        return node.retrieveTuple(0).asInt(2);
+    } // link()
+
+
+    /**
+     * Returns the page an entry points to.
+     *
+     * @param entry the entry.
+     * @return the page the entry points to.
+     */
+    private static int pointer(Tuple entry) {
+        return entry.asInt(1);
+    } // pointer()
+
+
+    /**
+     * Returns a child of an inner node.
+     *
+     * @param node the inner node.
+     * @param i the position of the entry of the child, zero for the
+     * leftmost child.
+     * @return the page of the child.
+     */
+    private static int child(Page node, int i) {
+        return (i == 0 ? link(node) : pointer(node.retrieveTuple(i)));
+    } // child()
+
+
+    /**
+     * Returns the position of the first entry of a node whose key is
+     * not smaller than a key.
+     *
+     * @param node the node.
+     * @param key the key.
+     * @return the position, past the last entry if there is none.
+     */
+    private static int lowerBound(Page node, Comparable key) {
+        int lo = 1;
+        int hi = node.getNumberOfTuples();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(node.retrieveTuple(mid).getValue(0), key) < 0)
+                lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    } // lowerBound()
+
+
+    /**
+     * Returns the position of the first entry of a node whose key is
+     * larger than a key.
+     *
+     * @param node the node.
+     * @param key the key.
+     * @return the position, past the last entry if there is none.
+     */
+    private static int upperBound(Page node, Comparable key) {
+        int lo = 1;
+        int hi = node.getNumberOfTuples();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(node.retrieveTuple(mid).getValue(0), key) <= 0)
+                lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    } // upperBound()
+
+
+    /**
+     * Compares two keys.
+     *
+     * @param a the first key.
+     * @param b the second key.
+     * @return the result of the comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable a, Comparable b) {
+        return a.compareTo(b);
+    } // compare()
+
+
+    /**
+     * Returns the placeholder key of the headers of the nodes.
+     *
+     * @param type the type of the keys.
+     * @return a value of the type.
+     */
+    private static Comparable placeholder(Class<?> type) {
+        if (type.equals(Character.class)) return Character.valueOf(' ');
+        else if (type.equals(Byte.class)) return Byte.valueOf((byte) 0);
+        else if (type.equals(Short.class)) return Short.valueOf((short) 0);
+        else if (type.equals(Integer.class)) return Integer.valueOf(0);
+        else if (type.equals(Long.class)) return Long.valueOf(0);
+        else if (type.equals(Float.class)) return Float.valueOf(0);
+        else if (type.equals(Double.class)) return Double.valueOf(0);
+        else return "";
+    } // placeholder()
+
+
+    /**
+     * The outcome of splitting a node.
+     */
+    private static class Split {
+        /** The smallest key of the right half. */
+        Comparable key;
+        /** The level of the split node. */
+        int level;
+        /** The page of the left half. */
+        int left;
+        /** The page of the right half. */
+        int right;
+
+        /**
+         * Constructs a new split.
+         *
+         * @param key the smallest key of the right half.
+         * @param level the level of the split node.
+         * @param left the page of the left half.
+         * @param right the page of the right half.
+         */
+        Split(Comparable key, int level, int left, int right) {
+            this.key = key;
+            this.level = level;
+            this.left = left;
+            this.right = right;
+        } // Split()
+    } // Split
+
+
+    /**
+     * The iterator over the entries of a range, following the chain
+     * of leaves.
+     */
+    private class RangeIterator implements Iterator<TupleLocation> {
+        /** The current leaf. */
+        private Page leaf;
+
+        /** The position of the next entry in the current leaf. */
+        private int position;
+
+        /** The upper bound of the range, <code>null</code> if none. */
+        private Comparable high;
+
+        /** Whether the upper bound is in the range. */
+        private boolean highInclusive;
+
+        /** The next location, <code>null</code> at the end. */
+        private TupleLocation next;
+
+        /**
+         * Constructs a new range iterator.
+         *
+         * @param leaf the first leaf.
+         * @param position the position of the first entry.
+         * @param high the upper bound.
+         * @param highInclusive whether the upper bound is in the
+         * range.
+         * @throws StorageManagerException thrown whenever the leaves
+         * cannot be read.
+         */
+        public RangeIterator(Page leaf, int position, Comparable high,
+                             boolean highInclusive)
+            throws StorageManagerException {
+
+            this.leaf = leaf;
+            this.position = position;
+            this.high = high;
+            this.highInclusive = highInclusive;
+            advance();
+        } // RangeIterator()
+
+        /**
+         * Moves to the next entry in range.
+         *
+         * @throws StorageManagerException thrown whenever the next
+         * leaf cannot be read.
+         */
+        private void advance() throws StorageManagerException {
+            while (position >= leaf.getNumberOfTuples()) {
+                int number = link(leaf);
+                if (number == NONE) {
+                    next = null;
+                    return;
+                }
+                leaf = readNode(number);
+                position = 1;
+            }
+            Tuple entry = leaf.retrieveTuple(position++);
+            if (high != null) {
+                int c = compare(entry.getValue(0), high);
+                if (c > 0 || (c == 0 && ! highInclusive)) {
+                    next = null;
+                    return;
+                }
+            }
+            next = new TupleLocation(entry.asInt(1), entry.asInt(2));
+        } // advance()
+
+        /**
+         * Checks whether there are more locations.
+         *
+         * @return <code>true</code> if there are more locations,
+         * <code>false</code> otherwise.
+         */
+        public boolean hasNext() {
+            return next != null;
+        } // hasNext()
+
+        /**
+         * Returns the next location.
+         *
+         * @return the next location.
+         * @throws NoSuchElementException if there are no more
+         * locations or the next leaf cannot be read.
+         */
+        public TupleLocation next() throws NoSuchElementException {
+            if (next == null)
+                throw new NoSuchElementException("No more entries.");
+            TupleLocation location = next;
+            try {
+                advance();
+            }
+            catch (StorageManagerException sme) {
+                throw new NoSuchElementException("Could not read page to "
+                                                 + "advance the iterator.");
+            }
+            return location;
+        } // next()
+
+        /**
+         * Removal is not supported.
+         *
+         * @throws UnsupportedOperationException always.
+         */
+        public void remove() throws UnsupportedOperationException {
+            throw new UnsupportedOperationException("Cannot remove from "
+                                                    + "index iterator.");
+        } // remove()
+    } // RangeIterator
+
+} // BPlusTree
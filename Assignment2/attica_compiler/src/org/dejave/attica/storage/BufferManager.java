@@ -5,19 +5,19 @@
  *
  * Heavily modified on Jan 4, 2009 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
- * 
+ *
  * University of Edinburgh, School of Informatics
  */
 package org.dejave.attica.storage;
 
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Date;
 import java.util.Iterator;
-import java.util.List;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 
 /**
@@ -26,60 +26,109 @@ import java.util.LinkedList;
  * @author sviglas
  */
 public class BufferManager {
-	
+
+    /** Least-recently-used replacement. */
+    public static final String LRU_POLICY = "lru";
+
+    /** Second-chance (CLOCK) replacement. */
+    public static final String CLOCK_POLICY = "clock";
+
+    /** Simplified 2Q (LRU-2 approximation) replacement. */
+    public static final String TWO_QUEUE_POLICY = "2q";
+
     /** The number of pages stored in this buffer manager. */
     private int numPages;
-	
+
     /** The pages stored in this buffer manager. */
     private BufferedPage [] pages;
-	
+
     /** Maps a page id to an index in the page array. */
     private Map<PageIdentifier, Integer> idToIdx;
 
-    /** The current index in the pool. */
-    private int currentIndex;
+    /** The stack of free frames. */
+    private int [] freeFrames;
+
+    /** The number of free frames. */
+    private int numFree;
+
+    /** The replacement policy. */
+    private ReplacementPolicy policy;
 
-    /** The LRU replacement queue. */
-    private LinkedList<PageIdentifier> lruQueue;
-    
     /**
      * Create a new buffer manager given the number of pages the
-     * buffer manager should hold.
-     * 
+     * buffer manager should hold, using LRU replacement.
+     *
      * @param numPages this buffer manager's number of pages
      */
     public BufferManager(int numPages) {
-        
+        this(numPages, LRU_POLICY);
+    } // BufferManager()
+
+
+    /**
+     * Create a new buffer manager given the number of pages the
+     * buffer manager should hold and the name of its replacement
+     * policy.
+     *
+     * @param numPages this buffer manager's number of pages
+     * @param policyName the replacement policy, one of
+     * <code>lru</code>, <code>clock</code> or <code>2q</code>.
+     * @throws IllegalArgumentException if the policy is unknown.
+     */
+    public BufferManager(int numPages, String policyName) {
+
         this.numPages = numPages;
-        currentIndex = 0;
         pages = new BufferedPage[numPages];
         idToIdx = new HashMap<PageIdentifier, Integer>();
-        // you may be asking: are you stupid enough to organise the
-        // LRU queue on identifiers rather than indexes? well, I'm
-        // not. but java is stupid enough to autobox/unbox all
-        // integers in a generic list of integers and this may lead to
-        // some problems, to put it mildly (since there is no decent
-        // queue implementation, and we're actually using a linked
-        // list)
-        // 
-        lruQueue = new LinkedList<PageIdentifier>();
+        // the replacement queue is organised on frame indexes, with
+        // the links kept in int arrays -- no autoboxing and no
+        // linear scans of a linked list on every hit
+        policy = createPolicy(policyName, numPages);
+        // hand out the frames in ascending order
+        freeFrames = new int[numPages];
+        for (int i = 0; i < numPages; i++) freeFrames[i] = numPages-i-1;
+        numFree = numPages;
     } // BufferManager()
 
-    
+
+    /**
+     * Creates a replacement policy given its name.
+     *
+     * @param policyName the name of the policy.
+     * @param numPages the number of frames the policy will manage.
+     * @return the new replacement policy.
+     * @throws IllegalArgumentException if the policy is unknown.
+     */
+    public static ReplacementPolicy createPolicy(String policyName,
+                                                 int numPages) {
+
+        String name = policyName.trim().toLowerCase();
+        if (name.equals(LRU_POLICY))
+            return new LRUPolicy(numPages);
+        else if (name.equals(CLOCK_POLICY))
+            return new ClockPolicy(numPages);
+        else if (name.equals(TWO_QUEUE_POLICY))
+            return new TwoQueuePolicy(numPages);
+        else
+            throw new IllegalArgumentException("Unknown buffer replacement "
+                                               + "policy: " + policyName);
+    } // createPolicy()
+
+
     /**
      * The number of pages stored in this buffer manager.
-     * 
+     *
      * @return this buffer manager's number of pages.
      */
     public int getNumberOfPages() {
         return numPages;
     } // getNumberOfPages()
 
-    
+
     /**
      * Is the page specified by the page id in the buffer pool
      * or not?
-     * 
+     *
      * @param pageid the id of the page searched for.
      * @return <pre>true</pre> if the page is in the buffer pool
      * <pre>false</pre> otherwise.
@@ -88,25 +137,93 @@ public class BufferManager {
         return getIndex(pageid) != -1;
     } // containsPage()
 
-    
+
     /**
      * Returns a page given a page id.
-     * 
+     *
      * @param pageid the id of the page to be returned
      * @return the page that corresponds to the given page id
      */
     public Page getPage(PageIdentifier pageid) {
-        
+
         int index = getIndex(pageid);
         if (index >= 0) {
-            lruQueue.remove(pageid);
-            lruQueue.add(pageid);
+            accessed(index);
             return pages[index].page;
         }
         return null;
     } // getPage()
 
 
+    /**
+     * Pins the page corresponding to the given page id.  A pinned
+     * page is never chosen for eviction, so clients can hold on to
+     * the page object until they unpin it.  Pins nest: a page pinned
+     * <i>n</i> times must be unpinned <i>n</i> times.
+     *
+     * @param pageid the id of the page to be pinned.
+     * @return the pinned page.
+     * @throws IllegalArgumentException if the page is not in the
+     * buffer pool.
+     */
+    public Page pin(PageIdentifier pageid) {
+
+        int index = getIndex(pageid);
+        if (index < 0)
+            throw new IllegalArgumentException("Cannot pin page " + pageid
+                                               + ": not in the buffer pool.");
+        // pinned frames are taken out of the replacement policy
+        // altogether, so the policy never has to skip over them
+        if (pages[index].pinCount++ == 0) policy.remove(index);
+        return pages[index].page;
+    } // pin()
+
+
+    /**
+     * Unpins the page corresponding to the given page id.  Once its
+     * pin count drops to zero the page becomes a candidate for
+     * eviction again.
+     *
+     * @param pageid the id of the page to be unpinned.
+     * @throws IllegalArgumentException if the page is not in the
+     * buffer pool or is not pinned.
+     */
+    public void unpin(PageIdentifier pageid) {
+
+        int index = getIndex(pageid);
+        if (index < 0 || ! pages[index].isPinned())
+            throw new IllegalArgumentException("Cannot unpin page " + pageid
+                                               + ": not pinned.");
+        if (--pages[index].pinCount == 0) policy.admit(index);
+    } // unpin()
+
+
+    /**
+     * Returns the pin count of the page corresponding to the given
+     * page id.
+     *
+     * @param pageid the id of the page.
+     * @return the pin count of the page, or 0 if the page is not in
+     * the buffer pool.
+     */
+    public int getPinCount(PageIdentifier pageid) {
+
+        int index = getIndex(pageid);
+        return (index < 0 ? 0 : pages[index].pinCount);
+    } // getPinCount()
+
+
+    /**
+     * Reports an access to a frame to the replacement policy, unless
+     * the frame is pinned.
+     *
+     * @param index the frame that was accessed.
+     */
+    private void accessed(int index) {
+        if (! pages[index].isPinned()) policy.access(index);
+    } // accessed()
+
+
     /**
      * Returns the index of a page in the pool given its identifier.
      *
@@ -114,33 +231,32 @@ public class BufferManager {
      * not there
      */
     protected int getIndex(PageIdentifier pageid) {
-        
+
         Integer idx = idToIdx.get(pageid);
         return (idx == null ? -1 : idx);
     } // getIndex()
 
-    
+
     /**
      * Touches the page corresponding to the pageid making it dirty
-     * and moving it to the back of the replacement queue.
-     * 
+     * and reporting the access to the replacement policy.
+     *
      * @param pageid the pageid of the page to be touched.
      */
-    public void touchPage(PageIdentifier pageid) { 
+    public void touchPage(PageIdentifier pageid) {
 
-        if (containsPage(pageid)) {
-            int index = getIndex(pageid);
+        int index = getIndex(pageid);
+        if (index >= 0) {
             pages[index].dirty = true;
-            lruQueue.remove(pages[index].page.getPageIdentifier());
-            lruQueue.add(pages[index].page.getPageIdentifier());
+            accessed(index);
         }
     } // touchPage()
 
-    
+
     /**
      * Touches a page in the buffer pool (if it exists) making it dirty
      * and setting its timestamp.
-     * 
+     *
      * @param page the page to be touched.
      */
     public void touchPage(Page page) {
@@ -158,35 +274,33 @@ public class BufferManager {
     public Page putPage(Page page) {
         return putPage(page, true);
     } // putPage()
-    
-    
+
+
     /**
      * Puts a page in the buffer pool.
-     * 
+     *
      * @param page the page to be inserted into the buffer pool.
      * @param dirty is this page dirty or not?
      * @return the page to be evicted (if any).
      */
     public Page putPage(Page page, boolean dirty) {
-        
-        int index; 
+
+        int index = getIndex(page.getPageIdentifier());
         // if the page is in the buffer pool
-        if (containsPage(page.getPageIdentifier())) {
-            index = getIndex(page.getPageIdentifier());
+        if (index >= 0) {
             pages[index].page = page;
             pages[index].dirty = dirty;
-            lruQueue.remove(page.getPageIdentifier());
-            lruQueue.add(page.getPageIdentifier());
+            accessed(index);
             return null;
         }
         // if the page is not in the buffer pool, but the buffer
         // pool is not full
         else if (! isFull()) {
-            index = currentIndex++;
+            index = freeFrames[--numFree];
             idToIdx.put(page.getPageIdentifier(), index);
             pages[index] = new BufferedPage(page);
             pages[index].dirty = dirty;
-            lruQueue.add(page.getPageIdentifier());
+            policy.admit(index);
             return null;
         }
         // if the page is not in the buffer pool and the buffer
@@ -198,83 +312,62 @@ public class BufferManager {
             idToIdx.put(page.getPageIdentifier(), index);
             pages[index].dirty = dirty;
             pages[index].page = page;
-            lruQueue.add(page.getPageIdentifier());
+            policy.admit(index);
             return pageToFlush;
         }
     } // putPage()
 
-    
+
     /**
      * Is the buffer manager full or not?
-     * 
+     *
      * @return <pre>true</pre> if the buffer manager is full
      * <pre>false</pre> otherwise.
      */
     protected boolean isFull() {
-        return currentIndex == numPages;
+        return numFree == 0;
     } // isFull()
 
-    
+
     /**
      * Identify the page to be evicted from the buffer pool to make
-     * room.
-     * 
+     * room.  Pinned pages are never evicted.
+     *
      * @return the index of the page that should be evicted.
+     * @throws IllegalStateException if all pages are pinned.
      */
     protected int indexToEvict() {
-        PageIdentifier pid = lruQueue.removeFirst();
-        return idToIdx.get(pid);
-        /*
-         //
-         // left here for posterity as a token of everlasting
-         // stupidity
-         //
-        int index = 0;
-        Date latest = pages[0].timestamp;
-        int i = 0;
-        for (BufferedPage page : pages) {
-            if (page.timestamp.compareTo(latest) < 0) {
-                index = i;
-                latest = page.timestamp;
-            }
-            i++;
-        }	
+        int index = policy.victim();
+        if (index < 0)
+            throw new IllegalStateException("Cannot evict a page: all "
+                                            + numPages + " buffer pool "
+                                            + "pages are pinned.");
         return index;
-        */
     } // indexToEvict()
 
 
     /**
      * Invalidate all buffer pool entries for a specific file.
      *
-     * @param fn the filename.     
+     * @param fn the filename.
      */
     public void invalidate(String fn) {
-        
-        for (int index = 0; index < currentIndex;) {
+
+        // frames never move, so the frames of the file simply go
+        // back to the free stack
+        for (int index = 0; index < numPages; index++) {
+            if (pages[index] == null) continue;
             PageIdentifier pid = pages[index].page.getPageIdentifier();
             if (pid.getFileName().equals(fn)) {
-                System.arraycopy(pages, index+1, pages, index,
-                                 currentIndex-index-1);
                 idToIdx.remove(pid);
-                lruQueue.remove(pid);
-                // update all page references in the id to index map
-                for (Map.Entry<PageIdentifier, Integer> e :
-                         idToIdx.entrySet()) {
-                    // autoboxing doesn't always work, so just autobox
-                    // it before access, just in case
-                    int v = e.getValue();
-                    if (v > index) e.setValue(v-1);
-                }
-                currentIndex--;
-            }
-            else {
-                index++;
+                policy.remove(index);
+                pages[index] = null;
+                freeFrames[numFree++] = index;
             }
         }
     } // invalidate()
 
-    
+
     /**
      * Returns an iterable over the pages of the buffer pool.
      *
@@ -289,13 +382,22 @@ public class BufferManager {
      * Inner iterator for the pages of the buffer pool.
      */
     class PageIteratorWrapper implements Iterable<Page> {
-        private int index;
-        public PageIteratorWrapper() { index = 0; }
+        public PageIteratorWrapper() {}
 
         public Iterator<Page> iterator() {
             return new Iterator<Page>() {
-                public boolean hasNext() { return index < currentIndex; }
-                public Page next() { return pages[index++].page; }
+                private int index = skipFree(0);
+                private int skipFree(int i) {
+                    while (i < numPages && pages[i] == null) i++;
+                    return i;
+                }
+                public boolean hasNext() { return index < numPages; }
+                public Page next() {
+                    if (! hasNext()) throw new NoSuchElementException();
+                    Page page = pages[index].page;
+                    index = skipFree(index+1);
+                    return page;
+                }
                 public void remove() {
                     throw new UnsupportedOperationException();
                 }
@@ -0,0 +1,100 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.util.Random;
+
+import org.dejave.attica.model.Relation;
+
+/**
+ * BufferManagerBenchmark: Micro-benchmark of the buffer manager's hit
+ * path.  For each replacement policy and pool size it fills the pool
+ * and then times random accesses to resident pages; with constant
+ * time policies the cost per hit should stay flat as the pool grows.
+ *
+ * Usage: <code>java org.dejave.attica.storage.BufferManagerBenchmark
+ * [hits] [size ...]</code>
+ *
+ * @author agent
+ */
+public class BufferManagerBenchmark {
+
+    /** The default pool sizes. */
+    private static final int [] DEFAULT_SIZES =
+        {64, 256, 1024, 4096, 16384, 65536};
+
+    /** The default number of timed hits per run. */
+    private static final int DEFAULT_HITS = 2000000;
+
+    /** The policies to be measured. */
+    private static final String [] POLICIES = {
+        BufferManager.LRU_POLICY,
+        BufferManager.CLOCK_POLICY,
+        BufferManager.TWO_QUEUE_POLICY
+    };
+
+    /**
+     * Times the hit path of a buffer manager.
+     *
+     * @param policy the replacement policy.
+     * @param size the pool size.
+     * @param hits the number of hits to be timed.
+     * @return the average cost of a hit in nanoseconds.
+     */
+    private static double run(String policy, int size, int hits) {
+
+        BufferManager bm = new BufferManager(size, policy);
+        Relation rel = new Relation();
+        PageIdentifier [] ids = new PageIdentifier[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = new PageIdentifier("bench", i);
+            bm.putPage(new Page(rel, ids[i]), false);
+        }
+
+        Random random = new Random(42);
+        int [] trace = new int[hits];
+        for (int i = 0; i < hits; i++) trace[i] = random.nextInt(size);
+
+        // warm up, then time
+        for (int i = 0; i < hits; i++) bm.getPage(ids[trace[i]]);
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < hits; i++)
+            if (bm.getPage(ids[trace[i]]) != null) found++;
+        long elapsed = System.nanoTime() - start;
+        if (found != hits)
+            throw new IllegalStateException("Unexpected buffer miss.");
+        return (double) elapsed / hits;
+    } // run()
+
+
+    /**
+     * Benchmark main().
+     *
+     * @param args the number of hits followed by the pool sizes.
+     */
+    public static void main(String [] args) {
+
+        int hits = (args.length > 0 ? Integer.parseInt(args[0])
+                    : DEFAULT_HITS);
+        int [] sizes = DEFAULT_SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length-1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i-1] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-8s%10s%14s%n", "policy", "pages", "ns/hit");
+        for (String policy : POLICIES)
+            for (int size : sizes)
+                System.out.printf("%-8s%10d%14.1f%n", policy, size,
+                                  run(policy, size, hits));
+    } // main()
+
+} // BufferManagerBenchmark
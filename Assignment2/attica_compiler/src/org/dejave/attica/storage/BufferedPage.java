@@ -1,6 +1,8 @@
 /*
  * Created on Jan 4, 2009 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -12,7 +14,7 @@ import java.util.Date;
 
 /**
  * Wrapper for a page in the buffer pool, keeping track of its
- * dirtyness.
+ * dirtyness and of the number of clients that have pinned it.
  *
  * @author sviglas
  */
@@ -20,11 +22,17 @@ class BufferedPage {
 
     public Page page;
     public boolean dirty;
+    public int pinCount;
 
     public BufferedPage(Page page) {
         this.page = page;
         dirty = false;
+        pinCount = 0;
     } // BufferedPage()
 
+    public boolean isPinned() {
+        return pinCount > 0;
+    } // isPinned()
+
     
 } // BufferedPage
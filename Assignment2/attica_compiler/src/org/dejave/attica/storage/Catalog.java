@@ -1,6 +1,8 @@
 /*
  * Created on Oct 10, 2003 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -14,6 +16,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Hashtable;
@@ -89,6 +92,21 @@ public class Catalog {
     } // tableExists()
 
     
+    /**
+     * Checks whether the given file is the file of a table in the
+     * catalog.
+     * 
+     * @param fileName the name of the file to be checked.
+     * @return <pre>true</pre> if the file belongs to a table,
+     * <pre>false</pre> otherwise.
+     */
+    public boolean isTableFile(String fileName) {
+        for (CatalogEntry entry : entries.values())
+            if (entry.getFileName().equals(fileName)) return true;
+        return false;
+    } // isTableFile()
+
+    
     /**
      * Reads in the catalog from the file specified by the filename
      * passed as an argument to the constructor.
@@ -214,6 +232,105 @@ public class Catalog {
     } // getTable()
 
     
+    /**
+     * Returns the statistics of a table.
+     * 
+     * @param tableName the table name.
+     * @return the statistics of the table, or <code>null</code> if it
+     * has not been analysed.
+     * @throws NoSuchElementException whenever the given table does
+     * not exist.
+     */
+    public TableStatistics getStatistics(String tableName)
+	throws NoSuchElementException {
+        
+        CatalogEntry entry = entries.get(tableName);
+        if (entry == null) 
+            throw new NoSuchElementException("Table " + tableName + " is not "
+                                             + "in the DB catalog.");
+        else
+            return entry.getStatistics();
+    } // getStatistics()
+
+    
+    /**
+     * Sets the statistics of a table.
+     * 
+     * @param tableName the table name.
+     * @param statistics the new statistics of the table.
+     * @throws NoSuchElementException whenever the given table does
+     * not exist.
+     */
+    public void setStatistics(String tableName, TableStatistics statistics)
+	throws NoSuchElementException {
+        
+        CatalogEntry entry = entries.get(tableName);
+        if (entry == null) 
+            throw new NoSuchElementException("Table " + tableName + " is not "
+                                             + "in the DB catalog.");
+        entry.setStatistics(statistics);
+    } // setStatistics()
+
+    
+    /**
+     * Returns the indexes of a table.
+     * 
+     * @param tableName the table name.
+     * @return the indexes of the table.
+     * @throws NoSuchElementException whenever the given table does
+     * not exist.
+     */
+    public List<IndexEntry> getIndexes(String tableName)
+	throws NoSuchElementException {
+        
+        CatalogEntry entry = entries.get(tableName);
+        if (entry == null) 
+            throw new NoSuchElementException("Table " + tableName + " is not "
+                                             + "in the DB catalog.");
+        else
+            return entry.getIndexes();
+    } // getIndexes()
+
+    
+    /**
+     * Adds an index to the catalog.
+     * 
+     * @param index the catalog entry of the new index.
+     * @throws NoSuchElementException whenever the indexed table does
+     * not exist.
+     * @throws IllegalArgumentException thrown whenever the user tries
+     * to create an index with the same name as an existing one.
+     */
+    public void addIndex(IndexEntry index)
+	throws NoSuchElementException, IllegalArgumentException {
+        
+        CatalogEntry entry = entries.get(index.getTableName());
+        if (entry == null) 
+            throw new NoSuchElementException("Table " + index.getTableName()
+                                             + " is not in the DB catalog.");
+        if (hasIndex(index.getIndexName()))
+            throw new IllegalArgumentException("Index: "
+                                               + index.getIndexName()
+                                               + " already exists.");
+        entry.getIndexes().add(index);
+    } // addIndex()
+
+
+    /**
+     * Checks whether an index exists, on any table.
+     * 
+     * @param indexName the name of the index.
+     * @return <code>true</code> if an index by this name exists,
+     * <code>false</code> otherwise.
+     */
+    public boolean hasIndex(String indexName) {
+        for (CatalogEntry e : entries.values())
+            for (IndexEntry i : e.getIndexes())
+                if (i.getIndexName().equals(indexName)) return true;
+        return false;
+    } // hasIndex()
+
+    
     /**
      * Deletes a table from the catalog.
      * 
@@ -1,6 +1,8 @@
 /*
  * Created on Nov 25, 2003 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -9,6 +11,8 @@
 package org.dejave.attica.storage;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.ArrayList;
 
 import org.dejave.attica.model.Table;
 
@@ -19,6 +23,10 @@ import org.dejave.attica.model.Table;
  * @author sviglas
  */
 public class CatalogEntry implements Serializable {
+
+    /** Fixed, so that catalogs written before entries had statistics
+     * can still be read. */
+    private static final long serialVersionUID = -608856893804639081L;
 	
     /** The table for this catalog entry. */
     private Table table;
@@ -26,6 +34,14 @@ public class CatalogEntry implements Serializable {
     /** The filename of the table. */
     private String fileName;
 
+    /** The statistics of the table, <code>null</code> if it has not
+     * been analysed. */
+    private TableStatistics statistics;
+
+    /** The indexes of the table, <code>null</code> for entries
+     * written before tables had indexes. */
+    private List<IndexEntry> indexes;
+
     
     /**
      * Creates a new catalog entry given the table.
@@ -69,6 +85,38 @@ public class CatalogEntry implements Serializable {
     } // getFileName()
 
     
+    /**
+     * Returns the statistics of this catalog entry's table.
+     * 
+     * @return the statistics of the table, or <code>null</code> if it
+     * has not been analysed.
+     */
+    public TableStatistics getStatistics() {
+        return statistics;
+    } // getStatistics()
+
+    
+    /**
+     * Sets the statistics of this catalog entry's table.
+     * 
+     * @param statistics the new statistics of the table.
+     */
+    public void setStatistics(TableStatistics statistics) {
+        this.statistics = statistics;
+    } // setStatistics()
+
+    
+    /**
+     * Returns the indexes of this catalog entry's table.
+     * 
+     * @return the indexes of the table.
+     */
+    public List<IndexEntry> getIndexes() {
+        if (indexes == null) indexes = new ArrayList<IndexEntry>();
+        return indexes;
+    } // getIndexes()
+
+    
     /**
      * Creates a new filename for the entry's table name.
      */
@@ -0,0 +1,89 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+/**
+ * ClockPolicy: Second-chance (CLOCK) replacement.  An access only
+ * sets a reference bit, so the hit path is a single array store; the
+ * clock hand sweeps the frames at eviction time, clearing reference
+ * bits until it finds an unreferenced frame.
+ *
+ * @author agent
+ */
+public class ClockPolicy implements ReplacementPolicy {
+
+    /** The reference bit of each frame. */
+    private boolean [] referenced;
+
+    /** Whether a frame is being tracked by the policy. */
+    private boolean [] occupied;
+
+    /** The clock hand. */
+    private int hand;
+
+    /**
+     * Constructs a new CLOCK policy.
+     *
+     * @param numFrames the number of frames of the buffer pool.
+     */
+    public ClockPolicy(int numFrames) {
+        referenced = new boolean[numFrames];
+        occupied = new boolean[numFrames];
+        hand = 0;
+    } // ClockPolicy()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void admit(int frame) {
+        occupied[frame] = true;
+        referenced[frame] = true;
+    } // admit()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void access(int frame) {
+        referenced[frame] = true;
+    } // access()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void remove(int frame) {
+        occupied[frame] = false;
+        referenced[frame] = false;
+    } // remove()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int victim() {
+        // at most two sweeps: the first one clears all reference
+        // bits, the second one is then bound to find a victim
+        for (int i = 0; i < 2 * occupied.length; i++) {
+            int frame = hand;
+            hand = (hand + 1) % occupied.length;
+            if (! occupied[frame]) continue;
+            if (referenced[frame]) {
+                referenced[frame] = false;
+            }
+            else {
+                occupied[frame] = false;
+                return frame;
+            }
+        }
+        return -1;
+    } // victim()
+
+} // ClockPolicy
@@ -0,0 +1,170 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.io.Serializable;
+
+/**
+ * ColumnStatistics: The statistics of a column of a table: the number
+ * of distinct values, the smallest and largest values, and an
+ * equi-depth histogram.  The histogram is given by the boundaries of
+ * its buckets, each of which holds the same number of values; its
+ * first boundary is the smallest value and its last one the largest.
+ *
+ * @author agent
+ */
+public class ColumnStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The number of distinct values. */
+    private long distinct;
+
+    /** The smallest value, <code>null</code> for an empty column. */
+    private Comparable min;
+
+    /** The largest value, <code>null</code> for an empty column. */
+    private Comparable max;
+
+    /** The boundaries of the buckets of the histogram. */
+    private Comparable [] bounds;
+
+    /**
+     * Constructs new column statistics.
+     *
+     * @param distinct the number of distinct values.
+     * @param min the smallest value.
+     * @param max the largest value.
+     * @param bounds the boundaries of the buckets of the histogram.
+     */
+    public ColumnStatistics(long distinct, Comparable min, Comparable max,
+                            Comparable [] bounds) {
+        this.distinct = distinct;
+        this.min = min;
+        this.max = max;
+        this.bounds = bounds;
+    } // ColumnStatistics()
+
+
+    /**
+     * Returns the number of distinct values.
+     *
+     * @return the number of distinct values.
+     */
+    public long getDistinct() {
+        return distinct;
+    } // getDistinct()
+
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return the smallest value.
+     */
+    public Comparable getMin() {
+        return min;
+    } // getMin()
+
+
+    /**
+     * Returns the largest value.
+     *
+     * @return the largest value.
+     */
+    public Comparable getMax() {
+        return max;
+    } // getMax()
+
+
+    /**
+     * Returns the number of buckets of the histogram.
+     *
+     * @return the number of buckets.
+     */
+    public int getNumberOfBuckets() {
+        return Math.max(0, bounds.length - 1);
+    } // getNumberOfBuckets()
+
+
+    /**
+     * Estimates the fraction of the values that are equal to a value.
+     * Values are assumed to be evenly spread over the distinct ones.
+     *
+     * @param value the value.
+     * @return the estimated fraction.
+     */
+    @SuppressWarnings("unchecked")
+    public double equalFraction(Comparable value) {
+        if (distinct == 0 || value.compareTo(min) < 0
+            || value.compareTo(max) > 0)
+            return 0;
+        return 1.0 / distinct;
+    } // equalFraction()
+
+
+    /**
+     * Estimates the fraction of the values that are smaller than a
+     * value.  Whole buckets below the value count in full; the bucket
+     * the value falls into counts in proportion to where the value
+     * lies in it if the values are numbers, and by half otherwise.
+     *
+     * @param value the value.
+     * @return the estimated fraction.
+     */
+    @SuppressWarnings("unchecked")
+    public double lessFraction(Comparable value) {
+        int buckets = getNumberOfBuckets();
+        if (buckets == 0 || value.compareTo(min) <= 0) return 0;
+        if (value.compareTo(max) > 0) return 1;
+        double fraction = 0;
+        for (int b = 0; b < buckets; b++) {
+            Comparable low = bounds[b];
+            Comparable high = bounds[b+1];
+            if (high.compareTo(value) < 0) fraction++;
+            else if (low.compareTo(value) < 0)
+                fraction += interpolate(low, high, value);
+            else break;
+        }
+        return fraction / buckets;
+    } // lessFraction()
+
+
+    /**
+     * Estimates where a value lies in a bucket.
+     *
+     * @param low the lower boundary of the bucket.
+     * @param high the upper boundary of the bucket.
+     * @param value the value, within the bucket.
+     * @return the estimated fraction of the bucket below the value.
+     */
+    private static double interpolate(Comparable low, Comparable high,
+                                      Comparable value) {
+        if (low instanceof Number && high instanceof Number
+            && value instanceof Number) {
+            double l = ((Number) low).doubleValue();
+            double h = ((Number) high).doubleValue();
+            double v = ((Number) value).doubleValue();
+            return (h > l ? (v - l) / (h - l) : 0.5);
+        }
+        return 0.5;
+    } // interpolate()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the textual representation of the statistics.
+     */
+    @Override
+    public String toString() {
+        return "distinct: " + distinct + ", min: " + min + ", max: " + max
+            + ", buckets: " + getNumberOfBuckets();
+    } // toString()
+
+} // ColumnStatistics
@@ -0,0 +1,240 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dejave.util.LRUMap;
+
+/**
+ * FileRegistry: A registry of open database files.  Handles are kept
+ * open across page I/O calls and closed in least-recently-used order
+ * once more than a fixed number of files are open.  The registry also
+ * caches the number of pages of every file it has seen, so that
+ * appending to or scanning a file does not need to query the file
+ * system for its length.
+ *
+ * @author agent
+ */
+public class FileRegistry {
+
+    /** The default maximum number of open files. */
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    /** The open file handles, in LRU order. */
+    private LRUMap<String, DatabaseFile> handles;
+
+    /** The cached page counts. */
+    private Map<String, Integer> pageCounts;
+
+    /** The read-only memory mappings of files. */
+    private Map<String, MappedByteBuffer> mappings;
+
+    /**
+     * Constructs a new file registry with the default bound.
+     */
+    public FileRegistry() {
+        this(DEFAULT_MAX_OPEN_FILES);
+    } // FileRegistry()
+
+
+    /**
+     * Constructs a new file registry.
+     *
+     * @param maxOpenFiles the maximum number of files kept open.
+     */
+    public FileRegistry(int maxOpenFiles) {
+        pageCounts = new HashMap<String, Integer>();
+        mappings = new HashMap<String, MappedByteBuffer>();
+        setMaxOpenFiles(maxOpenFiles);
+    } // FileRegistry()
+
+
+    /**
+     * Sets the maximum number of files kept open, closing all
+     * currently open files.
+     *
+     * @param maxOpenFiles the maximum number of files kept open.
+     * @throws IllegalArgumentException if the bound is not positive.
+     */
+    public synchronized void setMaxOpenFiles(int maxOpenFiles) {
+
+        if (maxOpenFiles < 1)
+            throw new IllegalArgumentException("At least one file must be "
+                                               + "kept open.");
+        if (handles != null) closeAll();
+        handles = new LRUMap<String, DatabaseFile>(maxOpenFiles) {
+            protected void onRemove(Map.Entry<String, DatabaseFile> e) {
+                close(e.getValue());
+            }
+        };
+    } // setMaxOpenFiles()
+
+
+    /**
+     * Returns an open read/write handle to the given file.  The
+     * handle belongs to the registry: callers must not close it, and
+     * must not hold on to it across other registry calls.
+     *
+     * @param filename the name of the file.
+     * @return an open handle to the file.
+     * @throws FileNotFoundException if the file does not exist or
+     * cannot be opened.
+     */
+    public synchronized DatabaseFile getFile(String filename)
+        throws FileNotFoundException {
+
+        DatabaseFile dbf = handles.get(filename);
+        if (dbf == null) {
+            // opening in read/write mode would silently create the
+            // file, which is not what a missing file should do
+            if (! new File(filename).exists())
+                throw new FileNotFoundException(filename
+                                                + " does not exist.");
+            dbf = new DatabaseFile(filename, DatabaseFile.READ_WRITE);
+            handles.put(filename, dbf);
+        }
+        return dbf;
+    } // getFile()
+
+
+    /**
+     * Returns a read-only memory mapping of the given file that spans
+     * at least the given number of pages.  Mappings are cached and
+     * remapped when the file grows past them.
+     *
+     * @param filename the name of the file.
+     * @param minPages the number of pages the mapping should span.
+     * @return the mapping, or <code>null</code> if the file is
+     * shorter than the requested number of pages.
+     * @throws IOException if the file cannot be mapped.
+     */
+    public synchronized MappedByteBuffer getMapping(String filename,
+                                                    int minPages)
+        throws IOException {
+
+        long minSize = (long) minPages * Sizes.PAGE_SIZE;
+        MappedByteBuffer mapping = mappings.get(filename);
+        if (mapping == null || mapping.capacity() < minSize) {
+            FileChannel channel = getFile(filename).getChannel();
+            long size = channel.size();
+            if (size < minSize || size > Integer.MAX_VALUE) return null;
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mappings.put(filename, mapping);
+        }
+        return mapping;
+    } // getMapping()
+
+
+    /**
+     * Returns the number of pages of the given file.
+     *
+     * @param filename the name of the file.
+     * @return the number of pages of the file.
+     * @throws IOException if the file length cannot be determined.
+     */
+    public synchronized int getNumberOfPages(String filename)
+        throws IOException {
+
+        Integer pages = pageCounts.get(filename);
+        if (pages == null) {
+            pages = (int) (getFile(filename).length() / Sizes.PAGE_SIZE + .5);
+            pageCounts.put(filename, pages);
+        }
+        return pages;
+    } // getNumberOfPages()
+
+
+    /**
+     * Makes sure the given file spans at least the given number of
+     * pages, extending it if necessary.
+     *
+     * @param filename the name of the file.
+     * @param np the number of pages.
+     * @throws IOException if the file cannot be extended.
+     */
+    public synchronized void setNumberOfPages(String filename, int np)
+        throws IOException {
+
+        if (getNumberOfPages(filename) < np) {
+            getFile(filename).setLength((long) np * Sizes.PAGE_SIZE);
+            pageCounts.put(filename, np);
+        }
+    } // setNumberOfPages()
+
+
+    /**
+     * Records that a page of a file has been read or written, which
+     * may have extended the file.
+     *
+     * @param pid the identifier of the page.
+     */
+    public synchronized void pageAccessed(PageIdentifier pid) {
+
+        Integer pages = pageCounts.get(pid.getFileName());
+        if (pages != null && pages <= pid.getNumber())
+            pageCounts.put(pid.getFileName(), pid.getNumber()+1);
+    } // pageAccessed()
+
+
+    /**
+     * Closes the handle of the given file (if it is open) and
+     * forgets its page count; called whenever a file is created or
+     * deleted.
+     *
+     * @param filename the name of the file.
+     */
+    public synchronized void forget(String filename) {
+
+        DatabaseFile dbf = handles.remove(filename);
+        if (dbf != null) close(dbf);
+        pageCounts.remove(filename);
+        mappings.remove(filename);
+    } // forget()
+
+
+    /**
+     * Closes all open handles and drops all mappings.
+     */
+    public synchronized void closeAll() {
+
+        mappings.clear();
+        List<DatabaseFile> open = new ArrayList<DatabaseFile>();
+        for (Map.Entry<String, DatabaseFile> e : handles.entrySet())
+            open.add(e.getValue());
+        handles.clear();
+        for (DatabaseFile dbf : open) close(dbf);
+    } // closeAll()
+
+
+    /**
+     * Closes a handle, ignoring errors: there is nothing to be done
+     * about them, and all data has already been written.
+     *
+     * @param dbf the handle to be closed.
+     */
+    private static void close(DatabaseFile dbf) {
+        try {
+            dbf.close();
+        }
+        catch (IOException ioe) {
+            System.err.println("Could not close database file: "
+                               + ioe.getMessage());
+        }
+    } // close()
+
+} // FileRegistry
@@ -3,6 +3,8 @@
  *
  * Modified on Dec 17, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -22,6 +24,19 @@ public class FileUtil {
 
     /** Counter for files. */
     private static long next = 0;
+
+    /** The registry of open files. */
+    private static FileRegistry registry = new FileRegistry();
+    
+    /**
+     * Returns the registry of open files.
+     *
+     * @return the registry of open files.
+     */
+    public static FileRegistry getRegistry() {
+        return registry;
+    } // getRegistry()
+
     
     /**
      * Returns the size (in bytes) of the file corresponding to the
@@ -37,16 +52,14 @@ public class FileUtil {
     public static long getFileSize(String filename) 
 	throws IOException, FileNotFoundException {
         
-        DatabaseFile dbf = new DatabaseFile(filename, DatabaseFile.READ);
-        long size = dbf.length();
-        dbf.close();
-        return size;
+        return registry.getFile(filename).length();
     } // getFileSize()
 
     
     /**
      * Return the number of attica pages in the file corresponding to
-     * the given filename.
+     * the given filename.  The count is cached by the file registry,
+     * so this does not touch the file system after the first call.
      * 
      * @param filename the name of the file to be checked.
      * @return the number of attica pages in the file corresponding to the
@@ -58,21 +71,26 @@ public class FileUtil {
     public static int getNumberOfPages(String filename) 
 	throws IOException, FileNotFoundException {
         
-        DatabaseFile dbf = new DatabaseFile(filename, DatabaseFile.READ);
-        int pages = (int) (dbf.length() / Sizes.PAGE_SIZE + .5);
-        dbf.close();
-        return pages;
+        return registry.getNumberOfPages(filename);
     } // getNumberOfPages()
 
 
+    /**
+     * Makes sure the file corresponding to the given filename spans
+     * at least the given number of attica pages.
+     *
+     * @param filename the name of the file.
+     * @param np the number of pages.
+     * @throws IOException generic I/O exception.
+     * @throws FileNotFoundException thrown whenever the file does not
+     * exist.
+     */
     public static void setNumberOfPages(String filename, int np)
         throws IOException, FileNotFoundException {
 
-        DatabaseFile dbf = new DatabaseFile(filename, DatabaseFile.READ_WRITE);
-        int pages = (int) (dbf.length() / Sizes.PAGE_SIZE + .5);
-        if (pages < np) dbf.setLength(np*Sizes.PAGE_SIZE);
-        dbf.close();
-    }
+        registry.setNumberOfPages(filename, np);
+    } // setNumberOfPages()
+
     
     /**
      * Create a new temporary file name.
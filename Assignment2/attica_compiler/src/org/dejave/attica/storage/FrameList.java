@@ -0,0 +1,158 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+/**
+ * FrameList: An intrusive doubly-linked list of buffer pool frame
+ * indexes.  The links are kept in primitive arrays indexed by frame,
+ * so insertion, removal and moving a frame to the tail are all
+ * constant time and allocation-free.
+ *
+ * @author agent
+ */
+class FrameList {
+
+    /** Marker for a null link. */
+    private static final int NIL = -1;
+
+    /** The previous frame of each frame. */
+    private int [] prev;
+
+    /** The next frame of each frame. */
+    private int [] next;
+
+    /** Whether a frame is a member of this list. */
+    private boolean [] member;
+
+    /** The head (least recently added) of the list. */
+    private int head;
+
+    /** The tail (most recently added) of the list. */
+    private int tail;
+
+    /** The number of frames in the list. */
+    private int size;
+
+    /**
+     * Constructs a new, empty frame list.
+     *
+     * @param numFrames the number of frames of the buffer pool.
+     */
+    public FrameList(int numFrames) {
+        prev = new int[numFrames];
+        next = new int[numFrames];
+        member = new boolean[numFrames];
+        head = tail = NIL;
+        size = 0;
+    } // FrameList()
+
+
+    /**
+     * Does the list contain the given frame?
+     *
+     * @param frame the frame.
+     * @return <code>true</code> if the frame is in the list,
+     * <code>false</code> otherwise.
+     */
+    public boolean contains(int frame) {
+        return member[frame];
+    } // contains()
+
+
+    /**
+     * Returns the number of frames in the list.
+     *
+     * @return the number of frames in the list.
+     */
+    public int size() {
+        return size;
+    } // size()
+
+
+    /**
+     * Returns the head of the list.
+     *
+     * @return the head of the list, or -1 if the list is empty.
+     */
+    public int head() {
+        return head;
+    } // head()
+
+
+    /**
+     * Returns the frame following the given one in the list.
+     *
+     * @param frame the frame.
+     * @return the next frame, or -1 if this is the tail.
+     */
+    public int next(int frame) {
+        return next[frame];
+    } // next()
+
+
+    /**
+     * Appends a frame to the tail of the list; if the frame is
+     * already in the list it is moved to the tail.
+     *
+     * @param frame the frame to be appended.
+     */
+    public void addLast(int frame) {
+        if (member[frame]) {
+            if (frame == tail) return;
+            unlink(frame);
+        }
+        prev[frame] = tail;
+        next[frame] = NIL;
+        if (tail != NIL) next[tail] = frame;
+        else head = frame;
+        tail = frame;
+        member[frame] = true;
+        size++;
+    } // addLast()
+
+
+    /**
+     * Removes a frame from the list, if it is there.
+     *
+     * @param frame the frame to be removed.
+     */
+    public void remove(int frame) {
+        if (member[frame]) unlink(frame);
+    } // remove()
+
+
+    /**
+     * Removes and returns the head of the list.
+     *
+     * @return the head of the list, or -1 if the list is empty.
+     */
+    public int removeFirst() {
+        int frame = head;
+        if (frame != NIL) unlink(frame);
+        return frame;
+    } // removeFirst()
+
+
+    /**
+     * Unlinks a member frame.
+     *
+     * @param frame the frame to be unlinked.
+     */
+    private void unlink(int frame) {
+        int p = prev[frame];
+        int n = next[frame];
+        if (p != NIL) next[p] = n;
+        else head = n;
+        if (n != NIL) prev[n] = p;
+        else tail = p;
+        member[frame] = false;
+        size--;
+    } // unlink()
+
+} // FrameList
@@ -0,0 +1,147 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.io.Serializable;
+
+/**
+ * IndexEntry: Stores all information pertinent to an index in the
+ * catalog.  An index is a B+-tree over a single attribute of a table.
+ *
+ * @author agent
+ */
+public class IndexEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The name of the index. */
+    private String indexName;
+
+    /** The name of the indexed table. */
+    private String tableName;
+
+    /** The name of the indexed attribute. */
+    private String attributeName;
+
+    /** The slot of the indexed attribute in the table. */
+    private int slot;
+
+    /** The type of the indexed attribute. */
+    private Class<? extends Comparable> keyType;
+
+    /** The filename of the index. */
+    private String fileName;
+
+
+    /**
+     * Creates a new catalog entry for an index.
+     *
+     * @param indexName the name of the index.
+     * @param tableName the name of the indexed table.
+     * @param attributeName the name of the indexed attribute.
+     * @param slot the slot of the indexed attribute in the table.
+     * @param keyType the type of the indexed attribute.
+     */
+    public IndexEntry(String indexName, String tableName,
+                      String attributeName, int slot,
+                      Class<? extends Comparable> keyType) {
+
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.attributeName = attributeName;
+        this.slot = slot;
+        this.keyType = keyType;
+        createFileName();
+    } // IndexEntry()
+
+
+    /**
+     * Returns the name of the index.
+     *
+     * @return the name of the index.
+     */
+    public String getIndexName() {
+        return indexName;
+    } // getIndexName()
+
+
+    /**
+     * Returns the name of the indexed table.
+     *
+     * @return the name of the indexed table.
+     */
+    public String getTableName() {
+        return tableName;
+    } // getTableName()
+
+
+    /**
+     * Returns the name of the indexed attribute.
+     *
+     * @return the name of the indexed attribute.
+     */
+    public String getAttributeName() {
+        return attributeName;
+    } // getAttributeName()
+
+
+    /**
+     * Returns the slot of the indexed attribute in the table.
+     *
+     * @return the slot of the indexed attribute.
+     */
+    public int getSlot() {
+        return slot;
+    } // getSlot()
+
+
+    /**
+     * Returns the type of the indexed attribute.
+     *
+     * @return the type of the keys of the index.
+     */
+    public Class<? extends Comparable> getKeyType() {
+        return keyType;
+    } // getKeyType()
+
+
+    /**
+     * Returns the filename of the index.
+     *
+     * @return the filename of the index.
+     */
+    public String getFileName() {
+        return fileName;
+    } // getFileName()
+
+
+    /**
+     * Creates a new filename for the index.
+     */
+    protected void createFileName() {
+
+        String name = tableName + "_" + indexName;
+        fileName = new String(org.dejave.attica.server.Database.ATTICA_DIR
+                              + System.getProperty("file.separator")
+                              + name + "_" + name.hashCode() + ".idx");
+    } // createFileName()
+
+
+    /**
+     * String representation.
+     *
+     * @return this entry's string representation.
+     */
+    @Override
+    public String toString() {
+        return "Index: " + indexName + " on " + tableName + "("
+            + attributeName + "), filename: " + fileName;
+    } // toString()
+
+} // IndexEntry
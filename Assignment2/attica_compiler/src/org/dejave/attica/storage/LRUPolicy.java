@@ -0,0 +1,64 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+/**
+ * LRUPolicy: Least-recently-used replacement over frame indexes.
+ * Every access moves the frame to the tail of an intrusive list, the
+ * victim is the head; all operations are constant time.
+ *
+ * @author agent
+ */
+public class LRUPolicy implements ReplacementPolicy {
+
+    /** The recency list; the head is the least recently used. */
+    private FrameList queue;
+
+    /**
+     * Constructs a new LRU policy.
+     *
+     * @param numFrames the number of frames of the buffer pool.
+     */
+    public LRUPolicy(int numFrames) {
+        queue = new FrameList(numFrames);
+    } // LRUPolicy()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void admit(int frame) {
+        queue.addLast(frame);
+    } // admit()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void access(int frame) {
+        queue.addLast(frame);
+    } // access()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void remove(int frame) {
+        queue.remove(frame);
+    } // remove()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int victim() {
+        return queue.removeFirst();
+    } // victim()
+
+} // LRUPolicy
@@ -2,6 +2,8 @@
  * Created on Oct 9, 2003 by sviglas
  *
  * Modified on Dec 18, 2008 by sviglas
+ *
+ * Modified on Oct 18, 2026 by agent
  * 
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
@@ -34,6 +36,9 @@ public class Page implements Iterable<Tuple> {
     /** The relational schema this page conforms to. */
     private Relation relation;
 
+    /** The compiled layout of the tuples of this page. */
+    private TupleSchema schema;
+
     /** The free space in this page. */
     private int freeSpace;
     
@@ -44,7 +49,21 @@ public class Page implements Iterable<Tuple> {
      * @param pageId the ID of this page.
      */
     public Page(Relation relation, PageIdentifier pageId) {
+        this(relation, pageId, TupleSchema.forRelation(relation));
+    } // Page()
+
+
+    /**
+     * Creates a new page given its schema, the compiled layout of the
+     * schema and its page identifier (package visible).
+     * 
+     * @param relation the relation this page conforms to.
+     * @param pageId the ID of this page.
+     * @param schema the layout of the tuples of the relation.
+     */
+    Page(Relation relation, PageIdentifier pageId, TupleSchema schema) {
         this.relation = relation;
+        this.schema = schema;
         this.pageId = pageId;
         this.tuples = new ArrayList<Tuple>();
         freeSpace = Sizes.PAGE_SIZE - Convert.INT_SIZE;
@@ -60,6 +79,17 @@ public class Page implements Iterable<Tuple> {
         return relation;
     } // getRelation()
 
+
+    /**
+     * Returns the compiled layout of the tuples of this page (package
+     * visible).
+     * 
+     * @return the layout of the tuples of this page.
+     */
+    TupleSchema getSchema() {
+        return schema;
+    } // getSchema()
+
     
     /**
      * Checks whether this page has room for one more tuple.
@@ -68,7 +98,9 @@ public class Page implements Iterable<Tuple> {
      * on this page, <pre>false</pre> otherwise.
      */
     public boolean hasRoom(Tuple t) {
-        return freeSpace >= TupleIOManager.byteSize(getRelation(), t);
+        // every tuple also takes up an entry of the slot directory
+        return freeSpace >= TupleIOManager.byteSize(schema, t)
+            + Convert.INT_SIZE;
     } // hasSpace()
 
     
@@ -105,7 +137,8 @@ public class Page implements Iterable<Tuple> {
         
         if (hasRoom(tuple)) {
             tuples.add(tuple);
-            freeSpace -= TupleIOManager.byteSize(getRelation(), tuple);
+            freeSpace -= TupleIOManager.byteSize(schema, tuple)
+                + Convert.INT_SIZE;
         }
         else throw new ArrayIndexOutOfBoundsException("No more space in page.");
     } // addTupleToPage()
@@ -143,8 +176,8 @@ public class Page implements Iterable<Tuple> {
         throws ArrayIndexOutOfBoundsException {
 
         return (freeSpace
-            + TupleIOManager.byteSize(getRelation(), tuples.get(index))
-                - TupleIOManager.byteSize(getRelation(), nt)) >= 0;
+            + TupleIOManager.byteSize(schema, tuples.get(index))
+                - TupleIOManager.byteSize(schema, nt)) >= 0;
     } // canSubstitute()
 
 
@@ -237,9 +270,9 @@ public class Page implements Iterable<Tuple> {
          * Removes the last tuple returned by the iterator.
          */
         public void remove() {
-            int size = TupleIOManager.byteSize(getRelation(),
+            int size = TupleIOManager.byteSize(schema,
                                                tuples.get(currentIndex));
-            freeSpace += size;
+            freeSpace += size + Convert.INT_SIZE;
             tuples.remove(currentIndex);
         }
     } // PageIterator()
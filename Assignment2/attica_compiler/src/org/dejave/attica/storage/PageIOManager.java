@@ -3,6 +3,8 @@
  *
  * Modofied on Dec 24, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -12,6 +14,8 @@ package org.dejave.attica.storage;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Iterator;
 
 import org.dejave.attica.model.Relation;
@@ -19,7 +23,12 @@ import org.dejave.util.Convert;
 import org.dejave.util.Pair;
 
 /**
- * PageIOManager: Implements page I/O over attica files.
+ * PageIOManager: Implements page I/O over attica files.  Pages are
+ * slotted: the page starts with the number of tuples, followed by a
+ * directory with the offset of every tuple; the tuples themselves are
+ * packed from the end of the page towards the directory.  Pages read
+ * from disk keep their image, and their tuples are decoded lazily
+ * from it.
  *
  * @author sviglas
  */
@@ -99,15 +108,125 @@ public class PageIOManager {
 
 
     /**
-     * Dumps the number of tuples of the page.
+     * Writes a page through a file channel, using positional I/O.
+     * 
+     * @param channel the output channel.
+     * @param page the page to be written.
+     * @param bytes a page-sized scratch array the page is encoded
+     * into and written from.
+     * @throws StorageManagerException thrown whenever there is an
+     * output error.
+     */
+    public static void writePage(FileChannel channel, Page page,
+                                 byte [] bytes) 
+	throws StorageManagerException {
+        
+        try {
+            long seek =
+                (long) page.getPageIdentifier().getNumber() * Sizes.PAGE_SIZE;
+            dumpNumber(page, bytes);
+            dumpTuples(page, bytes);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, Sizes.PAGE_SIZE);
+            while (buffer.hasRemaining())
+                seek += channel.write(buffer, seek);
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("Exception while writing page "
+                                              + page.getPageIdentifier()
+                                              + " to disk.", ioe);
+        }
+    } // writePage()
+
+    
+    /**
+     * Reads a page through a file channel, using positional I/O.  The
+     * page is read straight into the array that becomes its image.
+     * 
+     * @param relation the relation the requested page conforms to.
+     * @param pid the page identifier of the page.
+     * @param channel the input channel.
+     * @return the page read.
+     * @throws StorageManagerException whenever the page cannot be
+     * properly read.
+     */
+    public static Page readPage(Relation relation, PageIdentifier pid, 
+                                FileChannel channel)
+	throws StorageManagerException {
+        
+        try {
+            long seek = (long) pid.getNumber() * Sizes.PAGE_SIZE;
+            // the page image is kept by the page's tuples, so it
+            // cannot be a scratch array
+            byte [] bytes = new byte[Sizes.PAGE_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int bytesRead = 0;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, seek + bytesRead);
+                if (n == -1) break;
+                bytesRead += n;
+            }
+            if (bytesRead == 0) {
+                // we've reached the end of file, so we need to
+                // allocate a page -- writing its last byte extends
+                // the file
+                channel.write(ByteBuffer.wrap(new byte[1]),
+                              seek + Sizes.PAGE_SIZE - 1);
+                return new Page(relation, pid);
+            }
+            if (bytesRead != Sizes.PAGE_SIZE) {
+                throw new StorageManagerException("Page " + pid.toString()
+                                                  + "was not fully read.");
+            }
+            return fetchTuples(relation, pid, bytes);
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("Exception while reading page "
+                                              + pid.toString()
+                                              + " from disk.", ioe);
+        }
+    } // readPage()
+
+    
+    /**
+     * Reads a page from a read-only memory mapping of its file.  The
+     * mapping must span the page.  The page is copied out of the
+     * mapping once, into the array that becomes its image.  Tuples
+     * keep that image after the page leaves the buffer pool, whereas
+     * the mapping sees later writes to the page and is replaced
+     * whenever the file grows, so tuples cannot refer to the mapping
+     * itself.  The copy is a plain memory copy; what the mapping
+     * saves is the system call per page.
+     * 
+     * @param relation the relation the requested page conforms to.
+     * @param pid the page identifier of the page.
+     * @param mapping the mapping of the whole file.
+     * @return the page read.
+     * @throws StorageManagerException whenever the page cannot be
+     * properly read.
+     */
+    public static Page readPage(Relation relation, PageIdentifier pid, 
+                                ByteBuffer mapping) 
+	throws StorageManagerException {
+        
+        byte [] bytes = new byte[Sizes.PAGE_SIZE];
+        int seek = pid.getNumber() * Sizes.PAGE_SIZE;
+        if (seek + Sizes.PAGE_SIZE > mapping.capacity())
+            throw new StorageManagerException("Page " + pid.toString()
+                                              + " is not mapped.");
+        mapping.get(seek, bytes, 0, Sizes.PAGE_SIZE);
+        return fetchTuples(relation, pid, bytes);
+    } // readPage()
+
+    
+    /**
+     * Dumps the number of tuples of the page at the start of its
+     * image.
      *
      * @param page the page to be written.
      * @param bytes the output byte array.     
      */     
     protected static void dumpNumber(Page page, byte [] bytes) {
-        
-        byte [] b = Convert.toByte(page.getNumberOfTuples());
-        System.arraycopy(b, 0, bytes, 0, b.length);
+        Convert.toByte(page.getNumberOfTuples(), bytes, 0);
     } // dumpNumber()
 
     
@@ -125,12 +244,17 @@ public class PageIOManager {
         TupleIOManager manager =
             new TupleIOManager (page.getRelation(),
                                 page.getPageIdentifier().getFileName());
-        // one integer was used for the number of tuples
-        int offset = Convert.INT_SIZE;
-        // iterate over all tuples, place them in the array
-        for (Tuple tuple : page)
-            offset = manager.writeTuple(tuple, bytes, offset);
-        pad(bytes, offset);
+        // one integer was used for the number of tuples, followed by
+        // the slot directory; tuples are packed from the end
+        int slot = Convert.INT_SIZE;
+        int offset = Sizes.PAGE_SIZE;
+        for (Tuple tuple : page) {
+            offset -= manager.byteSize(tuple);
+            manager.writeTuple(tuple, bytes, offset);
+            Convert.toByte(offset, bytes, slot);
+            slot += Convert.INT_SIZE;
+        }
+        pad(bytes, slot, offset);
     } // dumpTuples()
     
     /**
@@ -150,43 +274,42 @@ public class PageIOManager {
                                                     pid.getFileName());
         // start reading tuples
         int numberOfTuples = fetchNumber(bytes);
-        Page page = new Page(relation, pid);
-        //page.setNumberOfTuples(numberOfTuples);
-        // one integer for the number of tuples
-        int offset = Convert.INT_SIZE;
+        Page page = new Page(relation, pid, manager.getSchema());
+        // one integer for the number of tuples, then the directory;
+        // each tuple ends where the previous one starts
+        int slot = Convert.INT_SIZE;
+        int end = Sizes.PAGE_SIZE;
         for (int i = 0; i < numberOfTuples; i++) {
-            Pair pair = manager.readTuple(bytes, offset);
-            Tuple tuple = (Tuple) pair.first;
-            offset = ((Integer) pair.second).intValue();
-            page.addTuple(tuple);
+            int offset = Convert.toInt(bytes, slot);
+            slot += Convert.INT_SIZE;
+            page.addTuple(manager.readEncodedTuple(bytes, offset,
+                                                   end - offset));
+            end = offset;
         }
 		
         return page;
     } // fetchTuples()
 
     /**
-     * Fetches the number of tuples from a byte array.
+     * Fetches the number of tuples from the start of a page image.
      *
      * @param bytes the byte array.
      * @return the number of tuples.
      */
     public static int fetchNumber(byte [] bytes) {
-        
-        byte [] b = new byte[Convert.INT_SIZE];
-        System.arraycopy(bytes, 0, b, 0, b.length);
-        return Convert.toInt(b);
+        return Convert.toInt(bytes, 0);
     } // fetchNumber()
 
     
     /**
-     * Pad a byte array with zeros to reach the disk page size.  (Not
-     * sure this will ever be used, but whatever...)
+     * Pad the free space of a page image with zeros.
      * 
      * @param bytes the input byte array to be padded.
      * @param start the starting offset in the byte array.
+     * @param end the offset past the last byte to be padded.
      */
-    protected static void pad(byte [] bytes, int start) {
-        for (int i = start; i < bytes.length; i++) bytes[i] = (byte) 0;        
+    protected static void pad(byte [] bytes, int start, int end) {
+        for (int i = start; i < end; i++) bytes[i] = (byte) 0;        
     } // pad()
 
 } // PageIOManager
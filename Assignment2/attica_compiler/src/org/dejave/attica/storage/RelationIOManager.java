@@ -3,6 +3,8 @@
  *
  * Modified on Dec 22, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -38,6 +40,16 @@ public class RelationIOManager {
 	
     /** The filename for the relation. */
     private String filename;
+
+    /** The indexes maintained by insertions. */
+    private List<BPlusTree> indexes;
+
+    /** The page insertions append to, <code>null</code> until the
+     * first insertion and after a flush. */
+    private Page tail;
+
+    /** The number of the next tuple appended. */
+    private int nextNumber;
 	
     /**
      * Constructs a new relation I/O manager.
@@ -53,7 +65,19 @@ public class RelationIOManager {
         this.sm = sm;
         this.relation = relation;
         this.filename = filename;
+        this.indexes = new ArrayList<BPlusTree>();
     } // RelationIOManager()
+
+
+    /**
+     * Adds an index to be maintained by the insertions of this
+     * manager.
+     *
+     * @param index the index.
+     */
+    public void addIndex(BPlusTree index) {
+        indexes.add(index);
+    } // addIndex()
 	
     /**
      * Inserts a new tuple into this relation.
@@ -83,7 +107,13 @@ public class RelationIOManager {
 
     
     /**
-     * Inserts a new tuple into this relation.
+     * Inserts a new tuple into this relation.  The manager keeps the
+     * last page of the file and the number of the next tuple after
+     * the first insertion, so that consecutive insertions only touch
+     * that page; a page is appended to the file once, when it is
+     * full.  Until the manager is flushed the last page is only held
+     * by the manager, and the storage manager hands it to anyone
+     * reading it.
      * 
      * @param tuple the tuple to be inserted.
      * @param newID re-assigns the tuple id if set to <pre>true</pre>.
@@ -97,30 +127,26 @@ public class RelationIOManager {
         // not be re-assigning the tuple id, but I guess I was
         // thinking of something back then.
         try {
-            // read in the last page of the file
-            int pageNum = FileUtil.getNumberOfPages(getFileName());
-            pageNum = (pageNum == 0) ? 0 : pageNum-1;
-            PageIdentifier pid = 
-                new PageIdentifier(getFileName(), pageNum);
-            Page page = sm.readPage(relation, pid);
-            int num = 0;
-            if (page.getNumberOfTuples() != 0) {
-                Tuple t = page.retrieveTuple(page.getNumberOfTuples()-1);
-                num = t.getTupleIdentifier().getNumber()+1;
-            }
-
+            if (tail == null) openTail();
             if (newID)
                 tuple.setTupleIdentifier(new TupleIdentifier(getFileName(),
-                                                             num));
+                                                             nextNumber));
+            nextNumber = tuple.getTupleIdentifier().getNumber()+1;
             
-            //long tn = page.getNumberOfTuples();
-            if (! page.hasRoom(tuple)) {
-                page = new Page(relation, new PageIdentifier(getFileName(),
-                                                             pageNum+1));
+            if (! tail.hasRoom(tuple)) {
+                int pageNum = tail.getPageIdentifier().getNumber();
+                sm.appendPage(tail);
+                tail = new Page(relation, new PageIdentifier(getFileName(),
+                                                             pageNum+1),
+                                tail.getSchema());
                 FileUtil.setNumberOfPages(getFileName(), pageNum+2);
+                sm.holdPage(tail);
             }
-            page.addTuple(tuple);
-            sm.writePage(page);
+            tail.addTuple(tuple);
+            int number = tail.getPageIdentifier().getNumber();
+            int slot = tail.getNumberOfTuples() - 1;
+            for (BPlusTree index : indexes)
+                index.insert(tuple, number, slot);
         }
         catch (Exception e) {
             e.printStackTrace(System.err);
@@ -131,6 +157,66 @@ public class RelationIOManager {
     } // insertTuple ()
 
 
+    /**
+     * Reads in the last page of the file and the number of the next
+     * tuple, for insertions to append to.
+     *
+     * @throws StorageManagerException thrown whenever the last page
+     * cannot be read.
+     */
+    private void openTail() throws StorageManagerException {
+        try {
+            int pageNum = FileUtil.getNumberOfPages(getFileName());
+            pageNum = (pageNum == 0) ? 0 : pageNum-1;
+            tail = sm.readPage(relation,
+                               new PageIdentifier(getFileName(), pageNum));
+            nextNumber = 0;
+            if (tail.getNumberOfTuples() != 0) {
+                Tuple t = tail.retrieveTuple(tail.getNumberOfTuples()-1);
+                nextNumber = t.getTupleIdentifier().getNumber()+1;
+            }
+            sm.holdPage(tail);
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("I/O Error while reading the "
+                                              + "last page of file: "
+                                              + getFileName(), ioe);
+        }
+    } // openTail()
+
+
+    /**
+     * Writes the last page of the file to the buffer pool and lets go
+     * of it; the next insertion reads it in again.  Managers flush
+     * once they are done inserting.
+     *
+     * @throws StorageManagerException thrown whenever the page cannot
+     * be written.
+     */
+    public void flush() throws StorageManagerException {
+        if (tail == null) return;
+        sm.releasePage(tail);
+        sm.writePage(tail);
+        tail = null;
+    } // flush()
+
+
+    /**
+     * Inserts a batch of new tuples into this relation, re-assigning
+     * their ids, and flushes the manager.
+     *
+     * @param tuples the tuples to be inserted.
+     * @throws StorageManagerException thrown whenever there is an I/O
+     * error.
+     */
+    public void insertTuples(Iterable<Tuple> tuples)
+        throws StorageManagerException {
+
+        for (Tuple tuple : tuples) insertTuple(tuple, true);
+        flush();
+    } // insertTuples()
+
+
     /**
      * Wrapper for castAttributes() with a list of comparables as the
      * parameter. See the notes there. (Package visible, because this
@@ -214,6 +300,50 @@ public class RelationIOManager {
         return new PageIteratorWrapper();
     } // pages()
 
+    /**
+     * Reads all pages of this relation and pins them in the buffer
+     * pool, so that they can be traversed repeatedly without going
+     * through the storage manager.  The caller is responsible for
+     * making sure the pages fit in the buffer pool and for unpinning
+     * them through <code>unpinPages()</code>.
+     *
+     * @return the pinned pages of this relation, in file order.
+     * @throws IOException whenever the number of pages of the
+     * relation cannot be determined.
+     * @throws StorageManagerException whenever a page cannot be read
+     * or pinned; any pages already pinned are unpinned.
+     */
+    public List<Page> pinPages()
+        throws IOException, StorageManagerException {
+
+        int numPages = FileUtil.getNumberOfPages(getFileName());
+        List<Page> pinned = new ArrayList<Page>(numPages);
+        try {
+            for (int i = 0; i < numPages; i++)
+                pinned.add(sm.pinPage(relation,
+                                      new PageIdentifier(getFileName(), i)));
+        }
+        catch (StorageManagerException sme) {
+            unpinPages(pinned);
+            throw sme;
+        }
+        return pinned;
+    } // pinPages()
+
+
+    /**
+     * Unpins pages previously pinned through <code>pinPages()</code>.
+     *
+     * @param pinned the pinned pages.
+     * @throws StorageManagerException whenever a page is not pinned.
+     */
+    public void unpinPages(List<Page> pinned)
+        throws StorageManagerException {
+
+        for (Page page : pinned) sm.unpinPage(page.getPageIdentifier());
+    } // unpinPages()
+
+    
     /**
      * Opens a tuple iterator over this relation.
      *
@@ -371,6 +501,7 @@ public class RelationIOManager {
                 System.out.println("inserting: " + tuple);
                 manager.insertTuple(tuple);
             }
+            manager.flush();
             
             System.out.println("Tuples successfully inserted.");
             System.out.println("Opening tuple cursor...");
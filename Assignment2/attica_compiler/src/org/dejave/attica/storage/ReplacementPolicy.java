@@ -0,0 +1,56 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+/**
+ * ReplacementPolicy: The page replacement policy of a buffer
+ * manager.  Policies work on frame indexes of the buffer pool (i.e.,
+ * integers in <code>[0, numFrames)</code>) rather than on page
+ * identifiers, so that all operations can be carried out in
+ * constant time without hashing or boxing.
+ *
+ * @author agent
+ */
+public interface ReplacementPolicy {
+
+    /**
+     * Called when a page has been placed in an empty (or just
+     * evicted) frame.
+     *
+     * @param frame the frame the page was placed in.
+     */
+    void admit(int frame);
+
+
+    /**
+     * Called whenever the page in a frame is accessed.
+     *
+     * @param frame the frame that was accessed.
+     */
+    void access(int frame);
+
+
+    /**
+     * Called whenever a frame is emptied without having been
+     * selected for eviction (e.g., when a file is invalidated).
+     *
+     * @param frame the frame that was emptied.
+     */
+    void remove(int frame);
+
+
+    /**
+     * Selects a frame for eviction and stops tracking it.  This is
+     * only called when every frame of the pool is occupied.
+     *
+     * @return the index of the frame to be evicted.
+     */
+    int victim();
+
+} // ReplacementPolicy
@@ -0,0 +1,178 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.dejave.attica.model.Relation;
+
+/**
+ * StatisticsCollector: Gathers the statistics of a table from a scan
+ * of its tuples in bounded memory.  The numbers of tuples, the
+ * smallest and the largest values are exact.  Distinct values are
+ * counted with a k-minimum-values sketch, which is exact for columns
+ * with fewer distinct values than the sketch holds.  Histograms are
+ * built from a uniform sample of the tuples, which is the whole table
+ * for tables no larger than the sample.
+ *
+ * @author agent
+ */
+public class StatisticsCollector {
+
+    /** The number of buckets of the histograms. */
+    public static final int NUMBER_OF_BUCKETS = 20;
+
+    /** The number of tuples sampled for the histograms. */
+    public static final int SAMPLE_SIZE = 10000;
+
+    /** The number of hash values kept to count distinct values. */
+    public static final int SKETCH_SIZE = 4096;
+
+    /** The number of columns. */
+    private int numberOfColumns;
+
+    /** The number of tuples seen so far. */
+    private long tuples;
+
+    /** The smallest values of the columns. */
+    private Comparable [] min;
+
+    /** The largest values of the columns. */
+    private Comparable [] max;
+
+    /** The smallest hash values of every column. */
+    private TreeSet<Long> [] sketches;
+
+    /** The sampled values of every column. */
+    private Comparable [][] samples;
+
+    /** The source of randomness for sampling. */
+    private Random random;
+
+    /**
+     * Constructs a new statistics collector.
+     *
+     * @param relation the relation of the tuples.
+     */
+    @SuppressWarnings("unchecked")
+    public StatisticsCollector(Relation relation) {
+        numberOfColumns = relation.getNumberOfAttributes();
+        tuples = 0;
+        min = new Comparable[numberOfColumns];
+        max = new Comparable[numberOfColumns];
+        sketches = new TreeSet[numberOfColumns];
+        samples = new Comparable[numberOfColumns][SAMPLE_SIZE];
+        for (int c = 0; c < numberOfColumns; c++)
+            sketches[c] = new TreeSet<Long>();
+        // a fixed seed, so that analysing a table twice gives the same
+        // statistics
+        random = new Random(42);
+    } // StatisticsCollector()
+
+
+    /**
+     * Adds a tuple to the statistics.
+     *
+     * @param tuple the tuple.
+     */
+    @SuppressWarnings("unchecked")
+    public void add(Tuple tuple) {
+        // reservoir sampling: the first tuples fill the sample, and
+        // every later one replaces a random sampled tuple with
+        // decreasing probability
+        int position = -1;
+        if (tuples < SAMPLE_SIZE) position = (int) tuples;
+        else {
+            long r = (long) (random.nextDouble() * (tuples + 1));
+            if (r < SAMPLE_SIZE) position = (int) r;
+        }
+        tuples++;
+
+        for (int c = 0; c < numberOfColumns; c++) {
+            Comparable value = tuple.getValue(c);
+            if (min[c] == null || value.compareTo(min[c]) < 0) min[c] = value;
+            if (max[c] == null || value.compareTo(max[c]) > 0) max[c] = value;
+            if (position >= 0) samples[c][position] = value;
+            TreeSet<Long> sketch = sketches[c];
+            long hash = hash(value);
+            if (sketch.size() < SKETCH_SIZE) sketch.add(hash);
+            else if (hash < sketch.last() && sketch.add(hash))
+                sketch.pollLast();
+        }
+    } // add()
+
+
+    /**
+     * Returns the statistics gathered so far.
+     *
+     * @param pages the number of pages of the table.
+     * @return the statistics of the table.
+     */
+    public TableStatistics getStatistics(int pages) {
+        ColumnStatistics [] columns = new ColumnStatistics[numberOfColumns];
+        int sampled = (int) Math.min(tuples, SAMPLE_SIZE);
+        for (int c = 0; c < numberOfColumns; c++) {
+            Comparable [] sample = Arrays.copyOf(samples[c], sampled);
+            Arrays.sort(sample);
+            int buckets = Math.min(NUMBER_OF_BUCKETS, sampled);
+            Comparable [] bounds = new Comparable[buckets > 0
+                                                  ? buckets + 1 : 0];
+            for (int b = 0; b < bounds.length; b++)
+                bounds[b] = sample[(int) ((long) b * (sampled - 1) / buckets)];
+            // the sample may have missed the extremes
+            if (bounds.length > 0) {
+                bounds[0] = min[c];
+                bounds[buckets] = max[c];
+            }
+            columns[c] = new ColumnStatistics(distinct(sketches[c]),
+                                              min[c], max[c], bounds);
+        }
+        return new TableStatistics(tuples, pages, columns);
+    } // getStatistics()
+
+
+    /**
+     * Estimates the number of distinct values from a sketch: if the
+     * sketch is full, the hash values it holds are the smallest ones
+     * and the distinct values are as many as fit in the range of
+     * hash values at that density.
+     *
+     * @param sketch the sketch.
+     * @return the estimated number of distinct values.
+     */
+    private static long distinct(TreeSet<Long> sketch) {
+        if (sketch.size() < SKETCH_SIZE) return sketch.size();
+        double range = (double) Long.MAX_VALUE;
+        return Math.round((SKETCH_SIZE - 1) * (range / sketch.last()));
+    } // distinct()
+
+
+    /**
+     * Hashes a value to a non-negative long, mixing the bits of its
+     * hash code so that the hash values are spread evenly.
+     *
+     * @param value the value.
+     * @return the hash value.
+     */
+    private static long hash(Comparable value) {
+        long h = value.hashCode();
+        if (value instanceof Long || value instanceof Double)
+            h = (value instanceof Long ? (Long) value
+                 : Double.doubleToLongBits((Double) value));
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h >>> 1;
+    } // hash()
+
+} // StatisticsCollector
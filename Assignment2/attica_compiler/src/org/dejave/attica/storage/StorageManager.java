@@ -3,6 +3,8 @@
  *
  * Modified on Dec 18, 2008 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -11,9 +13,13 @@
 package org.dejave.attica.storage;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.HashMap;
 
 import org.dejave.attica.model.Attribute;
 import org.dejave.attica.model.Relation;
@@ -27,22 +33,69 @@ import org.dejave.attica.model.Table;
  */
 public class StorageManager {
 
+    /** Page I/O through seek() and read()/write() on the file. */
+    public static final String STREAM_IO = "stream";
+
+    /** Page I/O through positional file channel calls. */
+    public static final String CHANNEL_IO = "channel";
+
+    /** Channel I/O, with base table pages read from read-only
+     * memory mappings. */
+    public static final String MMAP_IO = "mmap";
+
     /** The storage manager's catalog. */
     private Catalog catalog;
 	
     /** The storage manager's buffer manager. */
     private BufferManager buffer;
 
+    /** The registry of open files. */
+    private FileRegistry files;
+
+    /** The page I/O mode. */
+    private String ioMode;
+
+    /** Scratch array for encoding pages. */
+    private byte [] pageBytes;
+
+    /** The pages insertions are appending to, by filename. */
+    private Map<String, Page> heldPages;
+
     /**
      * Initializes a new storage manager, given a catalog and a buffer
-     * pool.
+     * pool, using stream page I/O.
      * 
      * @param catalog this storage mananger's catalog.
      * @param buffer the buffer pool.
      */
     public StorageManager(Catalog catalog, BufferManager buffer) {
+        this(catalog, buffer, STREAM_IO);
+    } // StorageManager()
+
+    
+    /**
+     * Initializes a new storage manager, given a catalog, a buffer
+     * pool and a page I/O mode.
+     * 
+     * @param catalog this storage mananger's catalog.
+     * @param buffer the buffer pool.
+     * @param ioMode the page I/O mode, one of <code>stream</code>,
+     * <code>channel</code> or <code>mmap</code>.
+     * @throws IllegalArgumentException if the I/O mode is unknown.
+     */
+    public StorageManager(Catalog catalog, BufferManager buffer,
+                          String ioMode) {
         this.catalog = catalog;
         this.buffer = buffer;
+        this.files = FileUtil.getRegistry();
+        this.ioMode = ioMode.trim().toLowerCase();
+        if (! (this.ioMode.equals(STREAM_IO)
+               || this.ioMode.equals(CHANNEL_IO)
+               || this.ioMode.equals(MMAP_IO)))
+            throw new IllegalArgumentException("Unknown page I/O mode: "
+                                               + ioMode);
+        pageBytes = new byte[Sizes.PAGE_SIZE];
+        heldPages = new HashMap<String, Page>();
     } // StorageManager()
 
 
@@ -72,13 +125,7 @@ public class StorageManager {
             // put the page in the buffer pool and check whether a
             // page has been evicted -- if it has, flush it 
             Page evictedPage = buffer.putPage(page, false);
-            if (evictedPage != null) {
-                String fn = evictedPage.getPageIdentifier().getFileName();
-                DatabaseFile dbf = new DatabaseFile(fn,
-                                                    DatabaseFile.READ_WRITE);
-                PageIOManager.writePage(dbf, evictedPage);
-                dbf.close();
-            }
+            if (evictedPage != null) flushPage(evictedPage);
         }
         catch (Exception e) {
             throw new StorageManagerException("Error writing page to disk.", e);
@@ -103,20 +150,18 @@ public class StorageManager {
             if (buffer.containsPage(pageid)) {
                 return buffer.getPage(pageid);
             }
-            // otherwise read it from file and put it in the buffer pool
+            // otherwise read it from file and put it in the buffer
+            // pool -- unless insertions are appending to it, in
+            // which case the file is behind
             else {
-                String fn = pageid.getFileName();
-                DatabaseFile dbf =
-                    new DatabaseFile(fn, DatabaseFile.READ_WRITE);
-                Page page = PageIOManager.readPage(relation, pageid, dbf);
-                dbf.close();
+                Page page = heldPages.get(pageid.getFileName());
+                if (page == null
+                    || ! page.getPageIdentifier().equals(pageid))
+                    page = fetchPage(relation, pageid);
+                // reading past the end of the file extends it
+                files.pageAccessed(pageid);
                 Page evictedPage = buffer.putPage(page, true);
-                if (evictedPage != null) {
-                    fn = evictedPage.getPageIdentifier().getFileName();
-                    dbf = new DatabaseFile(fn, DatabaseFile.READ_WRITE);
-                    PageIOManager.writePage(dbf, evictedPage);
-                    dbf.close();
-                }
+                if (evictedPage != null) flushPage(evictedPage);
                 return page;
             }
         }
@@ -127,6 +172,172 @@ public class StorageManager {
     } // readPage()
 
     
+    /**
+     * Reads a page from its file through the file registry, using the
+     * configured I/O mode.
+     * 
+     * @param relation the relation the page belongs to.
+     * @param pageid the identifier of the page to be read.
+     * @return the page read.
+     * @throws IOException thrown whenever the file cannot be opened.
+     * @throws StorageManagerException thrown whenever the page cannot
+     * be read.
+     */
+    private Page fetchPage(Relation relation, PageIdentifier pageid)
+        throws IOException, StorageManagerException {
+
+        String fn = pageid.getFileName();
+        if (ioMode.equals(STREAM_IO))
+            return PageIOManager.readPage(relation, pageid,
+                                          files.getFile(fn));
+        
+        if (ioMode.equals(MMAP_IO) && isTableFile(fn)) {
+            // base tables are read through a mapping; pages past
+            // the end of the file fall through to channel I/O
+            ByteBuffer mapping = files.getMapping(fn, pageid.getNumber()+1);
+            if (mapping != null)
+                return PageIOManager.readPage(relation, pageid, mapping);
+        }
+        return PageIOManager.readPage(relation, pageid,
+                                      files.getFile(fn).getChannel());
+    } // fetchPage()
+
+    
+    /**
+     * Writes a page to its file through the file registry, using the
+     * configured I/O mode.
+     * 
+     * @param page the page to be written.
+     * @throws IOException thrown whenever the file cannot be opened.
+     * @throws StorageManagerException thrown whenever the page cannot
+     * be written.
+     */
+    private void flushPage(Page page)
+        throws IOException, StorageManagerException {
+
+        PageIdentifier pid = page.getPageIdentifier();
+        DatabaseFile dbf = files.getFile(pid.getFileName());
+        if (ioMode.equals(STREAM_IO)) {
+            PageIOManager.writePage(dbf, page);
+        }
+        else {
+            PageIOManager.writePage(dbf.getChannel(), page, pageBytes);
+        }
+        files.pageAccessed(pid);
+    } // flushPage()
+
+
+    /**
+     * Appends a full page to the end of its file.  The page is
+     * written straight to the file instead of going through the
+     * buffer pool, so that bulk loads neither evict the pool nor
+     * write the page more than once.
+     * 
+     * @param page the page to be appended.
+     * @throws StorageManagerException thrown whenever there is an I/O
+     * error.
+     */
+    public synchronized void appendPage(Page page)
+        throws StorageManagerException {
+
+        try {
+            // a copy in the pool would be stale -- replace it instead
+            if (buffer.containsPage(page.getPageIdentifier()))
+                writePage(page);
+            else
+                flushPage(page);
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("Error appending page to "
+                                              + "disk.", ioe);
+        }
+    } // appendPage()
+
+
+    /**
+     * Marks a page as the one insertions into its file are appending
+     * to.  The page need not be in the buffer pool, or on disk; it is
+     * served in place of the file's copy until it is released, or a
+     * later page of the file is held.
+     *
+     * @param page the page.
+     */
+    synchronized void holdPage(Page page) {
+        heldPages.put(page.getPageIdentifier().getFileName(), page);
+    } // holdPage()
+
+
+    /**
+     * Releases a page held for insertions.
+     *
+     * @param page the page.
+     */
+    synchronized void releasePage(Page page) {
+        String filename = page.getPageIdentifier().getFileName();
+        if (heldPages.get(filename) == page) heldPages.remove(filename);
+    } // releasePage()
+
+
+    /**
+     * Checks whether a file holds a base table.
+     * 
+     * @param filename the name of the file.
+     * @return <code>true</code> if the file is the file of a table in
+     * the catalog, <code>false</code> otherwise.
+     */
+    private boolean isTableFile(String filename) {
+        return catalog != null && catalog.isTableFile(filename);
+    } // isTableFile()
+
+
+    /**
+     * Returns the page I/O mode of this storage manager.
+     *
+     * @return the page I/O mode.
+     */
+    public String getIOMode() {
+        return ioMode;
+    } // getIOMode()
+
+    
+    /**
+     * Reads a page and pins it in the buffer pool.  The page will not
+     * be evicted (and the returned object will remain the one in the
+     * pool) until it is unpinned through <code>unpinPage()</code>.
+     * 
+     * @param relation the relation the page belongs to.
+     * @param pageid the identifier of the page to be pinned.
+     * @return the pinned page.
+     * @throws StorageManagerException whenever something goes wrong with
+     * reading the page, or if all buffer pool pages are pinned.
+     */
+    public synchronized Page pinPage(Relation relation,
+                                     PageIdentifier pageid) 
+	throws StorageManagerException {
+
+        readPage(relation, pageid);
+        return buffer.pin(pageid);
+    } // pinPage()
+
+
+    /**
+     * Unpins a page previously pinned through <code>pinPage()</code>.
+     * 
+     * @param pageid the identifier of the page to be unpinned.
+     * @throws StorageManagerException if the page is not pinned.
+     */
+    public synchronized void unpinPage(PageIdentifier pageid) 
+	throws StorageManagerException {
+
+        try {
+            buffer.unpin(pageid);
+        }
+        catch (IllegalArgumentException iae) {
+            throw new StorageManagerException("Error unpinning page.", iae);
+        }
+    } // unpinPage()
+
+    
     /**
      * Given a relation, it creates a file name for it.
      * 
@@ -175,11 +386,147 @@ public class StorageManager {
      */
     public void deleteTable(String tablename) 
 	throws NoSuchElementException, StorageManagerException {
+        for (IndexEntry index : catalog.getIndexes(tablename))
+            deleteFile(index.getFileName());
         deleteFile(catalog.getTableFileName(tablename));
         catalog.deleteTable(tablename);
     } // deleteTable()
 
 
+    /**
+     * Creates a new B+-tree index over an attribute of a table and
+     * builds it from the tuples already in the table.
+     * 
+     * @param indexname the name of the new index.
+     * @param tablename the name of the table.
+     * @param attribute the name of the indexed attribute.
+     * @return the catalog entry of the new index.
+     * @throws NoSuchElementException thrown if the table does not
+     * exist.
+     * @throws StorageManagerException thrown if the attribute does
+     * not exist, the name is taken, or the index cannot be built.
+     */
+    public IndexEntry createIndex(String indexname, String tablename,
+                                  String attribute)
+	throws NoSuchElementException, StorageManagerException {
+
+        Table table = catalog.getTable(tablename);
+        int slot = -1;
+        for (int i = 0; i < table.getNumberOfAttributes() && slot < 0; i++)
+            if (table.getAttribute(i).getName().equals(attribute)) slot = i;
+        if (slot < 0)
+            throw new StorageManagerException("Table " + tablename
+                                              + " has no attribute "
+                                              + attribute + ".");
+        IndexEntry index =
+            new IndexEntry(indexname, tablename, attribute, slot,
+                           table.getAttribute(slot).getType());
+        if (catalog.hasIndex(indexname))
+            throw new StorageManagerException("An index by the name "
+                                              + indexname
+                                              + " already exists");
+        // build the tree first, so that the catalog never refers to a
+        // missing or partly built index
+        try {
+            createFile(index.getFileName());
+            BPlusTree tree = new BPlusTree(this, index);
+            tree.create();
+            RelationIOManager man = new RelationIOManager(
+                this, table, catalog.getTableFileName(tablename));
+            for (Page page : man.pages()) {
+                int number = page.getPageIdentifier().getNumber();
+                for (int s = 0; s < page.getNumberOfTuples(); s++)
+                    tree.insert(page.retrieveTuple(s), number, s);
+            }
+        }
+        catch (IOException ioe) {
+            discardIndexFile(index);
+            throw new StorageManagerException("Could not scan table "
+                                              + tablename + ".", ioe);
+        }
+        catch (StorageManagerException sme) {
+            discardIndexFile(index);
+            throw sme;
+        }
+        catch (RuntimeException re) {
+            discardIndexFile(index);
+            throw re;
+        }
+        catalog.addIndex(index);
+        return index;
+    } // createIndex()
+
+
+    /**
+     * Deletes the file of an index whose build failed.  The failure
+     * of the build is what gets reported, so a failure to delete the
+     * file is ignored.
+     * 
+     * @param index the catalog entry of the index.
+     */
+    private void discardIndexFile(IndexEntry index) {
+        try {
+            deleteFile(index.getFileName());
+        }
+        catch (StorageManagerException sme) {
+            // the build failure is reported instead
+        }
+    } // discardIndexFile()
+
+
+    /**
+     * Creates an I/O manager for a table that maintains the indexes
+     * of the table.
+     * 
+     * @param tablename the name of the table.
+     * @return the I/O manager of the table.
+     * @throws NoSuchElementException thrown if the table does not
+     * exist.
+     */
+    private TableIOManager tableManager(String tablename)
+        throws NoSuchElementException {
+
+        Table table = catalog.getTable(tablename);
+        String file = catalog.getTableFileName(tablename);
+        TableIOManager man = new TableIOManager(this, table, file);
+        for (IndexEntry index : catalog.getIndexes(tablename))
+            man.addIndex(new BPlusTree(this, index));
+        return man;
+    } // tableManager()
+
+
+    /**
+     * Analyses a table: scans it and records its statistics in the
+     * catalog.
+     * 
+     * @param tablename the name of the table to be analysed.
+     * @return the new statistics of the table.
+     * @throws NoSuchElementException thrown if the table does not
+     * exist.
+     * @throws StorageManagerException thrown if the table cannot be
+     * scanned.
+     */
+    public TableStatistics analyzeTable(String tablename)
+	throws NoSuchElementException, StorageManagerException {
+
+        Table table = catalog.getTable(tablename);
+        String file = catalog.getTableFileName(tablename);
+        try {
+            RelationIOManager man = new RelationIOManager(this, table, file);
+            StatisticsCollector collector = new StatisticsCollector(table);
+            for (Tuple tuple : man.tuples()) collector.add(tuple);
+            TableStatistics statistics =
+                collector.getStatistics(FileUtil.getNumberOfPages(file));
+            catalog.setStatistics(tablename, statistics);
+            return statistics;
+        }
+        catch (IOException ioe) {
+            throw new StorageManagerException("Could not scan table "
+                                              + tablename + ".", ioe);
+        }
+    } // analyzeTable()
+
+
     /**
      * Create a new file by the given file name.
      * 
@@ -191,6 +538,7 @@ public class StorageManager {
         
         try {
             
+            files.forget(filename);
             File file = new File(filename);
             if (! file.createNewFile()) {
                 file.delete();
@@ -216,6 +564,8 @@ public class StorageManager {
         try {
             // invalidate the file's pages from the buffer manager
             buffer.invalidate(filename);
+            heldPages.remove(filename);
+            files.forget(filename);
             File file = new File(filename);
             file.delete();
         }
@@ -240,11 +590,10 @@ public class StorageManager {
     public void castAndInsertTuple(String tablename, Tuple tuple)
         throws NoSuchElementException, StorageManagerException {
 
-        Table table = catalog.getTable(tablename);
-        String file = catalog.getTableFileName(tablename);
-        TableIOManager man = new TableIOManager(this, table, file);
+        TableIOManager man = tableManager(tablename);
         man.castAttributes(tuple);
         man.insertTuple(tuple);
+        man.flush();
     } // castAndInsertTuple()
     
     
@@ -262,10 +611,9 @@ public class StorageManager {
     public void insertTuple(String tablename, Tuple tuple)
 	throws NoSuchElementException, StorageManagerException {
         
-        Table table = catalog.getTable(tablename);
-        String file = catalog.getTableFileName(tablename);
-        TableIOManager man = new TableIOManager(this, table, file);
+        TableIOManager man = tableManager(tablename);
         man.insertTuple(tuple);
+        man.flush();
     } // insertTuple()
 
 
@@ -284,11 +632,10 @@ public class StorageManager {
                                    List<Comparable> values)
         throws NoSuchElementException, StorageManagerException {
 
-        Table table = catalog.getTable(tablename);
-        String file = catalog.getTableFileName(tablename);
-        TableIOManager man = new TableIOManager(this, table, file);
+        TableIOManager man = tableManager(tablename);
         man.castAttributes(values);
         man.insertTuple(values);
+        man.flush();
     } // castAndInsertTuple()
     
     
@@ -307,27 +654,52 @@ public class StorageManager {
                             List<Comparable> values) 
 	throws NoSuchElementException, StorageManagerException {
         
-        Table table = catalog.getTable(tablename);
-        String file = catalog.getTableFileName(tablename);
-        TableIOManager man = new TableIOManager(this, table, file);
+        TableIOManager man = tableManager(tablename);
         man.insertTuple(values);
+        man.flush();
     } // insertTuple()
 
     
+    /**
+     * Casts the lists of comparables to the correct types before
+     * inserting them into the given table as a batch.  All values
+     * are cast before anything is inserted, so that a malformed tuple
+     * leaves the table as it was.
+     *
+     * @param tablename the target table.
+     * @param rows the values of the tuples to be inserted.
+     * @throws NoSuchElementException thrown whenever the specified table
+     * does not exist.
+     * @throws StorageManagerException thrown whenever ther insertion is
+     * not possible.
+     */
+    public void castAndInsertTuples(String tablename,
+                                    List<List<Comparable>> rows)
+        throws NoSuchElementException, StorageManagerException {
+
+        TableIOManager man = tableManager(tablename);
+        Table table = catalog.getTable(tablename);
+        List<Tuple> tuples = new ArrayList<Tuple>(rows.size());
+        for (List<Comparable> values : rows) {
+            if (values.size() != table.getNumberOfAttributes())
+                throw new StorageManagerException("Tuple " + values
+                                                  + " does not match the "
+                                                  + "schema of table "
+                                                  + tablename + ".");
+            man.castAttributes(values);
+            tuples.add(new Tuple(new TupleIdentifier(null, 0), values));
+        }
+        man.insertTuples(tuples);
+    } // castAndInsertTuples()
+    
+
     public void shutdown() throws StorageManagerException {
 
         try {
-            for (Page page : buffer.pages()) {
-                // this loop is probably the worst thing I've ever
-                // written. there should be a per-file dump through a
-                // registry of open files and yada-yada-yada... but
-                // it's too late in the game for such a rewrite
-                String fn = page.getPageIdentifier().getFileName();
-                DatabaseFile dbf = new DatabaseFile(fn,
-                                                    DatabaseFile.READ_WRITE);
-                PageIOManager.writePage(dbf, page);
-                dbf.close();
-            }
+            // flush through the registry of open files, so every
+            // file is opened once rather than once per page
+            for (Page page : buffer.pages()) flushPage(page);
+            files.closeAll();
         }
         catch (Exception e) {
             throw new StorageManagerException("Could not properly shut down "
@@ -0,0 +1,89 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.io.Serializable;
+
+/**
+ * TableStatistics: The statistics of a table, as gathered by the last
+ * analysis of the table: its numbers of tuples and pages, and the
+ * statistics of every column.
+ *
+ * @author agent
+ */
+public class TableStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The number of tuples. */
+    private long tuples;
+
+    /** The number of pages. */
+    private int pages;
+
+    /** The statistics of the columns, by slot. */
+    private ColumnStatistics [] columns;
+
+    /**
+     * Constructs new table statistics.
+     *
+     * @param tuples the number of tuples.
+     * @param pages the number of pages.
+     * @param columns the statistics of the columns, by slot.
+     */
+    public TableStatistics(long tuples, int pages,
+                           ColumnStatistics [] columns) {
+        this.tuples = tuples;
+        this.pages = pages;
+        this.columns = columns;
+    } // TableStatistics()
+
+
+    /**
+     * Returns the number of tuples.
+     *
+     * @return the number of tuples.
+     */
+    public long getTuples() {
+        return tuples;
+    } // getTuples()
+
+
+    /**
+     * Returns the number of pages.
+     *
+     * @return the number of pages.
+     */
+    public int getPages() {
+        return pages;
+    } // getPages()
+
+
+    /**
+     * Returns the statistics of a column.
+     *
+     * @param slot the slot of the column.
+     * @return the statistics of the column.
+     */
+    public ColumnStatistics getColumn(int slot) {
+        return columns[slot];
+    } // getColumn()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the textual representation of the statistics.
+     */
+    @Override
+    public String toString() {
+        return "tuples: " + tuples + ", pages: " + pages;
+    } // toString()
+
+} // TableStatistics
@@ -1,6 +1,8 @@
 /*
  * Created on Oct 5, 2003 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -13,6 +15,11 @@ import java.util.ArrayList;
 
 /**
  * Tuple: The basic encapsulation of an attica <code>Tuple</code>.
+ * Tuples read from disk are <i>encoded</i>: they keep a reference to
+ * the page image they were read from and decode individual values
+ * only when these are asked for.  The full list of values is only
+ * materialised when it is needed as a whole, or when the tuple is
+ * modified.
  *
  * @author sviglas
  */
@@ -21,8 +28,24 @@ public class Tuple {
     /** The identifier of this tuple. */
     private TupleIdentifier tupleIdentifier;
     
-    /** The values stored in the tuple. */
+    /** The values stored in the tuple (<code>null</code> while the
+     * tuple is encoded). */
     private List<Comparable> values;
+
+    /** The manager that decodes this tuple, if it is encoded. */
+    private TupleIOManager decoder;
+
+    /** The page image holding the encoded tuple. */
+    private byte [] image;
+
+    /** The offset of the encoded tuple in the page image. */
+    private int offset;
+
+    /** The length of the encoded tuple. */
+    private int length;
+
+    /** The values decoded so far, if the tuple is encoded. */
+    private Comparable [] decoded;
 	
     /**
      * Constructs a new empty <code>Tuple</code>.
@@ -48,6 +71,110 @@ public class Tuple {
         // this.values = new ArrayList<Comparable>(values);
     } // Tuple()
 
+
+    /**
+     * Constructs a new encoded tuple, backed by a page image.
+     * 
+     * @param tupleIdentifier the identifier of the tuple.
+     * @param decoder the manager that decodes the tuple.
+     * @param image the page image.
+     * @param offset the offset of the tuple in the image.
+     * @param length the length of the encoded tuple.
+     */
+    Tuple(TupleIdentifier tupleIdentifier, TupleIOManager decoder,
+          byte [] image, int offset, int length) {
+        this.tupleIdentifier = tupleIdentifier;
+        this.decoder = decoder;
+        this.image = image;
+        this.offset = offset;
+        this.length = length;
+    } // Tuple()
+
+
+    /**
+     * Returns a copy of this tuple under a new identifier.  The copy
+     * of an encoded tuple stays encoded: it shares the page image and
+     * the values decoded so far, so no further values are decoded on
+     * its behalf.
+     *
+     * @param tupleIdentifier the identifier of the copy.
+     * @return the copy.
+     */
+    public Tuple copy(TupleIdentifier tupleIdentifier) {
+        if (image == null) return new Tuple(tupleIdentifier, values);
+        Tuple tuple = new Tuple(tupleIdentifier, decoder,
+                                image, offset, length);
+        tuple.decoded = decoded;
+        return tuple;
+    } // copy()
+
+
+    /**
+     * Is this tuple still encoded in its page image?
+     *
+     * @return <code>true</code> if the tuple is encoded,
+     * <code>false</code> otherwise.
+     */
+    boolean isEncoded() {
+        return image != null;
+    } // isEncoded()
+
+
+    /**
+     * Returns the decoder of an encoded tuple.
+     *
+     * @return the decoder of the tuple.
+     */
+    TupleIOManager getDecoder() {
+        return decoder;
+    } // getDecoder()
+
+
+    /**
+     * Returns the page image of an encoded tuple.
+     *
+     * @return the page image.
+     */
+    byte [] getImage() {
+        return image;
+    } // getImage()
+
+
+    /**
+     * Returns the offset of an encoded tuple in its page image.
+     *
+     * @return the offset of the tuple.
+     */
+    int getImageOffset() {
+        return offset;
+    } // getImageOffset()
+
+
+    /**
+     * Returns the length of an encoded tuple.
+     *
+     * @return the length of the encoded tuple.
+     */
+    int getImageLength() {
+        return length;
+    } // getImageLength()
+
+
+    /**
+     * Decodes all values of an encoded tuple into the value list and
+     * releases the page image.
+     */
+    private void materialise() {
+        if (image == null) return;
+        int size = decoder.getNumberOfSlots();
+        List<Comparable> v = new ArrayList<Comparable>(size);
+        for (int i = 0; i < size; i++) v.add(getValue(i));
+        values = v;
+        image = null;
+        decoder = null;
+        decoded = null;
+    } // materialise()
+
     
     /**
      * Is this tuple intermediate or not?
@@ -89,6 +216,7 @@ public class Tuple {
      * @param value the new value of the tuple.
      */
     public void setValue(int slot, Comparable value) {
+        materialise();
         values.set(slot, value);
     } // setValue()
 
@@ -99,7 +227,10 @@ public class Tuple {
      * @param values the vector of new values.
      */
     public void setValues(List<Comparable> values) {        
-        this.values.clear();
+        if (this.values != null) this.values.clear();
+        image = null;
+        decoder = null;
+        decoded = null;
         this.values = values;
     } // setValues()
 
@@ -110,6 +241,7 @@ public class Tuple {
      * @return the number of slots in this tuple.
      */
     public int size() {
+        if (image != null) return decoder.getNumberOfSlots();
         return values.size();
     } // size()
 
@@ -120,6 +252,7 @@ public class Tuple {
      * @return this tuple's values.
      */
     public List<Comparable> getValues() {
+        materialise();
         return values;
     } // getValues()
     
@@ -133,7 +266,7 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public char asChar(int slot) throws ClassCastException {
-        Character c  = (Character) values.get(slot);
+        Character c  = (Character) getValue(slot);
         return c.charValue();
     } // asChar()
 
@@ -147,7 +280,7 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public byte asByte(int slot) throws ClassCastException {
-        Byte b  = (Byte) values.get(slot);
+        Byte b  = (Byte) getValue(slot);
         return b.byteValue();
     } // asByte()
 
@@ -161,7 +294,7 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public short asShort(int slot) throws ClassCastException {
-        Short s  = (Short) values.get(slot);
+        Short s  = (Short) getValue(slot);
         return s.shortValue();
     } // asShort()
     
@@ -175,7 +308,8 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public int asInt(int slot) throws ClassCastException {
-        Integer in = (Integer) values.get(slot);
+        if (isUndecoded(slot)) return decoder.readInt(image, offset, slot);
+        Integer in = (Integer) getValue(slot);
         return in.intValue();
     } // asInt()
 
@@ -189,7 +323,8 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public long asLong(int slot) throws ClassCastException {
-        Long l = (Long) values.get(slot);
+        if (isUndecoded(slot)) return decoder.readLong(image, offset, slot);
+        Long l = (Long) getValue(slot);
         return l.longValue();
     } // asLong()
 	
@@ -203,7 +338,7 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public float asFloat(int slot) throws ClassCastException {
-        Float f = (Float) values.get(slot);
+        Float f = (Float) getValue(slot);
         return f.floatValue();
     } // asFloat() 
 
@@ -217,9 +352,24 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public double asDouble(int slot) throws ClassCastException {
-        Double doub = (Double) values.get(slot);
+        if (isUndecoded(slot)) return decoder.readDouble(image, offset, slot);
+        Double doub = (Double) getValue(slot);
         return doub.doubleValue();
     } // asDouble() 
+
+
+    /**
+     * Is the given slot of an encoded tuple still undecoded?  Such
+     * slots can be read as primitives straight from the page image,
+     * without boxing.
+     *
+     * @param slot the slot.
+     * @return <code>true</code> if the slot has not been decoded,
+     * <code>false</code> otherwise.
+     */
+    private boolean isUndecoded(int slot) {
+        return image != null && (decoded == null || decoded[slot] == null);
+    } // isUndecoded()
 	
 
     /**
@@ -231,7 +381,7 @@ public class Tuple {
      * @throws ClassCastException if the cast fails.
      */
     public String asString(int slot) throws ClassCastException {
-        String str = (String) values.get(slot);
+        String str = (String) getValue(slot);
         return str;
     } // asString()
 
@@ -244,7 +394,16 @@ public class Tuple {
      * @return the specified slot of the tuple as a generic Comparable.
      */
     public Comparable getValue(int slot) {
-        return values.get(slot);
+        if (image == null) return values.get(slot);
+        // decode the value straight from the page image, once
+        if (decoded == null)
+            decoded = new Comparable[decoder.getNumberOfSlots()];
+        Comparable value = decoded[slot];
+        if (value == null) {
+            value = decoder.readSlot(image, offset, slot);
+            decoded[slot] = value;
+        }
+        return value;
     } // getValue()
 
 
@@ -264,7 +423,7 @@ public class Tuple {
         if (size() != t.size()) return false;
         if (! getTupleIdentifier().equals(t.getTupleIdentifier())) return false;
         int i = 0;
-        for (Comparable comp : values) {
+        for (Comparable comp : getValues()) {
             if (! comp.equals(t.getValue(i))) return false;
             i++;
         }
@@ -280,7 +439,7 @@ public class Tuple {
     public int hashCode() {
         int hash = 17;
         hash += 31*hash + getTupleIdentifier().hashCode();
-        for (Comparable comp : values)
+        for (Comparable comp : getValues())
             hash += 31*hash + comp.hashCode();
         return hash;
     }
@@ -290,10 +449,11 @@ public class Tuple {
      */
     @Override
     public String toString() {
-        return tupleIdentifier.toString() + " : " + values.toString();
+        return tupleIdentifier.toString() + " : " + getValues().toString();
     } // toString()
 
     public String toStringFormatted() {
-        return "(" + tupleIdentifier.getNumber() + ") : " + values.toString();
+        return "(" + tupleIdentifier.getNumber() + ") : "
+            + getValues().toString();
     }
 } // Tuple
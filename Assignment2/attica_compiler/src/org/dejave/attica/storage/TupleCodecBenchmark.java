@@ -0,0 +1,294 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dejave.attica.model.Attribute;
+import org.dejave.attica.model.Relation;
+
+import org.dejave.util.Convert;
+
+/**
+ * TupleCodecBenchmark: Micro-benchmark of tuple encoding and
+ * decoding over the 16-column Wisconsin schema.  It compares the
+ * schema-compiled codec of the tuple I/O manager against the
+ * original codec, which dispatched on the class of every attribute
+ * and went through temporary byte arrays.  Each round encodes a page
+ * worth of tuples and decodes them back.
+ *
+ * Usage: <code>java org.dejave.attica.storage.TupleCodecBenchmark
+ * [rounds]</code>
+ *
+ * @author agent
+ */
+public class TupleCodecBenchmark {
+
+    /** The default number of timed rounds. */
+    private static final int DEFAULT_ROUNDS = 200000;
+
+    /** The number of long attributes of the Wisconsin schema. */
+    private static final int LONGS = 13;
+
+    /** The number of string attributes of the Wisconsin schema. */
+    private static final int STRINGS = 3;
+
+    /**
+     * Builds the Wisconsin schema.
+     *
+     * @return the Wisconsin relation schema.
+     */
+    private static Relation wisconsin() {
+
+        String [] names = {"unique1", "unique2", "two", "four", "ten",
+                           "twenty", "onepercent", "tenpercent",
+                           "twentypercent", "fiftypercent", "unique3",
+                           "even", "odd", "stringu1", "stringu2",
+                           "stringu4"};
+        List<Attribute> attrs = new ArrayList<Attribute>();
+        for (int i = 0; i < names.length; i++)
+            attrs.add(new Attribute(names[i], (i < LONGS ? Long.class
+                                               : String.class)));
+        return new Relation(attrs);
+    } // wisconsin()
+
+
+    /**
+     * Builds a page worth of Wisconsin tuples.
+     *
+     * @param rel the Wisconsin schema.
+     * @return the tuples.
+     */
+    private static Tuple [] tuples(Relation rel) {
+
+        Tuple t = tuple(0);
+        int n = (Sizes.PAGE_SIZE - Convert.INT_SIZE)
+            / (new TupleIOManager(rel).byteSize(t) + Convert.INT_SIZE);
+        Tuple [] tuples = new Tuple[n];
+        for (int i = 0; i < n; i++) tuples[i] = tuple(i);
+        return tuples;
+    } // tuples()
+
+
+    /**
+     * Builds a Wisconsin tuple.
+     *
+     * @param i the number of the tuple.
+     * @return the tuple.
+     */
+    private static Tuple tuple(int i) {
+
+        List<Comparable> values = new ArrayList<Comparable>();
+        long [] mods = {1000000, 1000000, 2, 4, 10, 20, 100, 10, 5, 2,
+                        1000000, 2, 2};
+        for (int j = 0; j < LONGS; j++) values.add((long) (i * 7919) % mods[j]);
+        for (int j = 0; j < STRINGS; j++)
+            values.add("AAAAAA" + (char) ('A' + (i + j) % 26));
+        return new Tuple(new TupleIdentifier("bench", i), values);
+    } // tuple()
+
+
+    /**
+     * Encodes and decodes a page of tuples through the compiled codec.
+     *
+     * @param manager the tuple I/O manager.
+     * @param tuples the tuples.
+     * @param bytes the page image.
+     * @return a checksum of the decoded values.
+     * @throws StorageManagerException thrown whenever a tuple cannot
+     * be encoded or decoded.
+     */
+    private static long compiled(TupleIOManager manager, Tuple [] tuples,
+                                 byte [] bytes)
+        throws StorageManagerException {
+
+        int offset = 0;
+        for (Tuple t : tuples) offset = manager.writeTuple(t, bytes, offset);
+        long sum = 0;
+        offset = 0;
+        for (int i = 0; i < tuples.length; i++) {
+            Tuple t = manager.readTuple(bytes, offset).first;
+            offset += manager.byteSize(t);
+            sum += t.asLong(0) + t.asString(LONGS).length();
+        }
+        return sum;
+    } // compiled()
+
+
+    /**
+     * Encodes and decodes a page of tuples through the original
+     * codec.
+     *
+     * @param rel the relation schema.
+     * @param tuples the tuples.
+     * @param bytes the page image.
+     * @return a checksum of the decoded values.
+     */
+    private static long legacy(Relation rel, Tuple [] tuples, byte [] bytes) {
+
+        int offset = 0;
+        for (Tuple t : tuples) {
+            byte [] b = Convert.toByte(t.getTupleIdentifier().getNumber());
+            System.arraycopy(b, 0, bytes, offset, b.length);
+            offset += b.length;
+            int slot = 0;
+            for (Attribute attr : rel)
+                offset = legacyDump(attr.getType(), t, slot++, bytes, offset);
+        }
+        long sum = 0;
+        offset = 0;
+        for (int i = 0; i < tuples.length; i++) {
+            byte [] b = new byte[Convert.INT_SIZE];
+            System.arraycopy(bytes, offset, b, 0, b.length);
+            int id = Convert.toInt(b);
+            offset += b.length;
+            List<Comparable> values = new ArrayList<Comparable>();
+            for (Attribute attr : rel) {
+                Object [] pair = legacyFetch(attr.getType(), bytes, offset);
+                values.add((Comparable) pair[0]);
+                offset = (Integer) pair[1];
+            }
+            Tuple t = new Tuple(new TupleIdentifier("bench", id), values);
+            sum += t.asLong(0) + t.asString(LONGS).length();
+        }
+        return sum;
+    } // legacy()
+
+
+    /**
+     * The original slot encoder, restricted to the Wisconsin types.
+     *
+     * @param type the type of the slot.
+     * @param t the tuple.
+     * @param s the slot.
+     * @param bytes the page image.
+     * @param start the starting offset.
+     * @return the new offset.
+     */
+    private static int legacyDump(Class<?> type, Tuple t, int s,
+                                  byte [] bytes, int start) {
+
+        if (type.equals(Character.class)) {
+            byte [] b = Convert.toByte(t.asChar(s));
+            System.arraycopy(b, 0, bytes, start, b.length);
+            return start + b.length;
+        }
+        else if (type.equals(Integer.class)) {
+            byte [] b = Convert.toByte(t.asInt(s));
+            System.arraycopy(b, 0, bytes, start, b.length);
+            return start + b.length;
+        }
+        else if (type.equals(Long.class)) {
+            byte [] b = Convert.toByte(t.asLong(s));
+            System.arraycopy(b, 0, bytes, start, b.length);
+            return start + b.length;
+        }
+        else {
+            String st = t.asString(s);
+            byte [] b = Convert.toByte(st.length());
+            System.arraycopy(b, 0, bytes, start, b.length);
+            start += b.length;
+            b = Convert.toByte(st);
+            System.arraycopy(b, 0, bytes, start, b.length);
+            return start + b.length;
+        }
+    } // legacyDump()
+
+
+    /**
+     * The original slot decoder, restricted to the Wisconsin types.
+     *
+     * @param type the type of the slot.
+     * @param bytes the page image.
+     * @param start the starting offset.
+     * @return the value read and the new offset.
+     */
+    private static Object [] legacyFetch(Class<?> type, byte [] bytes,
+                                         int start) {
+
+        if (type.equals(Character.class)) {
+            byte [] b = new byte[Convert.CHAR_SIZE];
+            System.arraycopy(bytes, start, b, 0, b.length);
+            return new Object [] {Convert.toChar(b), start + b.length};
+        }
+        else if (type.equals(Integer.class)) {
+            byte [] b = new byte[Convert.INT_SIZE];
+            System.arraycopy(bytes, start, b, 0, b.length);
+            return new Object [] {Convert.toInt(b), start + b.length};
+        }
+        else if (type.equals(Long.class)) {
+            byte [] b = new byte[Convert.LONG_SIZE];
+            System.arraycopy(bytes, start, b, 0, b.length);
+            return new Object [] {Convert.toLong(b), start + b.length};
+        }
+        else {
+            byte [] b = new byte[Convert.INT_SIZE];
+            System.arraycopy(bytes, start, b, 0, b.length);
+            start += b.length;
+            int length = Convert.toInt(b);
+            // the original decoder went through a two-byte array per
+            // character
+            StringBuffer sb = new StringBuffer();
+            for (int i = 0; i < length; i++) {
+                byte [] two = new byte[2];
+                two[0] = bytes[start + 2*i];
+                two[1] = bytes[start + 2*i + 1];
+                sb.append(Convert.toChar(two));
+            }
+            return new Object [] {sb.toString(), start + 2*length};
+        }
+    } // legacyFetch()
+
+
+    /**
+     * Benchmark main().
+     *
+     * @param args the number of timed rounds.
+     * @throws StorageManagerException thrown whenever a tuple cannot
+     * be encoded or decoded.
+     */
+    public static void main(String [] args) throws StorageManagerException {
+
+        int rounds = (args.length > 0 ? Integer.parseInt(args[0])
+                      : DEFAULT_ROUNDS);
+        Relation rel = wisconsin();
+        Tuple [] tuples = tuples(rel);
+        TupleIOManager manager = new TupleIOManager(rel, "bench");
+        byte [] bytes = new byte[Sizes.PAGE_SIZE];
+
+        // warm up both paths, then time them
+        long check = 0;
+        for (int i = 0; i < rounds / 10; i++) {
+            check += compiled(manager, tuples, bytes);
+            check -= legacy(rel, tuples, bytes);
+        }
+        if (check != 0)
+            throw new IllegalStateException("Codecs disagree.");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) check += legacy(rel, tuples, bytes);
+        double legacyNs = (double) (System.nanoTime() - start)
+            / ((long) rounds * tuples.length);
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++)
+            check -= compiled(manager, tuples, bytes);
+        double compiledNs = (double) (System.nanoTime() - start)
+            / ((long) rounds * tuples.length);
+        if (check != 0)
+            throw new IllegalStateException("Codecs disagree.");
+
+        System.out.printf("%d tuples per page, %d rounds%n",
+                          tuples.length, rounds);
+        System.out.printf("%-10s%14s%n", "codec", "ns/tuple");
+        System.out.printf("%-10s%14.1f%n", "original", legacyNs);
+        System.out.printf("%-10s%14.1f%n", "compiled", compiledNs);
+    } // main()
+
+} // TupleCodecBenchmark
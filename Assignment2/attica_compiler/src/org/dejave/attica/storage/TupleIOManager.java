@@ -3,6 +3,8 @@
  *
  * Modified on Dec 23, 2003 by sviglas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequent modification
  * of the file should retain this disclaimer.
  * 
@@ -10,7 +12,6 @@
  */
 package org.dejave.attica.storage;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -33,6 +34,9 @@ public class TupleIOManager {
 	
     /** The filename of this relation. */
     private String filename;
+
+    /** The compiled layout of the relation's tuples. */
+    private TupleSchema schema;
 	
     /**
      * Construct a new manager given a relation schema.
@@ -43,8 +47,159 @@ public class TupleIOManager {
     public TupleIOManager(Relation relation, String filename) { 
         this.relation = relation;
         this.filename = filename;
+        this.schema = TupleSchema.forRelation(relation);
     } // TupleIOManager()
 
+
+    /**
+     * Construct a new manager for tuples of a relation schema that
+     * are not stored in a file, e.g., to size them.
+     * 
+     * @param relation the relation schema.
+     */
+    public TupleIOManager(Relation relation) { 
+        this(relation, null);
+    } // TupleIOManager()
+
+
+    /**
+     * Returns the compiled layout of the tuples of this manager
+     * (package visible).
+     *
+     * @return the layout of the tuples.
+     */
+    TupleSchema getSchema() {
+        return schema;
+    } // getSchema()
+
+
+    /**
+     * Returns the number of slots of the tuples of this manager.
+     *
+     * @return the number of slots.
+     */
+    public int getNumberOfSlots() {
+        return schema.getNumberOfSlots();
+    } // getNumberOfSlots()
+
+
+    /**
+     * Locates a slot of an encoded tuple.  Slots preceded only by
+     * fixed-size values are located directly; the others by skipping
+     * over the values before them.
+     *
+     * @param bytes the byte array holding the tuple.
+     * @param start the offset of the tuple in the array.
+     * @param slot the slot to be located.
+     * @return the offset of the slot in the array.
+     */
+    protected int slotOffset(byte [] bytes, int start, int slot) {
+        
+        int base = start + Convert.INT_SIZE;
+        int [] fixedOffsets = schema.fixedOffsets;
+        if (fixedOffsets[slot] >= 0) return base + fixedOffsets[slot];
+        // find the last directly addressable slot and skip from there
+        int s = slot;
+        while (fixedOffsets[s] < 0) s--;
+        int offset = base + fixedOffsets[s];
+        for (; s < slot; s++) offset += schema.slotSize(s, bytes, offset);
+        return offset;
+    } // slotOffset()
+
+
+    /**
+     * Reads a single slot of an encoded tuple, without decoding any
+     * other values.
+     *
+     * @param bytes the byte array holding the tuple.
+     * @param start the offset of the tuple in the array.
+     * @param slot the slot to be read.
+     * @return the value of the slot.
+     */
+    public Comparable readSlot(byte [] bytes, int start, int slot) {
+        return readValue(schema.codes[slot], bytes,
+                         slotOffset(bytes, start, slot));
+    } // readSlot()
+
+
+    /**
+     * Reads an integer slot of an encoded tuple without boxing it.
+     *
+     * @param bytes the byte array holding the tuple.
+     * @param start the offset of the tuple in the array.
+     * @param slot the slot to be read.
+     * @return the value of the slot.
+     * @throws ClassCastException if the slot is not an integer.
+     */
+    public int readInt(byte [] bytes, int start, int slot) {
+        checkType(slot, TupleSchema.INT);
+        return Convert.toInt(bytes, slotOffset(bytes, start, slot));
+    } // readInt()
+
+
+    /**
+     * Reads a long slot of an encoded tuple without boxing it.
+     *
+     * @param bytes the byte array holding the tuple.
+     * @param start the offset of the tuple in the array.
+     * @param slot the slot to be read.
+     * @return the value of the slot.
+     * @throws ClassCastException if the slot is not a long.
+     */
+    public long readLong(byte [] bytes, int start, int slot) {
+        checkType(slot, TupleSchema.LONG);
+        return Convert.toLong(bytes, slotOffset(bytes, start, slot));
+    } // readLong()
+
+
+    /**
+     * Reads a double slot of an encoded tuple without boxing it.
+     *
+     * @param bytes the byte array holding the tuple.
+     * @param start the offset of the tuple in the array.
+     * @param slot the slot to be read.
+     * @return the value of the slot.
+     * @throws ClassCastException if the slot is not a double.
+     */
+    public double readDouble(byte [] bytes, int start, int slot) {
+        checkType(slot, TupleSchema.DOUBLE);
+        return Convert.toDouble(bytes, slotOffset(bytes, start, slot));
+    } // readDouble()
+
+
+    /**
+     * Checks the type of a slot before it is read as a primitive.
+     *
+     * @param slot the slot.
+     * @param code the expected type code.
+     * @throws ClassCastException if the slot is of another type.
+     */
+    private void checkType(int slot, int code) {
+        if (schema.codes[slot] != code)
+            throw new ClassCastException("Slot " + slot + " of type "
+                                         + relation.getAttribute(slot)
+                                         .getType().getName()
+                                         + " read as a primitive of "
+                                         + "another type.");
+    } // checkType()
+
+
+    /**
+     * Reads an encoded tuple from a page image.  The tuple keeps a
+     * reference to the image and decodes its values on demand.
+     * 
+     * @param bytes the page image.
+     * @param start the offset of the tuple in the image.
+     * @param length the length of the encoded tuple.
+     * @return the encoded tuple.
+     */
+    public Tuple readEncodedTuple(byte [] bytes, int start, int length) {
+        
+        int id = Convert.toInt(bytes, start);
+        return new Tuple(new TupleIdentifier(filename, id), this,
+                         bytes, start, length);
+    } // readEncodedTuple()
+
     
     /**
      * Writes a tuple to a byte array -- should be used when there is
@@ -61,23 +216,36 @@ public class TupleIOManager {
 	throws StorageManagerException {
         
         // write the tuple id
-        byte [] b = Convert.toByte(tuple.getTupleIdentifier().getNumber());
-        System.arraycopy(b, 0, bytes, start, b.length);
-        start += b.length;
-        // make an attempt to have the array GC'ed (since Java is
-        // brain-damaged and we can't release memory -- what the F
-        // were you people thinking?
-        //
-        // but it's OK, I'm not going to rant about an array of four
-        // bytes now; there are plenty more reasons to bash Java for.
-        b = null;
+        Convert.toByte(tuple.getTupleIdentifier().getNumber(), bytes, start);
+        start += Convert.INT_SIZE;
         
-        // NB slot++ is in the dumpSlot() call -- uberweiss
-        int slot = 0;    
-        for (Attribute attr : relation)
-            start = dumpSlot(attr.getType(), tuple, slot++, bytes, start);
-
-        return start;
+        // an encoded tuple of the same layout is copied verbatim --
+        // only its id may have changed
+        if (tuple.isEncoded()
+            && schema.sameLayout(tuple.getDecoder().schema)) {
+            int length = tuple.getImageLength() - Convert.INT_SIZE;
+            System.arraycopy(tuple.getImage(),
+                             tuple.getImageOffset() + Convert.INT_SIZE,
+                             bytes, start, length);
+            return start + length;
+        }
+        
+        try {
+            int [] codes = schema.codes;
+            for (int slot = 0; slot < codes.length; slot++)
+                start = writeValue(codes[slot], tuple.getValue(slot),
+                                   bytes, start);
+            return start;
+        }
+        catch (ArrayIndexOutOfBoundsException aiob) {
+            throw new StorageManagerException("Generic error while writing "
+                                              + "table row (boundary error.)",
+                                              aiob);
+        }
+        catch (ClassCastException cce) {
+            throw new StorageManagerException("Type mismatch while writing "
+                                              + "table row.", cce);
+        }
     } // writeTuple()
 
     
@@ -95,176 +263,102 @@ public class TupleIOManager {
     public Pair<Tuple, Integer> readTuple(byte [] bytes, int start)
         throws StorageManagerException {
         
-        // read in the tuple id
-        byte [] b = new byte[Convert.INT_SIZE];
-        System.arraycopy(bytes, start, b, 0, b.length);
-        int id = Convert.toInt(b);
-        start += b.length;
-        List<Comparable> values = new ArrayList<Comparable>();
-        int slot = 0;
-        for (Iterator<Attribute> it = relation.iterator();
-             it.hasNext(); slot++) {
-            Pair<? extends Comparable, Integer> pair =
-                fetch(it.next().getType(), bytes, start);
-            start = pair.second;
-            values.add(pair.first);
+        try {
+            // read in the tuple id
+            int id = Convert.toInt(bytes, start);
+            start += Convert.INT_SIZE;
+            int [] codes = schema.codes;
+            List<Comparable> values = new ArrayList<Comparable>(codes.length);
+            for (int slot = 0; slot < codes.length; slot++) {
+                values.add(readValue(codes[slot], bytes, start));
+                start += schema.slotSize(slot, bytes, start);
+            }
+            Tuple t = new Tuple(new TupleIdentifier(filename, id), values);
+            return new Pair<Tuple, Integer>(t, start);
+        }
+        catch (ArrayIndexOutOfBoundsException aiob) {
+            throw new StorageManagerException("Generic error while reading " +
+                                              "table row (boundary error.)",
+                                              aiob);
         }
-        Tuple t = new Tuple(new TupleIdentifier(filename, id), values);
-        return new Pair<Tuple, Integer>(t, new Integer(start));
     } // readTuple()
 
     
     /**
-     * Low-level method to dump a tuple slot to a byte array.
+     * Low-level method to write a value to a byte array in place.
      * 
-     * @param type the type of the slot.
-     * @param t the tuple.
-     * @param s the slot of the tuple to be dumped.
-     * @param bytes the byte array where the slot will be dumped.
+     * @param code the type code of the value.
+     * @param value the value.
+     * @param bytes the byte array where the value will be written.
      * @param start the starting offset.
      * @return the new offset in the array.
-     * @throws StorageManagerException thrown whenever there is an I/O
-     * error.
      */
-    protected int dumpSlot(Class<? extends Comparable> type, Tuple t,
-                           int s, byte [] bytes, int start) 
-	throws StorageManagerException {
+    protected static int writeValue(int code, Comparable value,
+                                    byte [] bytes, int start) {
 
-        if (type.equals(Character.class)) {
-            byte [] b = Convert.toByte(t.asChar(s));
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
-        }
-        else if (type.equals(Byte.class)) {
-            bytes[start] = t.asByte(s);
-            return start+1;
-        }
-        else if (type.equals(Short.class)) {
-            byte [] b = Convert.toByte(t.asShort(s));
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
+        switch (code) {
+        case TupleSchema.CHAR:
+            Convert.toByte(((Character) value).charValue(), bytes, start);
+            return start + Convert.CHAR_SIZE;
+        case TupleSchema.BYTE:
+            bytes[start] = ((Byte) value).byteValue();
+            return start + 1;
+        case TupleSchema.SHORT:
+            Convert.toByte(((Short) value).shortValue(), bytes, start);
+            return start + Convert.SHORT_SIZE;
+        case TupleSchema.INT:
+            Convert.toByte(((Integer) value).intValue(), bytes, start);
+            return start + Convert.INT_SIZE;
+        case TupleSchema.LONG:
+            Convert.toByte(((Long) value).longValue(), bytes, start);
+            return start + Convert.LONG_SIZE;
+        case TupleSchema.FLOAT:
+            Convert.toByte(((Float) value).floatValue(), bytes, start);
+            return start + Convert.FLOAT_SIZE;
+        case TupleSchema.DOUBLE:
+            Convert.toByte(((Double) value).doubleValue(), bytes, start);
+            return start + Convert.DOUBLE_SIZE;
+        default:
+            String st = (String) value;
+            Convert.toByte(st.length(), bytes, start);
+            start += Convert.INT_SIZE;
+            Convert.toByte(st, bytes, start);
+            return start + 2 * st.length();
         }
-        else if (type.equals(Integer.class)) {
-            byte [] b = Convert.toByte(t.asInt(s));
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
-        }
-        else if (type.equals(Long.class)) {
-            byte [] b = Convert.toByte(t.asLong(s));
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
-        }
-        else if (type.equals(Float.class)) {
-            byte [] b = Convert.toByte(t.asFloat(s));
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
-        }
-        else if (type.equals(Double.class)) {
-            byte [] b = Convert.toByte(t.asDouble(s));
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
-        }
-        else if (type.equals(String.class)) {
-            String st = t.asString(s);
-            int len = st.length();
-            byte [] b = Convert.toByte(len);
-            System.arraycopy(b, 0, bytes, start, b.length);
-            start += b.length;
-            b = Convert.toByte(st);
-            System.arraycopy(b, 0, bytes, start, b.length);
-            return start + b.length;
-        }
-        else {
-            // this is an unsupported type for the time being, so
-            // throw an exception
-            throw new StorageManagerException("Unsupported type when "
-                                              + "writing tuple: "
-                                              + type.getClass().getName()
-                                              + ".");
-        }
-    } // dumpSlot()
+    } // writeValue()
     
     
     /**
-     * Low-level method to read a slot from a byte array.
+     * Low-level method to read a value from a byte array in place.
      * 
-     * @param type the type of the slot to be read.
+     * @param code the type code of the value.
      * @param bytes the input byte array.
      * @param start the starting offset in the byte array.
-     * @return a pair of (value, offset) with the value read and the
-     * new offset in the byte array.
-     * @throws StorageManagerException thrown whenever there is an I/O
-     * error.
+     * @return the value read.
      */
-    protected Pair<? extends Comparable, Integer>
-        fetch(Class<? extends Comparable> type, byte [] bytes, int start)
-	throws StorageManagerException {
+    protected static Comparable readValue(int code, byte [] bytes,
+                                          int start) {
         
-        try {
-            if (type.equals(Character.class)) {
-                byte [] b = new byte[Convert.CHAR_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                return new Pair<Character, Integer>(
-                    new Character(Convert.toChar(b)), 
-                    start + b.length);
-            }
-            else if (type.equals(Byte.class)) {
-                return new Pair<Byte, Integer>(bytes[start], 
-                                               start + 1);
-            }
-            else if (type.equals(Short.class)) {
-                byte [] b = new byte[Convert.SHORT_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                return new Pair<Short, Integer>(new Short(Convert.toShort(b)),
-                                                start + b.length);
-            }
-            else if (type.equals(Integer.class)) {
-                byte [] b = new byte[Convert.INT_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                return new Pair<Integer, Integer>(new Integer(Convert.toInt(b)),
-                                                  start + b.length);
-            }
-            else if (type.equals(Long.class)) {
-                byte [] b = new byte[Convert.LONG_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                return new Pair<Long, Integer>(new Long(Convert.toLong(b)),
-                                               start + b.length);
-            }
-            else if (type.equals(Float.class)) {
-                byte [] b = new byte[Convert.FLOAT_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                return new Pair<Float, Integer>(new Float(Convert.toFloat(b)),
-                                                start + b.length);
-            }
-            else if (type.equals(Double.class)) {
-                byte [] b = new byte[Convert.DOUBLE_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                return new Pair<Double, Integer>(
-                    new Double(Convert.toDouble(b)),
-                    start + b.length);
-            }
-            else if (type.equals(String.class)) {
-                byte [] b = new byte[Convert.INT_SIZE];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                start += b.length;
-                int stLength = Convert.toInt(b);
-                b = new byte[2*stLength];
-                System.arraycopy(bytes, start, b, 0, b.length);
-                String str = Convert.toString(b);
-                return new Pair<String, Integer>(str, start + b.length);
-            }
-            else {
-                throw new StorageManagerException("Unsupported type: "
-                                                  + type.getClass().getName()
-                                                  + ".");
-            }
+        switch (code) {
+        case TupleSchema.CHAR:
+            return Convert.toChar(bytes, start);
+        case TupleSchema.BYTE:
+            return bytes[start];
+        case TupleSchema.SHORT:
+            return Convert.toShort(bytes, start);
+        case TupleSchema.INT:
+            return Convert.toInt(bytes, start);
+        case TupleSchema.LONG:
+            return Convert.toLong(bytes, start);
+        case TupleSchema.FLOAT:
+            return Convert.toFloat(bytes, start);
+        case TupleSchema.DOUBLE:
+            return Convert.toDouble(bytes, start);
+        default:
+            return Convert.toString(bytes, start + Convert.INT_SIZE,
+                                    Convert.toInt(bytes, start));
         }
-        catch (ArrayIndexOutOfBoundsException aiob) {
-            throw new StorageManagerException("Generic error while reading " +
-                                              "table row (boundary error.)",
-                                              aiob);
-        }
-    } // fetch()
+    } // readValue()
 
 
     /**
@@ -274,38 +368,33 @@ public class TupleIOManager {
      * @return the byte size of the tuple.
      */
     public int byteSize(Tuple t) {
-        return byteSize(relation, t);
+        return byteSize(schema, t);
     }
     
     /**
-     * Calculates the byte size of a tuple given its relation. (Lame,
-     * lame, lame... I should hang my head in shame. Or go play a
-     * game. Or see if I can start a big fire with a small flame. Or
-     * stop looking for words that rhyme with lame.)     
+     * Calculates the byte size of a tuple given its layout (package
+     * visible).
      *
-     * @param rel the relation.
+     * @param schema the layout.
      * @param t the tuple.
      * @return the size in bytes of tuple.
      */
-    public static int byteSize(Relation rel, Tuple t) {
-        // one long for the id
+    static int byteSize(TupleSchema schema, Tuple t) {
+        // encoded tuples of the same layout know their size, and so do
+        // tuples without variable-length values
+        if (t.isEncoded() && schema.sameLayout(t.getDecoder().schema))
+            return t.getImageLength();
+        if (schema.fixedSize >= 0) return schema.fixedSize;
+        // one int for the id
         int size = Convert.INT_SIZE;
-	int slot = 0;
-        for (Attribute it : rel) {
-            Class<?> type = it.getType();
-            if (type.equals(Character.class)) size += Convert.CHAR_SIZE;
-            else if (type.equals(Byte.class)) size += 1;
-            else if (type.equals(Short.class)) size += Convert.SHORT_SIZE;
-            else if (type.equals(Integer.class)) size += Convert.INT_SIZE;
-            else if (type.equals(Long.class)) size += Convert.LONG_SIZE;
-            else if (type.equals(Float.class)) size += Convert.FLOAT_SIZE;
-            else if (type.equals(Double.class)) size += Convert.DOUBLE_SIZE;
-            else if (type.equals(String.class))
-                size += Convert.INT_SIZE + 2 * t.asString(slot).length();
-
-            slot++;
+        int [] codes = schema.codes;
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (codes[slot] == TupleSchema.STRING)
+                size += Convert.INT_SIZE
+                    + 2 * ((String) t.getValue(slot)).length();
+            else
+                size += schema.slotSize(slot, null, 0);
         }
-	
         return size;
     } // byteSize()
 
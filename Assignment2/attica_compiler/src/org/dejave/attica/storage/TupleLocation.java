@@ -0,0 +1,112 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+/**
+ * TupleLocation: The location of a tuple in the file of its table:
+ * the number of its page and its slot in that page.  Locations order
+ * by page first, so that fetching sorted locations reads every page
+ * once.
+ *
+ * @author agent
+ */
+public class TupleLocation implements Comparable<TupleLocation> {
+
+    /** The number of the page. */
+    private int page;
+
+    /** The slot in the page. */
+    private int slot;
+
+
+    /**
+     * Constructs a new tuple location.
+     *
+     * @param page the number of the page.
+     * @param slot the slot in the page.
+     */
+    public TupleLocation(int page, int slot) {
+        this.page = page;
+        this.slot = slot;
+    } // TupleLocation()
+
+
+    /**
+     * Returns the number of the page.
+     *
+     * @return the number of the page.
+     */
+    public int getPage() {
+        return page;
+    } // getPage()
+
+
+    /**
+     * Returns the slot in the page.
+     *
+     * @return the slot in the page.
+     */
+    public int getSlot() {
+        return slot;
+    } // getSlot()
+
+
+    /**
+     * Compares this location to another one, by page and then by
+     * slot.
+     *
+     * @param location the other location.
+     * @return a negative number, zero, or a positive number if this
+     * location comes before, at, or after the other one.
+     */
+    public int compareTo(TupleLocation location) {
+        if (page != location.page)
+            return (page < location.page ? -1 : 1);
+        return (slot < location.slot ? -1 : (slot == location.slot ? 0 : 1));
+    } // compareTo()
+
+
+    /**
+     * Checks two locations for equality.
+     *
+     * @param o an object to compare this location to.
+     * @return <code>true</code> if the two locations are equal,
+     * <code>false</code> otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (! (o instanceof TupleLocation)) return false;
+        TupleLocation location = (TupleLocation) o;
+        return page == location.page && slot == location.slot;
+    } // equals()
+
+
+    /**
+     * Computes the hashcode of this location.
+     *
+     * @return this location's hashcode.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (17 + page) + slot;
+    } // hashCode()
+
+
+    /**
+     * Textual representation.
+     *
+     * @return the textual representation of this location.
+     */
+    @Override
+    public String toString() {
+        return "[" + page + ", " + slot + "]";
+    } // toString()
+
+} // TupleLocation
@@ -0,0 +1,177 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.dejave.attica.model.Relation;
+
+import org.dejave.util.Convert;
+
+/**
+ * TupleSchema: The on-disk layout of the tuples of a relation,
+ * compiled once per relation schema.  Attribute types are reduced to
+ * integer type codes, so encoding and decoding switch on a code
+ * instead of comparing classes, and the offsets of all slots that
+ * are not preceded by a variable-length value are precomputed.
+ *
+ * @author agent
+ */
+final class TupleSchema {
+
+    /** Type code of characters. */
+    static final int CHAR = 0;
+
+    /** Type code of bytes. */
+    static final int BYTE = 1;
+
+    /** Type code of shorts. */
+    static final int SHORT = 2;
+
+    /** Type code of integers. */
+    static final int INT = 3;
+
+    /** Type code of longs. */
+    static final int LONG = 4;
+
+    /** Type code of floats. */
+    static final int FLOAT = 5;
+
+    /** Type code of doubles. */
+    static final int DOUBLE = 6;
+
+    /** Type code of strings. */
+    static final int STRING = 7;
+
+    /** The on-disk sizes of the fixed-size types, by type code. */
+    private static final int [] SIZES = {
+        Convert.CHAR_SIZE, 1, Convert.SHORT_SIZE, Convert.INT_SIZE,
+        Convert.LONG_SIZE, Convert.FLOAT_SIZE, Convert.DOUBLE_SIZE, -1
+    };
+
+    /** The compiled schemas, by relation. */
+    private static final Map<Relation, TupleSchema> schemas =
+        new WeakHashMap<Relation, TupleSchema>();
+
+    /** The type code of every slot. */
+    final int [] codes;
+
+    /** The offset of each slot from the start of the tuple (past the
+     * tuple id), if it does not depend on variable-length values, -1
+     * otherwise. */
+    final int [] fixedOffsets;
+
+    /** The size of every tuple (including the id) if the schema has
+     * no variable-length values, -1 otherwise. */
+    final int fixedSize;
+
+    /**
+     * Compiles the layout of a relation.
+     *
+     * @param relation the relation.
+     * @throws IllegalArgumentException if the relation has an
+     * attribute of an unsupported type.
+     */
+    private TupleSchema(Relation relation) {
+
+        int n = relation.getNumberOfAttributes();
+        codes = new int[n];
+        fixedOffsets = new int[n];
+        int fixed = 0;
+        for (int i = 0; i < n; i++) {
+            codes[i] = typeCode(relation.getAttribute(i).getType());
+            fixedOffsets[i] = fixed;
+            if (fixed >= 0)
+                fixed = (SIZES[codes[i]] < 0 ? -1 : fixed + SIZES[codes[i]]);
+        }
+        fixedSize = (fixed < 0 ? -1 : Convert.INT_SIZE + fixed);
+    } // TupleSchema()
+
+
+    /**
+     * Returns the compiled layout of a relation, compiling it on
+     * first use.
+     *
+     * @param relation the relation.
+     * @return the layout of the relation's tuples.
+     * @throws IllegalArgumentException if the relation has an
+     * attribute of an unsupported type.
+     */
+    static TupleSchema forRelation(Relation relation) {
+        synchronized (schemas) {
+            TupleSchema schema = schemas.get(relation);
+            if (schema == null) {
+                schema = new TupleSchema(relation);
+                schemas.put(relation, schema);
+            }
+            return schema;
+        }
+    } // forRelation()
+
+
+    /**
+     * Returns the type code of a type.
+     *
+     * @param type the type.
+     * @return the type code.
+     * @throws IllegalArgumentException if the type is unsupported.
+     */
+    static int typeCode(Class<?> type) {
+        if (type.equals(Character.class)) return CHAR;
+        else if (type.equals(Byte.class)) return BYTE;
+        else if (type.equals(Short.class)) return SHORT;
+        else if (type.equals(Integer.class)) return INT;
+        else if (type.equals(Long.class)) return LONG;
+        else if (type.equals(Float.class)) return FLOAT;
+        else if (type.equals(Double.class)) return DOUBLE;
+        else if (type.equals(String.class)) return STRING;
+        else throw new IllegalArgumentException("Unsupported type: "
+                                                + type.getName() + ".");
+    } // typeCode()
+
+
+    /**
+     * Returns the number of slots of the schema.
+     *
+     * @return the number of slots.
+     */
+    int getNumberOfSlots() {
+        return codes.length;
+    } // getNumberOfSlots()
+
+
+    /**
+     * Does this schema lay tuples out the same way as another one?
+     *
+     * @param other the other schema.
+     * @return <code>true</code> if the two layouts are the same,
+     * <code>false</code> otherwise.
+     */
+    boolean sameLayout(TupleSchema other) {
+        return this == other || Arrays.equals(codes, other.codes);
+    } // sameLayout()
+
+
+    /**
+     * Returns the on-disk size of a slot given its starting offset.
+     *
+     * @param slot the slot.
+     * @param bytes the byte array holding the slot.
+     * @param offset the offset of the slot in the array.
+     * @return the size of the slot in bytes.
+     */
+    int slotSize(int slot, byte [] bytes, int offset) {
+        int size = SIZES[codes[slot]];
+        return (size >= 0 ? size
+                : Convert.INT_SIZE + 2 * Convert.toInt(bytes, offset));
+    } // slotSize()
+
+} // TupleSchema
@@ -0,0 +1,97 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.attica.storage;
+
+/**
+ * TwoQueuePolicy: Simplified 2Q replacement (Johnson and Shasha),
+ * the constant-time approximation of LRU-2.  Frames that have been
+ * referenced once live in a FIFO queue; a second reference promotes
+ * them to an LRU queue of hot frames.  Victims are taken from the
+ * FIFO queue as long as it holds more than its share of the pool, so
+ * a sequential scan of a large file cannot flush the hot pages.
+ *
+ * @author agent
+ */
+public class TwoQueuePolicy implements ReplacementPolicy {
+
+    /** The default fraction of the pool reserved for the FIFO queue. */
+    public static final double DEFAULT_FIFO_FRACTION = 0.25;
+
+    /** The FIFO queue of frames referenced once. */
+    private FrameList fifo;
+
+    /** The LRU queue of frames referenced at least twice. */
+    private FrameList hot;
+
+    /** The number of frames the FIFO queue may hold before it is
+     * preferred for eviction. */
+    private int fifoThreshold;
+
+    /**
+     * Constructs a new 2Q policy with the default FIFO fraction.
+     *
+     * @param numFrames the number of frames of the buffer pool.
+     */
+    public TwoQueuePolicy(int numFrames) {
+        this(numFrames, DEFAULT_FIFO_FRACTION);
+    } // TwoQueuePolicy()
+
+
+    /**
+     * Constructs a new 2Q policy.
+     *
+     * @param numFrames the number of frames of the buffer pool.
+     * @param fifoFraction the fraction of the pool reserved for
+     * pages referenced only once.
+     */
+    public TwoQueuePolicy(int numFrames, double fifoFraction) {
+        fifo = new FrameList(numFrames);
+        hot = new FrameList(numFrames);
+        fifoThreshold = Math.max(1, (int) (numFrames * fifoFraction));
+    } // TwoQueuePolicy()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void admit(int frame) {
+        fifo.addLast(frame);
+    } // admit()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void access(int frame) {
+        // a second reference promotes the frame to the hot queue
+        fifo.remove(frame);
+        hot.addLast(frame);
+    } // access()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public void remove(int frame) {
+        fifo.remove(frame);
+        hot.remove(frame);
+    } // remove()
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public int victim() {
+        if (fifo.size() > fifoThreshold || hot.size() == 0)
+            return fifo.removeFirst();
+        else
+            return hot.removeFirst();
+    } // victim()
+
+} // TwoQueuePolicy
@@ -1,6 +1,8 @@
 /*
  * Created on Dec 4, 2003 by org.dejave.glas
  *
+ * Modified on Oct 18, 2026 by agent
+ *
  * This is part of the attica project.  Any subsequenct modification
  * of the file should retain this disclaimer.
  * 
@@ -11,7 +13,9 @@ package org.dejave.util;
 /**
  * @author org.dejave.glas
  *
- * Convert: Conversions between primitive types and byte arrays
+ * Convert: Conversions between primitive types and byte arrays.  All
+ * values are big-endian; the methods taking an offset read and write
+ * in place and allocate nothing.
  */
 public class Convert {
 
@@ -25,8 +29,10 @@ public class Convert {
     public Convert() {}
 
     public static final void toByte(int i, byte [] bytes, int o) {
-        for (byte b = 0; b <= 3; b++)
-            bytes[o+b] = (byte) (i >>> (3 - b)*8);
+        bytes[o] = (byte) (i >>> 24);
+        bytes[o+1] = (byte) (i >>> 16);
+        bytes[o+2] = (byte) (i >>> 8);
+        bytes[o+3] = (byte) i;
     }
     
     public static final byte [] toByte(int i) {
@@ -36,8 +42,8 @@ public class Convert {
     }
 
     public static final void toByte(short w, byte [] bytes, int o) {
-        for (byte b = 0; b <= 1; b++)
-            bytes[o+b] = (byte) (w >>> (1 - b)*8);
+        bytes[o] = (byte) (w >>> 8);
+        bytes[o+1] = (byte) w;
     }
 
     public static final byte [] toByte(short w) {
@@ -47,8 +53,8 @@ public class Convert {
     } // toByte()
 
     public static final void toByte(long l, byte [] bytes, int o) {
-        for (byte b = 0; b <= 7; b++)
-            bytes[o+b] = (byte)(int) (l >>> (7 - b)*8);
+        toByte((int) (l >>> 32), bytes, o);
+        toByte((int) l, bytes, o+4);
     }
 
     public static final byte [] toByte (long l) {
@@ -58,8 +64,8 @@ public class Convert {
     } // toByte()
 
     public static final void toByte(char c, byte [] bytes, int o) {
-        for (byte b = 0; b <= 1; b++)
-            bytes[o+b] = (byte) (c >>> (1-b)*8);
+        bytes[o] = (byte) (c >>> 8);
+        bytes[o+1] = (byte) c;
     }
 
     public static final byte [] toByte (char c) {
@@ -99,9 +105,9 @@ public class Convert {
     public static final byte [] toByte(String s, byte [] bytes, int o) {
         int length = s.length();
         for (int i = 0; i < length; i++) {
-            byte [] two = toByte(s.charAt(i));
-            bytes[2*i] = two[0];
-            bytes[2*i+1] = two[1];
+            char c = s.charAt(i);
+            bytes[o+2*i] = (byte) (c >>> 8);
+            bytes[o+2*i+1] = (byte) c;
         }
         return bytes;
     }
@@ -111,20 +117,8 @@ public class Convert {
     }
 
     public static final int toInt (byte b[], int o) {
-        int i = 0;
-        for (int b0 = 0; b0 <= 3; b0++) {
-            int j;
-            if (b[o+b0] < 0) {
-                j = (byte) (b[o+b0] & 0x7f);
-                j |= 0x80;
-            }
-            else {
-                j = b[o+b0];
-            }
-            i |= j;
-            if (b0 < 3) i <<= 8;
-        }
-        return i;
+        return (b[o] << 24) | ((b[o+1] & 0xff) << 16)
+            | ((b[o+2] & 0xff) << 8) | (b[o+3] & 0xff);
     }
 
     public static final short toShort(byte b[]) {
@@ -132,20 +126,7 @@ public class Convert {
     }
     
     public static final short toShort(byte b[], int o) {
-        short word0 = 0;
-        for (int b0 = 0; b0 <= 1; b0++) {
-            short word1;
-            if (b[o+b0] < 0) {
-                word1 = (byte)(b[o+b0] & 0x7f);
-                word1 |= 0x80;
-            }
-            else {
-                word1 = b[o+b0];
-            }
-            word0 |= word1;
-            if(b0 < 1) word0 <<= 8;
-        }
-        return word0;
+        return (short) ((b[o] << 8) | (b[o+1] & 0xff));
     }
     
     public static final long toLong (byte b[]) {
@@ -153,20 +134,7 @@ public class Convert {
     }
 
     public static final long toLong (byte b[], int o) {
-        long l = 0L;
-        for (int b0 = 0; b0 <= 7; b0++) {
-            long l1;
-            if (b[o+b0] < 0) {
-                l1 = (byte)(b[o+b0] & 0x7f);
-                l1 |= 128L;
-            }
-            else {
-                l1 = b[o+b0];
-            }
-            l |= l1;
-            if(b0 < 7) l <<= 8;
-        }
-        return l;
+        return ((long) toInt(b, o) << 32) | (toInt(b, o+4) & 0xffffffffL);
     }
     
     public static final char toChar (byte b[]) {
@@ -174,10 +142,7 @@ public class Convert {
     }
     
     public static final char toChar (byte b[], int o) {
-        char c = 0;
-        c = (char)((c | (char)b[o]) << 8);
-        c |= (char)b[o+1];
-        return c;
+        return (char) (((b[o] & 0xff) << 8) | (b[o+1] & 0xff));
     }
     
     public static final float toFloat (byte b[]) {
@@ -185,11 +150,7 @@ public class Convert {
     }
     
     public static final float toFloat (byte b[], int o) {
-        float f = 0.0F;
-        Float float1 = new Float(f);
-        int i = toInt(b, o);
-        f = Float.intBitsToFloat(i);
-        return f;
+        return Float.intBitsToFloat(toInt(b, o));
     }
     
     
@@ -198,22 +159,18 @@ public class Convert {
     }
     
     public static final double toDouble (byte b[], int o) {
-        double d = 0.0D;
-        Double double1 = new Double(d);
-        long l = toLong(b, o);
-        d = Double.longBitsToDouble(l);
-        return d;
+        return Double.longBitsToDouble(toLong(b, o));
     }
 
     public static final String toString(byte [] b) {
-        StringBuffer sb = new StringBuffer();
-        for (int i = 0; i < b.length-1; i = i+2) {
-            byte [] two = new byte[2];
-            two[0] = b[i];
-            two[1] = b[i+1];
-            sb.append(toChar(two));
-        }
-        return sb.toString();
+        return toString(b, 0, b.length/2);
+    }
+
+    public static final String toString(byte [] b, int o, int length) {
+        char [] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = toChar(b, o+2*i);
+        return new String(chars);
     }
     
     public static void main (String args[]) {
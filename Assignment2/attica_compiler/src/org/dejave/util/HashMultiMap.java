@@ -0,0 +1,471 @@
+/*
+ * Created on Oct 18, 2026 by agent
+ *
+ * This is part of the attica project.  Any subsequent modification
+ * of the file should retain this disclaimer.
+ *
+ * University of Edinburgh, School of Informatics
+ */
+package org.dejave.util;
+
+import java.util.Arrays;
+
+/**
+ * @author agent
+ *
+ * HashMultiMap: An open-addressing hash multimap with primitive
+ * keys.  The key type is fixed when the map is created: long keys
+ * hold longs, int keys hold integers, shorts, bytes and characters,
+ * double keys hold doubles and floats (compared on their bits, as
+ * equals() does), and string keys hold strings.  Keys live in a
+ * linearly probed table; the values of a key are rows of a compact
+ * array, chained through an array of row indexes, so nothing is
+ * allocated per value.
+ *
+ * Lookups return the first row of a key, or -1; the rest of the
+ * key's rows follow through next().
+ */
+public class HashMultiMap <V> {
+
+    /** The types of keys. */
+    public enum KeyType { LONG, INT, DOUBLE, STRING }
+
+    /** The type of the keys of this map. */
+    private KeyType type;
+
+    /** The numeric keys of the slots. */
+    private long [] keys;
+
+    /** The string keys of the slots. */
+    private String [] strings;
+
+    /** The first row of every slot, or -1 for empty slots. */
+    private int [] heads;
+
+    /** The number of distinct keys. */
+    private int numberOfKeys;
+
+    /** The values of the rows. */
+    private Object [] values;
+
+    /** The next row of every row's key, or -1. */
+    private int [] next;
+
+    /** The number of rows. */
+    private int numberOfRows;
+
+    /**
+     * Constructs a new map with a default capacity.
+     *
+     * @param type the type of the keys.
+     */
+    public HashMultiMap(KeyType type) {
+        this(type, 64);
+    } // HashMultiMap()
+
+
+    /**
+     * Constructs a new map.
+     *
+     * @param type the type of the keys.
+     * @param capacity the expected number of rows.
+     */
+    public HashMultiMap(KeyType type, int capacity) {
+        this.type = type;
+        int slots = Integer.highestOneBit(Math.max(16, 2 * capacity) - 1) << 1;
+        allocateSlots(slots);
+        values = new Object[Math.max(16, capacity)];
+        next = new int[values.length];
+    } // HashMultiMap()
+
+
+    /**
+     * Returns the key type for a class of values.
+     *
+     * @param c the class of the values.
+     * @return the key type.
+     * @throws IllegalArgumentException if values of the class cannot
+     * be keys.
+     */
+    public static KeyType keyType(Class<?> c) {
+        if (c.equals(Long.class)) return KeyType.LONG;
+        else if (c.equals(Integer.class) || c.equals(Short.class)
+                 || c.equals(Byte.class) || c.equals(Character.class))
+            return KeyType.INT;
+        else if (c.equals(Double.class) || c.equals(Float.class))
+            return KeyType.DOUBLE;
+        else if (c.equals(String.class)) return KeyType.STRING;
+        else throw new IllegalArgumentException("Unsupported key type: "
+                                                + c.getName() + ".");
+    } // keyType()
+
+
+    /**
+     * Returns the type of the keys of this map.
+     *
+     * @return the key type.
+     */
+    public KeyType getKeyType() {
+        return type;
+    } // getKeyType()
+
+
+    /**
+     * Adds a value under a long or int key.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    public void put(long key, V value) {
+        checkNumeric();
+        putNumeric(key, value);
+    } // put()
+
+
+    /**
+     * Adds a value under a double key.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    public void put(double key, V value) {
+        checkType(KeyType.DOUBLE);
+        putNumeric(Double.doubleToLongBits(key), value);
+    } // put()
+
+
+    /**
+     * Adds a value under a string key.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    public void put(String key, V value) {
+        checkType(KeyType.STRING);
+        int slot = findSlot(key);
+        if (heads[slot] < 0) {
+            strings[slot] = key;
+            slot = newKey(slot);
+        }
+        heads[slot] = addRow(value, heads[slot]);
+    } // put()
+
+
+    /**
+     * Adds a value under a boxed key of the map's type.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    public void put(Comparable key, V value) {
+        switch (type) {
+        case LONG:
+        case INT:
+            put(numericKey(key), value);
+            break;
+        case DOUBLE:
+            put(((Number) key).doubleValue(), value);
+            break;
+        case STRING:
+            put((String) key, value);
+            break;
+        }
+    } // put()
+
+
+    /**
+     * Looks up a long or int key.
+     *
+     * @param key the key.
+     * @return the first row of the key, or -1 if it is not in the
+     * map.
+     */
+    public int find(long key) {
+        checkNumeric();
+        return heads[findSlot(key)];
+    } // find()
+
+
+    /**
+     * Looks up a double key.
+     *
+     * @param key the key.
+     * @return the first row of the key, or -1 if it is not in the
+     * map.
+     */
+    public int find(double key) {
+        checkType(KeyType.DOUBLE);
+        return heads[findSlot(Double.doubleToLongBits(key))];
+    } // find()
+
+
+    /**
+     * Looks up a string key.
+     *
+     * @param key the key.
+     * @return the first row of the key, or -1 if it is not in the
+     * map.
+     */
+    public int find(String key) {
+        checkType(KeyType.STRING);
+        return heads[findSlot(key)];
+    } // find()
+
+
+    /**
+     * Looks up a boxed key of the map's type.
+     *
+     * @param key the key.
+     * @return the first row of the key, or -1 if it is not in the
+     * map.
+     */
+    public int find(Comparable key) {
+        switch (type) {
+        case LONG:
+        case INT:
+            return find(numericKey(key));
+        case DOUBLE:
+            return find(((Number) key).doubleValue());
+        default:
+            return find((String) key);
+        }
+    } // find()
+
+
+    /**
+     * Returns the next row of the same key.
+     *
+     * @param row a row.
+     * @return the next row of the row's key, or -1 if there is none.
+     */
+    public int next(int row) {
+        return next[row];
+    } // next()
+
+
+    /**
+     * Returns the value of a row.
+     *
+     * @param row the row.
+     * @return the value of the row.
+     */
+    @SuppressWarnings("unchecked")
+    public V value(int row) {
+        return (V) values[row];
+    } // value()
+
+
+    /**
+     * Returns the number of slots of the table, for iteration over
+     * keys through head().
+     *
+     * @return the number of slots.
+     */
+    public int slots() {
+        return heads.length;
+    } // slots()
+
+
+    /**
+     * Returns the first row of the key in a slot.
+     *
+     * @param slot the slot.
+     * @return the first row of the slot's key, or -1 if the slot is
+     * empty.
+     */
+    public int head(int slot) {
+        return heads[slot];
+    } // head()
+
+
+    /**
+     * Returns the number of rows of the map.
+     *
+     * @return the number of rows.
+     */
+    public int size() {
+        return numberOfRows;
+    } // size()
+
+
+    /**
+     * Returns the number of distinct keys of the map.
+     *
+     * @return the number of keys.
+     */
+    public int numberOfKeys() {
+        return numberOfKeys;
+    } // numberOfKeys()
+
+
+    /**
+     * Empties the map, keeping its arrays.
+     */
+    public void clear() {
+        Arrays.fill(heads, -1);
+        if (strings != null) Arrays.fill(strings, null);
+        Arrays.fill(values, 0, numberOfRows, null);
+        numberOfKeys = 0;
+        numberOfRows = 0;
+    } // clear()
+
+
+    /**
+     * Adds a value under a numeric key, given as bits.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    private void putNumeric(long key, V value) {
+        int slot = findSlot(key);
+        if (heads[slot] < 0) {
+            keys[slot] = key;
+            slot = newKey(slot);
+        }
+        heads[slot] = addRow(value, heads[slot]);
+    } // putNumeric()
+
+
+    /**
+     * Finds the slot of a numeric key: the slot holding it, or the
+     * empty slot where it would go.
+     *
+     * @param key the key.
+     * @return the slot.
+     */
+    private int findSlot(long key) {
+        int mask = heads.length - 1;
+        int slot = mix(key) & mask;
+        while (heads[slot] >= 0 && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    } // findSlot()
+
+
+    /**
+     * Finds the slot of a string key: the slot holding it, or the
+     * empty slot where it would go.
+     *
+     * @param key the key.
+     * @return the slot.
+     */
+    private int findSlot(String key) {
+        int mask = heads.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        while (heads[slot] >= 0 && ! strings[slot].equals(key))
+            slot = (slot + 1) & mask;
+        return slot;
+    } // findSlot()
+
+
+    /**
+     * Accounts for a key just placed in an empty slot, growing the
+     * table if it is half full.
+     *
+     * @param slot the slot of the key.
+     * @return the slot of the key after any growth.
+     */
+    private int newKey(int slot) {
+        heads[slot] = -1;
+        if (++numberOfKeys * 2 <= heads.length) return slot;
+
+        long [] oldKeys = keys;
+        String [] oldStrings = strings;
+        int [] oldHeads = heads;
+        long key = (keys != null ? keys[slot] : 0);
+        String string = (strings != null ? strings[slot] : null);
+        allocateSlots(2 * oldHeads.length);
+        for (int i = 0; i < oldHeads.length; i++) {
+            if (oldHeads[i] < 0) continue;
+            int s = (oldStrings != null
+                     ? findSlot(oldStrings[i]) : findSlot(oldKeys[i]));
+            if (oldStrings != null) strings[s] = oldStrings[i];
+            else keys[s] = oldKeys[i];
+            heads[s] = oldHeads[i];
+        }
+        // place the new key, which has no rows yet
+        int s = (string != null ? findSlot(string) : findSlot(key));
+        if (string != null) strings[s] = string;
+        else keys[s] = key;
+        return s;
+    } // newKey()
+
+
+    /**
+     * Allocates the slot arrays.
+     *
+     * @param slots the number of slots, a power of two.
+     */
+    private void allocateSlots(int slots) {
+        heads = new int[slots];
+        Arrays.fill(heads, -1);
+        if (type == KeyType.STRING) strings = new String[slots];
+        else keys = new long[slots];
+    } // allocateSlots()
+
+
+    /**
+     * Adds a row in front of a key's chain.
+     *
+     * @param value the value of the row.
+     * @param head the current first row of the key.
+     * @return the new row.
+     */
+    private int addRow(V value, int head) {
+        if (numberOfRows == values.length) {
+            values = Arrays.copyOf(values, 2 * values.length);
+            next = Arrays.copyOf(next, values.length);
+        }
+        values[numberOfRows] = value;
+        next[numberOfRows] = head;
+        return numberOfRows++;
+    } // addRow()
+
+
+    /**
+     * Converts a boxed integral key to a long.
+     *
+     * @param key the key.
+     * @return the key as a long.
+     */
+    private static long numericKey(Comparable key) {
+        if (key instanceof Character) return ((Character) key).charValue();
+        return ((Number) key).longValue();
+    } // numericKey()
+
+
+    /**
+     * Scrambles a hash code, so that consecutive keys spread over the
+     * table.
+     *
+     * @param h the hash code.
+     * @return the scrambled hash code.
+     */
+    private static int mix(long h) {
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    } // mix()
+
+
+    /**
+     * Checks that the map holds long or int keys.
+     */
+    private void checkNumeric() {
+        if (type != KeyType.LONG && type != KeyType.INT)
+            throw new IllegalStateException("The map holds " + type
+                                            + " keys.");
+    } // checkNumeric()
+
+
+    /**
+     * Checks that the map holds keys of a type.
+     *
+     * @param t the type.
+     */
+    private void checkType(KeyType t) {
+        if (type != t)
+            throw new IllegalStateException("The map holds " + type
+                                            + " keys.");
+    } // checkType()
+
+} // HashMultiMap